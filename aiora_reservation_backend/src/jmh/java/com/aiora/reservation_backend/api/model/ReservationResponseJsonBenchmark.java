@@ -0,0 +1,76 @@
+package com.aiora.reservation_backend.api.model;
+
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of large reservation lists, as the list and date range endpoints return them.
+ *
+ * {@code objectMapper} is what a controller returning the list costs: the writer is looked up for
+ * the runtime type on every call. {@code typedWriter} reuses a writer resolved once for the list type.
+ * The mapper is configured the way Spring Boot configures the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationResponseJsonBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter typedWriter;
+    private List<ReservationResponse> reservations;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .timeZone(TimeZone.getTimeZone("UTC"))
+                .build();
+        typedWriter = objectMapper.writerFor(new TypeReference<List<ReservationResponse>>() { });
+        reservations = new ArrayList<>(size);
+        LocalDateTime start = LocalDateTime.of(2025, 6, 1, 12, 0);
+        ReservationStatus[] statuses = ReservationStatus.values();
+        for (int i = 0; i < size; i++) {
+            boolean hotelGuest = i % 3 == 0;
+            reservations.add(new ReservationResponse((long) i + 1, start.plusMinutes(15L * (i % 48)),
+                    "Guest " + i, hotelGuest ? String.valueOf(100 + i % 400) : null, hotelGuest, false,
+                    statuses[i % statuses.length], 1 + i % 8, 1L + i % 5, "Restaurant " + i % 5,
+                    1L + i % 50, "user_" + i % 50));
+        }
+    }
+
+    @Benchmark
+    public byte[] objectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reservations);
+    }
+
+    @Benchmark
+    public byte[] typedWriter() throws JsonProcessingException {
+        return typedWriter.writeValueAsBytes(reservations);
+    }
+}
@@ -0,0 +1,168 @@
+package com.aiora.reservation_backend.dao;
+
+import com.aiora.reservation_backend.AioraReservationBackendApplication;
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.model.Reservation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation lists read as {@link ReservationQueryDao} projections against the same rows loaded as
+ * managed {@link Reservation} entities and mapped to the response field by field, the way the list
+ * endpoints read them before the projections. Runs over the embedded H2 database the tests run on,
+ * filled with {@value #RESERVATIONS} reservations over {@value #DAYS} days in {@value #RESTAURANTS}
+ * restaurants.
+ *
+ * The page benchmarks read one {@value #PAGE_SIZE}-row page of a restaurant's feed, the day benchmarks
+ * every reservation of one day across the hotel. Both sides run in the read-only transaction the query
+ * service uses. Absolute numbers are H2's; compare runs, not databases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private static final int RESERVATIONS = 20_000;
+    private static final int DAYS = 30;
+    private static final int RESTAURANTS = 5;
+    private static final int PAGE_SIZE = 50;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    private ConfigurableApplicationContext context;
+    private ReservationQueryDao reservationQueryDao;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private Long restaurantId;
+    private LocalDateTime dayStart;
+    private LocalDateTime dayEnd;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AioraReservationBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:aiora_mapping_benchmark;MODE=PostgreSQL;"
+                                + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        reservationQueryDao = context.getBean(ReservationQueryDao.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        restaurantId = seed(context.getBean(JdbcTemplate.class)).get(0);
+        dayStart = FIRST_DAY.plusDays(DAYS / 2);
+        dayEnd = dayStart.plusDays(1).minusNanos(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ReservationResponse> projectionPage() {
+        return readOnlyTransaction.execute(status ->
+                reservationQueryDao.findRecentByRestaurantId(restaurantId, 1, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<ReservationResponse> entityPage() {
+        return readOnlyTransaction.execute(status -> toResponses(entityManager.createQuery(
+                        "SELECT r FROM Reservation r JOIN FETCH r.restaurant JOIN FETCH r.user "
+                                + "WHERE r.restaurant.restaurantId = :restaurantId "
+                                + "ORDER BY r.reservationDate DESC, r.reservationId DESC", Reservation.class)
+                .setParameter("restaurantId", restaurantId)
+                .setFirstResult(PAGE_SIZE)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<ReservationResponse> projectionDay() {
+        return readOnlyTransaction.execute(status -> reservationQueryDao.findByDateRange(dayStart, dayEnd));
+    }
+
+    @Benchmark
+    public List<ReservationResponse> entityDay() {
+        return readOnlyTransaction.execute(status -> toResponses(entityManager.createQuery(
+                        "SELECT r FROM Reservation r JOIN FETCH r.restaurant JOIN FETCH r.user "
+                                + "WHERE r.reservationDate BETWEEN :startDate AND :endDate", Reservation.class)
+                .setParameter("startDate", dayStart)
+                .setParameter("endDate", dayEnd)
+                .getResultList()));
+    }
+
+    private static List<ReservationResponse> toResponses(List<Reservation> reservations) {
+        List<ReservationResponse> responses = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            responses.add(new ReservationResponse(reservation.getReservationId(), reservation.getReservationDate(),
+                    reservation.getGuestName(), reservation.getRoomNumber(), reservation.getIsHotelGuest(),
+                    reservation.getMealDeducted(), reservation.getReservationStatus(), reservation.getGuestCount(),
+                    reservation.getRestaurant().getRestaurantId(), reservation.getRestaurant().getName(),
+                    reservation.getUser().getUserId(), reservation.getUser().getUsername()));
+        }
+        return responses;
+    }
+
+    private static List<Long> seed(JdbcTemplate jdbcTemplate) {
+        Number userId = new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("users")
+                .usingGeneratedKeyColumns("user_id")
+                .executeAndReturnKey(Map.of("first_name", "Bench", "last_name", "Mark", "password", "x",
+                        "username", "benchmark_user"));
+        List<Long> restaurantIds = new ArrayList<>();
+        for (int i = 0; i < RESTAURANTS; i++) {
+            restaurantIds.add(new SimpleJdbcInsert(jdbcTemplate)
+                    .withTableName("restaurants")
+                    .usingGeneratedKeyColumns("restaurant_id")
+                    .executeAndReturnKey(Map.of("accepts_outside_guests", true, "default_capacity", 40,
+                            "location", "Lobby", "max_capacity", 60, "name", "Restaurant " + i,
+                            "restaurant_type", "CASUAL", "room_only", false))
+                    .longValue());
+        }
+        List<Object[]> rows = new ArrayList<>(RESERVATIONS);
+        String[] statuses = {"PENDING", "CONFIRMED", "CONFIRMED", "CANCELLED", "COMPLETED"};
+        for (int i = 0; i < RESERVATIONS; i++) {
+            boolean hotelGuest = i % 3 == 0;
+            LocalDateTime time = FIRST_DAY.plusDays(i % DAYS).withHour(12).plusMinutes(15L * (i % 40));
+            rows.add(new Object[]{1 + i % 8, "Guest " + i, hotelGuest, hotelGuest && i % 7 == 0,
+                    Timestamp.valueOf(time), statuses[i % statuses.length],
+                    hotelGuest ? String.valueOf(100 + i % 400) : null,
+                    restaurantIds.get(i % RESTAURANTS), userId.longValue()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (guest_count, guest_name, is_hotel_guest, meal_deducted, "
+                + "reservation_date, reservation_status, room_number, restaurant_id, user_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return restaurantIds;
+    }
+}
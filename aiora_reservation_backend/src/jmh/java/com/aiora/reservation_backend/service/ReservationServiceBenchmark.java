@@ -0,0 +1,153 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.AioraReservationBackendApplication;
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.model.Reservation;
+import com.aiora.reservation_backend.model.Restaurant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.test.util.AopTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation write checks and search over the embedded H2 database the tests run on, filled with
+ * {@value #RESERVATIONS} reservations over {@value #DAYS} days in {@value #RESTAURANTS} restaurants.
+ *
+ * {@code capacityCheck} is the early capacity rejection of a reservation write, answered from the
+ * occupancy slots once their days are loaded. The meal checks ask whether a room already had its
+ * meal deducted, for a room that has and one that has not. The searches take the exact room number
+ * path and the substring scan over guest and restaurant names. Absolute numbers are H2's; compare
+ * runs, not databases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationServiceBenchmark {
+
+    private static final int RESERVATIONS = 20_000;
+    private static final int DAYS = 30;
+    private static final int RESTAURANTS = 5;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private ReservationQueryService reservationQueryService;
+    private MethodHandle checkCapacity;
+    private Reservation candidate;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        context = new SpringApplicationBuilder(AioraReservationBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:aiora_benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        reservationService = context.getBean(ReservationService.class);
+        reservationQueryService = context.getBean(ReservationQueryService.class);
+        List<Long> restaurantIds = seed(context.getBean(JdbcTemplate.class));
+
+        // The check is private; it is called on the service itself, behind its transactional proxy
+        checkCapacity = MethodHandles.privateLookupIn(ReservationService.class, MethodHandles.lookup())
+                .findVirtual(ReservationService.class, "checkCapacity",
+                        MethodType.methodType(void.class, Reservation.class, OccupancyIndex.Booking.class))
+                .bindTo(AopTestUtils.getUltimateTargetObject(reservationService));
+        Restaurant restaurant = new Restaurant();
+        restaurant.setRestaurantId(restaurantIds.get(0));
+        candidate = new Reservation();
+        candidate.setRestaurant(restaurant);
+        candidate.setReservationDate(FIRST_DAY.plusDays(DAYS / 2).withHour(19));
+        candidate.setGuestCount(2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void capacityCheck() throws Throwable {
+        // A new reservation, so there are no seats held before
+        checkCapacity.invoke(candidate, null);
+    }
+
+    @Benchmark
+    public boolean mealCheckDeductedRoom() {
+        return reservationService.hasMealBeenDeducted("105");
+    }
+
+    @Benchmark
+    public boolean mealCheckFreeRoom() {
+        return reservationService.hasMealBeenDeducted("999");
+    }
+
+    @Benchmark
+    public List<ReservationResponse> searchByRoomNumber() {
+        return reservationQueryService.searchReservations("214", 20);
+    }
+
+    @Benchmark
+    public List<ReservationResponse> searchByName() {
+        return reservationQueryService.searchReservations("guest 123", 20);
+    }
+
+    private static List<Long> seed(JdbcTemplate jdbcTemplate) {
+        Number userId = new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("users")
+                .usingGeneratedKeyColumns("user_id")
+                .executeAndReturnKey(Map.of("first_name", "Bench", "last_name", "Mark", "password", "x",
+                        "username", "benchmark_user"));
+        List<Long> restaurantIds = new ArrayList<>();
+        for (int i = 0; i < RESTAURANTS; i++) {
+            restaurantIds.add(new SimpleJdbcInsert(jdbcTemplate)
+                    .withTableName("restaurants")
+                    .usingGeneratedKeyColumns("restaurant_id")
+                    // Roomy enough that the checked reservation always fits
+                    .executeAndReturnKey(Map.of("accepts_outside_guests", true, "default_capacity", 4000,
+                            "location", "Lobby", "max_capacity", 6000, "name", "Restaurant " + i,
+                            "restaurant_type", "CASUAL", "room_only", false))
+                    .longValue());
+        }
+        List<Object[]> rows = new ArrayList<>(RESERVATIONS);
+        String[] statuses = {"PENDING", "CONFIRMED", "CONFIRMED", "CANCELLED", "COMPLETED"};
+        for (int i = 0; i < RESERVATIONS; i++) {
+            boolean hotelGuest = i % 3 == 0;
+            LocalDateTime time = FIRST_DAY.plusDays(i % DAYS).withHour(12).plusMinutes(15L * (i % 40));
+            rows.add(new Object[]{1 + i % 8, "Guest " + i, hotelGuest, hotelGuest && i % 7 == 0,
+                    Timestamp.valueOf(time), statuses[i % statuses.length],
+                    hotelGuest ? String.valueOf(100 + i % 400) : null,
+                    restaurantIds.get(i % RESTAURANTS), userId.longValue()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (guest_count, guest_name, is_hotel_guest, meal_deducted, "
+                + "reservation_date, reservation_status, room_number, restaurant_id, user_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return restaurantIds;
+    }
+}
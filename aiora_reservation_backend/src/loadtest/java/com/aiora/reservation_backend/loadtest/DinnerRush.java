@@ -0,0 +1,381 @@
+package com.aiora.reservation_backend.loadtest;
+
+import com.aiora.reservation_backend.AioraReservationBackendApplication;
+import com.aiora.reservation_backend.api.auth.PasswordHasher;
+import com.aiora.reservation_backend.service.ReservationImportService;
+import com.aiora.reservation_backend.service.RestaurantCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Saturday-night peak against the backend running in this process.
+ *
+ * Boots the application on a random port against the configured database (the in-memory H2 of
+ * the tests unless {@code --spring.datasource.*} says otherwise), seeds it with {@link DinnerRushSeeder}
+ * and lets {@code loadtest.users} guests loose on it over HTTP for {@code loadtest.duration-seconds}.
+ * Each guest logs in and then runs a scripted mix with think time in between: dashboard loads
+ * (restaurant list, today's stats and recent reservations, revalidated by ETag like a browser does),
+ * searches, and bookings and changes of them for dinner in the few hot restaurants. Every
+ * {@code loadtest.burst-every-seconds} all guests book at once with hardly any think time.
+ *
+ * At the end, throughput, latency percentiles, rejections and errors are printed per endpoint and
+ * written as JSON to {@code loadtest.report}, together with the overbooking check: the guests booked
+ * into each hot restaurant's rush window against its capacity, and tables held by two active
+ * reservations at once. The process exits with 1 if any violation was found.
+ *
+ * Run with: mvn -Ploadtest test-compile exec:exec [-Dloadtest.args="--loadtest.users=300 ..."]
+ */
+public final class DinnerRush {
+
+    private static final String ACTIVE = "('PENDING', 'CONFIRMED')";
+    // Dinner bookings all fall between 19:00 and 20:45, so each one's capacity window covers all the others
+    private static final int RUSH_HOUR = 19;
+    private static final int RUSH_SLOTS = 8;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final DinnerRushSeeder seeder;
+    private final DinnerRushSeeder.Fixture fixture;
+    private final String baseUrl;
+    private final Options options;
+    private long startedNanos;
+    private long deadlineNanos;
+
+    record Options(int users, int restaurants, int hotRestaurants, int hotCapacity, int historyDays,
+                   int historyPerDay, int durationSeconds, int rampUpSeconds, int thinkTimeMillis,
+                   int burstEverySeconds, int burstSeconds, String report) {
+
+        static Options from(Environment environment) {
+            return new Options(
+                    environment.getProperty("loadtest.users", Integer.class, 100),
+                    environment.getProperty("loadtest.restaurants", Integer.class, 12),
+                    environment.getProperty("loadtest.hot-restaurants", Integer.class, 3),
+                    environment.getProperty("loadtest.hot-capacity", Integer.class, 48),
+                    environment.getProperty("loadtest.history-days", Integer.class, 90),
+                    environment.getProperty("loadtest.history-per-day", Integer.class, 150),
+                    environment.getProperty("loadtest.duration-seconds", Integer.class, 60),
+                    environment.getProperty("loadtest.ramp-up-seconds", Integer.class, 5),
+                    environment.getProperty("loadtest.think-time-ms", Integer.class, 250),
+                    environment.getProperty("loadtest.burst-every-seconds", Integer.class, 15),
+                    environment.getProperty("loadtest.burst-seconds", Integer.class, 3),
+                    environment.getProperty("loadtest.report", "target/loadtest-report.json"));
+        }
+    }
+
+    private DinnerRush(ConfigurableApplicationContext context) {
+        this.options = Options.from(context.getEnvironment());
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1";
+        this.seeder = new DinnerRushSeeder(context.getBean(JdbcTemplate.class), context.getBean(PasswordHasher.class),
+                context.getBean(ReservationImportService.class), context.getBean(RestaurantCatalog.class));
+        this.fixture = seeder.seed(options.users(), options.restaurants(), options.hotRestaurants(),
+                options.hotCapacity(), options.historyDays(), options.historyPerDay(), LocalDate.now());
+    }
+
+    public static void main(String[] args) throws Exception {
+        // DevTools is on the classpath; a restarting application would be measured twice
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AioraReservationBackendApplication.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=ERROR")
+                .run(args);
+        int violations;
+        try {
+            DinnerRush rush = new DinnerRush(context);
+            rush.run();
+            violations = rush.report(context.getBean(JdbcTemplate.class));
+        } finally {
+            context.close();
+        }
+        System.exit(violations > 0 ? 1 : 0);
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf("Seeded %d guests and %d restaurants, rushing %d of them for %ds%n", options.users(),
+                options.restaurants(), options.hotRestaurants(), options.durationSeconds());
+        startedNanos = System.nanoTime();
+        deadlineNanos = startedNanos + Duration.ofSeconds(options.durationSeconds()).toNanos();
+        try (ExecutorService guests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.users(); i++) {
+                int guest = i;
+                guests.submit(() -> {
+                    Thread.sleep((long) options.rampUpSeconds() * 1000 * guest / options.users());
+                    new Guest(guest).run();
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * One signed-in guest working through the scripted mix until the run ends
+     */
+    private final class Guest {
+        private final int index;
+        private final Map<String, String> etags = new HashMap<>();
+        private final List<long[]> bookings = new ArrayList<>();
+        private String token;
+
+        Guest(int index) {
+            this.index = index;
+        }
+
+        void run() throws InterruptedException {
+            login();
+            while (System.nanoTime() < deadlineNanos) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                boolean burst = inBurst();
+                int roll = random.nextInt(100);
+                if (burst ? roll < 60 : roll < 10) {
+                    book();
+                } else if (burst ? roll < 90 : roll < 20) {
+                    change();
+                } else if (roll < 25) {
+                    login();
+                } else if (roll < 45) {
+                    search();
+                } else {
+                    dashboard();
+                }
+                int think = burst ? options.thinkTimeMillis() / 10 : options.thinkTimeMillis();
+                Thread.sleep(think / 2 + random.nextInt(think + 1));
+            }
+        }
+
+        void login() throws InterruptedException {
+            String body = "{\"username\":\"" + fixture.usernames().get(index) + "\",\"password\":\""
+                    + DinnerRushSeeder.PASSWORD + "\"}";
+            HttpResponse<String> response = send("POST /auth/login", json("/auth/login").POST(body(body)), null);
+            if (response != null && response.statusCode() == 200) {
+                token = read(response).path("token").asText();
+            }
+        }
+
+        void dashboard() throws InterruptedException {
+            Long restaurantId = anyRestaurant();
+            get("GET /restaurants", "/restaurants");
+            get("GET /restaurants/{id}/reservations/stats/today", "/restaurants/" + restaurantId + "/reservations/stats/today");
+            get("GET /restaurants/{id}/reservations/recent", "/restaurants/" + restaurantId + "/reservations/recent?size=20");
+        }
+
+        void search() throws InterruptedException {
+            String query = ThreadLocalRandom.current().nextBoolean()
+                    ? seeder.guestName().split(" ")[1]
+                    : String.valueOf(100 * (1 + ThreadLocalRandom.current().nextInt(6)));
+            get("GET /reservations/search", "/reservations/search?query=" + URLEncoder.encode(query, StandardCharsets.UTF_8));
+        }
+
+        void book() throws InterruptedException {
+            Long restaurantId = hotRestaurant();
+            HttpResponse<String> response = send("POST /restaurants/{id}/reservations",
+                    json("/restaurants/" + restaurantId + "/reservations").POST(body(reservation(rushTime(), partySize(),
+                            "CONFIRMED"))), DinnerRush::isFull);
+            if (response != null && response.statusCode() == 201) {
+                bookings.add(new long[]{restaurantId, read(response).path("reservationId").asLong()});
+            }
+        }
+
+        /**
+         * Move one of the guest's own bookings within the rush, change its party, or cancel it
+         */
+        void change() throws InterruptedException {
+            if (bookings.isEmpty()) {
+                book();
+                return;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long[] booking = bookings.get(random.nextInt(bookings.size()));
+            boolean cancel = random.nextInt(10) == 0;
+            HttpResponse<String> response = send("PUT /restaurants/{id}/reservations/{id}",
+                    json("/restaurants/" + booking[0] + "/reservations/" + booking[1])
+                            .PUT(body(reservation(rushTime(), partySize(), cancel ? "CANCELLED" : "CONFIRMED"))),
+                    DinnerRush::isFull);
+            if (cancel && response != null && response.statusCode() == 200) {
+                bookings.remove(booking);
+            }
+        }
+
+        private void get(String endpoint, String path) throws InterruptedException {
+            HttpRequest.Builder request = authorized(path).GET();
+            String etag = etags.get(path);
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+            HttpResponse<String> response = send(endpoint, request, null);
+            if (response != null) {
+                response.headers().firstValue("ETag").ifPresent(value -> etags.put(path, value));
+            }
+        }
+
+        private String reservation(LocalDateTime time, int guests, String status) {
+            return "{\"reservationDate\":\"" + time + "\",\"guestName\":\"" + seeder.guestName()
+                    + "\",\"isHotelGuest\":false,\"guestCount\":" + guests + ",\"userId\":"
+                    + fixture.userIds().get(index) + ",\"reservationStatus\":\"" + status + "\"}";
+        }
+
+        private HttpRequest.Builder json(String path) {
+            return authorized(path).header("Content-Type", "application/json");
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30));
+            return token != null ? request.header("Authorization", "Bearer " + token) : request;
+        }
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request,
+                                      Predicate<HttpResponse<String>> expectedRejection) throws InterruptedException {
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, EndpointStats::new);
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            stats.record(System.nanoTime() - started, response.statusCode(),
+                    expectedRejection != null && expectedRejection.test(response));
+            return response;
+        } catch (IOException e) {
+            stats.record(System.nanoTime() - started, 0, false);
+            return null;
+        }
+    }
+
+    /**
+     * The restaurant or its tables are full, which a rush is expected to run into
+     */
+    private static boolean isFull(HttpResponse<String> response) {
+        return response.statusCode() == 400 && (response.body().contains("capacity exceeded")
+                || response.body().contains("No table is free"));
+    }
+
+    private boolean inBurst() {
+        long elapsedSeconds = Duration.ofNanos(System.nanoTime() - startedNanos).toSeconds();
+        return elapsedSeconds % options.burstEverySeconds() < options.burstSeconds();
+    }
+
+    private LocalDateTime rushTime() {
+        return fixture.rushDay().atTime(RUSH_HOUR, 0)
+                .plusMinutes(15L * ThreadLocalRandom.current().nextInt(RUSH_SLOTS));
+    }
+
+    private static int partySize() {
+        // Mostly couples and foursomes, now and then a big table that needs tables pushed together
+        int[] sizes = {2, 2, 2, 2, 3, 4, 4, 4, 5, 6, 8};
+        return sizes[ThreadLocalRandom.current().nextInt(sizes.length)];
+    }
+
+    private Long hotRestaurant() {
+        List<Long> hot = fixture.hotRestaurantIds();
+        return hot.get(ThreadLocalRandom.current().nextInt(hot.size()));
+    }
+
+    /**
+     * Dashboards look at the hot restaurants half of the time
+     */
+    private Long anyRestaurant() {
+        List<Long> all = fixture.restaurantIds();
+        return ThreadLocalRandom.current().nextBoolean() ? hotRestaurant()
+                : all.get(ThreadLocalRandom.current().nextInt(all.size()));
+    }
+
+    private JsonNode read(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable response: " + response.body(), e);
+        }
+    }
+
+    private static HttpRequest.BodyPublisher body(String json) {
+        return HttpRequest.BodyPublishers.ofString(json);
+    }
+
+    /**
+     * Print the per-endpoint results and the overbooking check, and write both to the report file
+     * @return Violations found
+     */
+    private int report(JdbcTemplate jdbcTemplate) throws IOException {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        List<EndpointStats.Summary> summaries = endpoints.values().stream()
+                .map(stats -> stats.summarize(seconds))
+                .sorted((a, b) -> a.endpoint().compareTo(b.endpoint()))
+                .toList();
+
+        System.out.printf("%n%-48s %8s %8s %8s %8s %7s %9s %9s %9s %9s%n", "Endpoint", "Requests", "Req/s",
+                "Rejected", "Errors", "Err %", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (EndpointStats.Summary summary : summaries) {
+            System.out.printf("%-48s %8d %8.1f %8d %8d %6.2f%% %9.1f %9.1f %9.1f %9.1f%n", summary.endpoint(),
+                    summary.requests(), summary.throughput(), summary.rejected(), summary.errors(),
+                    100 * summary.errorRate(), summary.p50(), summary.p90(), summary.p99(), summary.max());
+        }
+
+        LocalDateTime rushStart = fixture.rushDay().atTime(RUSH_HOUR, 0);
+        LocalDateTime rushEnd = rushStart.plusMinutes(15L * (RUSH_SLOTS - 1));
+        Map<Long, Integer> booked = new LinkedHashMap<>();
+        int violations = 0;
+        System.out.printf("%nRush window %s to %s, capacity %d per restaurant%n", rushStart, rushEnd,
+                fixture.hotCapacity());
+        for (Long restaurantId : fixture.hotRestaurantIds()) {
+            Integer guests = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(guest_count), 0) FROM reservations "
+                    + "WHERE restaurant_id = ? AND reservation_status IN " + ACTIVE
+                    + " AND reservation_date BETWEEN ? AND ?", Integer.class, restaurantId, rushStart, rushEnd);
+            booked.put(restaurantId, guests);
+            boolean overbooked = guests > fixture.hotCapacity();
+            violations += overbooked ? 1 : 0;
+            System.out.printf("Restaurant %d: %d guests booked%s%n", restaurantId, guests,
+                    overbooked ? " - OVERBOOKED" : "");
+        }
+        // A table is held for two hours from a reservation's slot
+        Integer doubleSeated = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservation_tables a "
+                + "JOIN reservation_tables b ON b.table_id = a.table_id AND b.reservation_id > a.reservation_id "
+                + "JOIN reservations ra ON ra.reservation_id = a.reservation_id "
+                + "JOIN reservations rb ON rb.reservation_id = b.reservation_id "
+                + "WHERE ra.reservation_status IN " + ACTIVE + " AND rb.reservation_status IN " + ACTIVE
+                + " AND rb.reservation_date > ra.reservation_date - INTERVAL '2' HOUR"
+                + " AND rb.reservation_date < ra.reservation_date + INTERVAL '2' HOUR", Integer.class);
+        violations += doubleSeated;
+        System.out.printf("Tables held by two reservations at once: %d%n", doubleSeated);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options);
+        report.put("durationSeconds", seconds);
+        report.put("endpoints", summaries);
+        report.put("overbooking", Map.of("hotCapacity", fixture.hotCapacity(), "guestsBooked", booked,
+                "doubleSeatedTables", doubleSeated, "violations", violations));
+        File file = new File(options.report());
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+        System.out.printf("%nReport written to %s%n", file.getAbsolutePath());
+        return violations;
+    }
+}
@@ -0,0 +1,198 @@
+package com.aiora.reservation_backend.loadtest;
+
+import com.aiora.reservation_backend.api.auth.PasswordHasher;
+import com.aiora.reservation_backend.api.model.BulkImportResponse;
+import com.aiora.reservation_backend.api.model.ReservationRequest;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import com.aiora.reservation_backend.service.ReservationImportService;
+import com.aiora.reservation_backend.service.RestaurantCatalog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fills the database with a hotel's worth of data before the rush: guests with accounts, restaurants
+ * with their tables, months of finished reservations and the book of the coming week.
+ *
+ * Finished reservations hold no seats, so they are inserted directly. Upcoming ones go through the
+ * bulk import, which takes their seats in the seat ledger and seats them at tables like any booking.
+ * The hot restaurants get no bookings in the evening of the rush day, so every seat counted there
+ * at the end was booked by the run.
+ */
+final class DinnerRushSeeder {
+
+    static final String PASSWORD = "dinner-rush";
+
+    private static final String[] FIRST_NAMES = {"Anna", "Ben", "Chiara", "David", "Elena", "Felix", "Greta",
+            "Hugo", "Ines", "Jonas", "Klara", "Luca", "Marta", "Niko", "Olga", "Paul", "Rosa", "Sven", "Tara", "Yusuf"};
+    private static final String[] LAST_NAMES = {"Berger", "Costa", "Dervishi", "Eriksen", "Fischer", "Gashi",
+            "Hoxha", "Ivanova", "Keller", "Lang", "Meyer", "Novak", "Rossi", "Schmid", "Weber", "Zeka"};
+    private static final String[] TYPES = {"FINE_DINING", "CASUAL", "BUFFET", "SPECIALTY"};
+    private static final ReservationStatus[] FINISHED =
+            {ReservationStatus.COMPLETED, ReservationStatus.COMPLETED, ReservationStatus.CANCELLED, ReservationStatus.NO_SHOW};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordHasher passwordHasher;
+    private final ReservationImportService reservationImportService;
+    private final RestaurantCatalog restaurantCatalog;
+    private final Random random = new Random(42);
+
+    /**
+     * What the scenario needs to know about the seeded data
+     * @param hotRestaurantIds The restaurants the rush piles into, each with the given capacity
+     */
+    record Fixture(List<Long> userIds, List<String> usernames, List<Long> restaurantIds, List<Long> hotRestaurantIds,
+                   int hotCapacity, LocalDate rushDay) {
+    }
+
+    DinnerRushSeeder(JdbcTemplate jdbcTemplate, PasswordHasher passwordHasher,
+                     ReservationImportService reservationImportService, RestaurantCatalog restaurantCatalog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordHasher = passwordHasher;
+        this.reservationImportService = reservationImportService;
+        this.restaurantCatalog = restaurantCatalog;
+    }
+
+    Fixture seed(int users, int restaurants, int hotRestaurants, int hotCapacity, int historyDays,
+                 int historyPerDay, LocalDate rushDay) {
+        List<String> usernames = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        // One hash for every guest; hashing thousands of passwords would only slow the setup down
+        String hash = passwordHasher.encode(PASSWORD);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < users; i++) {
+            String username = "rush_" + run + "_" + i;
+            usernames.add(username);
+            userIds.add(insert("users", "user_id", Map.of("first_name", pick(FIRST_NAMES),
+                    "last_name", pick(LAST_NAMES), "password", hash, "username", username)));
+        }
+
+        List<Long> restaurantIds = new ArrayList<>();
+        for (int i = 0; i < restaurants; i++) {
+            boolean hot = i < hotRestaurants;
+            Long restaurantId = insert("restaurants", "restaurant_id", Map.of("accepts_outside_guests", true,
+                    "default_capacity", hot ? hotCapacity : 80, "location", "Floor " + (i % 4),
+                    "max_capacity", hot ? hotCapacity : 120, "name", (hot ? "Rush " : "Restaurant ") + run + " " + i,
+                    "restaurant_type", TYPES[i % TYPES.length], "room_only", false));
+            restaurantIds.add(restaurantId);
+            addTables(restaurantId, hot ? 1 : 2);
+        }
+        restaurantCatalog.refresh();
+
+        insertHistory(userIds, restaurantIds, rushDay, historyDays, historyPerDay);
+        for (Long restaurantId : restaurantIds) {
+            importUpcoming(restaurantId, userIds, rushDay, restaurantIds.indexOf(restaurantId) < hotRestaurants);
+        }
+        return new Fixture(userIds, usernames, restaurantIds, restaurantIds.subList(0, hotRestaurants),
+                hotCapacity, rushDay);
+    }
+
+    /**
+     * Two-tops along the window and four-tops in the room, each set pushable together, and two six-tops
+     * @param scale Copies of that floor plan
+     */
+    private void addTables(Long restaurantId, int scale) {
+        int label = 1;
+        for (int copy = 0; copy < scale; copy++) {
+            for (int i = 0; i < 4; i++) {
+                addTable(restaurantId, "W" + label++, 2, "window-" + copy);
+            }
+            for (int i = 0; i < 6; i++) {
+                addTable(restaurantId, "M" + label++, 4, "main-" + copy);
+            }
+            for (int i = 0; i < 2; i++) {
+                addTable(restaurantId, "L" + label++, 6, null);
+            }
+        }
+    }
+
+    private void addTable(Long restaurantId, String label, int seats, String combineGroup) {
+        Map<String, Object> values = new HashMap<>(Map.of("restaurant_id", restaurantId, "label", label,
+                "seats", seats));
+        values.put("combine_group", combineGroup);
+        insert("restaurant_tables", "table_id", values);
+    }
+
+    private void insertHistory(List<Long> userIds, List<Long> restaurantIds, LocalDate rushDay, int days, int perDay) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int day = 1; day <= days; day++) {
+            LocalDate date = rushDay.minusDays(day);
+            for (int i = 0; i < perDay; i++) {
+                boolean hotelGuest = random.nextInt(3) > 0;
+                rows.add(new Object[]{1 + random.nextInt(6), guestName(), hotelGuest, hotelGuest && random.nextBoolean(),
+                        Timestamp.valueOf(date.atTime(12 + random.nextInt(10), 15 * random.nextInt(4))),
+                        FINISHED[random.nextInt(FINISHED.length)].name(), hotelGuest ? roomNumber() : null,
+                        restaurantIds.get(random.nextInt(restaurantIds.size())),
+                        userIds.get(random.nextInt(userIds.size()))});
+            }
+            if (rows.size() >= 5_000 || day == days) {
+                jdbcTemplate.batchUpdate("INSERT INTO reservations (guest_count, guest_name, is_hotel_guest, "
+                        + "meal_deducted, reservation_date, reservation_status, room_number, restaurant_id, user_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    /**
+     * A lunch on the rush day and dinners on the six days after it, sparse enough to always fit;
+     * dinners on the rush day only for the restaurants that are not part of the rush
+     */
+    private void importUpcoming(Long restaurantId, List<Long> userIds, LocalDate rushDay, boolean hot) {
+        List<ReservationRequest> rows = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            LocalDate date = rushDay.plusDays(day);
+            for (int slot = 0; slot < 8; slot++) {
+                rows.add(upcoming(date.atTime(12, 0).plusMinutes(15L * slot), userIds));
+                if (day > 0 || !hot) {
+                    rows.add(upcoming(date.atTime(19, 0).plusMinutes(15L * slot), userIds));
+                }
+            }
+        }
+        BulkImportResponse response = reservationImportService.importReservations(restaurantId, rows);
+        if (!response.getErrors().isEmpty()) {
+            throw new IllegalStateException("Seeding restaurant " + restaurantId + " failed: " + response.getErrors());
+        }
+    }
+
+    private ReservationRequest upcoming(LocalDateTime time, List<Long> userIds) {
+        ReservationRequest request = new ReservationRequest();
+        request.setReservationDate(time);
+        request.setGuestName(guestName());
+        boolean hotelGuest = random.nextBoolean();
+        request.setIsHotelGuest(hotelGuest);
+        request.setRoomNumber(hotelGuest ? roomNumber() : null);
+        request.setGuestCount(2);
+        request.setUserId(userIds.get(random.nextInt(userIds.size())));
+        request.setReservationStatus(ReservationStatus.CONFIRMED);
+        return request;
+    }
+
+    String guestName() {
+        return pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+    }
+
+    private String roomNumber() {
+        return String.valueOf(100 * (1 + random.nextInt(6)) + random.nextInt(40));
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private Long insert(String table, String idColumn, Map<String, Object> values) {
+        return new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName(table)
+                .usingGeneratedKeyColumns(idColumn)
+                .executeAndReturnKey(values)
+                .longValue();
+    }
+}
@@ -2,8 +2,11 @@ package com.aiora.reservation_backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// The R2DBC pool is owned by ReactiveReservationDao; an auto-configured ConnectionFactory bean
+// would make Spring Boot back off the JDBC DataSource that JPA and Flyway run on
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class AioraReservationBackendApplication {
 
 	public static void main(String[] args) {
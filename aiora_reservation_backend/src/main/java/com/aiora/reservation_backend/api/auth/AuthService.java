@@ -6,8 +6,8 @@ import com.aiora.reservation_backend.api.model.RegistrationBody;
 import com.aiora.reservation_backend.dao.UserDao;
 import com.aiora.reservation_backend.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -15,39 +15,48 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
 
     private final UserDao userDao;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
 
     @Autowired
-    public AuthService(UserDao userDao, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthService(UserDao userDao, PasswordHasher passwordHasher, JwtUtil jwtUtil) {
         this.userDao = userDao;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
     }
 
+    // No transaction, so no connection is held while the password waits for the hashing pool
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginBody loginBody) {
         User user = userDao.findByUsername(loginBody.getUsername())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + loginBody.getUsername()));
                 
-        if (!passwordEncoder.matches(loginBody.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(loginBody.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid password");
         }
+        String rehashed = passwordHasher.rehashIfOutdated(loginBody.getPassword(), user.getPassword());
+        if (rehashed != null) {
+            userDao.replacePasswordHash(user.getUserId(), user.getPassword(), rehashed);
+        }
         
         String token = jwtUtil.generateToken(user.getUsername(), user.getUserId());
         return createAuthResponse(user, token);
     }
 
+    // Like login; the hash is ready before the user is saved in the DAO's own short transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegistrationBody registrationBody) {
         // Check if username already exists
         if (userDao.findByUsername(registrationBody.getUsername()).isPresent()) {
             throw new RuntimeException("Username already exists");
         }
+        String passwordHash = passwordHasher.encode(registrationBody.getPassword());
         
         User user = new User();
         user.setUsername(registrationBody.getUsername());
         user.setFirstName(registrationBody.getFirstName());
         user.setLastName(registrationBody.getLastName());
-        user.setPassword(passwordEncoder.encode(registrationBody.getPassword()));
+        user.setPassword(passwordHash);
         
         User savedUser = userDao.save(user);
         String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getUserId());
@@ -0,0 +1,20 @@
+package com.aiora.reservation_backend.api.auth;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal of a request authenticated from the claims of its JWT
+ */
+public record AuthenticatedUser(Long userId, String username) implements Principal {
+
+    public static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("USER"));
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -15,10 +15,44 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserDao userDao;
+    private final PrincipalCache principalCache;
 
     @Autowired
-    public CustomUserDetailsService(UserDao userDao) {
+    public CustomUserDetailsService(UserDao userDao, PrincipalCache principalCache) {
         this.userDao = userDao;
+        this.principalCache = principalCache;
+    }
+
+    /**
+     * Build the principal of a request from the claims of its verified token.
+     * With the principal cache enabled the user is confirmed to still exist under the token's username,
+     * at most once per cache lifetime; without it no query runs at all.
+     * @return The principal, or null if the user has since been deleted or renamed
+     */
+    public AuthenticatedUser loadPrincipal(VerifiedToken token) {
+        String username = token.username();
+        Long userId = token.userId();
+        if (userId == null) {
+            // Tokens without a user id can only be resolved by name
+            return userDao.findByUsername(username)
+                    .map(user -> new AuthenticatedUser(user.getUserId(), user.getUsername()))
+                    .orElse(null);
+        }
+        if (!principalCache.isEnabled()) {
+            return new AuthenticatedUser(userId, username);
+        }
+        AuthenticatedUser principal = principalCache.get(userId);
+        if (principal == null) {
+            long stamp = principalCache.stamp();
+            principal = userDao.findById(userId)
+                    .map(user -> new AuthenticatedUser(user.getUserId(), user.getUsername()))
+                    .orElse(null);
+            if (principal == null) {
+                return null;
+            }
+            principalCache.put(principal, stamp);
+        }
+        return principal.username().equals(username) ? principal : null;
     }
 
     @Override
@@ -1,11 +1,13 @@
 package com.aiora.reservation_backend.api.auth;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,6 +25,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
 
+    // "claims" authenticates from the verified token, "database" loads the user on every request
+    private static final String PRINCIPAL_SOURCE_DATABASE = "database";
+
+    @Value("${jwt.principal-source:claims}")
+    private String principalSource;
+
     @Autowired
     public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
         this.jwtUtil = jwtUtil;
@@ -36,7 +44,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // First check Authorization header
         final String authorizationHeader = request.getHeader("Authorization");
         String jwt = null;
-        String username = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
@@ -54,22 +61,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
 
-        // Process token if found
-        if (jwt != null) {
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("Error extracting username from token", e);
-            }
-        }
-
         // Set authentication if valid
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+        VerifiedToken token = jwt != null && SecurityContextHolder.getContext().getAuthentication() == null
+                ? verify(jwt) : null;
+        if (token != null) {
+            UsernamePasswordAuthenticationToken authToken = PRINCIPAL_SOURCE_DATABASE.equals(principalSource)
+                    ? authenticateFromDatabase(token)
+                    : authenticateFromClaims(token);
+            if (authToken != null) {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -77,4 +76,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(VerifiedToken token) {
+        AuthenticatedUser principal = userDetailsService.loadPrincipal(token);
+        return principal == null ? null
+                : new UsernamePasswordAuthenticationToken(principal, null, AuthenticatedUser.AUTHORITIES);
+    }
+
+    private UsernamePasswordAuthenticationToken authenticateFromDatabase(VerifiedToken token) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(token.username());
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    /**
+     * Verify the token once; both principal sources work from the verified claims
+     * @return The verified token, or null if it is invalid or expired
+     */
+    private VerifiedToken verify(String jwt) {
+        try {
+            return jwtUtil.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.error("Error validating token", e);
+            return null;
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.aiora.reservation_backend.api.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,23 +21,52 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:defaultSecretKeyWhichShouldBeChangedInProduction}")
-    private String secretString;
-    
-    @Value("${jwt.expiration:32400000}") // Default to 9 hours
-    private long jwtExpiration;
-    
-    private SecretKey getSigningKey() {
-        // Use a secure key generation method
-        return Keys.hmacShaKeyFor(secretString.getBytes());
+    public static final String USER_ID_CLAIM = "userId";
+
+    // The key and the parser are immutable and thread-safe, so they are built once
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final VerifiedTokenCache verifiedTokens;
+
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret:defaultSecretKeyWhichShouldBeChangedInProduction}") String secretString,
+                   @Value("${jwt.expiration:32400000}") long jwtExpiration, // Default to 9 hours
+                   @Value("${jwt.verified-token-cache.max-size:10000}") int verifiedTokenCacheSize) {
+        this.signingKey = Keys.hmacShaKeyFor(secretString.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.verifiedTokens = new VerifiedTokenCache(verifiedTokenCacheSize);
+    }
+
+    /**
+     * Verify a token and return its claims. The signature is checked and the claims parsed
+     * once per token; later calls with the same token are answered from the verified-token cache
+     * until the token expires.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        if (!verifiedTokens.isEnabled()) {
+            return VerifiedToken.of(extractAllClaims(token));
+        }
+        ByteBuffer digest = VerifiedTokenCache.digest(token);
+        // An expired entry is dropped, so the parser rejects the token below
+        Instant now = Instant.now();
+        VerifiedToken verified = verifiedTokens.get(digest, now);
+        if (verified == null) {
+            verified = VerifiedToken.of(extractAllClaims(token));
+            verifiedTokens.put(digest, verified, now);
+        }
+        return verified;
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        Instant expiresAt = verify(token).expiresAt();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -42,20 +75,12 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String generateToken(String username, Long userId) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
+        claims.put(USER_ID_CLAIM, userId);
         return createToken(claims, username);
     }
 
@@ -65,12 +90,12 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final VerifiedToken verified = verify(token);
+        return verified.username().equals(userDetails.getUsername()) && !verified.isExpired(Instant.now());
     }
-}
\ No newline at end of file
+}
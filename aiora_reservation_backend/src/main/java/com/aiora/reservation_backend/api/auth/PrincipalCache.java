@@ -0,0 +1,131 @@
+package com.aiora.reservation_backend.api.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Users recently confirmed to exist, by id, so authenticated requests do not query the users table.
+ * Each entry is kept for at most ttl-seconds and the size is held near max-size; lookups do not lock.
+ * {@link com.aiora.reservation_backend.service.UserService} invalidates a user when it is updated or deleted.
+ */
+@Component
+public class PrincipalCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    // Bumped by every invalidation, so a load that raced with one does not store what it read
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PrincipalCache(@Value("${jwt.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${jwt.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    private record Entry(AuthenticatedUser user, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * @return The cached user, or null if it is absent or expired
+     */
+    public AuthenticatedUser get(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(userId, entry);
+            return null;
+        }
+        return entry.user();
+    }
+
+    /**
+     * Stamp to take before reading a user from the database and pass to {@link #put}
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Cache a user read from the database, unless an invalidation happened since the stamp was taken
+     */
+    public void put(AuthenticatedUser user, long stamp) {
+        if (!isEnabled() || stamp != invalidations.get()) {
+            return;
+        }
+        Entry entry = new Entry(user, System.nanoTime() + ttlNanos);
+        entries.put(user.userId(), entry);
+        // An invalidation between the check and the put may have missed this entry, so take it back
+        if (stamp != invalidations.get()) {
+            entries.remove(user.userId(), entry);
+        } else if (entries.size() > maxSize) {
+            trim();
+        }
+    }
+
+    /**
+     * Drop a user. Inside a transaction the user is dropped again after it completes,
+     * so a request cannot re-cache the old row while the change is still uncommitted.
+     */
+    public void invalidate(Long userId) {
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void remove(Long userId) {
+        invalidations.incrementAndGet();
+        entries.remove(userId);
+    }
+
+    private void trim() {
+        // Puts that race with a running trim skip it, so the cache may briefly exceed max-size
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            // Trim a tenth below the bound so the puts right after do not walk the map again
+            int target = maxSize - maxSize / 10;
+            Iterator<Long> userIds = entries.keySet().iterator();
+            while (entries.size() > target && userIds.hasNext()) {
+                userIds.next();
+                userIds.remove();
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+}
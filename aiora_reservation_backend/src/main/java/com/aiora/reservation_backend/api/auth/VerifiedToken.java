@@ -0,0 +1,26 @@
+package com.aiora.reservation_backend.api.auth;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * The claims of a token whose signature has been verified, parsed once and never mutated
+ * @param userId The user id claim, or null for tokens issued without one
+ * @param expiresAt Expiry of the token, or null if it does not expire
+ */
+public record VerifiedToken(String username, Long userId, Instant issuedAt, Instant expiresAt) {
+
+    static VerifiedToken of(Claims claims) {
+        Object userId = claims.get(JwtUtil.USER_ID_CLAIM);
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId instanceof Number number ? number.longValue() : null,
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,83 @@
+package com.aiora.reservation_backend.api.auth;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tokens already verified by {@link JwtUtil}, keyed by the SHA-256 digest of the raw token so that
+ * a hit skips the signature check and JSON parsing without the cache holding usable credentials.
+ * Lookups do not lock, since every authenticated request goes through here. A token is dropped once
+ * it expires, and the size is held near maxSize by trimming expired and then arbitrary entries.
+ */
+final class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Map<ByteBuffer, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return The verified token, or null if it is not cached or has expired
+     */
+    VerifiedToken get(ByteBuffer digest, Instant now) {
+        VerifiedToken token = entries.get(digest);
+        if (token != null && token.isExpired(now)) {
+            entries.remove(digest, token);
+            return null;
+        }
+        return token;
+    }
+
+    void put(ByteBuffer digest, VerifiedToken token, Instant now) {
+        entries.put(digest, token);
+        if (entries.size() > maxSize) {
+            trim(now);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void trim(Instant now) {
+        // Puts that race with a running trim skip it, so the cache may briefly exceed maxSize
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(token -> token.isExpired(now));
+            // Trim a tenth below the bound so the puts right after do not walk the map again
+            int target = maxSize - maxSize / 10;
+            Iterator<ByteBuffer> digests = entries.keySet().iterator();
+            while (entries.size() > target && digests.hasNext()) {
+                digests.next();
+                digests.remove();
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+}
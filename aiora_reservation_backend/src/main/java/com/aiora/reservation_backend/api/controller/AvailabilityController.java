@@ -0,0 +1,49 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.api.model.AvailableSlot;
+import com.aiora.reservation_backend.model.Restaurant.RestaurantType;
+import com.aiora.reservation_backend.service.AvailabilityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/availability")
+public class AvailabilityController {
+
+    private final AvailabilityService availabilityService;
+
+    @Autowired
+    public AvailabilityController(AvailabilityService availabilityService) {
+        this.availabilityService = availabilityService;
+    }
+
+    /**
+     * The next times a party can be booked across the hotel's restaurants
+     * @param from Start of the search, now by default
+     * @param to End of the search, exclusive, one day after the start by default
+     * @param restaurantId Restaurants to search, all by default; may be repeated
+     * @param limit Slots to return
+     */
+    @GetMapping
+    public ResponseEntity<List<AvailableSlot>> findAvailable(
+            @RequestParam int partySize,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean hotelGuest,
+            @RequestParam(required = false) List<Long> restaurantId,
+            @RequestParam(required = false) RestaurantType restaurantType,
+            @RequestParam(defaultValue = "10") int limit) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(1);
+        return ResponseEntity.ok(availabilityService.findAvailable(
+                partySize, start, end, hotelGuest, restaurantId, restaurantType, limit));
+    }
+}
@@ -0,0 +1,53 @@
+package com.aiora.reservation_backend.api.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET against a {@link com.aiora.reservation_backend.service.ChangeVersions} tag
+ */
+@Component
+class ConditionalRequests {
+
+    private final TransactionTemplate snapshot;
+
+    ConditionalRequests(PlatformTransactionManager transactionManager) {
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Tags the response and answers 304 when If-None-Match already holds the tag; the handler then
+     * returns null without querying anything. Responses are authenticated, so only the client's own
+     * cache may store them, and it revalidates on every use instead of obeying Spring Security's no-store.
+     */
+    static boolean notModified(WebRequest request, String etag) {
+        HttpServletResponse response = ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * Read the tag and, unless the client already holds it, build the body, both in one read-only
+     * repeatable read transaction. They come from the same snapshot of whichever database the
+     * transaction is routed to, so a lagging replica pairs its old body with its old tag and never
+     * stores an old body under a new tag.
+     * @return null for a 304
+     */
+    <T> ResponseEntity<T> tagged(WebRequest request, Supplier<String> etag, Supplier<ResponseEntity<T>> body) {
+        return snapshot.execute(status -> notModified(request, etag.get()) ? null : body.get());
+    }
+}
@@ -0,0 +1,47 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.api.model.DashboardResponse;
+import com.aiora.reservation_backend.service.ChangeVersions;
+import com.aiora.reservation_backend.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+    private final ChangeVersions changeVersions;
+    private final ConditionalRequests conditionalRequests;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService, ChangeVersions changeVersions,
+                               ConditionalRequests conditionalRequests) {
+        this.dashboardService = dashboardService;
+        this.changeVersions = changeVersions;
+        this.conditionalRequests = conditionalRequests;
+    }
+
+    /**
+     * Restaurants, today's counts and recent reservations of the whole hotel in one response
+     * @param date Day to count, today by default
+     * @param recent Recent reservations per restaurant
+     */
+    @GetMapping
+    public ResponseEntity<DashboardResponse> getDashboard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "10") int recent,
+            WebRequest request) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        return conditionalRequests.tagged(request, () -> changeVersions.hotelTag(day),
+                () -> ResponseEntity.ok(dashboardService.getDashboard(day, recent)));
+    }
+}
@@ -1,98 +1,163 @@
 package com.aiora.reservation_backend.api.controller;
 
 import com.aiora.reservation_backend.api.exception.ResourceNotFoundException;
+import com.aiora.reservation_backend.api.model.ReservationCursor;
 import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.api.model.StatusTransitionRequest;
+import com.aiora.reservation_backend.api.model.StatusTransitionResponse;
 import com.aiora.reservation_backend.model.Reservation;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import com.aiora.reservation_backend.service.ReservationEventBroadcaster;
+import com.aiora.reservation_backend.service.ReservationExportService;
+import com.aiora.reservation_backend.service.ReservationQueryService;
 import com.aiora.reservation_backend.service.ReservationService;
+import com.aiora.reservation_backend.service.ReservationTransitionService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/reservations")
 public class GlobalReservationController {
 
     private final ReservationService reservationService;
+    private final ReservationQueryService reservationQueryService;
+    private final ReservationExportService reservationExportService;
+    private final ReservationTransitionService reservationTransitionService;
+    private final ReservationEventBroadcaster reservationEventBroadcaster;
+
+    @Value("${reservation.export.timeout-ms:3600000}")
+    private long exportTimeoutMillis;
 
     @Autowired
-    public GlobalReservationController(ReservationService reservationService) {
+    public GlobalReservationController(ReservationService reservationService,
+                                       ReservationQueryService reservationQueryService,
+                                       ReservationExportService reservationExportService,
+                                       ReservationTransitionService reservationTransitionService,
+                                       ReservationEventBroadcaster reservationEventBroadcaster) {
         this.reservationService = reservationService;
+        this.reservationQueryService = reservationQueryService;
+        this.reservationExportService = reservationExportService;
+        this.reservationTransitionService = reservationTransitionService;
+        this.reservationEventBroadcaster = reservationEventBroadcaster;
     }
 
     @GetMapping
     public ResponseEntity<List<ReservationResponse>> getAllReservations() {
-        List<Reservation> reservations = reservationService.getAllReservations();
-        List<ReservationResponse> responses = reservations.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(reservationQueryService.getAllReservations());
+    }
+    /**
+     * Live feed of the reservation changes of every restaurant as Server-Sent Events, the same events
+     * as a restaurant's own feed; one connection serves a whole-hotel view
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReservationEvents() {
+        return reservationEventBroadcaster.subscribeAll();
     }
+
     @GetMapping("/search")
     public ResponseEntity<List<ReservationResponse>> searchReservations(
             @RequestParam String query,
             @RequestParam(required = false) Integer limit) {
 
         // Default limit if not provided
-        int searchLimit = limit != null ? limit : 20;
+        int searchLimit = ReservationCursor.pageSize(limit);
 
         // Call service method to search across all fields
-        List<Reservation> searchResults = reservationService.searchReservations(query, searchLimit);
-
-        // Convert to response DTOs
-        List<ReservationResponse> responseList = searchResults.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(responseList);
+        return ResponseEntity.ok(reservationQueryService.searchReservations(query, searchLimit));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<ReservationResponse> getReservationById(@PathVariable Long id) {
-        Reservation reservation = reservationService.findById(id)
+        ReservationResponse reservation = reservationQueryService.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
-        return ResponseEntity.ok(convertToResponse(reservation));
+        return ResponseEntity.ok(reservation);
     }
 
     @GetMapping("/date-range")
     public ResponseEntity<List<ReservationResponse>> getReservationsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            int pageSize = ReservationCursor.pageSize(limit);
+            List<ReservationResponse> rows = reservationQueryService.getReservationsByDateRange(
+                    startDate, endDate, cursor != null ? ReservationCursor.decode(cursor) : null, pageSize + 1);
+            boolean hasMore = rows.size() > pageSize;
+            List<ReservationResponse> page = hasMore ? rows.subList(0, pageSize) : rows;
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+            if (hasMore) {
+                ReservationResponse last = page.get(page.size() - 1);
+                builder.header(ReservationCursor.NEXT_CURSOR_HEADER,
+                        ReservationCursor.after(last.getReservationDate(), last.getReservationId()).encode());
+            }
+            return builder.body(page);
+        }
         
-        List<Reservation> reservations = reservationService.getReservationsByDateRange(startDate, endDate);
-        List<ReservationResponse> responses = reservations.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(reservationQueryService.getReservationsByDateRange(startDate, endDate));
+    }
+
+    /**
+     * Streams matching reservations as NDJSON (one object per line) or CSV while they are read,
+     * so the size of the export does not affect server memory
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String status,
+            HttpServletRequest request) {
+        // Validate before the response is committed, so bad filters still get a 400
+        ReservationExportService.Format exportFormat = ReservationExportService.Format.of(format);
+        ReservationStatus reservationStatus = ReservationExportService.parseStatus(status);
+
+        // The body is written as an async request; only this one may run as long as a full export takes
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeoutMillis);
+        StreamingResponseBody body = outputStream -> reservationExportService.export(
+                exportFormat, restaurantId, startDate, endDate, reservationStatus, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reservations." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/room/{roomNumber}")
     public ResponseEntity<List<ReservationResponse>> getReservationsByRoomNumber(@PathVariable String roomNumber) {
-        List<Reservation> reservations = reservationService.getReservationsByRoomNumber(roomNumber);
-        List<ReservationResponse> responses = reservations.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(reservationQueryService.getReservationsByRoomNumber(roomNumber));
     }
 
-    private ReservationResponse convertToResponse(Reservation reservation) {
-        ReservationResponse response = new ReservationResponse();
-        response.setReservationId(reservation.getReservationId());
-        response.setReservationDate(reservation.getReservationDate());
-        response.setGuestName(reservation.getGuestName());
-        response.setRoomNumber(reservation.getRoomNumber());
-        response.setIsHotelGuest(reservation.getIsHotelGuest());
-        response.setMealDeducted(reservation.getMealDeducted());
-        response.setReservationStatus(reservation.getReservationStatus());
-        response.setGuestCount(reservation.getGuestCount());
-        response.setRestaurantId(reservation.getRestaurant().getRestaurantId());
-        response.setRestaurantName(reservation.getRestaurant().getName());
-        response.setUserId(reservation.getUser().getUserId());
-        response.setUsername(reservation.getUser().getUsername());
-        return response;
+    /**
+     * Move every reservation of a restaurant or a room in one of the given statuses with one UPDATE
+     * per restaurant
+     */
+    @PostMapping("/transitions")
+    public ResponseEntity<StatusTransitionResponse> transitionReservations(@RequestBody StatusTransitionRequest request) {
+        return ResponseEntity.ok(reservationTransitionService.transition(request));
     }
+
+    /**
+     * Cancel the room's pending and confirmed reservations from now on, when its guests check out
+     */
+    @PostMapping("/room/{roomNumber}/checkout")
+    public ResponseEntity<StatusTransitionResponse> checkOutRoom(@PathVariable String roomNumber) {
+        return ResponseEntity.ok(reservationTransitionService.transition(new StatusTransitionRequest(
+                null, roomNumber, List.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED),
+                ReservationStatus.CANCELLED, LocalDateTime.now(), null)));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.service.ReactiveReservationQueryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Streaming variants of the reservation list endpoints. Rows are written as NDJSON (or server-sent
+ * events) as the client reads them; a new page is only fetched when the previous one has been written.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/reactive",
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+public class ReactiveReservationController {
+
+    private final ReactiveReservationQueryService reactiveReservationQueryService;
+
+    @Autowired
+    public ReactiveReservationController(ReactiveReservationQueryService reactiveReservationQueryService) {
+        this.reactiveReservationQueryService = reactiveReservationQueryService;
+    }
+
+    @GetMapping("/reservations")
+    public Flux<ReservationResponse> streamAllReservations() {
+        return reactiveReservationQueryService.streamAll();
+    }
+
+    @GetMapping("/reservations/date-range")
+    public Flux<ReservationResponse> streamReservationsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return reactiveReservationQueryService.streamByDateRange(startDate, endDate);
+    }
+
+    @GetMapping("/restaurants/{restaurantId}/reservations")
+    public Flux<ReservationResponse> streamRestaurantReservations(@PathVariable Long restaurantId) {
+        return reactiveReservationQueryService.streamByRestaurant(restaurantId);
+    }
+
+    @GetMapping("/restaurants/{restaurantId}/reservations/date-range")
+    public Flux<ReservationResponse> streamRestaurantReservationsByDateRange(
+            @PathVariable Long restaurantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return reactiveReservationQueryService.streamByRestaurantAndDateRange(restaurantId, startDate, endDate);
+    }
+}
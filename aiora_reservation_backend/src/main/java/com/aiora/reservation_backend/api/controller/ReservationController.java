@@ -1,26 +1,39 @@
 package com.aiora.reservation_backend.api.controller;
 
 import com.aiora.reservation_backend.api.exception.ResourceNotFoundException;
+import com.aiora.reservation_backend.api.exception.ValidationException;
+import com.aiora.reservation_backend.api.model.BulkImportResponse;
+import com.aiora.reservation_backend.api.model.ReservationCursor;
 import com.aiora.reservation_backend.api.model.ReservationRequest;
 import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.api.model.StatusTransitionRequest;
+import com.aiora.reservation_backend.api.model.StatusTransitionResponse;
 import com.aiora.reservation_backend.model.Reservation;
 import com.aiora.reservation_backend.model.Restaurant;
 import com.aiora.reservation_backend.model.User;
+import com.aiora.reservation_backend.service.ChangeVersions;
+import com.aiora.reservation_backend.service.ReservationEventBroadcaster;
+import com.aiora.reservation_backend.service.ReservationImportService;
+import com.aiora.reservation_backend.service.ReservationQueryService;
 import com.aiora.reservation_backend.service.ReservationService;
-import com.aiora.reservation_backend.service.RestaurantService;
+import com.aiora.reservation_backend.service.ReservationTransitionService;
+import com.aiora.reservation_backend.service.RestaurantCatalog;
 import com.aiora.reservation_backend.service.UserService;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 @RestController
@@ -28,25 +41,51 @@ import org.springframework.web.bind.annotation.*;
 public class ReservationController {
 
     private final ReservationService reservationService;
-    private final RestaurantService restaurantService;
+    private final ReservationQueryService reservationQueryService;
+    private final ReservationImportService reservationImportService;
+    private final ReservationTransitionService reservationTransitionService;
+    private final RestaurantCatalog restaurantCatalog;
     private final UserService userService;
+    private final ReservationEventBroadcaster reservationEventBroadcaster;
+    private final ChangeVersions changeVersions;
+    private final ConditionalRequests conditionalRequests;
 
     @Autowired
     public ReservationController(ReservationService reservationService, 
-                                RestaurantService restaurantService,
-                                UserService userService) {
+                                ReservationQueryService reservationQueryService,
+                                ReservationImportService reservationImportService,
+                                ReservationTransitionService reservationTransitionService,
+                                RestaurantCatalog restaurantCatalog,
+                                UserService userService,
+                                ReservationEventBroadcaster reservationEventBroadcaster,
+                                ChangeVersions changeVersions,
+                                ConditionalRequests conditionalRequests) {
         this.reservationService = reservationService;
-        this.restaurantService = restaurantService;
+        this.reservationQueryService = reservationQueryService;
+        this.reservationImportService = reservationImportService;
+        this.reservationTransitionService = reservationTransitionService;
+        this.restaurantCatalog = restaurantCatalog;
         this.userService = userService;
+        this.reservationEventBroadcaster = reservationEventBroadcaster;
+        this.changeVersions = changeVersions;
+        this.conditionalRequests = conditionalRequests;
     }
 
     @GetMapping
-    public ResponseEntity<List<ReservationResponse>> getRestaurantReservations(@PathVariable Long restaurantId) {
-        List<Reservation> reservations = reservationService.getReservationsByRestaurant(restaurantId);
-        List<ReservationResponse> responses = reservations.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<ReservationResponse>> getRestaurantReservations(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return conditionalRequests.tagged(request, () -> changeVersions.restaurantTag(restaurantId), () -> {
+            if (cursor != null || limit != null) {
+                int pageSize = ReservationCursor.pageSize(limit);
+                List<ReservationResponse> rows = reservationQueryService.getRecentReservationsByRestaurant(
+                        restaurantId, cursor != null ? ReservationCursor.decode(cursor) : null, pageSize + 1);
+                return toCursorPage(rows, pageSize);
+            }
+            return ResponseEntity.ok(reservationQueryService.getReservationsByRestaurant(restaurantId));
+        });
     }
     // Add this method to your ReservationController class
     
@@ -54,20 +93,38 @@ public class ReservationController {
     public ResponseEntity<List<ReservationResponse>> getReservationsByDateRange(
             @PathVariable Long restaurantId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        
-        List<Reservation> reservations = reservationService.getReservationsByDateRange(startDate, endDate);
-        List<ReservationResponse> responses = reservations.stream()
-                .filter(r -> r.getRestaurant().getRestaurantId().equals(restaurantId))
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return conditionalRequests.tagged(request, () -> changeVersions.restaurantTag(restaurantId), () -> {
+            if (cursor != null || limit != null) {
+                int pageSize = ReservationCursor.pageSize(limit);
+                List<ReservationResponse> rows = reservationQueryService.getReservationsByRestaurantAndDateRange(
+                        restaurantId, startDate, endDate, cursor != null ? ReservationCursor.decode(cursor) : null,
+                        pageSize + 1);
+                return toCursorPage(rows, pageSize);
+            }
+            
+            return ResponseEntity.ok(reservationQueryService.getReservationsByRestaurantAndDateRange(
+                    restaurantId, startDate, endDate));
+        });
+    }
+    /**
+     * Live feed of the restaurant's reservation changes as Server-Sent Events ("created", "updated",
+     * "deleted", or "resync" when the client fell behind and should reload)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReservationEvents(@PathVariable Long restaurantId) {
+        restaurantCatalog.require(restaurantId);
+        return reservationEventBroadcaster.subscribe(restaurantId);
     }
+
     @GetMapping("/{id}")
     public ResponseEntity<ReservationResponse> getReservationById(@PathVariable Long restaurantId, @PathVariable Long id) {
-        Reservation reservation = reservationService.findById(id)
+        ReservationResponse reservation = reservationQueryService.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
-        return ResponseEntity.ok(convertToResponse(reservation));
+        return ResponseEntity.ok(reservation);
     }
     
     @PostMapping
@@ -75,7 +132,7 @@ public class ReservationController {
             @PathVariable Long restaurantId,
             @Valid @RequestBody ReservationRequest request) {
         
-        Restaurant restaurant = restaurantService.getRestaurant(restaurantId);
+        Restaurant restaurant = restaurantCatalog.require(restaurantId).toRestaurant();
         User user = userService.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getUserId()));
         
@@ -87,13 +144,36 @@ public class ReservationController {
         return new ResponseEntity<>(convertToResponse(savedReservation), HttpStatus.CREATED);
     }
     
+    /**
+     * Import a list of reservations all or nothing: 201 with the new ids, or 400 with every failing row
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkImportResponse> importReservations(
+            @PathVariable Long restaurantId,
+            @RequestBody List<ReservationRequest> requests) {
+        BulkImportResponse response = reservationImportService.importReservations(restaurantId, requests);
+        return new ResponseEntity<>(response, response.getErrors().isEmpty() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Move every reservation of the restaurant in one of the given statuses, e.g. complete all
+     * confirmed reservations before the end of a service, with one UPDATE
+     */
+    @PostMapping("/transitions")
+    public ResponseEntity<StatusTransitionResponse> transitionReservations(
+            @PathVariable Long restaurantId,
+            @RequestBody StatusTransitionRequest request) {
+        request.setRestaurantId(restaurantId);
+        return ResponseEntity.ok(reservationTransitionService.transition(request));
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ReservationResponse> updateReservation(
             @PathVariable Long restaurantId,
             @PathVariable Long id,
             @Valid @RequestBody ReservationRequest request) {
         
-        Restaurant restaurant = restaurantService.getRestaurant(restaurantId);
+        Restaurant restaurant = restaurantCatalog.require(restaurantId).toRestaurant();
         User user = userService.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getUserId()));
         
@@ -115,87 +195,88 @@ public class ReservationController {
     public ResponseEntity<Map<String, Object>> getRecentReservations(
             @PathVariable Long restaurantId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean includeTotal,
+            WebRequest request) {
+        if (page < 0) {
+            throw new ValidationException("Page must not be negative");
+        }
+        int pageSize = ReservationCursor.pageSize(size);
+        return conditionalRequests.tagged(request, () -> changeVersions.restaurantTag(restaurantId),
+                () -> recentPage(restaurantId, page, pageSize, cursor, includeTotal));
+    }
+
+    private ResponseEntity<Map<String, Object>> recentPage(Long restaurantId, int page, int size, String cursor,
+                                                           Boolean includeTotal) {
+        Map<String, Object> response = new HashMap<>();
+        
+        if (cursor != null) {
+            // Keyset mode: seek past the cursor instead of skipping rows, one extra row tells us if there is more
+            List<ReservationResponse> rows = reservationQueryService.getRecentReservationsByRestaurant(
+                restaurantId, ReservationCursor.decode(cursor), size + 1);
+            boolean hasMore = rows.size() > size;
+            List<ReservationResponse> reservations = hasMore ? rows.subList(0, size) : rows;
+            
+            response.put("reservations", reservations);
+            response.put("hasMore", hasMore);
+            if (hasMore) {
+                response.put("nextCursor", cursorAfter(reservations).encode());
+            }
+            // Counting is the expensive part of a deep page, so it is opt-in here
+            if (Boolean.TRUE.equals(includeTotal)) {
+                long totalReservations = reservationService.countReservationsByRestaurant(restaurantId);
+                response.put("totalItems", totalReservations);
+                response.put("totalPages", (int) Math.ceil((double) totalReservations / size));
+            }
+            return ResponseEntity.ok(response);
+        }
         
         // Implement proper pagination with sorting by date (most recent first)
         // This assumes you have a method in your service to handle this
-        List<Reservation> reservations = reservationService.getRecentReservationsByRestaurant(
+        List<ReservationResponse> reservations = reservationQueryService.getRecentReservationsByRestaurant(
             restaurantId, page, size);
         
-        // Get total count for pagination metadata
-        long totalReservations = reservationService.countReservationsByRestaurant(restaurantId);
-        
-        // Convert to DTOs
-        List<ReservationResponse> responseList = reservations.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        
         // Create response with pagination metadata
-        Map<String, Object> response = new HashMap<>();
-        response.put("reservations", responseList);
+        response.put("reservations", reservations);
         response.put("currentPage", page);
-        response.put("totalItems", totalReservations);
-        response.put("totalPages", (int) Math.ceil((double) totalReservations / size));
+        if (reservations.size() == size) {
+            // Lets offset clients switch to keyset mode for the following pages
+            response.put("nextCursor", cursorAfter(reservations).encode());
+        }
+        
+        // Get total count for pagination metadata unless the client opted out
+        if (!Boolean.FALSE.equals(includeTotal)) {
+            long totalReservations = reservationService.countReservationsByRestaurant(restaurantId);
+            response.put("totalItems", totalReservations);
+            response.put("totalPages", (int) Math.ceil((double) totalReservations / size));
+        }
                 
         return ResponseEntity.ok(response);
     }
     
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Integer>> getReservationStats(@PathVariable Long restaurantId) {
-        Map<String, Integer> stats = new HashMap<>();
-    
-    // Get all reservations for the restaurant
-        List<Reservation> reservations = reservationService.getReservationsByRestaurant(restaurantId);
-    
-    // Count total
-        stats.put("totalReservations", reservations.size());
-    
-    // Count by status
-        int pendingCount = (int) reservations.stream()
-            .filter(r -> r.getReservationStatus() == Reservation.ReservationStatus.PENDING)
-            .count();
-        stats.put("pendingReservations", pendingCount);
-    
-        int confirmedCount = (int) reservations.stream()
-            .filter(r -> r.getReservationStatus() == Reservation.ReservationStatus.CONFIRMED)
-            .count();
-        stats.put("confirmedReservations", confirmedCount);
-    
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<Map<String, Integer>> getReservationStats(@PathVariable Long restaurantId, WebRequest request) {
+        return conditionalRequests.tagged(request, () -> changeVersions.restaurantTag(restaurantId),
+                () -> reservationStats(restaurantId));
+    }
+
+    private ResponseEntity<Map<String, Integer>> reservationStats(Long restaurantId) {
+        return ResponseEntity.ok(reservationQueryService.getReservationStats(restaurantId, null, null));
     }
 
     @GetMapping("/stats/today")
-    public ResponseEntity<Map<String, Integer>> getTodayReservationStats(@PathVariable Long restaurantId) {
-        Map<String, Integer> stats = new HashMap<>();
-        
-        // Get current date (start of day and end of day)
-        LocalDateTime startOfDay = LocalDateTime.now().with(LocalTime.MIN);
-        LocalDateTime endOfDay = LocalDateTime.now().with(LocalTime.MAX);
-        
-        // Get all reservations for the restaurant for today
-        List<Reservation> reservations = reservationService.getReservationsByRestaurant(restaurantId);
-        List<Reservation> todayReservations = reservations.stream()
-            .filter(r -> {
-                LocalDateTime reservationDate = r.getReservationDate();
-                return !reservationDate.isBefore(startOfDay) && !reservationDate.isAfter(endOfDay);
-            })
-            .collect(Collectors.toList());
-        
-        // Count total for today
-        stats.put("totalReservations", todayReservations.size());
-        
-        // Count by status for today
-        int pendingCount = (int) todayReservations.stream()
-            .filter(r -> r.getReservationStatus() == Reservation.ReservationStatus.PENDING)
-            .count();
-        stats.put("pendingReservations", pendingCount);
-        
-        int confirmedCount = (int) todayReservations.stream()
-            .filter(r -> r.getReservationStatus() == Reservation.ReservationStatus.CONFIRMED)
-            .count();
-        stats.put("confirmedReservations", confirmedCount);
-        
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<Map<String, Integer>> getTodayReservationStats(@PathVariable Long restaurantId,
+                                                                         WebRequest request) {
+        // The counts change at midnight as well, so the day is part of the tag
+        LocalDate today = LocalDate.now();
+        return conditionalRequests.tagged(request, () -> changeVersions.restaurantTag(restaurantId, today),
+                () -> todayStats(restaurantId, today));
+    }
+
+    private ResponseEntity<Map<String, Integer>> todayStats(Long restaurantId, LocalDate today) {
+        return ResponseEntity.ok(reservationQueryService.getReservationStats(
+                restaurantId, today.atStartOfDay(), today.atTime(LocalTime.MAX)));
     }
 
     @GetMapping("/debug")
@@ -207,6 +288,22 @@ public class ReservationController {
         return ResponseEntity.ok(response);
     }
     
+    private ResponseEntity<List<ReservationResponse>> toCursorPage(List<ReservationResponse> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<ReservationResponse> page = hasMore ? rows.subList(0, limit) : rows;
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (hasMore) {
+            builder.header(ReservationCursor.NEXT_CURSOR_HEADER, cursorAfter(page).encode());
+        }
+        return builder.body(page);
+    }
+    
+    private ReservationCursor cursorAfter(List<ReservationResponse> page) {
+        ReservationResponse last = page.get(page.size() - 1);
+        return ReservationCursor.after(last.getReservationDate(), last.getReservationId());
+    }
+    
     private Reservation convertToEntity(ReservationRequest request) {
         Reservation reservation = new Reservation();
         reservation.setReservationDate(request.getReservationDate());
@@ -1,52 +1,68 @@
 package com.aiora.reservation_backend.api.controller;
 
 import com.aiora.reservation_backend.model.Restaurant;
-import com.aiora.reservation_backend.model.Reservation;
+import com.aiora.reservation_backend.service.ChangeVersions;
+import com.aiora.reservation_backend.service.ReservationQueryService;
+import com.aiora.reservation_backend.service.RestaurantCatalog;
 import com.aiora.reservation_backend.service.RestaurantService;
+import com.aiora.reservation_backend.api.model.ReservationResponse;
 import com.aiora.reservation_backend.api.model.RestaurantResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/restaurants")
 public class RestaurantController {
 
     private final RestaurantService restaurantService;
+    private final ReservationQueryService reservationQueryService;
+    private final RestaurantCatalog restaurantCatalog;
+    private final ChangeVersions changeVersions;
+    private final ConditionalRequests conditionalRequests;
 
     @Autowired
-    public RestaurantController(RestaurantService restaurantService) {
+    public RestaurantController(RestaurantService restaurantService, ReservationQueryService reservationQueryService,
+                                RestaurantCatalog restaurantCatalog, ChangeVersions changeVersions,
+                                ConditionalRequests conditionalRequests) {
         this.restaurantService = restaurantService;
+        this.reservationQueryService = reservationQueryService;
+        this.restaurantCatalog = restaurantCatalog;
+        this.changeVersions = changeVersions;
+        this.conditionalRequests = conditionalRequests;
     }
 
+    // Catalog reads write the snapshot's pre-serialized RestaurantResponse JSON as is
     @GetMapping
-    public ResponseEntity<List<RestaurantResponse>> getAllRestaurants() {
-        List<Restaurant> restaurants = restaurantService.getAllRestaurants();
-        List<RestaurantResponse> responseList = restaurants.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseList);
+    public ResponseEntity<byte[]> getAllRestaurants(WebRequest request) {
+        if (ConditionalRequests.notModified(request, changeVersions.catalogTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(restaurantCatalog.listJson());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RestaurantResponse> getRestaurantById(@PathVariable Long id) {
-        Restaurant restaurant = restaurantService.getRestaurant(id);
-        return ResponseEntity.ok(convertToResponse(restaurant));
+    public ResponseEntity<byte[]> getRestaurantById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.notModified(request, changeVersions.catalogTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(restaurantCatalog.require(id).json());
     }
 
     @GetMapping("/capacity/{minCapacity}")
-    public ResponseEntity<List<RestaurantResponse>> getRestaurantsByCapacity(@PathVariable Integer minCapacity) {
-        List<Restaurant> restaurants = restaurantService.findByCapacity(minCapacity);
-        List<RestaurantResponse> responseList = restaurants.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseList);
+    public ResponseEntity<byte[]> getRestaurantsByCapacity(@PathVariable Integer minCapacity, WebRequest request) {
+        if (ConditionalRequests.notModified(request, changeVersions.catalogTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(restaurantCatalog.listJson(restaurant -> restaurant.maxCapacity() >= minCapacity));
     }
 
     @PostMapping
@@ -62,26 +78,15 @@ public class RestaurantController {
     }
 
     @GetMapping("/{restaurantId}/reservations/status")
-    public ResponseEntity<List<Reservation>> getRestaurantReservations(
+    public ResponseEntity<List<ReservationResponse>> getRestaurantReservations(
             @PathVariable Long restaurantId,
-            @RequestParam(required = false) String status) {
-        if (status != null) {
-            return ResponseEntity.ok(restaurantService.getReservationsByStatus(restaurantId, status));
-        }
-        return ResponseEntity.ok(restaurantService.getReservations(restaurantId));
+            @RequestParam(required = false) String status,
+            WebRequest request) {
+        return conditionalRequests.tagged(request, () -> changeVersions.restaurantTag(restaurantId), () ->
+                ResponseEntity.ok(reservationQueryService.getReservationsByRestaurantAndStatus(restaurantId, status)));
     }
     // Convert Restaurant entity to RestaurantResponse DTO
     private RestaurantResponse convertToResponse(Restaurant restaurant) {
-        RestaurantResponse response = new RestaurantResponse();
-        response.setRestaurantId(restaurant.getRestaurantId());
-        response.setName(restaurant.getName());
-        response.setRestaurantType(restaurant.getRestaurantType());
-        response.setDefaultCapacity(restaurant.getDefaultCapacity());
-        response.setMaxCapacity(restaurant.getMaxCapacity());
-        response.setLocation(restaurant.getLocation());
-        response.setDescription(restaurant.getDescription());
-        response.setAcceptsOutsideGuests(restaurant.getAcceptsOutsideGuests());
-        response.setRoomOnly(restaurant.getRoomOnly());
-        return response;
+        return RestaurantResponse.of(restaurant);
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.api.model.TableSeating;
+import com.aiora.reservation_backend.model.RestaurantTable;
+import com.aiora.reservation_backend.service.RestaurantTableService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/restaurants/{restaurantId}/tables")
+public class RestaurantTableController {
+
+    private final RestaurantTableService restaurantTableService;
+
+    @Autowired
+    public RestaurantTableController(RestaurantTableService restaurantTableService) {
+        this.restaurantTableService = restaurantTableService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RestaurantTable>> getTables(@PathVariable Long restaurantId) {
+        return ResponseEntity.ok(restaurantTableService.getTables(restaurantId));
+    }
+
+    @PostMapping
+    public ResponseEntity<RestaurantTable> addTable(@PathVariable Long restaurantId,
+                                                    @RequestBody RestaurantTable table) {
+        return new ResponseEntity<>(restaurantTableService.addTable(restaurantId, table), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{tableId}")
+    public ResponseEntity<Void> deleteTable(@PathVariable Long restaurantId, @PathVariable Long tableId) {
+        restaurantTableService.deleteTable(restaurantId, tableId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Who is seated at which table on a day, for the table grid
+     * @param date The day, today by default
+     */
+    @GetMapping("/seatings")
+    public ResponseEntity<List<TableSeating>> getSeatings(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(restaurantTableService.getSeatings(restaurantId,
+                date != null ? date : LocalDate.now()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.aiora.reservation_backend.api.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A time a party can be booked at a restaurant, as of the moment it was searched
+ */
+public class AvailableSlot {
+    private final Long restaurantId;
+    private final String restaurantName;
+    private final LocalDateTime slotStart;
+    private final int seatsLeft;
+
+    public AvailableSlot(Long restaurantId, String restaurantName, LocalDateTime slotStart, int seatsLeft) {
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+        this.slotStart = slotStart;
+        this.seatsLeft = seatsLeft;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public String getRestaurantName() {
+        return restaurantName;
+    }
+
+    public LocalDateTime getSlotStart() {
+        return slotStart;
+    }
+
+    /**
+     * Seats still free in the capacity window of the slot, before the party is seated
+     */
+    public int getSeatsLeft() {
+        return seatsLeft;
+    }
+}
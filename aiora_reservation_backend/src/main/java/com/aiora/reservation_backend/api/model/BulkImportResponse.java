@@ -0,0 +1,63 @@
+package com.aiora.reservation_backend.api.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk reservation import: either every row was imported, or none was and
+ * the rows that failed are listed
+ */
+public class BulkImportResponse {
+    private final int imported;
+    private final List<Long> reservationIds;
+    private final List<RowError> errors;
+
+    public BulkImportResponse(int imported, List<Long> reservationIds, List<RowError> errors) {
+        this.imported = imported;
+        this.reservationIds = reservationIds;
+        this.errors = errors;
+    }
+
+    public static BulkImportResponse imported(List<Long> reservationIds) {
+        return new BulkImportResponse(reservationIds.size(), reservationIds, List.of());
+    }
+
+    public static BulkImportResponse rejected(List<RowError> errors) {
+        return new BulkImportResponse(0, List.of(), errors);
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    /**
+     * Ids of the new reservations in the order of the submitted rows
+     */
+    public List<Long> getReservationIds() {
+        return reservationIds;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public static class RowError {
+        private final int row;
+        private final String message;
+
+        /**
+         * @param row Zero-based index of the row in the submitted list
+         */
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
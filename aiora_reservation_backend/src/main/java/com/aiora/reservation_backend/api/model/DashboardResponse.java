@@ -0,0 +1,55 @@
+package com.aiora.reservation_backend.api.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the hotel dashboard shows on load: every restaurant with today's reservation counts
+ * and its most recent reservations; the restaurant feed's cursor pages through the rest
+ */
+public class DashboardResponse {
+    private final LocalDate date;
+    private final List<RestaurantSummary> restaurants;
+
+    public DashboardResponse(LocalDate date, List<RestaurantSummary> restaurants) {
+        this.date = date;
+        this.restaurants = restaurants;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public List<RestaurantSummary> getRestaurants() {
+        return restaurants;
+    }
+
+    public static class RestaurantSummary {
+        private final RestaurantResponse restaurant;
+        private final Map<String, Integer> today;
+        private final List<ReservationResponse> recentReservations;
+
+        /**
+         * @param today Counts under the same keys as GET /reservations/stats/today
+         */
+        public RestaurantSummary(RestaurantResponse restaurant, Map<String, Integer> today,
+                                 List<ReservationResponse> recentReservations) {
+            this.restaurant = restaurant;
+            this.today = today;
+            this.recentReservations = recentReservations;
+        }
+
+        public RestaurantResponse getRestaurant() {
+            return restaurant;
+        }
+
+        public Map<String, Integer> getToday() {
+            return today;
+        }
+
+        public List<ReservationResponse> getRecentReservations() {
+            return recentReservations;
+        }
+    }
+}
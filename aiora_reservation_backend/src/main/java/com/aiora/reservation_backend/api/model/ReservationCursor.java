@@ -0,0 +1,93 @@
+package com.aiora.reservation_backend.api.model;
+
+import com.aiora.reservation_backend.api.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in a reservation feed ordered by (reservationDate DESC, reservationId DESC).
+ * Clients receive it as {@code nextCursor} and send it back unchanged to fetch the following page.
+ */
+public final class ReservationCursor {
+
+    /**
+     * Response header carrying the cursor of the next page on list endpoints
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Page size used when a cursor is given without an explicit limit
+     */
+    public static final int DEFAULT_LIMIT = 20;
+
+    /**
+     * Largest page served; larger limits are lowered to it
+     */
+    public static final int MAX_LIMIT = 500;
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime reservationDate;
+    private final Long reservationId;
+
+    public ReservationCursor(LocalDateTime reservationDate, Long reservationId) {
+        this.reservationDate = reservationDate;
+        this.reservationId = reservationId;
+    }
+
+    /**
+     * Builds the cursor pointing just past the given row
+     */
+    public static ReservationCursor after(LocalDateTime reservationDate, Long reservationId) {
+        return new ReservationCursor(reservationDate, reservationId);
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}
+     * @throws ValidationException if the value was not produced by this class
+     */
+    public static ReservationCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException("Invalid cursor: " + value);
+            }
+            return new ReservationCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor: " + value);
+        }
+    }
+
+    /**
+     * Page size for a requested limit: the default when none is given, at most {@link #MAX_LIMIT}
+     * @throws ValidationException if the limit is below 1
+     */
+    public static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new ValidationException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public String encode() {
+        String raw = reservationDate + SEPARATOR + reservationId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getReservationDate() {
+        return reservationDate;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+}
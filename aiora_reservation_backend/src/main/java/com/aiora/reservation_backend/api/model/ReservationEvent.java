@@ -0,0 +1,56 @@
+package com.aiora.reservation_backend.api.model;
+
+import com.aiora.reservation_backend.model.Reservation;
+
+/**
+ * A committed change to one reservation, pushed to the restaurant's live feed.
+ * Deletions carry no reservation body.
+ */
+public class ReservationEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Long reservationId;
+    private final Long restaurantId;
+    private final ReservationResponse reservation;
+
+    public ReservationEvent(Type type, Long reservationId, Long restaurantId, ReservationResponse reservation) {
+        this.type = type;
+        this.reservationId = reservationId;
+        this.restaurantId = restaurantId;
+        this.reservation = reservation;
+    }
+
+    /**
+     * Snapshot of the reservation as written; call inside the write's transaction while the associations are loaded
+     */
+    public static ReservationEvent of(Type type, Reservation reservation) {
+        ReservationResponse body = type == Type.DELETED ? null : new ReservationResponse(
+                reservation.getReservationId(), reservation.getReservationDate(), reservation.getGuestName(),
+                reservation.getRoomNumber(), reservation.getIsHotelGuest(), reservation.getMealDeducted(),
+                reservation.getReservationStatus(), reservation.getGuestCount(),
+                reservation.getRestaurant().getRestaurantId(), reservation.getRestaurant().getName(),
+                reservation.getUser().getUserId(), reservation.getUser().getUsername());
+        return new ReservationEvent(type, reservation.getReservationId(),
+                reservation.getRestaurant().getRestaurantId(), body);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public ReservationResponse getReservation() {
+        return reservation;
+    }
+}
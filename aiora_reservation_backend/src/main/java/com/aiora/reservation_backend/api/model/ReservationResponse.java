@@ -16,6 +16,29 @@ public class ReservationResponse {
     private String restaurantName;
     private Long userId;
     private String username;
+
+    public ReservationResponse() {
+    }
+
+    /**
+     * Used by JPQL constructor expressions in ReservationQueryDao; argument order is part of those queries
+     */
+    public ReservationResponse(Long reservationId, LocalDateTime reservationDate, String guestName, String roomNumber,
+                               Boolean isHotelGuest, Boolean mealDeducted, ReservationStatus reservationStatus,
+                               Integer guestCount, Long restaurantId, String restaurantName, Long userId, String username) {
+        this.reservationId = reservationId;
+        this.reservationDate = reservationDate;
+        this.guestName = guestName;
+        this.roomNumber = roomNumber;
+        this.isHotelGuest = isHotelGuest;
+        this.mealDeducted = mealDeducted;
+        this.reservationStatus = reservationStatus;
+        this.guestCount = guestCount;
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+        this.userId = userId;
+        this.username = username;
+    }
     
     // Getters and setters
     public Long getReservationId() {
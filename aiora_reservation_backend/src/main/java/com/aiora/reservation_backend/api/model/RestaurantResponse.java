@@ -1,5 +1,6 @@
 package com.aiora.reservation_backend.api.model;
 
+import com.aiora.reservation_backend.model.Restaurant;
 import com.aiora.reservation_backend.model.Restaurant.RestaurantType;
 
 public class RestaurantResponse {
@@ -12,6 +13,20 @@ public class RestaurantResponse {
     private String description;
     private Boolean acceptsOutsideGuests;
     private Boolean roomOnly;
+
+    public static RestaurantResponse of(Restaurant restaurant) {
+        RestaurantResponse response = new RestaurantResponse();
+        response.setRestaurantId(restaurant.getRestaurantId());
+        response.setName(restaurant.getName());
+        response.setRestaurantType(restaurant.getRestaurantType());
+        response.setDefaultCapacity(restaurant.getDefaultCapacity());
+        response.setMaxCapacity(restaurant.getMaxCapacity());
+        response.setLocation(restaurant.getLocation());
+        response.setDescription(restaurant.getDescription());
+        response.setAcceptsOutsideGuests(restaurant.getAcceptsOutsideGuests());
+        response.setRoomOnly(restaurant.getRoomOnly());
+        return response;
+    }
     
     // Getters and setters
     public Long getRestaurantId() {
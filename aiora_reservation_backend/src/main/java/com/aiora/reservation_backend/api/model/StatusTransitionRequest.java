@@ -0,0 +1,82 @@
+package com.aiora.reservation_backend.api.model;
+
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Move every reservation of a restaurant or a room that is in one of the given statuses,
+ * optionally within a date range, to a new status
+ */
+public class StatusTransitionRequest {
+    private Long restaurantId;
+    private String roomNumber;
+    private List<ReservationStatus> fromStatuses;
+    private ReservationStatus toStatus;
+    // Inclusive
+    private LocalDateTime startDate;
+    // Exclusive
+    private LocalDateTime endDate;
+
+    public StatusTransitionRequest() {
+    }
+
+    public StatusTransitionRequest(Long restaurantId, String roomNumber, List<ReservationStatus> fromStatuses,
+                                   ReservationStatus toStatus, LocalDateTime startDate, LocalDateTime endDate) {
+        this.restaurantId = restaurantId;
+        this.roomNumber = roomNumber;
+        this.fromStatuses = fromStatuses;
+        this.toStatus = toStatus;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public void setRoomNumber(String roomNumber) {
+        this.roomNumber = roomNumber;
+    }
+
+    public List<ReservationStatus> getFromStatuses() {
+        return fromStatuses;
+    }
+
+    public void setFromStatuses(List<ReservationStatus> fromStatuses) {
+        this.fromStatuses = fromStatuses;
+    }
+
+    public ReservationStatus getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(ReservationStatus toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+}
@@ -0,0 +1,35 @@
+package com.aiora.reservation_backend.api.model;
+
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+
+import java.util.Map;
+
+/**
+ * Row counts of a bulk status transition
+ */
+public class StatusTransitionResponse {
+    private final ReservationStatus toStatus;
+    private final int updated;
+    private final Map<Long, Integer> updatedByRestaurant;
+
+    public StatusTransitionResponse(ReservationStatus toStatus, Map<Long, Integer> updatedByRestaurant) {
+        this.toStatus = toStatus;
+        this.updated = updatedByRestaurant.values().stream().mapToInt(Integer::intValue).sum();
+        this.updatedByRestaurant = updatedByRestaurant;
+    }
+
+    public ReservationStatus getToStatus() {
+        return toStatus;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    /**
+     * Reservations moved per restaurant id, only restaurants with at least one
+     */
+    public Map<Long, Integer> getUpdatedByRestaurant() {
+        return updatedByRestaurant;
+    }
+}
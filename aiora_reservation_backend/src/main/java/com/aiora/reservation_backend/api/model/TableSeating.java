@@ -0,0 +1,52 @@
+package com.aiora.reservation_backend.api.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A reservation seated at one table, for the restaurant's table grid
+ */
+public class TableSeating {
+    private final Long tableId;
+    private final Long reservationId;
+    private final String guestName;
+    private final int guestCount;
+    private final LocalDateTime reservationDate;
+    private final LocalDateTime seatedUntil;
+
+    public TableSeating(Long tableId, Long reservationId, String guestName, int guestCount,
+                        LocalDateTime reservationDate, LocalDateTime seatedUntil) {
+        this.tableId = tableId;
+        this.reservationId = reservationId;
+        this.guestName = guestName;
+        this.guestCount = guestCount;
+        this.reservationDate = reservationDate;
+        this.seatedUntil = seatedUntil;
+    }
+
+    public Long getTableId() {
+        return tableId;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public String getGuestName() {
+        return guestName;
+    }
+
+    public int getGuestCount() {
+        return guestCount;
+    }
+
+    public LocalDateTime getReservationDate() {
+        return reservationDate;
+    }
+
+    /**
+     * End of the time the table is held for the reservation
+     */
+    public LocalDateTime getSeatedUntil() {
+        return seatedUntil;
+    }
+}
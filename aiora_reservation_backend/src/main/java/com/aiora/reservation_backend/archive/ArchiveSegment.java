@@ -0,0 +1,286 @@
+package com.aiora.reservation_backend.archive;
+
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One immutable archive segment, read through a memory-mapped buffer.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header      64 bytes   magic, version, record count, room index count, min/max date, section offsets
+ * records     72 bytes   per reservation, sorted by (reservationDate, reservationId)
+ * id index    12 bytes   per reservation: id, record number; sorted by id
+ * room index   4 bytes   per reservation with a room: record number; sorted by room number
+ * strings     UTF-8 blob referenced by (offset, length) pairs from the records, shared between records
+ * </pre>
+ * Dates are stored as microseconds since 1970-01-01T00:00 and statuses by ordinal,
+ * so new statuses must only ever be appended to {@link ReservationStatus}.
+ * All reads use absolute buffer access, so a segment can be shared between threads.
+ */
+final class ArchiveSegment {
+
+    static final int MAGIC = 0x41525356; // "ARSV"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 72;
+    static final int ID_ENTRY_SIZE = 12;
+    static final int ROOM_ENTRY_SIZE = 4;
+
+    // Record field offsets
+    static final int ID = 0;
+    static final int DATE = 8;
+    static final int RESTAURANT_ID = 16;
+    static final int USER_ID = 24;
+    static final int GUEST_COUNT = 32;
+    static final int STATUS = 36;
+    static final int FLAGS = 37;
+    static final int GUEST_NAME = 40;
+    static final int ROOM_NUMBER = 48;
+    static final int RESTAURANT_NAME = 56;
+    static final int USERNAME = 64;
+
+    // Nullable booleans take two bits each: present, value
+    static final int HOTEL_GUEST_PRESENT = 1;
+    static final int HOTEL_GUEST = 2;
+    static final int MEAL_DEDUCTED_PRESENT = 4;
+    static final int MEAL_DEDUCTED = 8;
+
+    static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final ReservationStatus[] STATUSES = ReservationStatus.values();
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int roomCount;
+    private final long minDate;
+    private final long maxDate;
+    private final long minId;
+    private final long maxId;
+    private final int recordsOffset;
+    private final int idIndexOffset;
+    private final int roomIndexOffset;
+    private final int stringsOffset;
+
+    private ArchiveSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a version " + VERSION + " archive segment: " + path);
+        }
+        this.count = buffer.getInt(8);
+        this.roomCount = buffer.getInt(12);
+        this.minDate = buffer.getLong(16);
+        this.maxDate = buffer.getLong(24);
+        this.recordsOffset = (int) buffer.getLong(32);
+        this.idIndexOffset = (int) buffer.getLong(40);
+        this.roomIndexOffset = (int) buffer.getLong(48);
+        this.stringsOffset = (int) buffer.getLong(56);
+        this.minId = count == 0 ? 0 : buffer.getLong(idIndexOffset);
+        this.maxId = count == 0 ? -1 : buffer.getLong(idIndexOffset + (count - 1) * ID_ENTRY_SIZE);
+    }
+
+    static ArchiveSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ArchiveSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int size() {
+        return count;
+    }
+
+    LocalDateTime getMaxDate() {
+        return toDate(maxDate);
+    }
+
+    Optional<ReservationResponse> findById(long id) {
+        int record = recordOf(id);
+        return record < 0 ? Optional.empty() : Optional.of(read(record));
+    }
+
+    boolean contains(long id) {
+        return recordOf(id) >= 0;
+    }
+
+    /**
+     * Every reservation in the segment, oldest first
+     */
+    List<ReservationResponse> readAll() {
+        List<ReservationResponse> result = new ArrayList<>(count);
+        for (int record = 0; record < count; record++) {
+            result.add(read(record));
+        }
+        return result;
+    }
+
+    List<ReservationResponse> findByRoomNumber(String roomNumber) {
+        List<ReservationResponse> result = new ArrayList<>();
+        int low = 0;
+        int high = roomCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (roomAt(mid).compareTo(roomNumber) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < roomCount && roomAt(i).equals(roomNumber); i++) {
+            result.add(read(buffer.getInt(roomIndexOffset + i * ROOM_ENTRY_SIZE)));
+        }
+        return result;
+    }
+
+    /**
+     * Reservations in [from, to], oldest first
+     * @param restaurantId Restaurant to keep, or null for all
+     */
+    void findByDateRange(Long restaurantId, LocalDateTime from, LocalDateTime to, List<ReservationResponse> out) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        if (count == 0 || fromMicros > maxDate || toMicros < minDate) {
+            return;
+        }
+        for (int record = firstAtOrAfter(fromMicros, Long.MIN_VALUE); record < count; record++) {
+            int offset = recordOffset(record);
+            if (buffer.getLong(offset + DATE) > toMicros) {
+                break;
+            }
+            if (restaurantId == null || buffer.getLong(offset + RESTAURANT_ID) == restaurantId) {
+                out.add(read(record));
+            }
+        }
+    }
+
+    /**
+     * Up to limit reservations in [from, to], newest first, strictly after the cursor in that order
+     * @param cursorDate Date of the last row already returned, or null to start at the newest
+     */
+    void findByDateRangeAfter(Long restaurantId, LocalDateTime from, LocalDateTime to,
+                               LocalDateTime cursorDate, Long cursorId, int limit, List<ReservationResponse> out) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        if (count == 0 || fromMicros > maxDate || toMicros < minDate) {
+            return;
+        }
+        // First record past the upper bound; everything before it is a candidate
+        int end = firstAtOrAfter(toMicros, Long.MAX_VALUE);
+        if (cursorDate != null) {
+            end = Math.min(end, firstAtOrAfter(toMicros(cursorDate), cursorId));
+        }
+        int found = 0;
+        for (int record = end - 1; record >= 0 && found < limit; record--) {
+            int offset = recordOffset(record);
+            if (buffer.getLong(offset + DATE) < fromMicros) {
+                break;
+            }
+            if (restaurantId == null || buffer.getLong(offset + RESTAURANT_ID) == restaurantId) {
+                out.add(read(record));
+                found++;
+            }
+        }
+    }
+
+    /**
+     * Index of the first record ordered at or after (date, id), or count if there is none
+     */
+    private int firstAtOrAfter(long date, long id) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int offset = recordOffset(mid);
+            long midDate = buffer.getLong(offset + DATE);
+            if (midDate < date || (midDate == date && buffer.getLong(offset + ID) < id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int recordOf(long id) {
+        // Most segments are skipped here, without touching their index pages
+        if (id < minId || id > maxId) {
+            return -1;
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = buffer.getLong(idIndexOffset + mid * ID_ENTRY_SIZE);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(idIndexOffset + mid * ID_ENTRY_SIZE + 8);
+            }
+        }
+        return -1;
+    }
+
+    private String roomAt(int roomEntry) {
+        int record = buffer.getInt(roomIndexOffset + roomEntry * ROOM_ENTRY_SIZE);
+        return string(recordOffset(record) + ROOM_NUMBER);
+    }
+
+    private ReservationResponse read(int record) {
+        int offset = recordOffset(record);
+        int flags = buffer.get(offset + FLAGS);
+        return new ReservationResponse(
+                buffer.getLong(offset + ID),
+                toDate(buffer.getLong(offset + DATE)),
+                string(offset + GUEST_NAME),
+                string(offset + ROOM_NUMBER),
+                (flags & HOTEL_GUEST_PRESENT) != 0 ? (flags & HOTEL_GUEST) != 0 : null,
+                (flags & MEAL_DEDUCTED_PRESENT) != 0 ? (flags & MEAL_DEDUCTED) != 0 : null,
+                STATUSES[buffer.get(offset + STATUS)],
+                buffer.getInt(offset + GUEST_COUNT),
+                buffer.getLong(offset + RESTAURANT_ID),
+                string(offset + RESTAURANT_NAME),
+                buffer.getLong(offset + USER_ID),
+                string(offset + USERNAME));
+    }
+
+    private String string(int referenceOffset) {
+        int length = buffer.getInt(referenceOffset + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(stringsOffset + buffer.getInt(referenceOffset), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int recordOffset(int record) {
+        return recordsOffset + record * RECORD_SIZE;
+    }
+
+    static long toMicros(LocalDateTime date) {
+        return ChronoUnit.MICROS.between(EPOCH, date);
+    }
+
+    static LocalDateTime toDate(long micros) {
+        return EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
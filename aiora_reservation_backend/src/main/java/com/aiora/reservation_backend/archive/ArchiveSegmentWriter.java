@@ -0,0 +1,132 @@
+package com.aiora.reservation_backend.archive;
+
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static com.aiora.reservation_backend.archive.ArchiveSegment.*;
+
+/**
+ * Writes the segment format read by {@link ArchiveSegment}. A segment is written to a temporary
+ * file, synced and then linked into place, so readers never see a partial segment. Linking fails
+ * if the target already exists, so a segment written by another node is never replaced.
+ */
+final class ArchiveSegmentWriter {
+
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private ArchiveSegmentWriter() {
+    }
+
+    /**
+     * @param rows Reservations ordered by (reservationDate, reservationId)
+     * @throws java.nio.file.FileAlreadyExistsException if the target segment already exists
+     */
+    static void write(Path target, List<ReservationResponse> rows) throws IOException {
+        int count = rows.size();
+        Map<String, int[]> strings = new HashMap<>();
+        ByteArrayOutputStream blob = new ByteArrayOutputStream();
+
+        int[] byId = IntStream.range(0, count).boxed()
+                .sorted(Comparator.comparing(i -> rows.get(i).getReservationId()))
+                .mapToInt(Integer::intValue).toArray();
+        int[] byRoom = IntStream.range(0, count).boxed()
+                .filter(i -> rows.get(i).getRoomNumber() != null)
+                .sorted(Comparator.comparing(i -> rows.get(i).getRoomNumber()))
+                .mapToInt(Integer::intValue).toArray();
+
+        long recordsOffset = HEADER_SIZE;
+        long idIndexOffset = recordsOffset + (long) count * RECORD_SIZE;
+        long roomIndexOffset = idIndexOffset + (long) count * ID_ENTRY_SIZE;
+        long stringsOffset = roomIndexOffset + (long) byRoom.length * ROOM_ENTRY_SIZE;
+
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeInt(byRoom.length);
+            out.writeLong(count == 0 ? 0 : toMicros(rows.get(0).getReservationDate()));
+            out.writeLong(count == 0 ? 0 : toMicros(rows.get(count - 1).getReservationDate()));
+            out.writeLong(recordsOffset);
+            out.writeLong(idIndexOffset);
+            out.writeLong(roomIndexOffset);
+            out.writeLong(stringsOffset);
+
+            for (ReservationResponse row : rows) {
+                out.writeLong(row.getReservationId());
+                out.writeLong(toMicros(row.getReservationDate()));
+                out.writeLong(row.getRestaurantId());
+                out.writeLong(row.getUserId());
+                out.writeInt(row.getGuestCount());
+                out.writeByte(row.getReservationStatus().ordinal());
+                out.writeByte(flags(row));
+                out.writeShort(0);
+                writeString(out, row.getGuestName(), strings, blob);
+                writeString(out, row.getRoomNumber(), strings, blob);
+                writeString(out, row.getRestaurantName(), strings, blob);
+                writeString(out, row.getUsername(), strings, blob);
+            }
+            for (int record : byId) {
+                out.writeLong(rows.get(record).getReservationId());
+                out.writeInt(record);
+            }
+            for (int record : byRoom) {
+                out.writeInt(record);
+            }
+            blob.writeTo(out);
+            out.flush();
+            file.getFD().sync();
+        }
+        try {
+            // Unlike a rename, creating the link is atomic and exclusive
+            Files.createLink(target, temp);
+        } finally {
+            Files.delete(temp);
+        }
+    }
+
+    private static int flags(ReservationResponse row) {
+        int flags = 0;
+        if (row.getIsHotelGuest() != null) {
+            flags |= HOTEL_GUEST_PRESENT | (row.getIsHotelGuest() ? HOTEL_GUEST : 0);
+        }
+        if (row.getMealDeducted() != null) {
+            flags |= MEAL_DEDUCTED_PRESENT | (row.getMealDeducted() ? MEAL_DEDUCTED : 0);
+        }
+        return flags;
+    }
+
+    /**
+     * Writes the (offset, length) reference; repeated values such as restaurant names are stored once
+     */
+    private static void writeString(DataOutputStream out, String value, Map<String, int[]> strings,
+                                    ByteArrayOutputStream blob) throws IOException {
+        if (value == null) {
+            out.writeInt(0);
+            out.writeInt(-1);
+            return;
+        }
+        int[] reference = strings.computeIfAbsent(value, v -> {
+            byte[] bytes = v.getBytes(StandardCharsets.UTF_8);
+            int[] ref = {blob.size(), bytes.length};
+            blob.writeBytes(bytes);
+            return ref;
+        });
+        out.writeInt(reference[0]);
+        out.writeInt(reference[1]);
+    }
+}
@@ -0,0 +1,287 @@
+package com.aiora.reservation_backend.archive;
+
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier of the reservation history: finished reservations moved out of the database by
+ * {@link ReservationArchiver} into immutable, memory-mapped segment files.
+ *
+ * Lookups by id and room number are binary searches over each segment's indexes and date ranges
+ * are binary searches over its date-ordered records. Segments whose id or date range cannot match
+ * are skipped without a search. Each archiver batch writes a segment, and {@link #compact()} merges
+ * runs of small neighbouring segments up to segment-max-records, so the number of segments grows
+ * with the archived rows divided by that bound rather than with the number of batches.
+ *
+ * A segment is never rewritten. A merged segment is named after the range of segment numbers it
+ * replaces (segment-00000003-00000007.arsv) and is written before they are deleted, so a segment
+ * covered by another one is ignored. When several nodes run, the directory must be shared; nodes
+ * pick up segments written or merged elsewhere on {@link #refresh()}.
+ */
+@Component
+public class ReservationArchive {
+    private static final Logger log = LoggerFactory.getLogger(ReservationArchive.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{8})(?:-(\\d{8}))?\\.arsv");
+
+    private static final Comparator<ReservationResponse> FEED_ORDER =
+            Comparator.comparing(ReservationResponse::getReservationDate)
+                    .thenComparing(ReservationResponse::getReservationId);
+
+    private final Path directory;
+    private final int segmentMaxRecords;
+
+    // Replaced wholesale on every change, so readers iterate a stable snapshot without locking
+    private volatile List<ArchiveSegment> segments = List.of();
+
+    public ReservationArchive(@Value("${reservation.archive.dir:data/archive}") String directory,
+                              @Value("${reservation.archive.segment-max-records:1000000}") int segmentMaxRecords) {
+        this.directory = Paths.get(directory);
+        this.segmentMaxRecords = segmentMaxRecords;
+        try {
+            Files.createDirectories(this.directory);
+            // Left behind by a write that crashed before its rename; never visible to readers
+            try (Stream<Path> files = Files.list(this.directory)) {
+                for (Path temp : files.filter(f -> f.toString().endsWith(ArchiveSegmentWriter.TEMP_SUFFIX)).toList()) {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare reservation archive in " + this.directory, e);
+        }
+        refresh();
+    }
+
+    /**
+     * Map segments that appeared in the directory since the last scan and drop those merged away
+     */
+    @Scheduled(fixedDelayString = "${reservation.archive.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        Map<Path, ArchiveSegment> loaded = segments.stream()
+                .collect(Collectors.toMap(ArchiveSegment::getPath, segment -> segment));
+        List<ArchiveSegment> current = new ArrayList<>();
+        try {
+            for (Path file : listSegments(false)) {
+                ArchiveSegment segment = loaded.get(file);
+                current.add(segment != null ? segment : ArchiveSegment.open(file));
+            }
+        } catch (NoSuchFileException e) {
+            // Merged away by another node while listing; the next scan sees the merged segment
+            log.debug("Reservation archive segment {} disappeared during refresh", e.getFile());
+            return;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read reservation archive in " + directory, e);
+        }
+        if (!current.equals(segments)) {
+            segments = List.copyOf(current);
+            log.info("Reservation archive has {} segments, {} reservations", segments.size(),
+                    segments.stream().mapToLong(ArchiveSegment::size).sum());
+        }
+    }
+
+    /**
+     * Write reservations to new segments. Once this returns they are durable and visible to reads.
+     * @param rows Reservations not yet in the archive, in any order
+     */
+    public synchronized void append(List<ReservationResponse> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<ReservationResponse> sorted = new ArrayList<>(rows);
+        sorted.sort(FEED_ORDER);
+        List<ArchiveSegment> updated = new ArrayList<>(segments);
+        try {
+            int next = nextSegmentNumber();
+            for (int from = 0; from < sorted.size(); from += segmentMaxRecords) {
+                Path file = directory.resolve(String.format("segment-%08d.arsv", next++));
+                ArchiveSegmentWriter.write(file, sorted.subList(from, Math.min(from + segmentMaxRecords, sorted.size())));
+                updated.add(ArchiveSegment.open(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write reservation archive segment in " + directory, e);
+        } finally {
+            segments = List.copyOf(updated);
+        }
+    }
+
+    /**
+     * Merge runs of neighbouring segments holding fewer than segment-max-records into one segment each,
+     * then delete the segments they replace along with any a crashed merge left behind
+     */
+    public synchronized void compact() {
+        List<ArchiveSegment> updated = new ArrayList<>();
+        List<ArchiveSegment> run = new ArrayList<>();
+        long runSize = 0;
+        try {
+            for (ArchiveSegment segment : segments) {
+                if (segment.size() < segmentMaxRecords && runSize + segment.size() <= segmentMaxRecords) {
+                    run.add(segment);
+                    runSize += segment.size();
+                    continue;
+                }
+                updated.add(merge(run));
+                run.clear();
+                runSize = 0;
+                if (segment.size() < segmentMaxRecords) {
+                    run.add(segment);
+                    runSize = segment.size();
+                } else {
+                    updated.add(segment);
+                }
+            }
+            updated.add(merge(run));
+            segments = updated.stream().filter(Objects::nonNull).toList();
+            for (Path replaced : listSegments(true)) {
+                Files.deleteIfExists(replaced);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact reservation archive in " + directory, e);
+        }
+    }
+
+    /**
+     * @return The segment holding every reservation of the run, the only segment of a run of one,
+     *         or null for an empty run
+     */
+    private ArchiveSegment merge(List<ArchiveSegment> run) throws IOException {
+        if (run.size() < 2) {
+            return run.isEmpty() ? null : run.get(0);
+        }
+        List<ReservationResponse> rows = new ArrayList<>();
+        for (ArchiveSegment segment : run) {
+            rows.addAll(segment.readAll());
+        }
+        rows.sort(FEED_ORDER);
+        Path file = directory.resolve(String.format("segment-%08d-%08d.arsv",
+                firstNumber(run.get(0).getPath()), lastNumber(run.get(run.size() - 1).getPath())));
+        ArchiveSegmentWriter.write(file, rows);
+        log.info("Merged {} reservation archive segments into {}", run.size(), file.getFileName());
+        return ArchiveSegment.open(file);
+    }
+
+    public Optional<ReservationResponse> findById(Long id) {
+        for (ArchiveSegment segment : segments) {
+            Optional<ReservationResponse> found = segment.findById(id);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean contains(Long id) {
+        return segments.stream().anyMatch(segment -> segment.contains(id));
+    }
+
+    public List<ReservationResponse> findByRoomNumber(String roomNumber) {
+        List<ReservationResponse> result = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            result.addAll(segment.findByRoomNumber(roomNumber));
+        }
+        return result;
+    }
+
+    /**
+     * Whether any archived reservation for the room had its meal deducted
+     */
+    public boolean existsMealDeductedForRoom(String roomNumber) {
+        return findByRoomNumber(roomNumber).stream().anyMatch(row -> Boolean.TRUE.equals(row.getMealDeducted()));
+    }
+
+    /**
+     * Archived reservations dated within [startDate, endDate], oldest first
+     * @param restaurantId Restaurant to keep, or null for all
+     */
+    public List<ReservationResponse> findByDateRange(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate) {
+        List<ReservationResponse> result = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            segment.findByDateRange(restaurantId, startDate, endDate, result);
+        }
+        // A late status change can archive an old reservation into a newer segment
+        result.sort(FEED_ORDER);
+        return result;
+    }
+
+    /**
+     * Keyset page of archived reservations within [startDate, endDate], newest first,
+     * following the same (reservationDate DESC, reservationId DESC) order as the live feeds
+     * @param cursorDate Date of the last row already seen, or null for the first page
+     */
+    public List<ReservationResponse> findByDateRangeAfter(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate,
+                                                          LocalDateTime cursorDate, Long cursorId, int limit) {
+        List<ReservationResponse> result = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            segment.findByDateRangeAfter(restaurantId, startDate, endDate, cursorDate, cursorId, limit, result);
+        }
+        result.sort(FEED_ORDER.reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private int nextSegmentNumber() throws IOException {
+        int highest = 0;
+        for (Path file : listSegments(false)) {
+            highest = Math.max(highest, lastNumber(file));
+        }
+        return highest + 1;
+    }
+
+    /**
+     * Segment files ordered by their first number
+     * @param replaced Whether to list the segments replaced by a merge instead of the current ones
+     */
+    private List<Path> listSegments(boolean replaced) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingInt(ReservationArchive::firstNumber)
+                            .thenComparing(Comparator.comparingInt(ReservationArchive::lastNumber).reversed()))
+                    .toList();
+        }
+        // Ranges of current segments never overlap, so a file ending within the widest range seen is covered by it
+        List<Path> result = new ArrayList<>();
+        int coveredTo = 0;
+        for (Path file : files) {
+            boolean covered = lastNumber(file) <= coveredTo;
+            if (covered == replaced) {
+                result.add(file);
+            }
+            coveredTo = Math.max(coveredTo, lastNumber(file));
+        }
+        return result;
+    }
+
+    private static int firstNumber(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    private static int lastNumber(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            return 0;
+        }
+        return Integer.parseInt(matcher.group(matcher.group(2) != null ? 2 : 1));
+    }
+}
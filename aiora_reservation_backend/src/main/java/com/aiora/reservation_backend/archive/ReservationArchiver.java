@@ -0,0 +1,103 @@
+package com.aiora.reservation_backend.archive;
+
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.dao.ReservationDao;
+import com.aiora.reservation_backend.dao.ReservationQueryDao;
+import com.aiora.reservation_backend.service.ChangeVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves completed, cancelled and no-show reservations older than the horizon from the reservations
+ * table into the {@link ReservationArchive}, one batch per transaction, and then compacts the
+ * segments the batches wrote.
+ *
+ * A batch is written to the archive before its rows are deleted. If the delete does not commit,
+ * the rows stay live and are already archived; the next run skips them and only deletes them,
+ * and reads prefer the live row in the meantime. Run it on one node only: it is off unless
+ * reservation.archive.enabled is set, and a second node writing the same segment number fails
+ * its batch instead of replacing the first node's segment.
+ */
+@Component
+public class ReservationArchiver {
+    private static final Logger log = LoggerFactory.getLogger(ReservationArchiver.class);
+
+    private final ReservationQueryDao reservationQueryDao;
+    private final ReservationDao reservationDao;
+    private final ReservationArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeVersions changeVersions;
+
+    @Value("${reservation.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reservation.archive.horizon-days:365}")
+    private int horizonDays;
+
+    @Value("${reservation.archive.batch-size:10000}")
+    private int batchSize;
+
+    @Autowired
+    public ReservationArchiver(ReservationQueryDao reservationQueryDao, ReservationDao reservationDao,
+                               ReservationArchive archive, TransactionTemplate transactionTemplate,
+                               ChangeVersions changeVersions) {
+        this.reservationQueryDao = reservationQueryDao;
+        this.reservationDao = reservationDao;
+        this.archive = archive;
+        this.transactionTemplate = transactionTemplate;
+        this.changeVersions = changeVersions;
+    }
+
+    @Scheduled(cron = "${reservation.archive.cron:0 30 3 * * *}")
+    public void archiveExpired() {
+        if (enabled) {
+            archiveOlderThan(LocalDateTime.now().minusDays(horizonDays));
+        }
+    }
+
+    /**
+     * Archive every finished reservation dated before the cutoff
+     * @return Number of reservations removed from the reservations table
+     */
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<ReservationResponse> rows = reservationQueryDao.findArchivable(cutoff, batchSize);
+                if (rows.isEmpty()) {
+                    return 0;
+                }
+                archive.append(rows.stream()
+                        .filter(row -> !archive.contains(row.getReservationId()))
+                        .collect(Collectors.toList()));
+                reservationDao.deleteAllByIds(rows.stream()
+                        .map(ReservationResponse::getReservationId)
+                        .collect(Collectors.toList()));
+                rows.stream()
+                        .map(ReservationResponse::getRestaurantId)
+                        .distinct()
+                        .forEach(changeVersions::reservationsChanged);
+                return rows.size();
+            });
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            // Each batch wrote its own segment; fold them into the last one that still has room
+            archive.compact();
+            log.info("Archived {} reservations dated before {}", total, cutoff);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,67 @@
+package com.aiora.reservation_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas ({@code reservation.datasource.replica-urls}).
+ *
+ * Replaces Spring Boot's single pool with one Hikari pool for the primary, built from the usual
+ * {@code spring.datasource} properties, and one per replica with the same pool settings. Read-only
+ * transactions are routed to the replicas by {@link ReplicaRoutingDataSource}; Flyway and every
+ * write use the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "reservation.datasource.replica-urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource primary = pool(properties, environment, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), "primary");
+        String username = environment.getProperty("reservation.datasource.replica-username",
+                properties.determineUsername());
+        String password = environment.getProperty("reservation.datasource.replica-password",
+                properties.determinePassword());
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : environment.getRequiredProperty("reservation.datasource.replica-urls", String[].class)) {
+            replicas.add(pool(properties, environment, url.trim(), username, password, "replica-" + (replicas.size() + 1)));
+        }
+        long readYourWritesMillis = environment.getProperty("reservation.datasource.read-your-writes-ms", Long.class, 5_000L);
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWritesMillis);
+    }
+
+    /**
+     * Connections are only taken on the first statement, once the transaction's read-only flag is known
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url,
+                                         String username, String password, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(pool.getPoolName() != null ? pool.getPoolName() + "-" + name : name);
+        return pool;
+    }
+}
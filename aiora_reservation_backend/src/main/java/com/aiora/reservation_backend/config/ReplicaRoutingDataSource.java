@@ -0,0 +1,157 @@
+package com.aiora.reservation_backend.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Sends the connections of read-only transactions to the replicas, round robin, and everything
+ * else to the primary.
+ *
+ * The decision is made when a transaction takes its connection, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: Hibernate asks for the
+ * connection before the transaction is marked read-only, the proxy only fetches it on the first
+ * statement. A user whose read-write transaction committed within the read-your-writes window reads
+ * from the primary, so a replica that lags behind never hides their own change from them. Writes are
+ * only known to the node that made them. Code that caches what it reads, or checks it before a write,
+ * pins its reads to the primary with {@link #onPrimary}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Map<String, DataSource> targets = new LinkedHashMap<>();
+    private final List<DataSource> pools = new ArrayList<>();
+    private final List<String> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long readYourWritesNanos;
+    // Commit time of each user's last write, in System.nanoTime()
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger writes = new AtomicInteger();
+
+    /**
+     * @param primary Pool of the primary
+     * @param replicas Pools of the replicas, may be empty
+     * @param readYourWritesMillis How long a user reads from the primary after their own write
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long readYourWritesMillis) {
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMillis);
+        targets.put(PRIMARY, primary);
+        pools.add(primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + (i + 1);
+            targets.put(key, replicas.get(i));
+            pools.add(replicas.get(i));
+            this.replicas.add(key);
+        }
+        setTargetDataSources(new HashMap<>(targets));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * Run the work with every connection it takes coming from the primary. A connection the current
+     * transaction already holds stays the one it has.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (Boolean.TRUE.equals(PINNED.get())) {
+            return work.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    /**
+     * Replace each target pool, e.g. with a wrapper; only before the bean is initialized
+     * @param decorator Gets the key and pool of each target
+     */
+    public void decorateTargets(BiFunction<String, DataSource, DataSource> decorator) {
+        targets.replaceAll(decorator);
+        setTargetDataSources(new HashMap<>(targets));
+        setDefaultTargetDataSource(targets.get(PRIMARY));
+    }
+
+    /**
+     * Pools of the primary and the replicas, undecorated
+     */
+    public List<DataSource> getPools() {
+        return List.copyOf(pools);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recordWrite(user);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (replicas.isEmpty() || Boolean.TRUE.equals(PINNED.get()) || wroteRecently(user)) {
+            return PRIMARY;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource pool : pools) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void recordWrite(String user) {
+        long now = System.nanoTime();
+        lastWrites.put(user, now);
+        // Users who stopped writing are dropped once in a while, so the map only holds recent writers
+        if (writes.incrementAndGet() % 256 == 0) {
+            lastWrites.values().removeIf(written -> now - written > readYourWritesNanos);
+        }
+    }
+
+    private boolean wroteRecently(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long written = lastWrites.get(user);
+        return written != null && System.nanoTime() - written <= readYourWritesNanos;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken) ? authentication.getName() : null;
+    }
+}
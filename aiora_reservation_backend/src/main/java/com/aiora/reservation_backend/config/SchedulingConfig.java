@@ -0,0 +1,12 @@
+package com.aiora.reservation_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables background jobs such as the occupancy reconciliation pass
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,7 +1,9 @@
 package com.aiora.reservation_backend.config;
 
 import com.aiora.reservation_backend.api.auth.JwtAuthenticationFilter;
+import com.aiora.reservation_backend.api.model.ReservationCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -29,6 +31,7 @@ public class SecurityConfig {
         corsConfig.addAllowedOrigin("http://localhost:3000"); // Your React frontend URL
         corsConfig.addAllowedMethod("*");
         corsConfig.addAllowedHeader("*");
+        corsConfig.addExposedHeader(ReservationCursor.NEXT_CURSOR_HEADER); // Let the frontend read keyset cursors
         corsConfig.setAllowCredentials(true); // Enable credentials
         corsConfig.setMaxAge(3600L); // Cache preflight requests for 1 hour
 
@@ -45,6 +48,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/users/login").permitAll()
                 .requestMatchers("/api/v1/users/register").permitAll()
                 .requestMatchers("/api/v1/**").authenticated()
+                .requestMatchers("/actuator/metrics/**").authenticated()
                 .anyRequest().permitAll()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -52,8 +56,11 @@ public class SecurityConfig {
         return http.build();
     }
     
+    /**
+     * Hashes stored with a lower strength are upgraded on the user's next successful login
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${reservation.auth.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
\ No newline at end of file
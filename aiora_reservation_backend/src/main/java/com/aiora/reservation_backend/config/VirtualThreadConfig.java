@@ -0,0 +1,83 @@
+package com.aiora.reservation_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Support for running requests on virtual threads ({@code spring.threads.virtual.enabled=true}).
+ *
+ * Spring Boot then serves Tomcat requests, the MVC async executor used by streaming exports and
+ * scheduled jobs on virtual threads. The password hashing pool stays on platform threads on purpose:
+ * its size is what bounds the CPU spent on BCrypt. This configuration adds the two things the
+ * switch itself does not: a bound on concurrent database work and a report of carrier pinning.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Wraps the connection pool so that no more threads reach it than it has connections; with read
+     * replicas each pool behind the routing gets its own limit
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment,
+                                                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        long timeoutMillis = environment.getProperty("reservation.db.permit-timeout-ms", Long.class, 30_000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof ReplicaRoutingDataSource routing) {
+                    routing.decorateTargets((key, target) -> target instanceof HikariDataSource hikari
+                            ? limit(hikari, timeoutMillis, meterRegistry, Tags.of("pool", key)) : target);
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                return limit(hikari, timeoutMillis, meterRegistry, Tags.empty());
+            }
+        };
+    }
+
+    private static ConcurrencyLimitedDataSource limit(HikariDataSource hikari, long timeoutMillis,
+                                                      ObjectProvider<MeterRegistry> meterRegistry, Tags tags) {
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(hikari, poolSize(hikari), timeoutMillis);
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("db.permits.waiting", limited, ConcurrencyLimitedDataSource::getWaitingThreads)
+                    .tags(tags).description("Threads waiting for a database permit").register(registry);
+            Gauge.builder("db.permits.available", limited, ConcurrencyLimitedDataSource::getAvailablePermits)
+                    .tags(tags).description("Database permits not in use").register(registry);
+        });
+        return limited;
+    }
+
+    /**
+     * Hikari only fills in its default size when the pool starts, after this runs
+     */
+    private static int poolSize(HikariDataSource hikari) {
+        return hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "reservation.virtual-threads.pinning-monitor", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(Environment environment, MeterRegistry meterRegistry) {
+        long thresholdMillis = environment.getProperty("reservation.virtual-threads.pinning-threshold-ms", Long.class, 20L);
+        return new VirtualThreadPinningMonitor(Duration.ofMillis(thresholdMillis), meterRegistry);
+    }
+}
@@ -0,0 +1,74 @@
+package com.aiora.reservation_backend.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Native access to restaurant_change_versions, the persisted versions behind the reservation ETags.
+ * They live apart from the restaurants row, which every reservation insert share-locks through its
+ * foreign key, so a bump never rewrites or exclusively locks the catalog row. Writers of one restaurant
+ * meet only on its version row, which is bumped just before commit and held through the commit alone.
+ */
+@Repository
+public class ChangeVersionDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Bump the version of every given restaurant, creating its row on the first bump
+     * @param restaurantIds In ascending order, so concurrent bumps take their row locks in one order
+     */
+    @Transactional
+    public void bump(Collection<Long> restaurantIds) {
+        for (Long restaurantId : restaurantIds) {
+            if (increment(restaurantId) == 0) {
+                // A concurrent first bump may create the row in between, the increment below then waits for it
+                entityManager.createNativeQuery(
+                        "INSERT INTO restaurant_change_versions (restaurant_id, version) " +
+                        "SELECT restaurant_id, 0 FROM restaurants WHERE restaurant_id = :restaurantId " +
+                        "ON CONFLICT DO NOTHING")
+                        .setParameter("restaurantId", restaurantId)
+                        .executeUpdate();
+                increment(restaurantId);
+            }
+        }
+    }
+
+    private int increment(Long restaurantId) {
+        return entityManager.createNativeQuery(
+                "UPDATE restaurant_change_versions SET version = version + 1 WHERE restaurant_id = :restaurantId")
+                .setParameter("restaurantId", restaurantId)
+                .executeUpdate();
+    }
+
+    /**
+     * Version of one restaurant, -1 if it does not exist
+     */
+    public long findVersion(Long restaurantId) {
+        List<?> result = entityManager.createNativeQuery(
+                "SELECT COALESCE(v.version, 0) FROM restaurants r " +
+                "LEFT JOIN restaurant_change_versions v ON v.restaurant_id = r.restaurant_id " +
+                "WHERE r.restaurant_id = :restaurantId")
+                .setParameter("restaurantId", restaurantId)
+                .getResultList();
+        return result.isEmpty() ? -1 : ((Number) result.get(0)).longValue();
+    }
+
+    /**
+     * Version of all restaurants together: their number, the sum of their versions and the highest id.
+     * Any bump raises the sum, and restaurants that are added or removed change the number or the highest id.
+     */
+    public String findHotelVersion() {
+        Object[] row = (Object[]) entityManager.createNativeQuery(
+                "SELECT COUNT(*), COALESCE(SUM(v.version), 0), COALESCE(MAX(r.restaurant_id), 0) FROM restaurants r " +
+                "LEFT JOIN restaurant_change_versions v ON v.restaurant_id = r.restaurant_id")
+                .getSingleResult();
+        return ((Number) row[0]).longValue() + "." + ((Number) row[1]).longValue() + "." + ((Number) row[2]).longValue();
+    }
+}
@@ -0,0 +1,118 @@
+package com.aiora.reservation_backend.dao;
+
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Non-blocking reads of {@link ReservationResponse} rows over R2DBC, for the streaming read API.
+ *
+ * Rows are fetched one keyset page per call and the connection goes back to the pool as soon as the
+ * page is read, so how fast the client consumes a stream never decides how long a connection is held.
+ * The pool is owned here rather than exposed as a ConnectionFactory bean, which would make Spring Boot
+ * back off the JDBC DataSource the rest of the application runs on.
+ */
+@Repository
+public class ReactiveReservationDao implements DisposableBean {
+
+    private static final String SELECT_RESPONSE =
+            "SELECT r.reservation_id, r.reservation_date, r.guest_name, r.room_number, r.is_hotel_guest, " +
+            "r.meal_deducted, r.reservation_status, r.guest_count, s.restaurant_id, s.name AS restaurant_name, " +
+            "u.user_id, u.username " +
+            "FROM reservations r " +
+            "JOIN restaurants s ON s.restaurant_id = r.restaurant_id " +
+            "JOIN users u ON u.user_id = r.user_id " +
+            "WHERE 1 = 1 ";
+
+    // Same shape as the JPQL keyset predicate in ReservationQueryDao
+    private static final String KEYSET_PREDICATE =
+            "AND r.reservation_date <= :cursorDate " +
+            "AND (r.reservation_date < :cursorDate OR r.reservation_id < :cursorId) ";
+
+    private static final String KEYSET_ORDER = "ORDER BY r.reservation_date DESC, r.reservation_id DESC LIMIT :limit";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReservationDao(@Value("${reservation.reactive.url}") String url,
+                                  @Value("${reservation.reactive.username:}") String username,
+                                  @Value("${reservation.reactive.password:}") String password,
+                                  @Value("${reservation.reactive.pool-size:10}") int poolSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(0)
+                .maxSize(poolSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * One page of reservations, newest first
+     * @param restaurantId Restaurant to read, or null for all restaurants
+     * @param startDate Start of the date range, or null together with endDate for no range
+     * @param cursorDate Date of the last row already emitted, or null for the first page
+     * @param cursorId Id of the last row already emitted
+     */
+    public Mono<List<ReservationResponse>> findPage(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate,
+                                                    LocalDateTime cursorDate, Long cursorId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_RESPONSE);
+        if (restaurantId != null) {
+            sql.append("AND r.restaurant_id = :restaurantId ");
+        }
+        if (startDate != null) {
+            sql.append("AND r.reservation_date BETWEEN :startDate AND :endDate ");
+        }
+        if (cursorDate != null) {
+            sql.append(KEYSET_PREDICATE);
+        }
+        sql.append(KEYSET_ORDER);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("limit", limit);
+        if (restaurantId != null) {
+            spec = spec.bind("restaurantId", restaurantId);
+        }
+        if (startDate != null) {
+            spec = spec.bind("startDate", startDate).bind("endDate", endDate);
+        }
+        if (cursorDate != null) {
+            spec = spec.bind("cursorDate", cursorDate).bind("cursorId", cursorId);
+        }
+        return spec.map(ReactiveReservationDao::toResponse).all().collectList();
+    }
+
+    private static ReservationResponse toResponse(Readable row) {
+        return new ReservationResponse(
+                row.get("reservation_id", Long.class),
+                row.get("reservation_date", LocalDateTime.class),
+                row.get("guest_name", String.class),
+                row.get("room_number", String.class),
+                row.get("is_hotel_guest", Boolean.class),
+                row.get("meal_deducted", Boolean.class),
+                ReservationStatus.valueOf(row.get("reservation_status", String.class)),
+                row.get("guest_count", Integer.class),
+                row.get("restaurant_id", Long.class),
+                row.get("restaurant_name", String.class),
+                row.get("user_id", Long.class),
+                row.get("username", String.class));
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
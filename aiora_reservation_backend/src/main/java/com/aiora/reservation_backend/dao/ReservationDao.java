@@ -1,42 +1,39 @@
 package com.aiora.reservation_backend.dao;
 
 import com.aiora.reservation_backend.model.Reservation;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class  ReservationDao {
 
+    // Reservations that still hold seats
+    private static final String ACTIVE_STATUSES =
+            "com.aiora.reservation_backend.model.Reservation.ReservationStatus.PENDING, " +
+            "com.aiora.reservation_backend.model.Reservation.ReservationStatus.CONFIRMED";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
     public Optional<Reservation> findById(Long id) {
         Reservation reservation = entityManager.find(Reservation.class, id);
         return Optional.ofNullable(reservation);
     }
 
-    /**
-     * Retrieves all reservations from the database
-     * @return List of all reservations
-     */
-    public List<Reservation> findAll() {
-        return entityManager.createQuery("SELECT r FROM Reservation r", Reservation.class)
-                .getResultList();
-    }
-    public List<Reservation> findByRestaurantId(Long restaurantId) {
-        TypedQuery<Reservation> query = entityManager.createQuery(
-                "SELECT r FROM Reservation r WHERE r.restaurant.restaurantId = :restaurantId", Reservation.class);
-        query.setParameter("restaurantId", restaurantId);
-        return query.getResultList();
-    }
-
     public List<Reservation> findByUserId(Long userId) {
         TypedQuery<Reservation> query = entityManager.createQuery(
                 "SELECT r FROM Reservation r WHERE r.user.userId = :userId", Reservation.class);
@@ -44,101 +41,59 @@ public class  ReservationDao {
         return query.getResultList();
     }
 
-    public List<Reservation> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        TypedQuery<Reservation> query = entityManager.createQuery(
-                "SELECT r FROM Reservation r WHERE r.reservationDate BETWEEN :startDate AND :endDate", 
-                Reservation.class);
-        query.setParameter("startDate", startDate);
-        query.setParameter("endDate", endDate);
-        return query.getResultList();
-    }
-
     /**
-     * Find reservations for a specific restaurant and date range
+     * Restaurants the user holds reservations at, in ascending id order
      */
-    public List<Reservation> findByRestaurantAndDateRange(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate) {
-        TypedQuery<Reservation> query = entityManager.createQuery(
-                "SELECT r FROM Reservation r WHERE r.restaurant.restaurantId = :restaurantId " +
-                "AND r.reservationDate BETWEEN :startDate AND :endDate", 
-                Reservation.class);
-        query.setParameter("restaurantId", restaurantId);
-        query.setParameter("startDate", startDate);
-        query.setParameter("endDate", endDate);
+    public List<Long> findRestaurantIdsByUserId(Long userId) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "SELECT DISTINCT r.restaurant.restaurantId FROM Reservation r WHERE r.user.userId = :userId " +
+                "ORDER BY r.restaurant.restaurantId", Long.class);
+        query.setParameter("userId", userId);
         return query.getResultList();
     }
 
     /**
-     * Search for reservations across multiple fields
-     * @param searchTerm Term to search for (with wildcards)
-     * @param exactTerm Term without wildcards (for exact ID matches)
-     * @param limit Maximum number of results to return
-     * @return List of matching reservations
+     * Sum active guests per reservation time for a restaurant, used to build occupancy slots
+     * @return Rows of [reservationDate (LocalDateTime), guests (Long)]
      */
-    public List<Reservation> searchReservations(String searchTerm, String exactTerm, int limit) {
-        TypedQuery<Reservation> query = entityManager.createQuery(
-                "SELECT r FROM Reservation r WHERE " +
-                        "LOWER(r.guestName) LIKE :searchTerm OR " +
-                        "LOWER(r.roomNumber) LIKE :searchTerm OR " +
-                        "CAST(r.reservationId AS string) = :exactTerm OR " +
-                        "LOWER(r.restaurant.name) LIKE :searchTerm " +
-                        "ORDER BY r.reservationDate DESC",
-                Reservation.class);
-
-        query.setParameter("searchTerm", searchTerm);
-        query.setParameter("exactTerm", exactTerm);
-        query.setMaxResults(limit);
-
-        return query.getResultList();
-    }
-
-    public List<Reservation> findByRoomNumberAndMealDeducted(String roomNumber, Boolean mealDeducted) {
-        TypedQuery<Reservation> query = entityManager.createQuery(
-                "SELECT r FROM Reservation r WHERE r.roomNumber = :roomNumber AND r.mealDeducted = :mealDeducted", 
-                Reservation.class);
-        query.setParameter("roomNumber", roomNumber);
-        query.setParameter("mealDeducted", mealDeducted);
-        return query.getResultList();
-    }
-    // Fix for countGuestsByRestaurantAndTime method
-    public int countGuestsByRestaurantAndTime(Long restaurantId, LocalDateTime startTime, LocalDateTime endTime) {
-        TypedQuery<Long> query = entityManager.createQuery(
-                "SELECT COALESCE(SUM(r.guestCount), 0) FROM Reservation r WHERE r.restaurant.restaurantId = :restaurantId " +
-                "AND r.reservationDate BETWEEN :startTime AND :endTime " +
-                "AND r.reservationStatus IN (:confirmedStatus, :pendingStatus)", 
-                Long.class);
+    public List<Object[]> sumActiveGuestsByTime(Long restaurantId, LocalDateTime startTime, LocalDateTime endTime) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "SELECT r.reservationDate, SUM(r.guestCount) FROM Reservation r " +
+                "WHERE r.restaurant.restaurantId = :restaurantId " +
+                "AND r.reservationDate >= :startTime AND r.reservationDate < :endTime " +
+                "AND r.reservationStatus IN (" + ACTIVE_STATUSES + ") " +
+                "GROUP BY r.reservationDate", 
+                Object[].class);
         query.setParameter("restaurantId", restaurantId);
         query.setParameter("startTime", startTime);
         query.setParameter("endTime", endTime);
-        query.setParameter("confirmedStatus", Reservation.ReservationStatus.CONFIRMED);
-        query.setParameter("pendingStatus", Reservation.ReservationStatus.PENDING);
-        
-        Long result = query.getSingleResult();
-        return result != null ? result.intValue() : 0;
+        return query.getResultList();
     }
     
-    public boolean existsByRoomNumberAndMealDeducted(String roomNumber, Boolean mealDeducted) {
+    /**
+     * Check whether any reservation for the room already had its meal deducted.
+     * Uses a literal so PostgreSQL can answer from the partial idx_reservations_room_meal_deducted index.
+     */
+    public boolean existsMealDeductedForRoom(String roomNumber) {
         TypedQuery<Long> query = entityManager.createQuery(
-                "SELECT COUNT(r) FROM Reservation r WHERE r.roomNumber = :roomNumber AND r.mealDeducted = :mealDeducted", 
+                "SELECT COUNT(r) FROM Reservation r WHERE r.roomNumber = :roomNumber AND r.mealDeducted = true", 
                 Long.class);
         query.setParameter("roomNumber", roomNumber);
-        query.setParameter("mealDeducted", mealDeducted);
         return query.getSingleResult() > 0;
     }
+
     /**
-     * Count confirmed reservations for a restaurant on a specific date range
+     * The rooms among the given ones that already had a meal deducted
      */
-    // Fix for countConfirmedReservationsByRestaurantAndDateRange method
-    public Integer countConfirmedReservationsByRestaurantAndDateRange(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate) {
-        TypedQuery<Long> query = entityManager.createQuery(
-                "SELECT COUNT(r) FROM Reservation r WHERE r.restaurant.restaurantId = :restaurantId " +
-                "AND r.reservationDate BETWEEN :startDate AND :endDate " +
-                "AND r.reservationStatus = :status", 
-                Long.class);
-        query.setParameter("restaurantId", restaurantId);
-        query.setParameter("startDate", startDate);
-        query.setParameter("endDate", endDate);
-        query.setParameter("status", Reservation.ReservationStatus.CONFIRMED);
-        return query.getSingleResult().intValue();
+    public List<String> findRoomsWithMealDeducted(Collection<String> roomNumbers) {
+        if (roomNumbers.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                "SELECT DISTINCT r.roomNumber FROM Reservation r WHERE r.roomNumber IN :roomNumbers AND r.mealDeducted = true",
+                String.class)
+                .setParameter("roomNumbers", roomNumbers)
+                .getResultList();
     }
     /**
      * Save a new reservation or update an existing one
@@ -152,6 +107,23 @@ public class  ReservationDao {
             return entityManager.merge(reservation);
         }
     }
+
+    /**
+     * Insert new reservations in JDBC batches of hibernate.jdbc.batch_size. The persistence context
+     * is flushed and cleared after every batch, so the inserted reservations end up detached.
+     */
+    @Transactional
+    public void saveAll(List<Reservation> reservations) {
+        for (int i = 0; i < reservations.size(); i++) {
+            entityManager.persist(reservations.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
     /**
      * Delete a reservation by its ID
      */
@@ -163,20 +135,114 @@ public class  ReservationDao {
         }
     }
     /**
-     * Check if a reservation exists by its ID
+     * Delete the reservations with the given ids in one statement, bypassing the persistence context
      */
-    public boolean existsById(Long id) {
-        return entityManager.find(Reservation.class, id) != null;
+    @Transactional
+    public int deleteAllByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createQuery("DELETE FROM Reservation r WHERE r.reservationId IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
     }
+
     /**
-     * Find reservations by room number
+     * Restaurants holding reservations in one of the statuses, with the first and last matching date
+     * @param restaurantId Restaurant to look at, or null for any
+     * @param roomNumber Room the reservations are for, or null for any
+     * @param startDate Inclusive lower bound, or null
+     * @param endDate Exclusive upper bound, or null
+     * @return Rows of [restaurantId (Long), first (LocalDateTime), last (LocalDateTime)], ordered by restaurant
      */
-    public List<Reservation> findByRoomNumber(String roomNumber) {
-        TypedQuery<Reservation> query = entityManager.createQuery(
-                "SELECT r FROM Reservation r WHERE r.roomNumber = :roomNumber", Reservation.class);
-        query.setParameter("roomNumber", roomNumber);
+    public List<Object[]> findStatusScopes(Long restaurantId, String roomNumber, Collection<ReservationStatus> statuses,
+                                           LocalDateTime startDate, LocalDateTime endDate) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "SELECT r.restaurant.restaurantId, MIN(r.reservationDate), MAX(r.reservationDate) FROM Reservation r " +
+                "WHERE r.reservationStatus IN :statuses " +
+                (restaurantId != null ? "AND r.restaurant.restaurantId = :restaurantId " : "") +
+                (roomNumber != null ? "AND r.roomNumber = :roomNumber " : "") +
+                (startDate != null ? "AND r.reservationDate >= :startDate " : "") +
+                (endDate != null ? "AND r.reservationDate < :endDate " : "") +
+                "GROUP BY r.restaurant.restaurantId ORDER BY r.restaurant.restaurantId",
+                Object[].class);
+        query.setParameter("statuses", statuses);
+        if (restaurantId != null) {
+            query.setParameter("restaurantId", restaurantId);
+        }
+        if (roomNumber != null) {
+            query.setParameter("roomNumber", roomNumber);
+        }
+        if (startDate != null) {
+            query.setParameter("startDate", startDate);
+        }
+        if (endDate != null) {
+            query.setParameter("endDate", endDate);
+        }
         return query.getResultList();
     }
+
+    /**
+     * Sum guests per reservation time of a restaurant's reservations in one of the statuses
+     * @param roomNumber Room the reservations are for, or null for any
+     * @param first Inclusive lower bound
+     * @param last Inclusive upper bound
+     * @return Rows of [reservationDate (LocalDateTime), guests (Long)]
+     */
+    public List<Object[]> sumGuestsByTimeAndStatus(Long restaurantId, String roomNumber,
+                                                   Collection<ReservationStatus> statuses,
+                                                   LocalDateTime first, LocalDateTime last) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "SELECT r.reservationDate, SUM(r.guestCount) FROM Reservation r " +
+                "WHERE r.restaurant.restaurantId = :restaurantId " +
+                "AND r.reservationStatus IN :statuses " +
+                "AND r.reservationDate BETWEEN :first AND :last " +
+                (roomNumber != null ? "AND r.roomNumber = :roomNumber " : "") +
+                "GROUP BY r.reservationDate",
+                Object[].class);
+        query.setParameter("restaurantId", restaurantId);
+        query.setParameter("statuses", statuses);
+        query.setParameter("first", first);
+        query.setParameter("last", last);
+        if (roomNumber != null) {
+            query.setParameter("roomNumber", roomNumber);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Move a restaurant's reservations from one of the statuses to another in one statement,
+     * bypassing the persistence context
+     * @param roomNumber Room the reservations are for, or null for any
+     * @param first Inclusive lower bound
+     * @param last Inclusive upper bound
+     * @param dates Only these reservation times, or null for any between first and last
+     * @return Number of reservations moved
+     */
+    @Transactional
+    public int updateStatus(Long restaurantId, String roomNumber, Collection<ReservationStatus> from,
+                            ReservationStatus to, LocalDateTime first, LocalDateTime last,
+                            Collection<LocalDateTime> dates) {
+        Query query = entityManager.createQuery(
+                "UPDATE Reservation r SET r.reservationStatus = :to " +
+                "WHERE r.restaurant.restaurantId = :restaurantId " +
+                "AND r.reservationStatus IN :from " +
+                "AND r.reservationDate BETWEEN :first AND :last " +
+                (dates != null ? "AND r.reservationDate IN :dates " : "") +
+                (roomNumber != null ? "AND r.roomNumber = :roomNumber " : ""));
+        query.setParameter("to", to);
+        query.setParameter("restaurantId", restaurantId);
+        query.setParameter("from", from);
+        query.setParameter("first", first);
+        query.setParameter("last", last);
+        if (dates != null) {
+            query.setParameter("dates", dates);
+        }
+        if (roomNumber != null) {
+            query.setParameter("roomNumber", roomNumber);
+        }
+        return query.executeUpdate();
+    }
     /**
      * Deletes a reservation from the database
      * @param reservation The reservation to delete
@@ -194,20 +260,6 @@ public class  ReservationDao {
                          reservation : entityManager.merge(reservation));
     }
 
-        /**
- * Find recent reservations for a specific restaurant with pagination
- * Orders reservations by date descending (newest first)
- */
-public List<Reservation> findRecentByRestaurantId(Long restaurantId, int page, int size) {
-    TypedQuery<Reservation> query = entityManager.createQuery(
-            "SELECT r FROM Reservation r WHERE r.restaurant.restaurantId = :restaurantId " +
-            "ORDER BY r.reservationDate DESC", Reservation.class);
-    query.setParameter("restaurantId", restaurantId);
-    query.setFirstResult(page * size);
-    query.setMaxResults(size);
-    return query.getResultList();
-}
-
 /**
  * Count total number of reservations for a restaurant
  * Used for pagination metadata
@@ -219,6 +271,7 @@ public long countByRestaurantId(Long restaurantId) {
     query.setParameter("restaurantId", restaurantId);
     return query.getSingleResult();
 }
+
     
     
 }
\ No newline at end of file
@@ -0,0 +1,316 @@
+package com.aiora.reservation_backend.dao;
+
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Read-only reservation queries that select straight into {@link ReservationResponse}.
+ * Nothing is hydrated into the persistence context, so list endpoints pay neither for
+ * entity snapshots and dirty checking nor for loading the restaurant and user associations.
+ */
+@Repository
+public class ReservationQueryDao {
+
+    private static final String SELECT_RESPONSE =
+            "SELECT new com.aiora.reservation_backend.api.model.ReservationResponse(" +
+            "r.reservationId, r.reservationDate, r.guestName, r.roomNumber, r.isHotelGuest, r.mealDeducted, " +
+            "r.reservationStatus, r.guestCount, s.restaurantId, s.name, u.userId, u.username) " +
+            "FROM Reservation r JOIN r.restaurant s JOIN r.user u ";
+
+    // The leading "<=" gives the index a range bound; the OR only breaks ties on equal dates
+    private static final String KEYSET_PREDICATE =
+            "AND r.reservationDate <= :cursorDate " +
+            "AND (r.reservationDate < :cursorDate OR r.reservationId < :cursorId) ";
+
+    private static final String KEYSET_ORDER = "ORDER BY r.reservationDate DESC, r.reservationId DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<ReservationResponse> findAll() {
+        return entityManager.createQuery(SELECT_RESPONSE, ReservationResponse.class).getResultList();
+    }
+
+    /**
+     * Load the reservations with the given ids, in no particular order
+     */
+    public List<ReservationResponse> findByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.reservationId IN :ids", ReservationResponse.class);
+        query.setParameter("ids", ids);
+        return query.getResultList();
+    }
+
+    public List<ReservationResponse> findByRestaurantId(Long restaurantId) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.restaurant.restaurantId = :restaurantId", ReservationResponse.class);
+        query.setParameter("restaurantId", restaurantId);
+        return query.getResultList();
+    }
+
+    /**
+     * Find reservations by restaurant and status, newest first
+     */
+    public List<ReservationResponse> findByRestaurantIdAndStatus(Long restaurantId, ReservationStatus status) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.restaurant.restaurantId = :restaurantId " +
+                "AND r.reservationStatus = :status ORDER BY r.reservationDate DESC", ReservationResponse.class);
+        query.setParameter("restaurantId", restaurantId);
+        query.setParameter("status", status);
+        return query.getResultList();
+    }
+
+    public List<ReservationResponse> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.reservationDate BETWEEN :startDate AND :endDate", ReservationResponse.class);
+        query.setParameter("startDate", startDate);
+        query.setParameter("endDate", endDate);
+        return query.getResultList();
+    }
+
+    public List<ReservationResponse> findByRestaurantAndDateRange(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.restaurant.restaurantId = :restaurantId " +
+                "AND r.reservationDate BETWEEN :startDate AND :endDate", ReservationResponse.class);
+        query.setParameter("restaurantId", restaurantId);
+        query.setParameter("startDate", startDate);
+        query.setParameter("endDate", endDate);
+        return query.getResultList();
+    }
+
+    public List<ReservationResponse> findByRoomNumber(String roomNumber) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.roomNumber = :roomNumber", ReservationResponse.class);
+        query.setParameter("roomNumber", roomNumber);
+        return query.getResultList();
+    }
+
+    /**
+     * Find reservations whose room number is exactly one of the given values, newest first
+     */
+    public List<ReservationResponse> findByRoomNumbers(List<String> roomNumbers, int limit) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.roomNumber IN :roomNumbers ORDER BY r.reservationDate DESC",
+                ReservationResponse.class);
+        query.setParameter("roomNumbers", roomNumbers);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    /**
+     * Portable substring search over guest name, room number, id and restaurant name
+     * @param searchTerm Lower-cased term with wildcards
+     * @param exactTerm Term without wildcards, matched against the id
+     */
+    public List<ReservationResponse> search(String searchTerm, String exactTerm, int limit) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE " +
+                "LOWER(r.guestName) LIKE :searchTerm OR " +
+                "LOWER(r.roomNumber) LIKE :searchTerm OR " +
+                "CAST(r.reservationId AS string) = :exactTerm OR " +
+                "LOWER(s.name) LIKE :searchTerm " +
+                "ORDER BY r.reservationDate DESC", ReservationResponse.class);
+        query.setParameter("searchTerm", searchTerm);
+        query.setParameter("exactTerm", exactTerm);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    /**
+     * Offset page of a restaurant's reservations, newest first
+     */
+    public List<ReservationResponse> findRecentByRestaurantId(Long restaurantId, int page, int size) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.restaurant.restaurantId = :restaurantId " + KEYSET_ORDER,
+                ReservationResponse.class);
+        query.setParameter("restaurantId", restaurantId);
+        query.setFirstResult(page * size);
+        query.setMaxResults(size);
+        return query.getResultList();
+    }
+
+    /**
+     * Find the next slice of a restaurant's reservations using keyset pagination.
+     * Orders by date then id descending and only returns rows strictly after the
+     * given position, so a deep page costs the same as the first one.
+     * @param cursorDate Date of the last row already seen, or null for the first page
+     * @param cursorId Id of the last row already seen, or null for the first page
+     */
+    public List<ReservationResponse> findRecentByRestaurantIdAfter(Long restaurantId, LocalDateTime cursorDate, Long cursorId, int limit) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.restaurant.restaurantId = :restaurantId " +
+                (cursorDate != null ? KEYSET_PREDICATE : "") +
+                KEYSET_ORDER, ReservationResponse.class);
+        query.setParameter("restaurantId", restaurantId);
+        bindCursor(query, cursorDate, cursorId);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #findByDateRange(LocalDateTime, LocalDateTime)}
+     */
+    public List<ReservationResponse> findByDateRangeAfter(LocalDateTime startDate, LocalDateTime endDate,
+                                                          LocalDateTime cursorDate, Long cursorId, int limit) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.reservationDate BETWEEN :startDate AND :endDate " +
+                (cursorDate != null ? KEYSET_PREDICATE : "") +
+                KEYSET_ORDER, ReservationResponse.class);
+        query.setParameter("startDate", startDate);
+        query.setParameter("endDate", endDate);
+        bindCursor(query, cursorDate, cursorId);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #findByRestaurantAndDateRange(Long, LocalDateTime, LocalDateTime)}
+     */
+    public List<ReservationResponse> findByRestaurantAndDateRangeAfter(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate,
+                                                                       LocalDateTime cursorDate, Long cursorId, int limit) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.restaurant.restaurantId = :restaurantId " +
+                "AND r.reservationDate BETWEEN :startDate AND :endDate " +
+                (cursorDate != null ? KEYSET_PREDICATE : "") +
+                KEYSET_ORDER, ReservationResponse.class);
+        query.setParameter("restaurantId", restaurantId);
+        query.setParameter("startDate", startDate);
+        query.setParameter("endDate", endDate);
+        bindCursor(query, cursorDate, cursorId);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    /**
+     * The newest reservations of every restaurant in one statement. A lateral subquery per restaurant
+     * reads only the first rows of that restaurant's (restaurant_id, reservation_date) index.
+     * @param limit Rows kept per restaurant
+     * @return Rows grouped by restaurant, newest first within each
+     */
+    public List<ReservationResponse> findRecentPerRestaurant(int limit) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                "SELECT new com.aiora.reservation_backend.api.model.ReservationResponse(" +
+                "r.reservationId, r.reservationDate, r.guestName, r.roomNumber, r.isHotelGuest, r.mealDeducted, " +
+                "r.reservationStatus, r.guestCount, s.restaurantId, s.name, u.userId, u.username) " +
+                "FROM Restaurant s JOIN LATERAL (" +
+                "  SELECT x.reservationId AS reservationId, x.reservationDate AS reservationDate FROM Reservation x " +
+                "  WHERE x.restaurant.restaurantId = s.restaurantId " +
+                "  ORDER BY x.reservationDate DESC, x.reservationId DESC LIMIT :limit) newest " +
+                "JOIN Reservation r ON r.reservationId = newest.reservationId JOIN r.user u " +
+                "ORDER BY s.restaurantId, newest.reservationDate DESC, newest.reservationId DESC",
+                ReservationResponse.class);
+        query.setParameter("limit", limit);
+        return query.getResultList();
+    }
+
+    /**
+     * Reservations per restaurant and status within [startDate, endDate]
+     * @return Rows of [restaurantId (Long), status (ReservationStatus), count (Long)]
+     */
+    public List<Object[]> countByRestaurantAndStatus(LocalDateTime startDate, LocalDateTime endDate) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "SELECT r.restaurant.restaurantId, r.reservationStatus, COUNT(r) FROM Reservation r " +
+                "WHERE r.reservationDate BETWEEN :startDate AND :endDate " +
+                "GROUP BY r.restaurant.restaurantId, r.reservationStatus", Object[].class);
+        query.setParameter("startDate", startDate);
+        query.setParameter("endDate", endDate);
+        return query.getResultList();
+    }
+
+    /**
+     * Reservations of one restaurant per status, optionally within [startDate, endDate]
+     * @param startDate Inclusive lower bound, or null together with endDate for all time
+     * @return Rows of [status (ReservationStatus), count (Long)]
+     */
+    public List<Object[]> countByStatus(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "SELECT r.reservationStatus, COUNT(r) FROM Reservation r " +
+                "WHERE r.restaurant.restaurantId = :restaurantId " +
+                (startDate != null ? "AND r.reservationDate BETWEEN :startDate AND :endDate " : "") +
+                "GROUP BY r.reservationStatus", Object[].class);
+        query.setParameter("restaurantId", restaurantId);
+        if (startDate != null) {
+            query.setParameter("startDate", startDate);
+            query.setParameter("endDate", endDate);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Finished reservations dated before the cutoff, oldest first, for the archiver
+     */
+    public List<ReservationResponse> findArchivable(LocalDateTime before, int limit) {
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(
+                SELECT_RESPONSE + "WHERE r.reservationDate < :before " +
+                "AND r.reservationStatus IN (:statuses) " +
+                "ORDER BY r.reservationDate, r.reservationId", ReservationResponse.class);
+        query.setParameter("before", before);
+        query.setParameter("statuses",
+                List.of(ReservationStatus.COMPLETED, ReservationStatus.CANCELLED, ReservationStatus.NO_SHOW));
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    /**
+     * Stream reservations for an export, oldest first, through a forward-only database cursor.
+     * Rows are fetched from the server fetchSize at a time, so memory does not grow with the result.
+     * Must be consumed and closed inside a transaction; PostgreSQL only honours the fetch size with autocommit off.
+     * @param restaurantId Restaurant to export, or null for all
+     * @param startDate Inclusive lower bound, or null
+     * @param endDate Inclusive upper bound, or null
+     * @param status Status to export, or null for all
+     */
+    public Stream<ReservationResponse> streamForExport(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate,
+                                                       ReservationStatus status, int fetchSize) {
+        StringBuilder jpql = new StringBuilder(SELECT_RESPONSE).append("WHERE 1 = 1 ");
+        if (restaurantId != null) {
+            jpql.append("AND r.restaurant.restaurantId = :restaurantId ");
+        }
+        if (startDate != null) {
+            jpql.append("AND r.reservationDate >= :startDate ");
+        }
+        if (endDate != null) {
+            jpql.append("AND r.reservationDate <= :endDate ");
+        }
+        if (status != null) {
+            jpql.append("AND r.reservationStatus = :status ");
+        }
+        jpql.append("ORDER BY r.reservationDate");
+
+        TypedQuery<ReservationResponse> query = entityManager.createQuery(jpql.toString(), ReservationResponse.class);
+        if (restaurantId != null) {
+            query.setParameter("restaurantId", restaurantId);
+        }
+        if (startDate != null) {
+            query.setParameter("startDate", startDate);
+        }
+        if (endDate != null) {
+            query.setParameter("endDate", endDate);
+        }
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    private void bindCursor(TypedQuery<?> query, LocalDateTime cursorDate, Long cursorId) {
+        if (cursorDate != null) {
+            query.setParameter("cursorDate", cursorDate);
+            query.setParameter("cursorId", cursorId);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.aiora.reservation_backend.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Search queries used by SpotlightSearch.
+ * The ranked search is native PostgreSQL and relies on the pg_trgm GiST indexes from V4__reservation_trigram_search.sql.
+ */
+@Repository
+public class ReservationSearchDao {
+
+    // Each branch walks its GiST trigram index in distance order (<-> is 1 - similarity) and stops after
+    // :limit rows. Matching restaurants are few; each contributes only its newest :limit reservations,
+    // read from the head of idx_reservations_restaurant_date, so a popular restaurant name costs no more
+    // than a rare one. EXPLAIN shows "Index Scan using idx_..._trgm" with "Order By: (lower(...) <-> ...)"
+    // for the first two branches and for the restaurant subquery.
+    private static final String RANKED_SEARCH_SQL =
+            "SELECT c.reservation_id FROM (" +
+            "  (SELECT r.reservation_id, r.reservation_date, 1 - (lower(r.guest_name) <-> :term) AS score " +
+            "     FROM reservations r WHERE lower(r.guest_name) LIKE :pattern " +
+            "     ORDER BY lower(r.guest_name) <-> :term LIMIT :limit) " +
+            "  UNION ALL " +
+            "  (SELECT r.reservation_id, r.reservation_date, 1 - (lower(r.room_number) <-> :term) AS score " +
+            "     FROM reservations r WHERE lower(r.room_number) LIKE :pattern " +
+            "     ORDER BY lower(r.room_number) <-> :term LIMIT :limit) " +
+            "  UNION ALL " +
+            "  (SELECT r.reservation_id, r.reservation_date, s.score " +
+            "     FROM (SELECT restaurant_id, 1 - (lower(name) <-> :term) AS score FROM restaurants " +
+            "           WHERE lower(name) LIKE :pattern ORDER BY lower(name) <-> :term LIMIT :limit) s " +
+            "     CROSS JOIN LATERAL (SELECT x.reservation_id, x.reservation_date FROM reservations x " +
+            "           WHERE x.restaurant_id = s.restaurant_id " +
+            "           ORDER BY x.reservation_date DESC, x.reservation_id DESC LIMIT :limit) r " +
+            "     ORDER BY s.score DESC, r.reservation_date DESC LIMIT :limit) " +
+            ") c " +
+            "GROUP BY c.reservation_id, c.reservation_date " +
+            "ORDER BY max(c.score) DESC, c.reservation_date DESC " +
+            "LIMIT :limit";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rank reservations by trigram similarity of guest name, room number or restaurant name, newest first among equals
+     * @param term Lower-cased search term
+     * @param limit Maximum number of ids to return
+     * @return Reservation ids, best match first
+     */
+    public List<Long> searchRankedIds(String term, int limit) {
+        Query query = entityManager.createNativeQuery(RANKED_SEARCH_SQL);
+        query.setParameter("term", term);
+        query.setParameter("pattern", "%" + escapeLike(term) + "%");
+        query.setParameter("limit", limit);
+        @SuppressWarnings("unchecked")
+        List<Number> ids = query.getResultList();
+        return ids.stream().map(Number::longValue).collect(Collectors.toList());
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -2,21 +2,14 @@ package com.aiora.reservation_backend.dao;
 
 import com.aiora.reservation_backend.model.Restaurant;
 import com.aiora.reservation_backend.model.Restaurant.RestaurantType;
-import com.aiora.reservation_backend.model.Reservation;
-import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.HashMap;
 
 @Repository
 public class RestaurantDao {
@@ -89,77 +82,4 @@ public class RestaurantDao {
     public boolean existsById(Long id) {
         return entityManager.find(Restaurant.class, id) != null;
     }
-
-    /**
-     * Find restaurants with capacity greater than or equal to a specified value
-     */
-    public List<Restaurant> findByCapacityGreaterThanEqual(Integer capacity) {
-        TypedQuery<Restaurant> query = entityManager.createQuery(
-                "SELECT r FROM Restaurant r WHERE r.maxCapacity >= :capacity", Restaurant.class);
-        query.setParameter("capacity", capacity);
-        return query.getResultList();
-    }
-
-    /**
-     * Find all reservations for a restaurant
-     */
-    public List<Reservation> findReservationsByRestaurantId(Long restaurantId) {
-        TypedQuery<Reservation> query = entityManager.createQuery(
-                "SELECT r FROM Reservation r WHERE r.restaurant.restaurantId = :restaurantId " +
-                "ORDER BY r.reservationDate DESC", Reservation.class);
-        query.setParameter("restaurantId", restaurantId);
-        return query.getResultList();
-    }
-
-    /**
-     * Find reservations by restaurant and status
-     */
-    public List<Reservation> findReservationsByRestaurantIdAndStatus(Long restaurantId, ReservationStatus status) {
-        TypedQuery<Reservation> query = entityManager.createQuery(
-                "SELECT r FROM Reservation r WHERE r.restaurant.restaurantId = :restaurantId " +
-                "AND r.status = :status ORDER BY r.reservationDate DESC", Reservation.class);
-        query.setParameter("restaurantId", restaurantId);
-        query.setParameter("status", status);
-        return query.getResultList();
-    }
-
-    /**
-     * Find recent reservations for a restaurant with limit
-     */
-    public List<Reservation> findRecentReservationsByRestaurantId(Long restaurantId, int limit) {
-        TypedQuery<Reservation> query = entityManager.createQuery(
-                "SELECT r FROM Reservation r WHERE r.restaurant.restaurantId = :restaurantId " +
-                "ORDER BY r.reservationDate DESC", Reservation.class);
-        query.setParameter("restaurantId", restaurantId);
-        query.setMaxResults(limit);
-        return query.getResultList();
-    }
-
-    /**
-     * Get reservation statistics for a restaurant
-     */
-    public Map<String, Integer> getReservationStats(Long restaurantId) {
-        // Get counts for each status
-        TypedQuery<Object[]> query = entityManager.createQuery(
-                "SELECT r.status, COUNT(r) FROM Reservation r " +
-                "WHERE r.restaurant.restaurantId = :restaurantId GROUP BY r.status", Object[].class);
-        query.setParameter("restaurantId", restaurantId);
-        
-        Map<String, Integer> stats = new HashMap<>();
-        stats.put("pending", 0);
-        stats.put("confirmed", 0);
-        stats.put("total", 0);
-        
-        List<Object[]> results = query.getResultList();
-        for (Object[] result : results) {
-            ReservationStatus status = (ReservationStatus) result[0];
-            Long count = (Long) result[1];
-            stats.put(status.name().toLowerCase(), count.intValue());
-            stats.put("total", stats.get("total") + count.intValue());
-        }
-        
-        return stats;
-    }
-    
-    
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package com.aiora.reservation_backend.dao;
+
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import com.aiora.reservation_backend.model.RestaurantTable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Table inventory of the restaurants and the reservation_tables seating of reservations.
+ * Seating writes must run inside the transaction that writes the reservation itself.
+ */
+@Repository
+public class RestaurantTableDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * One table a reservation is seated at
+     */
+    public record Seating(Long tableId, Long reservationId, LocalDateTime reservationDate, int guests,
+                          String guestName) {
+    }
+
+    /**
+     * Tables of a restaurant, ordered by id
+     */
+    public List<RestaurantTable> findByRestaurantId(Long restaurantId) {
+        return entityManager.createQuery(
+                "SELECT t FROM RestaurantTable t WHERE t.restaurantId = :restaurantId ORDER BY t.tableId",
+                RestaurantTable.class)
+                .setParameter("restaurantId", restaurantId)
+                .getResultList();
+    }
+
+    public Optional<RestaurantTable> findById(Long tableId) {
+        return Optional.ofNullable(entityManager.find(RestaurantTable.class, tableId));
+    }
+
+    public RestaurantTable save(RestaurantTable table) {
+        if (table.getTableId() == null) {
+            entityManager.persist(table);
+            return table;
+        }
+        return entityManager.merge(table);
+    }
+
+    /**
+     * Delete a table; the reservations seated at it lose that seating
+     */
+    public void delete(RestaurantTable table) {
+        entityManager.remove(entityManager.contains(table) ? table : entityManager.merge(table));
+    }
+
+    /**
+     * Seatings of the restaurant's reservations in the given statuses with a time in [from, to],
+     * ordered by reservation time, reservation and table
+     */
+    public List<Seating> findSeatings(Long restaurantId, LocalDateTime from, LocalDateTime to,
+                                      Collection<ReservationStatus> statuses) {
+        List<?> rows = entityManager.createNativeQuery(
+                "SELECT rt.table_id, r.reservation_id, r.reservation_date, r.guest_count, r.guest_name " +
+                "FROM reservations r JOIN reservation_tables rt ON rt.reservation_id = r.reservation_id " +
+                "WHERE r.restaurant_id = :restaurantId AND r.reservation_date BETWEEN :fromDate AND :toDate " +
+                "AND r.reservation_status IN (:statuses) " +
+                "ORDER BY r.reservation_date, r.reservation_id, rt.table_id")
+                .setParameter("restaurantId", restaurantId)
+                .setParameter("fromDate", from)
+                .setParameter("toDate", to)
+                .setParameter("statuses", statuses.stream().map(Enum::name).toList())
+                .getResultList();
+        return rows.stream()
+                .map(row -> (Object[]) row)
+                .map(columns -> new Seating(((Number) columns[0]).longValue(), ((Number) columns[1]).longValue(),
+                        columns[2] instanceof Timestamp timestamp
+                                ? timestamp.toLocalDateTime() : (LocalDateTime) columns[2],
+                        ((Number) columns[3]).intValue(), (String) columns[4]))
+                .toList();
+    }
+
+    /**
+     * Seat a reservation at the given tables
+     */
+    public void seat(Long reservationId, List<Long> tableIds) {
+        // The reservation may still be pending in the session
+        entityManager.flush();
+        StringBuilder sql = new StringBuilder("INSERT INTO reservation_tables (reservation_id, table_id) VALUES ");
+        for (int i = 0; i < tableIds.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(:reservationId, :table").append(i).append(")");
+        }
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("reservationId", reservationId);
+        for (int i = 0; i < tableIds.size(); i++) {
+            query.setParameter("table" + i, tableIds.get(i));
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * Seat many reservations, sent as one JDBC batch
+     * @param tableIdsByReservation Tables per reservation id
+     */
+    public void seatAll(Map<Long, List<Long>> tableIdsByReservation) {
+        // The batch bypasses the session, so reservations it references must be inserted first
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO reservation_tables (reservation_id, table_id) VALUES (?, ?)")) {
+                for (Map.Entry<Long, List<Long>> entry : tableIdsByReservation.entrySet()) {
+                    for (Long tableId : entry.getValue()) {
+                        statement.setLong(1, entry.getKey());
+                        statement.setLong(2, tableId);
+                        statement.addBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Free every table a reservation is seated at
+     */
+    public void unseat(Long reservationId) {
+        entityManager.createNativeQuery("DELETE FROM reservation_tables WHERE reservation_id = :reservationId")
+                .setParameter("reservationId", reservationId)
+                .executeUpdate();
+    }
+}
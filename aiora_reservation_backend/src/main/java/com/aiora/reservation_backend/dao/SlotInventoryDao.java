@@ -0,0 +1,143 @@
+package com.aiora.reservation_backend.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native access to the restaurant_slot_inventory seat ledger.
+ * All methods must run inside the transaction that writes the reservation itself.
+ */
+@Repository
+public class SlotInventoryDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Create the missing ledger rows for the given slots with zero seats taken
+     */
+    public void ensureSlots(Long restaurantId, List<LocalDateTime> slots) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO restaurant_slot_inventory (restaurant_id, slot_start, window_seats) VALUES ");
+        for (int i = 0; i < slots.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(:restaurantId, :slot").append(i).append(", 0)");
+        }
+        sql.append(" ON CONFLICT DO NOTHING");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("restaurantId", restaurantId);
+        for (int i = 0; i < slots.size(); i++) {
+            query.setParameter("slot" + i, slots.get(i));
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * Row-lock the ledger rows of a slot range in ascending slot order.
+     * Taking locks in one global order keeps concurrent admissions from deadlocking.
+     */
+    public void lockSlots(Long restaurantId, LocalDateTime from, LocalDateTime to) {
+        entityManager.createNativeQuery(
+                "SELECT slot_start FROM restaurant_slot_inventory " +
+                "WHERE restaurant_id = :restaurantId AND slot_start BETWEEN :fromSlot AND :toSlot " +
+                "ORDER BY slot_start FOR UPDATE")
+                .setParameter("restaurantId", restaurantId)
+                .setParameter("fromSlot", from)
+                .setParameter("toSlot", to)
+                .getResultList();
+    }
+
+    /**
+     * Take seats on a slot only if the result stays within capacity
+     * @return true if the seats were taken, false if that would exceed maxSeats
+     */
+    public boolean takeSeatsIfAvailable(Long restaurantId, LocalDateTime slot, int seats, int maxSeats) {
+        return entityManager.createNativeQuery(
+                "UPDATE restaurant_slot_inventory SET window_seats = window_seats + :seats " +
+                "WHERE restaurant_id = :restaurantId AND slot_start = :slot " +
+                "AND window_seats + :seats <= :maxSeats")
+                .setParameter("seats", seats)
+                .setParameter("restaurantId", restaurantId)
+                .setParameter("slot", slot)
+                .setParameter("maxSeats", maxSeats)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Add (or with a negative value, return) seats on every slot of a range
+     */
+    public void addSeats(Long restaurantId, LocalDateTime from, LocalDateTime to, int seats) {
+        entityManager.createNativeQuery(
+                "UPDATE restaurant_slot_inventory SET window_seats = window_seats + :seats " +
+                "WHERE restaurant_id = :restaurantId AND slot_start BETWEEN :fromSlot AND :toSlot")
+                .setParameter("seats", seats)
+                .setParameter("restaurantId", restaurantId)
+                .setParameter("fromSlot", from)
+                .setParameter("toSlot", to)
+                .executeUpdate();
+    }
+
+    /**
+     * Seats currently counted against a slot
+     */
+    public int findWindowSeats(Long restaurantId, LocalDateTime slot) {
+        List<?> result = entityManager.createNativeQuery(
+                "SELECT window_seats FROM restaurant_slot_inventory " +
+                "WHERE restaurant_id = :restaurantId AND slot_start = :slot")
+                .setParameter("restaurantId", restaurantId)
+                .setParameter("slot", slot)
+                .getResultList();
+        return result.isEmpty() ? 0 : ((Number) result.get(0)).intValue();
+    }
+
+    /**
+     * Seats currently counted against every existing slot of a range
+     */
+    public Map<LocalDateTime, Integer> findWindowSeats(Long restaurantId, LocalDateTime from, LocalDateTime to) {
+        List<?> rows = entityManager.createNativeQuery(
+                "SELECT slot_start, window_seats FROM restaurant_slot_inventory " +
+                "WHERE restaurant_id = :restaurantId AND slot_start BETWEEN :fromSlot AND :toSlot")
+                .setParameter("restaurantId", restaurantId)
+                .setParameter("fromSlot", from)
+                .setParameter("toSlot", to)
+                .getResultList();
+        Map<LocalDateTime, Integer> seats = new HashMap<>();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            LocalDateTime slot = columns[0] instanceof Timestamp timestamp
+                    ? timestamp.toLocalDateTime() : (LocalDateTime) columns[0];
+            seats.put(slot, ((Number) columns[1]).intValue());
+        }
+        return seats;
+    }
+
+    /**
+     * Add seats slot by slot, sent as one JDBC batch
+     * @param seatsBySlot Seats to add (or with a negative value, return) per existing slot
+     */
+    public void addSeats(Long restaurantId, Map<LocalDateTime, Integer> seatsBySlot) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE restaurant_slot_inventory SET window_seats = window_seats + ? " +
+                    "WHERE restaurant_id = ? AND slot_start = ?")) {
+                for (Map.Entry<LocalDateTime, Integer> entry : seatsBySlot.entrySet()) {
+                    statement.setInt(1, entry.getValue());
+                    statement.setLong(2, restaurantId);
+                    statement.setTimestamp(3, Timestamp.valueOf(entry.getKey()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
@@ -9,6 +9,7 @@ import org.hibernate.NonUniqueResultException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -65,6 +66,20 @@ public class UserDao {
         }
     }
 
+    /**
+     * Replace a password hash, unless the password was changed since the old hash was read
+     * @return Whether the hash was replaced
+     */
+    @Transactional
+    public boolean replacePasswordHash(Long userId, String expectedHash, String newHash) {
+        return entityManager.createQuery(
+                        "UPDATE User u SET u.password = :newHash WHERE u.userId = :userId AND u.password = :expectedHash")
+                .setParameter("newHash", newHash)
+                .setParameter("userId", userId)
+                .setParameter("expectedHash", expectedHash)
+                .executeUpdate() > 0;
+    }
+
     /**
      * Delete a user by their ID
      */
@@ -76,6 +91,18 @@ public class UserDao {
         }
     }
 
+    /**
+     * Load the users with the given ids, in no particular order; ids without a user are skipped
+     */
+    public List<User> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("SELECT u FROM User u WHERE u.userId IN :ids", User.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     /**
      * Check if a user exists by their ID
      */
@@ -0,0 +1,66 @@
+package com.aiora.reservation_backend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "restaurant_tables")
+public class RestaurantTable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "table_id")
+    private Long tableId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(nullable = false)
+    private String label;
+
+    @Column(nullable = false)
+    private Integer seats;
+
+    // Tables of the same group can be pushed together for one party; null if the table stands alone
+    @Column(name = "combine_group")
+    private String combineGroup;
+
+    public Long getTableId() {
+        return tableId;
+    }
+
+    public void setTableId(Long tableId) {
+        this.tableId = tableId;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Integer getSeats() {
+        return seats;
+    }
+
+    public void setSeats(Integer seats) {
+        this.seats = seats;
+    }
+
+    public String getCombineGroup() {
+        return combineGroup;
+    }
+
+    public void setCombineGroup(String combineGroup) {
+        this.combineGroup = combineGroup;
+    }
+}
@@ -0,0 +1,121 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.exception.ValidationException;
+import com.aiora.reservation_backend.api.model.AvailableSlot;
+import com.aiora.reservation_backend.model.Restaurant.RestaurantType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Finds the times a party can still be booked, across every restaurant of the hotel.
+ *
+ * Restaurant rules come from the {@link RestaurantCatalog} and seats from the {@link OccupancyIndex},
+ * which computes the capacity window sum of every slot of a day in one pass over its slot arrays.
+ * Days already in the index are answered without a query. The window is the one checkCapacity and
+ * the seat ledger use. Restaurants with a table inventory must also have tables free for the party,
+ * checked by the {@link TableAssigner} against one plan of their seatings for the whole search. The
+ * index keeps those tables and seatings too, so a slot found here is admitted unless it fills up
+ * before it is booked or another node booked it since the index last reconciled.
+ */
+@Service
+public class AvailabilityService {
+
+    private final RestaurantCatalog restaurantCatalog;
+    private final OccupancyIndex occupancyIndex;
+    private final TableAssigner tableAssigner;
+
+    @Value("${reservation.availability.max-days:14}")
+    private int maxDays;
+
+    @Value("${reservation.availability.max-results:100}")
+    private int maxResults;
+
+    @Autowired
+    public AvailabilityService(RestaurantCatalog restaurantCatalog, OccupancyIndex occupancyIndex,
+                               TableAssigner tableAssigner) {
+        this.restaurantCatalog = restaurantCatalog;
+        this.occupancyIndex = occupancyIndex;
+        this.tableAssigner = tableAssigner;
+    }
+
+    /**
+     * The first slots at which the party fits, earliest first and by restaurant id within a slot
+     * @param from Inclusive, rounded up to the next slot
+     * @param to Exclusive
+     * @param hotelGuest Whether the party are hotel guests; outside guests skip room-only restaurants
+     *                   and those that do not accept them
+     * @param restaurantIds Restaurants to search, or null for all
+     * @param restaurantType Type of restaurant to search, or null for any
+     * @throws ValidationException if the window is empty or too long, or the party or limit out of range
+     */
+    @Transactional(readOnly = true)
+    public List<AvailableSlot> findAvailable(int partySize, LocalDateTime from, LocalDateTime to, boolean hotelGuest,
+                                             Collection<Long> restaurantIds, RestaurantType restaurantType,
+                                             int limit) {
+        if (partySize < 1) {
+            throw new ValidationException("Party size must be at least 1");
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new ValidationException("Limit must be between 1 and " + maxResults);
+        }
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Start of the search must be before its end");
+        }
+        if (to.isAfter(from.plusDays(maxDays))) {
+            throw new ValidationException("Availability can be searched at most " + maxDays + " days at once");
+        }
+        if (restaurantIds != null) {
+            restaurantIds.forEach(restaurantCatalog::require);
+        }
+        List<RestaurantCatalog.Entry> restaurants = restaurantCatalog.entries().stream()
+                .filter(restaurant -> restaurantIds == null || restaurantIds.contains(restaurant.restaurantId()))
+                .filter(restaurant -> restaurantType == null || restaurant.restaurantType() == restaurantType)
+                .filter(restaurant -> hotelGuest || (!restaurant.roomOnly() && restaurant.acceptsOutsideGuests()))
+                .filter(restaurant -> restaurant.maxCapacity() >= partySize)
+                .toList();
+
+        List<AvailableSlot> available = new ArrayList<>();
+        LocalDateTime first = SeatLedger.slotStart(from);
+        if (first.isBefore(from)) {
+            first = first.plusMinutes(OccupancyIndex.SLOT_MINUTES);
+        }
+        Map<Long, Predicate<LocalDateTime>> tablesFree = tableAssigner.fitChecks(
+                restaurants.stream().map(RestaurantCatalog.Entry::restaurantId).toList(), partySize, first, to);
+        for (LocalDate day = first.toLocalDate(); day.atStartOfDay().isBefore(to); day = day.plusDays(1)) {
+            int[][] windows = new int[restaurants.size()][];
+            for (int i = 0; i < restaurants.size(); i++) {
+                windows[i] = occupancyIndex.windowGuests(restaurants.get(i).restaurantId(), day);
+            }
+            int firstSlot = day.equals(first.toLocalDate()) ? OccupancyIndex.slotOf(first) : 0;
+            for (int slot = firstSlot; slot < OccupancyIndex.SLOTS_PER_DAY; slot++) {
+                LocalDateTime slotStart = day.atStartOfDay().plusMinutes((long) slot * OccupancyIndex.SLOT_MINUTES);
+                if (!slotStart.isBefore(to)) {
+                    return available;
+                }
+                for (int i = 0; i < restaurants.size(); i++) {
+                    RestaurantCatalog.Entry restaurant = restaurants.get(i);
+                    int seatsLeft = restaurant.maxCapacity() - windows[i][slot];
+                    if (seatsLeft >= partySize && tablesFree.getOrDefault(restaurant.restaurantId(), time -> true)
+                            .test(slotStart)) {
+                        available.add(new AvailableSlot(restaurant.restaurantId(), restaurant.name(), slotStart,
+                                seatsLeft));
+                        if (available.size() == limit) {
+                            return available;
+                        }
+                    }
+                }
+            }
+        }
+        return available;
+    }
+}
@@ -0,0 +1,156 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.dao.ChangeVersionDao;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change versions behind the ETags of the read endpoints, so an unchanged resource is answered
+ * with 304 before anything is queried for the body or serialized.
+ *
+ * Reservation views are tagged with the restaurant's row in restaurant_change_versions. Every
+ * transaction that changes a restaurant or its reservations bumps it just before it commits, holding
+ * the row lock only through the commit, so every node behind the load balancer hands out the same
+ * tag for the same data. The tag is read in the read-only transaction that builds the body, on the
+ * same snapshot, so a replica that lags behind pairs its older body with its older tag; a 304 costs
+ * one primary key read on whichever database the transaction went to.
+ *
+ * The catalog tag belongs to the node's own RestaurantCatalog snapshot and stays in memory. It
+ * carries the startup time, so a tag handed out by another node or before a restart never matches.
+ */
+@Component
+public class ChangeVersions {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong catalog = new AtomicLong();
+    private final ChangeVersionDao changeVersionDao;
+
+    public ChangeVersions(ChangeVersionDao changeVersionDao) {
+        this.changeVersionDao = changeVersionDao;
+    }
+
+    /**
+     * Reservations of the restaurant changed
+     */
+    public void reservationsChanged(Long restaurantId) {
+        PendingBumps pending = pendingBumps();
+        if (pending == null) {
+            changeVersionDao.bump(List.of(restaurantId));
+        } else {
+            pending.restaurantIds.add(restaurantId);
+        }
+    }
+
+    /**
+     * The restaurant itself changed, which also changes the restaurant name on its reservations
+     */
+    public void restaurantChanged(Long restaurantId) {
+        reservationsChanged(restaurantId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogChanged();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                catalogChanged();
+            }
+        });
+    }
+
+    /**
+     * The node's catalog snapshot changed, e.g. on a refresh that picked up another node's write
+     */
+    public void catalogChanged() {
+        catalog.incrementAndGet();
+    }
+
+    /**
+     * Reservations of every given restaurant changed, e.g. the username shown on a guest's reservations
+     */
+    public void reservationsChanged(Collection<Long> restaurantIds) {
+        PendingBumps pending = pendingBumps();
+        if (pending == null) {
+            changeVersionDao.bump(new TreeSet<>(restaurantIds));
+        } else {
+            pending.restaurantIds.addAll(restaurantIds);
+        }
+    }
+
+    public long restaurantVersion(Long restaurantId) {
+        return changeVersionDao.findVersion(restaurantId);
+    }
+
+    /**
+     * Strong ETag of anything built from the restaurant's reservations
+     */
+    public String restaurantTag(Long restaurantId) {
+        return "\"r" + restaurantId + "-" + restaurantVersion(restaurantId) + "\"";
+    }
+
+    /**
+     * Strong ETag of a view of the restaurant's reservations that also depends on the day, like today's stats
+     */
+    public String restaurantTag(Long restaurantId, LocalDate day) {
+        return "\"r" + restaurantId + "-" + restaurantVersion(restaurantId) + "-" + day + "\"";
+    }
+
+    /**
+     * Strong ETag of the restaurant list and of single restaurants
+     */
+    public String catalogTag() {
+        return "\"" + epoch + "-c" + catalog.get() + "\"";
+    }
+
+    /**
+     * Strong ETag of a view across every restaurant on the given day. Such views list the restaurants
+     * of the node's catalog, so the tag carries the catalog version as well.
+     */
+    public String hotelTag(LocalDate day) {
+        return "\"h" + changeVersionDao.findHotelVersion() + "-" + epoch + "-c"
+                + catalog.get() + "-" + day + "\"";
+    }
+
+    /**
+     * The bumps collected by the current transaction, registered on first use; null outside a transaction
+     */
+    private PendingBumps pendingBumps() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBumps pending && pending.owner == this) {
+                return pending;
+            }
+        }
+        PendingBumps pending = new PendingBumps(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * Restaurants to bump once the transaction is about to commit, each once and in ascending id order
+     */
+    private static final class PendingBumps implements TransactionSynchronization {
+        private final ChangeVersions owner;
+        private final Set<Long> restaurantIds = new TreeSet<>();
+
+        private PendingBumps(ChangeVersions owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!restaurantIds.isEmpty()) {
+                owner.changeVersionDao.bump(restaurantIds);
+            }
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.config.ReplicaRoutingDataSource;
+import com.aiora.reservation_backend.dao.ReservationDao;
+import com.aiora.reservation_backend.dao.RestaurantTableDao;
+import com.aiora.reservation_backend.model.Reservation;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import com.aiora.reservation_backend.model.RestaurantTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory occupancy of every restaurant, kept as guests per 15-minute slot per day.
+ *
+ * Days are loaded lazily from the database and then maintained incrementally from committed
+ * reservation writes, so a capacity window sum is a handful of array reads instead of a SUM query.
+ * Slot bucketing is conservative: a window covers every slot it touches, so it can only count
+ * a reservation that the exact time comparison would have left out, never the other way round.
+ *
+ * Next to the seats it keeps the table inventory of every restaurant that was asked about and the
+ * table seatings of its loaded days, for availability searches. Seatings are not patched: a commit
+ * that changes a booking drops the seating days around it, to be read again on the next search, as
+ * the table changes it caused may move other parties nearby.
+ *
+ * Only this node's commits are applied as they happen; writes made through other app nodes show up
+ * on the next {@link #reconcile} or reload. Between those a loaded day may be behind the database in
+ * either direction, so a window sum is a hint: callers that reject on it confirm with
+ * {@link #reloadWindow} first, and the seat ledger makes the actual admission decision.
+ */
+@Component
+public class OccupancyIndex {
+    private static final Logger log = LoggerFactory.getLogger(OccupancyIndex.class);
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final Set<ReservationStatus> ACTIVE_STATUSES =
+            EnumSet.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+
+    private final ReservationDao reservationDao;
+    private final RestaurantTableDao restaurantTableDao;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, RestaurantOccupancy> restaurants = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OccupancyIndex(ReservationDao reservationDao, RestaurantTableDao restaurantTableDao,
+                          TransactionTemplate transactionTemplate) {
+        this.reservationDao = reservationDao;
+        this.restaurantTableDao = restaurantTableDao;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Seats held by one active reservation, or null when the reservation holds none
+     */
+    public record Booking(Long restaurantId, LocalDateTime reservationDate, int guests) {
+        public static Booking of(Reservation reservation) {
+            if (reservation == null || !holdsSeats(reservation.getReservationStatus())) {
+                return null;
+            }
+            return new Booking(reservation.getRestaurant().getRestaurantId(),
+                    reservation.getReservationDate(), reservation.getGuestCount());
+        }
+    }
+
+    public static boolean holdsSeats(ReservationStatus status) {
+        return status == ReservationStatus.PENDING || status == ReservationStatus.CONFIRMED;
+    }
+
+    public static int slotOf(LocalDateTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    /**
+     * Sum of active guests in every slot touched by [startTime, endTime]
+     */
+    public int guestsInWindow(Long restaurantId, LocalDateTime startTime, LocalDateTime endTime) {
+        RestaurantOccupancy occupancy = restaurants.computeIfAbsent(restaurantId, id -> new RestaurantOccupancy());
+        int total = 0;
+        for (LocalDate day = startTime.toLocalDate(); !day.isAfter(endTime.toLocalDate()); day = day.plusDays(1)) {
+            int from = day.equals(startTime.toLocalDate()) ? slotOf(startTime) : 0;
+            int to = day.equals(endTime.toLocalDate()) ? slotOf(endTime) : SLOTS_PER_DAY - 1;
+            total += sumSlots(restaurantId, occupancy, day, from, to);
+        }
+        return total;
+    }
+
+    /**
+     * Sum of active guests in every slot touched by [startTime, endTime], with the days it covers
+     * read again from the database instead of trusting slots that other nodes' writes may have left stale
+     */
+    public int reloadWindow(Long restaurantId, LocalDateTime startTime, LocalDateTime endTime) {
+        RestaurantOccupancy occupancy = restaurants.get(restaurantId);
+        if (occupancy != null) {
+            synchronized (occupancy) {
+                // Counted as a write for the same reason as in invalidate
+                occupancy.startedWrites++;
+                occupancy.finishedWrites++;
+                occupancy.days.keySet().removeIf(day ->
+                        !day.isBefore(startTime.toLocalDate()) && !day.isAfter(endTime.toLocalDate()));
+            }
+        }
+        return guestsInWindow(restaurantId, startTime, endTime);
+    }
+
+    /**
+     * Record a reservation write. The change is applied once the surrounding transaction commits,
+     * so rolled back writes never reach the index.
+     * @param before Seats held before the write, null for a new reservation
+     * @param after Seats held after the write, null for a deleted or cancelled reservation
+     */
+    public void recordChange(Booking before, Booking after) {
+        if (before == null && after == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(before, after);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean started;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Mark the write in flight before it becomes visible, so concurrent day loads do not install a racy snapshot
+                forEachRestaurant(before, after, RestaurantOccupancy::beginWrite);
+                started = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!started) {
+                    return;
+                }
+                if (status == STATUS_COMMITTED) {
+                    apply(before, after);
+                }
+                forEachRestaurant(before, after, RestaurantOccupancy::endWrite);
+            }
+        });
+    }
+
+    /**
+     * Record a write of many reservations of one restaurant, cheaper than a change per reservation:
+     * the restaurant is forgotten once the surrounding transaction commits
+     */
+    public void recordBulkChange(Long restaurantId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(restaurantId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(restaurantId);
+            }
+        });
+    }
+
+    /**
+     * Record a change of the restaurant's table inventory: its tables and seatings are forgotten once
+     * the surrounding transaction commits
+     */
+    public void recordTableChange(Long restaurantId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forgetTables(restaurantId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                forgetTables(restaurantId);
+            }
+        });
+    }
+
+    /**
+     * Forget everything known about a restaurant; days are reloaded on the next read
+     */
+    public void invalidate(Long restaurantId) {
+        RestaurantOccupancy occupancy = restaurants.get(restaurantId);
+        if (occupancy != null) {
+            synchronized (occupancy) {
+                // Counting it as a write keeps a load that is already running from installing its stale snapshot
+                occupancy.startedWrites++;
+                occupancy.finishedWrites++;
+                occupancy.days.clear();
+                occupancy.tables = null;
+                occupancy.seatingDays.clear();
+            }
+        }
+    }
+
+    private void forgetTables(Long restaurantId) {
+        RestaurantOccupancy occupancy = restaurants.get(restaurantId);
+        if (occupancy != null) {
+            synchronized (occupancy) {
+                // Counted as a write for the same reason as in invalidate
+                occupancy.startedWrites++;
+                occupancy.finishedWrites++;
+                occupancy.tables = null;
+                occupancy.seatingDays.clear();
+            }
+        }
+    }
+
+    /**
+     * Tables of the restaurant ordered by id, loaded on first use; empty for a restaurant without tables
+     */
+    public List<RestaurantTable> tables(Long restaurantId) {
+        RestaurantOccupancy occupancy = restaurants.computeIfAbsent(restaurantId, id -> new RestaurantOccupancy());
+        return cached(occupancy, () -> occupancy.tables, tables -> occupancy.tables = tables,
+                () -> restaurantTableDao.findByRestaurantId(restaurantId));
+    }
+
+    /**
+     * Table seatings of active reservations with a time on the day, ordered by time, reservation and
+     * table, loaded on first use
+     */
+    public List<RestaurantTableDao.Seating> seatings(Long restaurantId, LocalDate day) {
+        RestaurantOccupancy occupancy = restaurants.computeIfAbsent(restaurantId, id -> new RestaurantOccupancy());
+        LocalDateTime start = day.atStartOfDay();
+        return cached(occupancy, () -> occupancy.seatingDays.get(day),
+                seatings -> occupancy.seatingDays.put(day, seatings),
+                () -> restaurantTableDao.findSeatings(restaurantId, start, start.plusDays(1).minusNanos(1),
+                        ACTIVE_STATUSES));
+    }
+
+    /**
+     * Re-reads every loaded day from the database, replaces it and reports any drift.
+     * Days that had writes in flight are left for the next pass. Days in the past are dropped.
+     * Tables and seatings are forgotten, so those changed through other nodes are read again.
+     */
+    @Scheduled(fixedDelayString = "${reservation.occupancy.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        for (Map.Entry<Long, RestaurantOccupancy> entry : restaurants.entrySet()) {
+            Long restaurantId = entry.getKey();
+            RestaurantOccupancy occupancy = entry.getValue();
+            List<LocalDate> loaded;
+            synchronized (occupancy) {
+                occupancy.days.keySet().removeIf(day -> day.isBefore(yesterday));
+                loaded = new ArrayList<>(occupancy.days.keySet());
+                occupancy.startedWrites++;
+                occupancy.finishedWrites++;
+                occupancy.tables = null;
+                occupancy.seatingDays.clear();
+            }
+            for (LocalDate day : loaded) {
+                long writesBefore = occupancy.quiescentWrites();
+                if (writesBefore < 0) {
+                    continue;
+                }
+                int[] fresh = transactionTemplate.execute(status -> loadDay(restaurantId, day));
+                synchronized (occupancy) {
+                    int[] current = occupancy.days.get(day);
+                    if (current == null || occupancy.startedWrites != writesBefore) {
+                        continue;
+                    }
+                    if (!Arrays.equals(current, fresh)) {
+                        log.warn("Occupancy drift for restaurant {} on {}, replacing {} with {} guests",
+                                restaurantId, day, Arrays.stream(current).sum(), Arrays.stream(fresh).sum());
+                        occupancy.days.put(day, fresh);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Active guests counted against every slot of the day by a reservation starting in it: the window
+     * sum of {@link #guestsInWindow} for all slots at once, from three day arrays and a running sum
+     */
+    public int[] windowGuests(Long restaurantId, LocalDate day) {
+        RestaurantOccupancy occupancy = restaurants.computeIfAbsent(restaurantId, id -> new RestaurantOccupancy());
+        int reach = SeatLedger.WINDOW_SLOTS;
+        int[] slots = new int[SLOTS_PER_DAY + 2 * reach];
+        readDay(restaurantId, occupancy, day.minusDays(1), previous ->
+                copy(previous, SLOTS_PER_DAY - reach, slots, 0, reach));
+        readDay(restaurantId, occupancy, day, current ->
+                copy(current, 0, slots, reach, SLOTS_PER_DAY));
+        readDay(restaurantId, occupancy, day.plusDays(1), next ->
+                copy(next, 0, slots, reach + SLOTS_PER_DAY, reach));
+
+        int[] window = new int[SLOTS_PER_DAY];
+        int total = sum(slots, 0, 2 * reach);
+        window[0] = total;
+        for (int slot = 1; slot < SLOTS_PER_DAY; slot++) {
+            total += slots[slot + 2 * reach] - slots[slot - 1];
+            window[slot] = total;
+        }
+        return window;
+    }
+
+    private int sumSlots(Long restaurantId, RestaurantOccupancy occupancy, LocalDate day, int from, int to) {
+        return readDay(restaurantId, occupancy, day, slots -> sum(slots, from, to));
+    }
+
+    /**
+     * Read a day's slots under the restaurant's lock, loading the day first if it is not known yet
+     */
+    private <T> T readDay(Long restaurantId, RestaurantOccupancy occupancy, LocalDate day, Function<int[], T> reader) {
+        synchronized (occupancy) {
+            int[] slots = occupancy.days.get(day);
+            if (slots != null) {
+                return reader.apply(slots);
+            }
+        }
+        long writesBefore = occupancy.quiescentWrites();
+        int[] slots = loadDay(restaurantId, day);
+        synchronized (occupancy) {
+            // Only keep the snapshot if no write was in flight while it was read
+            if (writesBefore >= 0 && occupancy.startedWrites == writesBefore) {
+                occupancy.days.putIfAbsent(day, slots);
+                slots = occupancy.days.get(day);
+            }
+            return reader.apply(slots);
+        }
+    }
+
+    /**
+     * Read a value of the restaurant under its lock, loading it from the primary first if it is not
+     * known yet; like a day's slots, it is kept only if no write was in flight while it was read
+     */
+    private <T> T cached(RestaurantOccupancy occupancy, Supplier<T> getter, Consumer<T> setter, Supplier<T> loader) {
+        synchronized (occupancy) {
+            T value = getter.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        long writesBefore = occupancy.quiescentWrites();
+        T value = ReplicaRoutingDataSource.onPrimary(loader);
+        synchronized (occupancy) {
+            if (writesBefore >= 0 && occupancy.startedWrites == writesBefore && getter.get() == null) {
+                setter.accept(value);
+            }
+            return value;
+        }
+    }
+
+    private int[] loadDay(Long restaurantId, LocalDate day) {
+        int[] slots = new int[SLOTS_PER_DAY];
+        LocalDateTime start = day.atStartOfDay();
+        // Kept slots are only corrected by commits of this node, so they must not start out behind the primary
+        List<Object[]> rows = ReplicaRoutingDataSource.onPrimary(() ->
+                reservationDao.sumActiveGuestsByTime(restaurantId, start, start.plusDays(1)));
+        for (Object[] row : rows) {
+            LocalDateTime time = (LocalDateTime) row[0];
+            slots[slotOf(time)] += ((Number) row[1]).intValue();
+        }
+        return slots;
+    }
+
+    private void apply(Booking before, Booking after) {
+        if (before != null) {
+            add(before, -before.guests());
+        }
+        if (after != null) {
+            add(after, after.guests());
+        }
+    }
+
+    private void add(Booking booking, int guests) {
+        RestaurantOccupancy occupancy = restaurants.get(booking.restaurantId());
+        if (occupancy == null) {
+            return;
+        }
+        synchronized (occupancy) {
+            // Days that are not loaded yet will read the committed row from the database
+            LocalDate day = booking.reservationDate().toLocalDate();
+            int[] slots = occupancy.days.get(day);
+            if (slots != null) {
+                slots[slotOf(booking.reservationDate())] += guests;
+            }
+            // Parties moved onto freed tables sit within a few hours of the booking, possibly across midnight
+            occupancy.seatingDays.remove(day.minusDays(1));
+            occupancy.seatingDays.remove(day);
+            occupancy.seatingDays.remove(day.plusDays(1));
+        }
+    }
+
+    private void forEachRestaurant(Booking before, Booking after, Consumer<RestaurantOccupancy> action) {
+        Long first = before != null ? before.restaurantId() : null;
+        Long second = after != null ? after.restaurantId() : null;
+        if (first != null) {
+            action.accept(restaurants.computeIfAbsent(first, id -> new RestaurantOccupancy()));
+        }
+        if (second != null && !second.equals(first)) {
+            action.accept(restaurants.computeIfAbsent(second, id -> new RestaurantOccupancy()));
+        }
+    }
+
+    private static Void copy(int[] source, int from, int[] target, int at, int length) {
+        System.arraycopy(source, from, target, at, length);
+        return null;
+    }
+
+    private static int sum(int[] slots, int from, int to) {
+        int total = 0;
+        for (int slot = Math.max(from, 0); slot <= Math.min(to, slots.length - 1); slot++) {
+            total += slots[slot];
+        }
+        return total;
+    }
+
+    /**
+     * Slots, tables and seatings of one restaurant plus counters of writes that started and finished committing
+     */
+    private static final class RestaurantOccupancy {
+        final Map<LocalDate, int[]> days = new ConcurrentHashMap<>();
+        final Map<LocalDate, List<RestaurantTableDao.Seating>> seatingDays = new ConcurrentHashMap<>();
+        List<RestaurantTable> tables;
+        long startedWrites;
+        long finishedWrites;
+
+        synchronized void beginWrite() {
+            startedWrites++;
+        }
+
+        synchronized void endWrite() {
+            finishedWrites++;
+        }
+
+        /**
+         * @return The started write count if no write is in flight, otherwise -1
+         */
+        synchronized long quiescentWrites() {
+            return startedWrites == finishedWrites ? startedWrites : -1;
+        }
+    }
+}
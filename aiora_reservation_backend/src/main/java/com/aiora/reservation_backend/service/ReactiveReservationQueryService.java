@@ -0,0 +1,91 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.exception.ValidationException;
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.archive.ReservationArchive;
+import com.aiora.reservation_backend.dao.ReactiveReservationDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streaming counterpart of {@link ReservationQueryService} for the reactive read API.
+ *
+ * Each stream is a chain of keyset pages in (reservationDate DESC, reservationId DESC) order, read at
+ * most one page ahead of the subscriber. A slow client therefore costs two pages of memory and no
+ * connection while it reads. Date-range streams also include archived reservations, like their
+ * blocking counterparts.
+ */
+@Service
+public class ReactiveReservationQueryService {
+    private final ReactiveReservationDao reactiveReservationDao;
+    private final ReservationArchive reservationArchive;
+    private final int pageSize;
+
+    @Autowired
+    public ReactiveReservationQueryService(ReactiveReservationDao reactiveReservationDao,
+                                           ReservationArchive reservationArchive,
+                                           @Value("${reservation.reactive.page-size:500}") int pageSize) {
+        this.reactiveReservationDao = reactiveReservationDao;
+        this.reservationArchive = reservationArchive;
+        this.pageSize = pageSize;
+    }
+
+    public Flux<ReservationResponse> streamAll() {
+        return stream(null, null, null);
+    }
+
+    public Flux<ReservationResponse> streamByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        validateRange(startDate, endDate);
+        return stream(null, startDate, endDate);
+    }
+
+    public Flux<ReservationResponse> streamByRestaurant(Long restaurantId) {
+        return stream(restaurantId, null, null);
+    }
+
+    public Flux<ReservationResponse> streamByRestaurantAndDateRange(Long restaurantId, LocalDateTime startDate,
+                                                                    LocalDateTime endDate) {
+        validateRange(startDate, endDate);
+        return stream(restaurantId, startDate, endDate);
+    }
+
+    private Flux<ReservationResponse> stream(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate) {
+        return Mono.defer(() -> page(restaurantId, startDate, endDate, null))
+                .expand(rows -> rows.size() < pageSize
+                        ? Mono.empty()
+                        : Mono.defer(() -> page(restaurantId, startDate, endDate, rows.get(rows.size() - 1))))
+                // Prefetch of one page: the next query runs once the subscriber starts on the current one
+                .concatMapIterable(Function.identity(), 1);
+    }
+
+    private Mono<List<ReservationResponse>> page(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate,
+                                                 ReservationResponse after) {
+        LocalDateTime cursorDate = after != null ? after.getReservationDate() : null;
+        Long cursorId = after != null ? after.getReservationId() : null;
+        Mono<List<ReservationResponse>> live = reactiveReservationDao.findPage(
+                restaurantId, startDate, endDate, cursorDate, cursorId, pageSize);
+        if (startDate == null) {
+            return live;
+        }
+        // Segment reads are memory-mapped file access, kept off the driver's event loop
+        Mono<List<ReservationResponse>> archived = Mono.fromCallable(() -> reservationArchive.findByDateRangeAfter(
+                        restaurantId, startDate, endDate, cursorDate, cursorId, pageSize))
+                .subscribeOn(Schedulers.boundedElastic());
+        return Mono.zip(live, archived, (liveRows, archivedRows) ->
+                ReservationQueryService.mergePages(liveRows, archivedRows, pageSize));
+    }
+
+    private static void validateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new ValidationException("startDate must not be after endDate");
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.model.ReservationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Pushes committed reservation changes to the Server-Sent Events feeds of each restaurant, and to
+ * the hotel-wide feeds that carry the changes of every restaurant over one connection.
+ *
+ * Every subscriber has its own bounded buffer of pending changes, keyed by reservation id, so a
+ * reservation changed several times before a slow client catches up is sent once in its latest state.
+ * When more distinct reservations are pending than the buffer holds, the buffer is dropped and the
+ * client gets a single "resync" event telling it to reload. Sends run on the task executor, one drain
+ * per subscriber at a time, so a stalled connection never blocks the writer or the other subscribers.
+ */
+@Component
+public class ReservationEventBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(ReservationEventBroadcaster.class);
+
+    public static final String RESYNC_EVENT = "resync";
+
+    private final Executor executor;
+    private final int bufferSize;
+    private final long emitterTimeoutMillis;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> hotelSubscribers = ConcurrentHashMap.newKeySet();
+    private final Counter coalesced;
+    private final Counter resyncs;
+
+    @Autowired
+    public ReservationEventBroadcaster(@Qualifier("applicationTaskExecutor") Executor executor,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${reservation.events.buffer-size:256}") int bufferSize,
+                                       @Value("${reservation.events.timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+
+        Gauge.builder("reservation.events.subscribers", subscribers,
+                        all -> all.values().stream().mapToInt(Set::size).sum() + hotelSubscribers.size())
+                .description("Open live reservation feeds")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("reservation.events.coalesced")
+                .description("Reservation events replaced by a later change before they were sent")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("reservation.events.resyncs")
+                .description("Subscribers that fell too far behind and were told to reload")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a live feed of the restaurant's reservation changes
+     */
+    public SseEmitter subscribe(Long restaurantId) {
+        return open(new Subscriber(restaurantId, new SseEmitter(emitterTimeoutMillis)),
+                subscribers.computeIfAbsent(restaurantId, id -> ConcurrentHashMap.newKeySet()));
+    }
+
+    /**
+     * Open a live feed of the reservation changes of every restaurant; a resync of any restaurant
+     * tells it to reload
+     */
+    public SseEmitter subscribeAll() {
+        return open(new Subscriber(null, new SseEmitter(emitterTimeoutMillis)), hotelSubscribers);
+    }
+
+    /**
+     * Publish a change once the surrounding transaction commits; rolled back writes are never sent
+     */
+    public void publish(ReservationEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(event);
+            }
+        });
+    }
+
+    /**
+     * Tell the restaurant's feeds to reload once the surrounding transaction commits, instead of an
+     * event per reservation, after a change to many of its reservations at once
+     */
+    public void publishResync(Long restaurantId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatchResync(restaurantId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatchResync(restaurantId);
+            }
+        });
+    }
+
+    /**
+     * Comment lines on idle feeds keep proxies from closing them and reveal clients that went away
+     */
+    @Scheduled(fixedRateString = "${reservation.events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(feed -> feed.forEach(Subscriber::heartbeat));
+        hotelSubscribers.forEach(Subscriber::heartbeat);
+    }
+
+    int subscriberCount(Long restaurantId) {
+        Set<Subscriber> feed = subscribers.get(restaurantId);
+        return feed != null ? feed.size() : 0;
+    }
+
+    private SseEmitter open(Subscriber subscriber, Set<Subscriber> feed) {
+        feed.add(subscriber);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        return subscriber.emitter;
+    }
+
+    private void dispatch(ReservationEvent event) {
+        Set<Subscriber> feed = subscribers.get(event.getRestaurantId());
+        if (feed != null) {
+            feed.forEach(subscriber -> subscriber.offer(event));
+        }
+        hotelSubscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private void dispatchResync(Long restaurantId) {
+        Set<Subscriber> feed = subscribers.get(restaurantId);
+        if (feed != null) {
+            feed.forEach(Subscriber::resync);
+        }
+        hotelSubscribers.forEach(Subscriber::resync);
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.restaurantId == null) {
+            hotelSubscribers.remove(subscriber);
+            return;
+        }
+        Set<Subscriber> feed = subscribers.get(subscriber.restaurantId);
+        if (feed != null) {
+            feed.remove(subscriber);
+        }
+    }
+
+    /**
+     * One open feed: pending changes by reservation id, flags for a resync and a heartbeat,
+     * and whether a drain is already scheduled. All state is guarded by the subscriber's monitor.
+     */
+    private final class Subscriber {
+        // Null for a hotel-wide feed
+        final Long restaurantId;
+        final SseEmitter emitter;
+        final LinkedHashMap<Long, ReservationEvent> pending = new LinkedHashMap<>();
+        boolean resync;
+        boolean heartbeat;
+        boolean draining;
+
+        Subscriber(Long restaurantId, SseEmitter emitter) {
+            this.restaurantId = restaurantId;
+            this.emitter = emitter;
+        }
+
+        void offer(ReservationEvent event) {
+            synchronized (this) {
+                if (resync) {
+                    coalesced.increment();
+                    return;
+                }
+                // Re-inserting moves the reservation to the end, so changes go out in order of their latest write
+                if (pending.remove(event.getReservationId()) != null) {
+                    coalesced.increment();
+                }
+                pending.put(event.getReservationId(), event);
+                if (pending.size() > bufferSize) {
+                    coalesced.increment(pending.size());
+                    pending.clear();
+                    resync = true;
+                    resyncs.increment();
+                }
+            }
+            scheduleDrain();
+        }
+
+        void resync() {
+            synchronized (this) {
+                coalesced.increment(pending.size());
+                pending.clear();
+                resync = true;
+            }
+            scheduleDrain();
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                heartbeat = true;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                boolean sendResync;
+                boolean sendHeartbeat;
+                List<ReservationEvent> events;
+                synchronized (this) {
+                    if (!resync && !heartbeat && pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    sendResync = resync;
+                    sendHeartbeat = heartbeat;
+                    events = new ArrayList<>(pending.values());
+                    resync = false;
+                    heartbeat = false;
+                    pending.clear();
+                }
+                try {
+                    if (sendResync) {
+                        emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("{}"));
+                    }
+                    for (ReservationEvent event : events) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getReservationId()))
+                                .name(event.getType().name().toLowerCase())
+                                .data(event));
+                    }
+                    if (sendHeartbeat && events.isEmpty() && !sendResync) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Closing live feed of restaurant {}: {}", restaurantId, e.getMessage());
+                    remove(this);
+                    emitter.completeWithError(e);
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.exception.ValidationException;
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.dao.ReservationQueryDao;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes reservation exports row by row while they are read from the database.
+ * Memory use is bounded by the fetch size and the output buffer, not by the number of rows.
+ */
+@Service
+public class ReservationExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "reservationId,reservationDate,guestName,roomNumber,isHotelGuest," +
+            "mealDeducted,reservationStatus,guestCount,restaurantId,restaurantName,userId,username";
+
+    // Same ISO form Jackson writes for LocalDateTime, so both formats agree
+    private static final DateTimeFormatter CSV_DATE = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final ReservationQueryDao reservationQueryDao;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter rowWriter;
+
+    @Value("${reservation.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Autowired
+    public ReservationExportService(ReservationQueryDao reservationQueryDao, PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper) {
+        this.reservationQueryDao = reservationQueryDao;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rowWriter = objectMapper.writerFor(ReservationResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Parse the status filter of an export request
+     * @param status Status name in any case, or null for all
+     */
+    public static ReservationStatus parseStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return ReservationStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid reservation status: " + status);
+        }
+    }
+
+    /**
+     * Stream every matching reservation to the output. Runs its own read-only transaction,
+     * so it can be called from the thread that writes the response body.
+     * @throws UncheckedIOException if the client goes away; the cursor is closed and the transaction rolled back
+     */
+    public void export(Format format, Long restaurantId, LocalDateTime startDate, LocalDateTime endDate,
+                       ReservationStatus status, OutputStream outputStream) {
+        readOnlyTransaction.executeWithoutResult(transaction -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try (Stream<ReservationResponse> rows = reservationQueryDao.streamForExport(
+                    restaurantId, startDate, endDate, status, fetchSize)) {
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                long written = 0;
+                for (Iterator<ReservationResponse> it = rows.iterator(); it.hasNext(); ) {
+                    ReservationResponse row = it.next();
+                    if (format == Format.CSV) {
+                        writeCsv(writer, row);
+                    } else {
+                        rowWriter.writeValue(writer, row);
+                    }
+                    writer.write('\n');
+                    // Hand each fetched batch to the client instead of holding it in the buffer
+                    if (++written % fetchSize == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeCsv(Writer writer, ReservationResponse row) throws IOException {
+        writer.write(String.valueOf(row.getReservationId()));
+        writer.write(',');
+        writer.write(row.getReservationDate() != null ? CSV_DATE.format(row.getReservationDate()) : "");
+        writer.write(',');
+        writer.write(csvText(row.getGuestName()));
+        writer.write(',');
+        writer.write(csvText(row.getRoomNumber()));
+        writer.write(',');
+        writer.write(csvField(row.getIsHotelGuest()));
+        writer.write(',');
+        writer.write(csvField(row.getMealDeducted()));
+        writer.write(',');
+        writer.write(csvField(row.getReservationStatus()));
+        writer.write(',');
+        writer.write(csvField(row.getGuestCount()));
+        writer.write(',');
+        writer.write(csvField(row.getRestaurantId()));
+        writer.write(',');
+        writer.write(csvText(row.getRestaurantName()));
+        writer.write(',');
+        writer.write(csvField(row.getUserId()));
+        writer.write(',');
+        writer.write(csvText(row.getUsername()));
+    }
+
+    /**
+     * Free text typed in by guests and staff: a cell that a spreadsheet would read as a formula gets a
+     * leading apostrophe, so it opens as the text it was
+     */
+    private static String csvText(String value) {
+        if (value != null && !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            return csvField("'" + value);
+        }
+        return csvField(value);
+    }
+
+    /**
+     * RFC 4180 quoting: fields containing a separator, quote or line break are quoted, quotes are doubled
+     */
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
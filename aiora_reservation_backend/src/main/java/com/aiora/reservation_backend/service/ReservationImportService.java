@@ -0,0 +1,237 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.exception.ValidationException;
+import com.aiora.reservation_backend.api.model.BulkImportResponse;
+import com.aiora.reservation_backend.api.model.BulkImportResponse.RowError;
+import com.aiora.reservation_backend.api.model.ReservationRequest;
+import com.aiora.reservation_backend.archive.ReservationArchive;
+import com.aiora.reservation_backend.dao.ReservationDao;
+import com.aiora.reservation_backend.dao.UserDao;
+import com.aiora.reservation_backend.model.Reservation;
+import com.aiora.reservation_backend.model.Restaurant;
+import com.aiora.reservation_backend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a whole list of reservations for one restaurant, e.g. a group or conference booking,
+ * all or nothing.
+ *
+ * The booking rules are checked in memory, users and earlier meal deductions with one query each,
+ * and capacity against the seat ledger and the free tables for the whole list at once. The rows
+ * are then inserted in JDBC batches with ids from the pooled reservation sequence. Any failing row
+ * rejects the import and every failing row is reported.
+ */
+@Service
+public class ReservationImportService {
+
+    private final RestaurantCatalog restaurantCatalog;
+    private final UserDao userDao;
+    private final ReservationDao reservationDao;
+    private final ReservationArchive reservationArchive;
+    private final SeatLedger seatLedger;
+    private final OccupancyIndex occupancyIndex;
+    private final TransactionRetry transactionRetry;
+    private final ReservationEventBroadcaster reservationEventBroadcaster;
+    private final ChangeVersions changeVersions;
+    private final TableAssigner tableAssigner;
+
+    @Value("${reservation.import.max-rows:10000}")
+    private int maxRows;
+
+    @Autowired
+    public ReservationImportService(RestaurantCatalog restaurantCatalog, UserDao userDao, ReservationDao reservationDao,
+                                    ReservationArchive reservationArchive, SeatLedger seatLedger,
+                                    OccupancyIndex occupancyIndex, TransactionRetry transactionRetry,
+                                    ReservationEventBroadcaster reservationEventBroadcaster,
+                                    ChangeVersions changeVersions, TableAssigner tableAssigner) {
+        this.restaurantCatalog = restaurantCatalog;
+        this.userDao = userDao;
+        this.reservationDao = reservationDao;
+        this.reservationArchive = reservationArchive;
+        this.seatLedger = seatLedger;
+        this.occupancyIndex = occupancyIndex;
+        this.transactionRetry = transactionRetry;
+        this.reservationEventBroadcaster = reservationEventBroadcaster;
+        this.changeVersions = changeVersions;
+        this.tableAssigner = tableAssigner;
+    }
+
+    /**
+     * @return The new reservation ids, or the errors of every failing row if nothing was imported
+     * @throws ValidationException if the list is empty or longer than reservation.import.max-rows
+     */
+    public BulkImportResponse importReservations(Long restaurantId, List<ReservationRequest> rows) {
+        RestaurantCatalog.Entry restaurant = restaurantCatalog.require(restaurantId);
+        if (rows.isEmpty()) {
+            throw new ValidationException("No reservations to import");
+        }
+        if (rows.size() > maxRows) {
+            throw new ValidationException("At most " + maxRows + " reservations can be imported at once");
+        }
+
+        Map<Integer, String> errors = new TreeMap<>();
+        Set<String> mealRooms = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            String error = validate(restaurant, rows.get(i));
+            if (error == null && deductsMeal(rows.get(i)) && !mealRooms.add(rows.get(i).getRoomNumber())) {
+                error = "Meal is deducted more than once for room " + rows.get(i).getRoomNumber();
+            }
+            if (error != null) {
+                errors.put(i, error);
+            }
+        }
+
+        try {
+            return transactionRetry.execute(() -> doImport(restaurant, rows, new TreeMap<>(errors)));
+        } catch (Rejected e) {
+            return BulkImportResponse.rejected(e.errors);
+        }
+    }
+
+    private BulkImportResponse doImport(RestaurantCatalog.Entry restaurant, List<ReservationRequest> rows,
+                                        Map<Integer, String> errors) {
+        Map<Long, User> users = userDao.findAllByIds(rows.stream()
+                        .map(ReservationRequest::getUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+        Set<String> mealTaken = new HashSet<>(reservationDao.findRoomsWithMealDeducted(rows.stream()
+                .filter(ReservationImportService::deductsMeal)
+                .map(ReservationRequest::getRoomNumber)
+                .collect(Collectors.toSet())));
+        for (int i = 0; i < rows.size(); i++) {
+            ReservationRequest row = rows.get(i);
+            if (row.getUserId() != null && !users.containsKey(row.getUserId())) {
+                errors.putIfAbsent(i, "User not found");
+            }
+            // A deduction stays on record after its reservation has been archived
+            if (deductsMeal(row) && (mealTaken.contains(row.getRoomNumber())
+                    || reservationArchive.existsMealDeductedForRoom(row.getRoomNumber()))) {
+                errors.putIfAbsent(i, "Meal has already been deducted for room " + row.getRoomNumber());
+            }
+        }
+
+        // Capacity is checked for the valid rows even when others failed, so every failing row is reported
+        Restaurant reference = restaurant.toRestaurant();
+        List<Reservation> reservations = new ArrayList<>(rows.size());
+        List<OccupancyIndex.Booking> bookings = new ArrayList<>();
+        List<Reservation> booked = new ArrayList<>();
+        Map<Integer, Integer> rowOfBooking = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (errors.containsKey(i)) {
+                continue;
+            }
+            Reservation reservation = toEntity(rows.get(i), reference, users.get(rows.get(i).getUserId()));
+            reservations.add(reservation);
+            OccupancyIndex.Booking booking = OccupancyIndex.Booking.of(reservation);
+            if (booking != null) {
+                rowOfBooking.put(bookings.size(), i);
+                bookings.add(booking);
+                booked.add(reservation);
+            }
+        }
+        seatLedger.takeAll(restaurant.restaurantId(), bookings, restaurant.maxCapacity())
+                .forEach((booking, error) -> errors.put(rowOfBooking.get(booking), error));
+        TableAssigner.BulkPlacement placement = tableAssigner.placeAll(restaurant.restaurantId(), bookings);
+        placement.rejected().forEach((booking, error) -> errors.putIfAbsent(rowOfBooking.get(booking), error));
+        if (!errors.isEmpty()) {
+            throw new Rejected(errors);
+        }
+
+        reservationDao.saveAll(reservations);
+        Map<Long, List<Long>> tablesByReservation = new HashMap<>();
+        for (int i = 0; i < booked.size(); i++) {
+            if (placement.tableIds().get(i) != null) {
+                tablesByReservation.put(booked.get(i).getReservationId(), placement.tableIds().get(i));
+            }
+        }
+        tableAssigner.seatAll(tablesByReservation);
+        occupancyIndex.recordBulkChange(restaurant.restaurantId());
+        changeVersions.reservationsChanged(restaurant.restaurantId());
+        // One event per row would overflow every subscriber's buffer into a resync anyway
+        reservationEventBroadcaster.publishResync(restaurant.restaurantId());
+        return BulkImportResponse.imported(reservations.stream()
+                .map(Reservation::getReservationId)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * The checks of a single booking that need nothing but the row and the restaurant
+     * @return The first rule the row breaks, or null
+     */
+    private static String validate(RestaurantCatalog.Entry restaurant, ReservationRequest row) {
+        if (row.getReservationDate() == null) {
+            return "Reservation date is required";
+        }
+        if (row.getGuestName() == null || row.getGuestName().isBlank()) {
+            return "Guest name is required";
+        }
+        if (row.getIsHotelGuest() == null) {
+            return "Hotel guest status is required";
+        }
+        if (row.getGuestCount() == null || row.getGuestCount() < 1) {
+            return "Guest count must be at least 1";
+        }
+        if (row.getUserId() == null) {
+            return "User ID is required";
+        }
+        if (restaurant.roomOnly() && !row.getIsHotelGuest()) {
+            return "This restaurant only accepts hotel guests";
+        }
+        if (!restaurant.acceptsOutsideGuests() && !row.getIsHotelGuest()) {
+            return "This restaurant does not accept outside guests";
+        }
+        if (row.getIsHotelGuest() && (row.getRoomNumber() == null || row.getRoomNumber().trim().isEmpty())) {
+            return "Room number is required for hotel guests";
+        }
+        return null;
+    }
+
+    private static boolean deductsMeal(ReservationRequest row) {
+        return Boolean.TRUE.equals(row.getIsHotelGuest()) && Boolean.TRUE.equals(row.getMealDeducted())
+                && row.getRoomNumber() != null;
+    }
+
+    private static Reservation toEntity(ReservationRequest row, Restaurant restaurant, User user) {
+        Reservation reservation = new Reservation();
+        reservation.setReservationDate(row.getReservationDate());
+        reservation.setGuestName(row.getGuestName());
+        reservation.setRoomNumber(row.getRoomNumber());
+        reservation.setIsHotelGuest(row.getIsHotelGuest());
+        reservation.setMealDeducted(Boolean.TRUE.equals(row.getMealDeducted()));
+        reservation.setGuestCount(row.getGuestCount());
+        reservation.setReservationStatus(row.getReservationStatus() != null
+                ? row.getReservationStatus() : Reservation.ReservationStatus.PENDING);
+        reservation.setRestaurant(restaurant);
+        reservation.setUser(user);
+        return reservation;
+    }
+
+    /**
+     * Rolls the import transaction back and carries the row errors out of it
+     */
+    private static class Rejected extends RuntimeException {
+        private final List<RowError> errors;
+
+        Rejected(Map<Integer, String> errors) {
+            super(null, null, false, false);
+            this.errors = errors.entrySet().stream()
+                    .map(entry -> new RowError(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.archive.ReservationArchive;
+import com.aiora.reservation_backend.api.model.ReservationCursor;
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.dao.ReservationQueryDao;
+import com.aiora.reservation_backend.dao.ReservationSearchDao;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the reservation API. Every list endpoint is served from here with
+ * {@link ReservationResponse} rows selected directly by {@link ReservationQueryDao};
+ * writes and single-entity lookups stay in {@link ReservationService}.
+ *
+ * Lookups by id, room number and date range also read the {@link ReservationArchive}, so
+ * reservations moved out of the database stay reachable. A row present in both tiers
+ * (archived but not yet deleted) is returned once, from the database.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReservationQueryService {
+    private final ReservationQueryDao reservationQueryDao;
+    private final ReservationSearchDao reservationSearchDao;
+    private final RestaurantCatalog restaurantCatalog;
+    private final ReservationArchive reservationArchive;
+
+    private static final Comparator<ReservationResponse> NEWEST_FIRST =
+            Comparator.comparing(ReservationResponse::getReservationDate)
+                    .thenComparing(ReservationResponse::getReservationId)
+                    .reversed();
+
+    // "trigram" uses the ranked PostgreSQL search, "like" the portable substring scan
+    private static final String SEARCH_MODE_TRIGRAM = "trigram";
+
+    @Value("${reservation.search.mode:trigram}")
+    private String searchMode;
+
+    @Autowired
+    public ReservationQueryService(ReservationQueryDao reservationQueryDao, ReservationSearchDao reservationSearchDao,
+                                   RestaurantCatalog restaurantCatalog, ReservationArchive reservationArchive) {
+        this.reservationQueryDao = reservationQueryDao;
+        this.reservationSearchDao = reservationSearchDao;
+        this.restaurantCatalog = restaurantCatalog;
+        this.reservationArchive = reservationArchive;
+    }
+
+    /**
+     * A live or archived reservation by id
+     */
+    public Optional<ReservationResponse> findById(Long id) {
+        List<ReservationResponse> live = reservationQueryDao.findByIds(List.of(id));
+        return live.isEmpty() ? reservationArchive.findById(id) : Optional.of(live.get(0));
+    }
+
+    public List<ReservationResponse> getAllReservations() {
+        return reservationQueryDao.findAll();
+    }
+
+    public List<ReservationResponse> getReservationsByRestaurant(Long restaurantId) {
+        return reservationQueryDao.findByRestaurantId(restaurantId);
+    }
+
+    /**
+     * Reservations of an existing restaurant, optionally filtered by status
+     * @param status Status name in any case, or null for all
+     */
+    public List<ReservationResponse> getReservationsByRestaurantAndStatus(Long restaurantId, String status) {
+        restaurantCatalog.require(restaurantId);
+        if (status == null) {
+            return reservationQueryDao.findByRestaurantId(restaurantId);
+        }
+
+        // Convert string status to enum
+        ReservationStatus reservationStatus;
+        try {
+            reservationStatus = ReservationStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid reservation status: " + status);
+        }
+        return reservationQueryDao.findByRestaurantIdAndStatus(restaurantId, reservationStatus);
+    }
+
+    public List<ReservationResponse> getReservationsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return withArchived(reservationQueryDao.findByDateRange(startDate, endDate),
+                reservationArchive.findByDateRange(null, startDate, endDate));
+    }
+
+    public List<ReservationResponse> getReservationsByRestaurantAndDateRange(Long restaurantId, LocalDateTime startDate,
+                                                                             LocalDateTime endDate) {
+        return withArchived(reservationQueryDao.findByRestaurantAndDateRange(restaurantId, startDate, endDate),
+                reservationArchive.findByDateRange(restaurantId, startDate, endDate));
+    }
+
+    public List<ReservationResponse> getReservationsByRoomNumber(String roomNumber) {
+        return withArchived(reservationQueryDao.findByRoomNumber(roomNumber),
+                reservationArchive.findByRoomNumber(roomNumber));
+    }
+
+    public List<ReservationResponse> getRecentReservationsByRestaurant(Long restaurantId, int page, int size) {
+        return reservationQueryDao.findRecentByRestaurantId(restaurantId, page, size);
+    }
+
+    /**
+     * Keyset-paginated feed of a restaurant's reservations, newest first
+     * @param cursor Position after which to continue, or null for the first page
+     */
+    public List<ReservationResponse> getRecentReservationsByRestaurant(Long restaurantId, ReservationCursor cursor, int limit) {
+        return cursor == null
+                ? reservationQueryDao.findRecentByRestaurantIdAfter(restaurantId, null, null, limit)
+                : reservationQueryDao.findRecentByRestaurantIdAfter(restaurantId, cursor.getReservationDate(), cursor.getReservationId(), limit);
+    }
+
+    public List<ReservationResponse> getReservationsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                                ReservationCursor cursor, int limit) {
+        LocalDateTime cursorDate = cursor != null ? cursor.getReservationDate() : null;
+        Long cursorId = cursor != null ? cursor.getReservationId() : null;
+        return mergePages(reservationQueryDao.findByDateRangeAfter(startDate, endDate, cursorDate, cursorId, limit),
+                reservationArchive.findByDateRangeAfter(null, startDate, endDate, cursorDate, cursorId, limit), limit);
+    }
+
+    public List<ReservationResponse> getReservationsByRestaurantAndDateRange(Long restaurantId, LocalDateTime startDate,
+                                                                             LocalDateTime endDate, ReservationCursor cursor, int limit) {
+        LocalDateTime cursorDate = cursor != null ? cursor.getReservationDate() : null;
+        Long cursorId = cursor != null ? cursor.getReservationId() : null;
+        return mergePages(
+                reservationQueryDao.findByRestaurantAndDateRangeAfter(restaurantId, startDate, endDate, cursorDate, cursorId, limit),
+                reservationArchive.findByDateRangeAfter(restaurantId, startDate, endDate, cursorDate, cursorId, limit), limit);
+    }
+
+    /**
+     * Reservation counts of a restaurant by status, from one grouped query
+     * @param startDate Inclusive lower bound, or null together with endDate for all time
+     * @return totalReservations, pendingReservations and confirmedReservations
+     */
+    public Map<String, Integer> getReservationStats(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate) {
+        Map<ReservationStatus, Integer> byStatus = new EnumMap<>(ReservationStatus.class);
+        for (Object[] row : reservationQueryDao.countByStatus(restaurantId, startDate, endDate)) {
+            byStatus.put((ReservationStatus) row[0], ((Number) row[1]).intValue());
+        }
+        return stats(byStatus);
+    }
+
+    /**
+     * The stats endpoints' counts from reservations per status
+     */
+    static Map<String, Integer> stats(Map<ReservationStatus, Integer> byStatus) {
+        Map<String, Integer> stats = new HashMap<>();
+        stats.put("totalReservations", byStatus.values().stream().mapToInt(Integer::intValue).sum());
+        stats.put("pendingReservations", byStatus.getOrDefault(ReservationStatus.PENDING, 0));
+        stats.put("confirmedReservations", byStatus.getOrDefault(ReservationStatus.CONFIRMED, 0));
+        return stats;
+    }
+
+    /**
+     * Search reservations across multiple fields (guest name, room number, ID, restaurant name)
+     * @param query The search query
+     * @param limit Maximum number of results to return
+     * @return List of matching reservations
+     */
+    public List<ReservationResponse> searchReservations(String query, int limit) {
+        String term = query.trim();
+
+        // Exact reservation id or room number hits short-circuit the fuzzy search
+        List<ReservationResponse> exactMatches = new ArrayList<>();
+        if (term.matches("\\d{1,18}")) {
+            exactMatches.addAll(reservationQueryDao.findByIds(List.of(Long.valueOf(term))));
+        }
+        for (ReservationResponse reservation : reservationQueryDao.findByRoomNumbers(
+                List.of(term, term.toUpperCase()), limit)) {
+            boolean seen = exactMatches.stream()
+                    .anyMatch(match -> match.getReservationId().equals(reservation.getReservationId()));
+            if (exactMatches.size() < limit && !seen) {
+                exactMatches.add(reservation);
+            }
+        }
+        if (!exactMatches.isEmpty()) {
+            return exactMatches;
+        }
+
+        if (SEARCH_MODE_TRIGRAM.equals(searchMode)) {
+            // Ranked ids come from the trigram indexes, rows are then loaded by primary key
+            List<Long> rankedIds = reservationSearchDao.searchRankedIds(term.toLowerCase(), limit);
+            Map<Long, ReservationResponse> byId = reservationQueryDao.findByIds(rankedIds).stream()
+                    .collect(Collectors.toMap(ReservationResponse::getReservationId, Function.identity()));
+            return rankedIds.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        // Convert to lowercase for case-insensitive search with SQL wildcards
+        String searchTerm = "%" + term.toLowerCase() + "%";
+        return reservationQueryDao.search(searchTerm, term, limit);
+    }
+
+    /**
+     * Live rows followed by the archived rows that are not also still live
+     */
+    private static List<ReservationResponse> withArchived(List<ReservationResponse> live, List<ReservationResponse> archived) {
+        if (archived.isEmpty()) {
+            return live;
+        }
+        Set<Long> liveIds = live.stream().map(ReservationResponse::getReservationId).collect(Collectors.toSet());
+        List<ReservationResponse> merged = new ArrayList<>(live);
+        archived.stream().filter(row -> !liveIds.contains(row.getReservationId())).forEach(merged::add);
+        return merged;
+    }
+
+    /**
+     * Merge two keyset pages in feed order; both are already positioned after the same cursor
+     */
+    static List<ReservationResponse> mergePages(List<ReservationResponse> live, List<ReservationResponse> archived,
+                                                        int limit) {
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<ReservationResponse> merged = withArchived(live, archived);
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+}
@@ -1,50 +1,99 @@
 package com.aiora.reservation_backend.service;
 
+import com.aiora.reservation_backend.archive.ReservationArchive;
 import com.aiora.reservation_backend.dao.ReservationDao;
-import com.aiora.reservation_backend.dao.RestaurantDao;
 import com.aiora.reservation_backend.dao.UserDao;
 import com.aiora.reservation_backend.api.exception.*;
+import com.aiora.reservation_backend.api.model.ReservationEvent;
 import com.aiora.reservation_backend.model.Reservation;
-import com.aiora.reservation_backend.model.Restaurant;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 @Transactional
 public class ReservationService {
     private final ReservationDao reservationDao;
-    private final RestaurantDao restaurantDao;
+    private final RestaurantCatalog restaurantCatalog;
     private final UserDao userDao;
+    private final OccupancyIndex occupancyIndex;
+    private final SeatLedger seatLedger;
+    private final TransactionRetry transactionRetry;
+    private final ReservationArchive reservationArchive;
+    private final ReservationEventBroadcaster reservationEventBroadcaster;
+    private final ChangeVersions changeVersions;
+    private final TableAssigner tableAssigner;
 
     @Autowired
-    public ReservationService(ReservationDao reservationDao, RestaurantDao restaurantDao, UserDao userDao) {
+    public ReservationService(ReservationDao reservationDao, RestaurantCatalog restaurantCatalog, UserDao userDao,
+                              OccupancyIndex occupancyIndex, SeatLedger seatLedger, TransactionRetry transactionRetry,
+                              ReservationArchive reservationArchive,
+                              ReservationEventBroadcaster reservationEventBroadcaster,
+                              ChangeVersions changeVersions, TableAssigner tableAssigner) {
         this.reservationDao = reservationDao;
-        this.restaurantDao = restaurantDao;
+        this.restaurantCatalog = restaurantCatalog;
         this.userDao = userDao;
+        this.occupancyIndex = occupancyIndex;
+        this.seatLedger = seatLedger;
+        this.transactionRetry = transactionRetry;
+        this.reservationArchive = reservationArchive;
+        this.reservationEventBroadcaster = reservationEventBroadcaster;
+        this.changeVersions = changeVersions;
+        this.tableAssigner = tableAssigner;
     }
 
+    /**
+     * Writes run in their own transactions through {@link TransactionRetry}, so a seat ledger
+     * lock conflict is retried from scratch instead of failing the request
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Reservation createReservation(Reservation reservation) {
+        Long requestedId = reservation.getReservationId();
+        return transactionRetry.execute(() -> {
+            // A retried attempt must insert again, not reuse the id of the rolled back row
+            reservation.setReservationId(requestedId);
+            return doCreateReservation(reservation);
+        });
+    }
+
+    private Reservation doCreateReservation(Reservation reservation) {
         validateReservation(reservation);
-        checkCapacity(reservation);
+        checkCapacity(reservation, null);
         checkMealEligibility(reservation);
-        return reservationDao.save(reservation);
+        Reservation saved = reservationDao.save(reservation);
+        OccupancyIndex.Booking after = OccupancyIndex.Booking.of(saved);
+        seatLedger.apply(null, after, restaurantCatalog.require(saved.getRestaurant().getRestaurantId()).maxCapacity());
+        tableAssigner.seat(saved);
+        occupancyIndex.recordChange(null, after);
+        reservationEventBroadcaster.publish(ReservationEvent.of(ReservationEvent.Type.CREATED, saved));
+        changeVersions.reservationsChanged(saved.getRestaurant().getRestaurantId());
+        return saved;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Reservation updateReservation(Long id, Reservation reservationDetails) {
+        return transactionRetry.execute(() -> doUpdateReservation(id, reservationDetails));
+    }
+
+    private Reservation doUpdateReservation(Long id, Reservation reservationDetails) {
         Reservation reservation = reservationDao.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
         
         validateReservation(reservationDetails);
         
-        // Only check capacity if date or guest count changes
-        if (!reservation.getReservationDate().equals(reservationDetails.getReservationDate()) || 
-            !reservation.getGuestCount().equals(reservationDetails.getGuestCount())) {
-            checkCapacity(reservationDetails);
+        OccupancyIndex.Booking before = OccupancyIndex.Booking.of(reservation);
+        // Check capacity whenever the seats held change, including a cancelled reservation becoming active again
+        boolean capacityChecked = OccupancyIndex.holdsSeats(reservationDetails.getReservationStatus()) &&
+            (before == null || !before.reservationDate().equals(reservationDetails.getReservationDate()) ||
+                before.guests() != reservationDetails.getGuestCount());
+        if (capacityChecked) {
+            checkCapacity(reservationDetails, before);
         }
         
         // Only check meal eligibility if hotel guest status changes
@@ -62,29 +111,40 @@ public class ReservationService {
         reservation.setReservationStatus(reservationDetails.getReservationStatus());
         reservation.setGuestCount(reservationDetails.getGuestCount());
         
-        return reservationDao.save(reservation);
+        Reservation saved = reservationDao.save(reservation);
+        OccupancyIndex.Booking after = OccupancyIndex.Booking.of(saved);
+        // Seats that change are admitted against capacity; parties around the seats given up may be moved onto the tables they free
+        seatLedger.apply(before, after,
+                after != null && !Objects.equals(before, after)
+                        ? restaurantCatalog.require(saved.getRestaurant().getRestaurantId()).maxCapacity() : null,
+                Objects.equals(before, after) ? 0 : TableAssigner.SURROUNDING_SLOTS);
+        tableAssigner.reseat(saved, before);
+        occupancyIndex.recordChange(before, after);
+        reservationEventBroadcaster.publish(ReservationEvent.of(ReservationEvent.Type.UPDATED, saved));
+        changeVersions.reservationsChanged(saved.getRestaurant().getRestaurantId());
+        return saved;
     }
 
-    public List<Reservation> getReservationsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return reservationDao.findByDateRange(startDate, endDate);
-    }
-
-    public List<Reservation> getReservationsByRestaurant(Long restaurantId) {
-        return reservationDao.findByRestaurantId(restaurantId);
-    }
-    
-    public List<Reservation> getReservationsByRoomNumber(String roomNumber) {
-        return reservationDao.findByRoomNumber(roomNumber);
-    }
-    
+    @Transactional(readOnly = true)
     public boolean hasMealBeenDeducted(String roomNumber) {
-        List<Reservation> reservations = reservationDao.findByRoomNumberAndMealDeducted(roomNumber, true);
-        return !reservations.isEmpty();
+        // A deduction stays on record after its reservation has been archived
+        return reservationDao.existsMealDeductedForRoom(roomNumber)
+                || reservationArchive.existsMealDeductedForRoom(roomNumber);
     }
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteReservation(Long id) {
-        Reservation reservation = reservationDao.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
-        reservationDao.delete(reservation);
+        transactionRetry.execute(() -> {
+            Reservation reservation = reservationDao.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
+            OccupancyIndex.Booking before = OccupancyIndex.Booking.of(reservation);
+            reservationDao.delete(reservation);
+            seatLedger.apply(before, null, null, TableAssigner.SURROUNDING_SLOTS);
+            tableAssigner.deleted(id, before);
+            occupancyIndex.recordChange(before, null);
+            reservationEventBroadcaster.publish(ReservationEvent.of(ReservationEvent.Type.DELETED, reservation));
+            changeVersions.reservationsChanged(reservation.getRestaurant().getRestaurantId());
+            return null;
+        });
     }
     // Replace IllegalArgumentException with ValidationException in these methods
     private void validateReservation(Reservation reservation) {
@@ -92,17 +152,17 @@ public class ReservationService {
         userDao.findById(reservation.getUser().getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
-        // Check if restaurant exists
-        Restaurant restaurant = restaurantDao.findById(reservation.getRestaurant().getRestaurantId())
+        // Check if restaurant exists; its rules come from the catalog snapshot
+        RestaurantCatalog.Entry restaurant = restaurantCatalog.find(reservation.getRestaurant().getRestaurantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found"));
         
         // Check if hotel guests are allowed for room-only restaurants
-        if (restaurant.getRoomOnly() && !reservation.getIsHotelGuest()) {
+        if (restaurant.roomOnly() && !reservation.getIsHotelGuest()) {
             throw new ValidationException("This restaurant only accepts hotel guests");
         }
         
         // Check if outside guests are allowed
-        if (!restaurant.getAcceptsOutsideGuests() && !reservation.getIsHotelGuest()) {
+        if (!restaurant.acceptsOutsideGuests() && !reservation.getIsHotelGuest()) {
             throw new ValidationException("This restaurant does not accept outside guests");
         }
         
@@ -112,26 +172,42 @@ public class ReservationService {
         }
     }
     // If there's a checkCapacity method that uses defaultCapacity, update it to use maxCapacity instead
-    private void checkCapacity(Reservation reservation) {
-        Restaurant restaurant = reservation.getRestaurant();
+    /**
+     * @param before Seats the reservation holds now, given back before the new ones are taken; null for none
+     */
+    private void checkCapacity(Reservation reservation, OccupancyIndex.Booking before) {
+        RestaurantCatalog.Entry restaurant = restaurantCatalog.require(reservation.getRestaurant().getRestaurantId());
         LocalDateTime reservationDate = reservation.getReservationDate();
         
         // Calculate time window (e.g., 2 hours before and after)
         LocalDateTime startTime = reservationDate.minusHours(2);
         LocalDateTime endTime = reservationDate.plusHours(2);
         
-        // Count existing guests in the time window
-        int existingGuests = reservationDao.countGuestsByRestaurantAndTime(
-                restaurant.getRestaurantId(), startTime, endTime);
+        // Count existing guests in the time window from the in-memory occupancy slots.
+        // This only rejects early; the seat ledger row decides admission inside the write transaction.
+        int ownGuests = 0;
+        // The reservation's own seats are not counted against it, the ledger moves them the same way
+        if (before != null && before.restaurantId().equals(restaurant.restaurantId())
+                && !SeatLedger.slotStart(before.reservationDate()).isBefore(SeatLedger.slotStart(startTime))
+                && !SeatLedger.slotStart(before.reservationDate()).isAfter(SeatLedger.slotStart(endTime))) {
+            ownGuests = before.guests();
+        }
+        int existingGuests = occupancyIndex.guestsInWindow(
+                restaurant.restaurantId(), startTime, endTime) - ownGuests;
+        if (existingGuests + reservation.getGuestCount() > restaurant.maxCapacity()) {
+            // Cancellations made through other nodes only reach the slots on reconcile, so re-read before rejecting
+            existingGuests = occupancyIndex.reloadWindow(
+                    restaurant.restaurantId(), startTime, endTime) - ownGuests;
+        }
         
         // Add new guests
         int totalGuests = existingGuests + reservation.getGuestCount();
         
         // Check against maxCapacity instead of defaultCapacity
-        if (totalGuests > restaurant.getMaxCapacity()) {
+        if (totalGuests > restaurant.maxCapacity()) {
             throw new ValidationException("Restaurant capacity exceeded for the selected time. " +
                     "Current: " + existingGuests + ", Adding: " + reservation.getGuestCount() + 
-                    ", Max: " + restaurant.getMaxCapacity());
+                    ", Max: " + restaurant.maxCapacity());
         }
     }
     private boolean isCapacityCheckRequired(Reservation existing, Reservation updated) {
@@ -142,6 +218,7 @@ public class ReservationService {
                 existing.getGuestCount() == null ||
                 !existing.getGuestCount().equals(updated.getGuestCount()));
     }
+    @Transactional(readOnly = true)
     public Optional<Reservation> findById(Long id) {
         return reservationDao.findById(id);
     }
@@ -154,20 +231,6 @@ public class ReservationService {
                 existing.getMealDeducted() == null ||
                 existing.getMealDeducted() != updated.getMealDeducted());
     }
-    /**
-     * Search reservations across multiple fields (guest name, room number, ID, restaurant name)
-     * @param query The search query
-     * @param limit Maximum number of results to return
-     * @return List of matching reservations
-     */
-    public List<Reservation> searchReservations(String query, int limit) {
-        // Convert to lowercase for case-insensitive search with SQL wildcards
-        String searchTerm = "%" + query.toLowerCase() + "%";
-
-        // Use the DAO to perform the search
-        return reservationDao.searchReservations(searchTerm, query, limit);
-    }
-    
     private void checkMealEligibility(Reservation reservation) {
         // Only check for hotel guests who want to deduct a meal
         if (reservation.getIsHotelGuest() && reservation.getMealDeducted()) {
@@ -177,20 +240,8 @@ public class ReservationService {
             }
         }
     }
-/**
- * Retrieves all reservations from the database
- * @return List of all reservations
- */
-public List<Reservation> getAllReservations() {
-    return reservationDao.findAll();
-}
-
-public List<Reservation> getRecentReservationsByRestaurant(Long restaurantId, int page, int size) {
-    // This would be a new method that uses JPA's Pageable to get paginated results
-    // sorted by reservationDate DESC
-    return reservationDao.findRecentByRestaurantId(restaurantId, page, size);
-}
 
+@Transactional(readOnly = true)
 public long countReservationsByRestaurant(Long restaurantId) {
     // This method would count all reservations for the restaurant
     return reservationDao.countByRestaurantId(restaurantId);
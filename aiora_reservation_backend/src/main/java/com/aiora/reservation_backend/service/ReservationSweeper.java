@@ -0,0 +1,73 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.model.StatusTransitionRequest;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Closes reservations whose service is over: confirmed ones become COMPLETED and ones still pending
+ * become NO_SHOW. Each restaurant is a bulk transition of its own, so locks are held briefly and a
+ * failing restaurant does not hold up the others. Running it on several nodes is harmless; the
+ * second run finds nothing left to move.
+ */
+@Component
+public class ReservationSweeper {
+    private static final Logger log = LoggerFactory.getLogger(ReservationSweeper.class);
+
+    private final RestaurantCatalog restaurantCatalog;
+    private final ReservationTransitionService reservationTransitionService;
+
+    @Value("${reservation.sweep.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reservation.sweep.grace-minutes:180}")
+    private int graceMinutes;
+
+    @Autowired
+    public ReservationSweeper(RestaurantCatalog restaurantCatalog,
+                              ReservationTransitionService reservationTransitionService) {
+        this.restaurantCatalog = restaurantCatalog;
+        this.reservationTransitionService = reservationTransitionService;
+    }
+
+    @Scheduled(cron = "${reservation.sweep.cron:0 */15 * * * *}")
+    public void sweepFinished() {
+        if (enabled) {
+            sweepBefore(LocalDateTime.now().minusMinutes(graceMinutes));
+        }
+    }
+
+    /**
+     * Sweep every reservation dated before the cutoff
+     * @return Number of reservations moved
+     */
+    public int sweepBefore(LocalDateTime cutoff) {
+        int completed = 0;
+        int noShows = 0;
+        for (Long restaurantId : restaurantCatalog.restaurantIds()) {
+            try {
+                completed += move(restaurantId, ReservationStatus.CONFIRMED, ReservationStatus.COMPLETED, cutoff);
+                noShows += move(restaurantId, ReservationStatus.PENDING, ReservationStatus.NO_SHOW, cutoff);
+            } catch (RuntimeException e) {
+                log.warn("Sweeping restaurant {} failed, retrying on the next run", restaurantId, e);
+            }
+        }
+        if (completed + noShows > 0) {
+            log.info("Swept reservations dated before {}: {} completed, {} no-shows", cutoff, completed, noShows);
+        }
+        return completed + noShows;
+    }
+
+    private int move(Long restaurantId, ReservationStatus from, ReservationStatus to, LocalDateTime cutoff) {
+        return reservationTransitionService.transition(
+                new StatusTransitionRequest(restaurantId, null, List.of(from), to, null, cutoff)).getUpdated();
+    }
+}
@@ -0,0 +1,144 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.exception.ValidationException;
+import com.aiora.reservation_backend.api.model.StatusTransitionRequest;
+import com.aiora.reservation_backend.api.model.StatusTransitionResponse;
+import com.aiora.reservation_backend.dao.ReservationDao;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Moves many reservations to a new status at once, e.g. completing a finished service or cancelling
+ * a room's bookings at checkout.
+ *
+ * Each affected restaurant is one set-based UPDATE instead of a load and merge per reservation.
+ * When the reservations give up their seats, the seat ledger windows of the affected range are
+ * locked first, the guests are summed per reservation time under that lock and only those times are
+ * updated, so the seats returned are exactly those of the rows moved. The occupancy index, the
+ * change versions and the live feeds are then refreshed once per restaurant.
+ */
+@Service
+public class ReservationTransitionService {
+
+    // Reservation times per UPDATE, well below the bind parameter limit
+    private static final int DATES_CHUNK = 1000;
+
+    private final ReservationDao reservationDao;
+    private final RestaurantCatalog restaurantCatalog;
+    private final SeatLedger seatLedger;
+    private final OccupancyIndex occupancyIndex;
+    private final TransactionRetry transactionRetry;
+    private final ReservationEventBroadcaster reservationEventBroadcaster;
+    private final ChangeVersions changeVersions;
+
+    @Autowired
+    public ReservationTransitionService(ReservationDao reservationDao, RestaurantCatalog restaurantCatalog,
+                                        SeatLedger seatLedger, OccupancyIndex occupancyIndex,
+                                        TransactionRetry transactionRetry,
+                                        ReservationEventBroadcaster reservationEventBroadcaster,
+                                        ChangeVersions changeVersions) {
+        this.reservationDao = reservationDao;
+        this.restaurantCatalog = restaurantCatalog;
+        this.seatLedger = seatLedger;
+        this.occupancyIndex = occupancyIndex;
+        this.transactionRetry = transactionRetry;
+        this.reservationEventBroadcaster = reservationEventBroadcaster;
+        this.changeVersions = changeVersions;
+    }
+
+    /**
+     * @throws ValidationException if the transition is incomplete, or would take seats without a capacity check
+     */
+    public StatusTransitionResponse transition(StatusTransitionRequest request) {
+        validate(request);
+        if (request.getRestaurantId() != null) {
+            restaurantCatalog.require(request.getRestaurantId());
+        }
+        Set<ReservationStatus> from = EnumSet.copyOf(request.getFromStatuses());
+        boolean releasesSeats = OccupancyIndex.holdsSeats(from.iterator().next())
+                && !OccupancyIndex.holdsSeats(request.getToStatus());
+        return transactionRetry.execute(() -> doTransition(request, from, releasesSeats));
+    }
+
+    private StatusTransitionResponse doTransition(StatusTransitionRequest request, Set<ReservationStatus> from,
+                                                  boolean releasesSeats) {
+        Map<Long, Integer> updated = new TreeMap<>();
+        // Restaurants come in ascending order, so ledger locks are taken in the same order as everywhere else
+        List<Object[]> scopes = reservationDao.findStatusScopes(request.getRestaurantId(), request.getRoomNumber(),
+                from, request.getStartDate(), request.getEndDate());
+        for (Object[] scope : scopes) {
+            Long restaurantId = (Long) scope[0];
+            LocalDateTime first = (LocalDateTime) scope[1];
+            LocalDateTime last = (LocalDateTime) scope[2];
+            int count = releasesSeats
+                    ? releaseAndUpdate(restaurantId, request, from, first, last)
+                    : reservationDao.updateStatus(restaurantId, request.getRoomNumber(), from,
+                            request.getToStatus(), first, last, null);
+            if (count == 0) {
+                continue;
+            }
+            updated.put(restaurantId, count);
+            if (releasesSeats) {
+                occupancyIndex.recordBulkChange(restaurantId);
+            }
+            changeVersions.reservationsChanged(restaurantId);
+            reservationEventBroadcaster.publishResync(restaurantId);
+        }
+        return new StatusTransitionResponse(request.getToStatus(), updated);
+    }
+
+    private int releaseAndUpdate(Long restaurantId, StatusTransitionRequest request, Set<ReservationStatus> from,
+                                 LocalDateTime first, LocalDateTime last) {
+        seatLedger.lockWindows(restaurantId, first, last);
+        Map<LocalDateTime, Integer> guestsByTime = new TreeMap<>();
+        for (Object[] row : reservationDao.sumGuestsByTimeAndStatus(restaurantId, request.getRoomNumber(),
+                from, first, last)) {
+            guestsByTime.put((LocalDateTime) row[0], ((Number) row[1]).intValue());
+        }
+        // A booking admitted at one of these times waits for the ledger lock; one at another time is left alone
+        List<LocalDateTime> dates = new ArrayList<>(guestsByTime.keySet());
+        int count = 0;
+        for (int i = 0; i < dates.size(); i += DATES_CHUNK) {
+            count += reservationDao.updateStatus(restaurantId, request.getRoomNumber(), from, request.getToStatus(),
+                    first, last, dates.subList(i, Math.min(i + DATES_CHUNK, dates.size())));
+        }
+        seatLedger.releaseAll(restaurantId, guestsByTime);
+        return count;
+    }
+
+    private static void validate(StatusTransitionRequest request) {
+        if (request.getToStatus() == null) {
+            throw new ValidationException("Target status is required");
+        }
+        if (request.getFromStatuses() == null || request.getFromStatuses().isEmpty()) {
+            throw new ValidationException("At least one status to move from is required");
+        }
+        if (request.getFromStatuses().contains(request.getToStatus())) {
+            throw new ValidationException("Target status cannot also be a status to move from");
+        }
+        if (request.getRestaurantId() == null && request.getRoomNumber() == null) {
+            throw new ValidationException("A restaurant or a room number is required");
+        }
+        if (request.getStartDate() != null && request.getEndDate() != null
+                && !request.getStartDate().isBefore(request.getEndDate())) {
+            throw new ValidationException("Start date must be before end date");
+        }
+        long holdingSeats = request.getFromStatuses().stream().filter(OccupancyIndex::holdsSeats).count();
+        if (holdingSeats != 0 && holdingSeats != request.getFromStatuses().size()) {
+            throw new ValidationException("Statuses to move from must either all hold seats or none");
+        }
+        if (holdingSeats == 0 && OccupancyIndex.holdsSeats(request.getToStatus())) {
+            throw new ValidationException("Reservations can only be moved to " + request.getToStatus()
+                    + " one at a time, since that needs a capacity check");
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.exception.ResourceNotFoundException;
+import com.aiora.reservation_backend.api.model.RestaurantResponse;
+import com.aiora.reservation_backend.config.ReplicaRoutingDataSource;
+import com.aiora.reservation_backend.dao.RestaurantDao;
+import com.aiora.reservation_backend.model.Restaurant;
+import com.aiora.reservation_backend.model.Restaurant.RestaurantType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Immutable in-process copy of the restaurants, so booking rules, capacities and the catalog
+ * endpoints are served without a query.
+ *
+ * Readers take the current snapshot with one volatile read. Writers build a new snapshot and swap it
+ * in: restaurant writes of this node after they commit, changes made elsewhere on the periodic
+ * refresh, and a restaurant missing from the snapshot when it is first asked for. Each restaurant
+ * is kept pre-serialized, as is the whole list.
+ */
+@Component
+public class RestaurantCatalog {
+
+    private final RestaurantDao restaurantDao;
+    private final ObjectMapper objectMapper;
+    private final ChangeVersions changeVersions;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Snapshot snapshot;
+    // Swaps so far, so a refresh can tell that its query raced with a write
+    private long generation;
+
+    @Autowired
+    public RestaurantCatalog(RestaurantDao restaurantDao, ObjectMapper objectMapper, ChangeVersions changeVersions,
+                             PlatformTransactionManager transactionManager) {
+        this.restaurantDao = restaurantDao;
+        this.objectMapper = objectMapper;
+        this.changeVersions = changeVersions;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * One restaurant as of the snapshot; flags that are not set count as false
+     * @param json The restaurant as a RestaurantResponse JSON document, not to be modified
+     */
+    public record Entry(Long restaurantId, String name, RestaurantType restaurantType, Integer defaultCapacity,
+                        int maxCapacity, String location, String description, boolean acceptsOutsideGuests,
+                        boolean roomOnly, byte[] json) {
+
+        /**
+         * A detached Restaurant carrying the snapshot's values, to reference from a new reservation
+         * without loading the restaurant
+         */
+        public Restaurant toRestaurant() {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setRestaurantId(restaurantId);
+            restaurant.setName(name);
+            restaurant.setRestaurantType(restaurantType);
+            restaurant.setDefaultCapacity(defaultCapacity);
+            restaurant.setMaxCapacity(maxCapacity);
+            restaurant.setLocation(location);
+            restaurant.setDescription(description);
+            restaurant.setAcceptsOutsideGuests(acceptsOutsideGuests);
+            restaurant.setRoomOnly(roomOnly);
+            return restaurant;
+        }
+    }
+
+    private record Snapshot(Map<Long, Entry> byId, List<Entry> ordered, byte[] json) {
+    }
+
+    public Optional<Entry> find(Long restaurantId) {
+        Entry entry = current().byId().get(restaurantId);
+        return entry != null ? Optional.of(entry) : Optional.ofNullable(load(restaurantId));
+    }
+
+    public Entry require(Long restaurantId) {
+        return find(restaurantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
+    }
+
+    /**
+     * Every restaurant, ordered by id
+     */
+    public List<Entry> entries() {
+        return current().ordered();
+    }
+
+    /**
+     * Ids of every restaurant, ascending
+     */
+    public List<Long> restaurantIds() {
+        return current().ordered().stream().map(Entry::restaurantId).toList();
+    }
+
+    /**
+     * Every restaurant as a JSON array of RestaurantResponse, ordered by id; not to be modified
+     */
+    public byte[] listJson() {
+        return current().json();
+    }
+
+    /**
+     * The restaurants matching the filter as a JSON array of RestaurantResponse, ordered by id
+     */
+    public byte[] listJson(Predicate<Entry> filter) {
+        return toJsonArray(current().ordered().stream().filter(filter).toList());
+    }
+
+    /**
+     * Take the restaurant into the snapshot once the current transaction commits
+     */
+    public void restaurantSaved(Restaurant restaurant) {
+        Entry entry = toEntry(restaurant);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(entry);
+            }
+        });
+    }
+
+    /**
+     * Reload every restaurant, picking up changes made through other nodes; a changed snapshot moves
+     * the catalog version. The query runs without holding the lock that writers need after
+     * their commit, and is repeated if one of them swapped in a restaurant meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${reservation.catalog.refresh-interval-ms:60000}")
+    public void refresh() {
+        while (true) {
+            long started = generation();
+            List<Entry> entries = ReplicaRoutingDataSource.onPrimary(() -> readOnlyTransaction.execute(status ->
+                    restaurantDao.findAll().stream()
+                            .map(this::toEntry)
+                            .toList()));
+            synchronized (this) {
+                if (generation == started) {
+                    swap(entries);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void swap(List<Entry> entries) {
+        Snapshot previous = snapshot;
+        snapshot = build(entries);
+        generation++;
+        if (previous == null) {
+            return;
+        }
+        boolean changed = entries.size() != previous.byId().size();
+        for (Entry entry : entries) {
+            Entry before = previous.byId().get(entry.restaurantId());
+            changed |= before == null || !Arrays.equals(before.json(), entry.json());
+        }
+        // Reservation tags were bumped in the database by whichever node wrote the restaurant
+        if (changed) {
+            changeVersions.catalogChanged();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private Entry load(Long restaurantId) {
+        Entry entry = ReplicaRoutingDataSource.onPrimary(() -> readOnlyTransaction.execute(status ->
+                restaurantDao.findById(restaurantId)
+                        .map(this::toEntry)
+                        .orElse(null)));
+        if (entry != null) {
+            synchronized (this) {
+                Entry known = snapshot.byId().get(restaurantId);
+                if (known != null) {
+                    return known;
+                }
+                put(entry);
+            }
+        }
+        return entry;
+    }
+
+    private synchronized void put(Entry entry) {
+        generation++;
+        if (snapshot != null) {
+            Map<Long, Entry> byId = new HashMap<>(snapshot.byId());
+            byId.put(entry.restaurantId(), entry);
+            snapshot = build(byId.values());
+        }
+    }
+
+    private Snapshot build(Iterable<Entry> entries) {
+        Map<Long, Entry> byId = new HashMap<>();
+        entries.forEach(entry -> byId.put(entry.restaurantId(), entry));
+        List<Entry> ordered = new ArrayList<>(byId.values());
+        ordered.sort(Comparator.comparing(Entry::restaurantId));
+        return new Snapshot(Map.copyOf(byId), List.copyOf(ordered), toJsonArray(ordered));
+    }
+
+    private Entry toEntry(Restaurant restaurant) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(RestaurantResponse.of(restaurant));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize restaurant " + restaurant.getRestaurantId(), e);
+        }
+        return new Entry(restaurant.getRestaurantId(), restaurant.getName(), restaurant.getRestaurantType(),
+                restaurant.getDefaultCapacity(), restaurant.getMaxCapacity(), restaurant.getLocation(),
+                restaurant.getDescription(), Boolean.TRUE.equals(restaurant.getAcceptsOutsideGuests()),
+                Boolean.TRUE.equals(restaurant.getRoomOnly()), json);
+    }
+
+    private static byte[] toJsonArray(List<Entry> entries) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(entries.get(i).json());
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+}
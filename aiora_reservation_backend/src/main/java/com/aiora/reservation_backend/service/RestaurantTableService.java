@@ -0,0 +1,87 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.exception.ResourceNotFoundException;
+import com.aiora.reservation_backend.api.exception.ValidationException;
+import com.aiora.reservation_backend.api.model.TableSeating;
+import com.aiora.reservation_backend.dao.RestaurantTableDao;
+import com.aiora.reservation_backend.model.RestaurantTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The table inventory of the restaurants, and who is seated where for the table grid
+ */
+@Service
+@Transactional
+public class RestaurantTableService {
+
+    private final RestaurantTableDao restaurantTableDao;
+    private final RestaurantCatalog restaurantCatalog;
+    private final TableAssigner tableAssigner;
+    private final OccupancyIndex occupancyIndex;
+
+    @Autowired
+    public RestaurantTableService(RestaurantTableDao restaurantTableDao, RestaurantCatalog restaurantCatalog,
+                                  TableAssigner tableAssigner, OccupancyIndex occupancyIndex) {
+        this.restaurantTableDao = restaurantTableDao;
+        this.restaurantCatalog = restaurantCatalog;
+        this.tableAssigner = tableAssigner;
+        this.occupancyIndex = occupancyIndex;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RestaurantTable> getTables(Long restaurantId) {
+        restaurantCatalog.require(restaurantId);
+        return restaurantTableDao.findByRestaurantId(restaurantId);
+    }
+
+    /**
+     * Add a table; reservations made from now on can be seated at it
+     * @throws ValidationException if the label is missing or the table has no seats
+     */
+    public RestaurantTable addTable(Long restaurantId, RestaurantTable table) {
+        restaurantCatalog.require(restaurantId);
+        if (table.getLabel() == null || table.getLabel().isBlank()) {
+            throw new ValidationException("Table label is required");
+        }
+        if (table.getSeats() == null || table.getSeats() < 1) {
+            throw new ValidationException("A table must have at least 1 seat");
+        }
+        if (table.getCombineGroup() != null && table.getCombineGroup().isBlank()) {
+            table.setCombineGroup(null);
+        }
+        table.setTableId(null);
+        table.setRestaurantId(restaurantId);
+        RestaurantTable saved = restaurantTableDao.save(table);
+        occupancyIndex.recordTableChange(restaurantId);
+        return saved;
+    }
+
+    /**
+     * Remove a table; reservations seated at it keep their seats but lose that table
+     */
+    public void deleteTable(Long restaurantId, Long tableId) {
+        RestaurantTable table = restaurantTableDao.findById(tableId)
+                .filter(found -> found.getRestaurantId().equals(restaurantId))
+                .orElseThrow(() -> new ResourceNotFoundException("Table not found with id: " + tableId));
+        restaurantTableDao.delete(table);
+        occupancyIndex.recordTableChange(restaurantId);
+    }
+
+    /**
+     * Every table seating of the restaurant's active reservations on one day, ordered by time
+     */
+    @Transactional(readOnly = true)
+    public List<TableSeating> getSeatings(Long restaurantId, LocalDate date) {
+        restaurantCatalog.require(restaurantId);
+        return tableAssigner.seatings(restaurantId, date.atStartOfDay(), date.plusDays(1).atStartOfDay().minusNanos(1))
+                .stream()
+                .map(seating -> new TableSeating(seating.tableId(), seating.reservationId(), seating.guestName(),
+                        seating.guests(), seating.reservationDate(), TableAssigner.seatedUntil(seating.reservationDate())))
+                .toList();
+    }
+}
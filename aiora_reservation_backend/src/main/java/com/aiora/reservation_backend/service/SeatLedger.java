@@ -0,0 +1,197 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.exception.ValidationException;
+import com.aiora.reservation_backend.dao.SlotInventoryDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Capacity admission against the restaurant_slot_inventory ledger.
+ *
+ * Every active reservation adds its guests to the ledger row of each 15-minute slot within two hours
+ * of its own slot, so a row holds exactly the window sum that {@code checkCapacity} computes for a
+ * reservation starting there. Admission is a conditional update of that one row; it locks only the
+ * rows of the affected restaurant and slots, so bookings elsewhere never wait on each other and
+ * the database keeps it correct across any number of app nodes.
+ */
+@Component
+public class SeatLedger {
+
+    // Same two hour window on each side as ReservationService.checkCapacity
+    static final int WINDOW_SLOTS = 120 / OccupancyIndex.SLOT_MINUTES;
+    // Ledger rows created per statement, well below the bind parameter limit
+    private static final int ENSURE_CHUNK = 1000;
+
+    private final SlotInventoryDao slotInventoryDao;
+
+    @Autowired
+    public SeatLedger(SlotInventoryDao slotInventoryDao) {
+        this.slotInventoryDao = slotInventoryDao;
+    }
+
+    /**
+     * Move seats from one booking to another inside the current transaction.
+     * @param before Seats held before the write, null for a new reservation
+     * @param after Seats held after the write, null for a deleted or cancelled reservation
+     * @param maxCapacity Capacity to enforce on the new booking, or null to take the seats unconditionally
+     * @throws ValidationException if the new booking would exceed maxCapacity
+     */
+    public void apply(OccupancyIndex.Booking before, OccupancyIndex.Booking after, Integer maxCapacity) {
+        apply(before, after, maxCapacity, 0);
+    }
+
+    /**
+     * Move seats from one booking to another inside the current transaction, also locking the windows
+     * anchored up to surroundingSlots around the seats held before, for follow-up changes to the
+     * reservations around them
+     * @see #apply(OccupancyIndex.Booking, OccupancyIndex.Booking, Integer)
+     */
+    public void apply(OccupancyIndex.Booking before, OccupancyIndex.Booking after, Integer maxCapacity,
+                      int surroundingSlots) {
+        if (before == null && after == null) {
+            return;
+        }
+        lockInOrder(before, after, surroundingSlots);
+        if (before != null) {
+            LocalDateTime anchor = slotStart(before.reservationDate());
+            slotInventoryDao.addSeats(before.restaurantId(), windowStart(anchor), windowEnd(anchor), -before.guests());
+        }
+        if (after != null) {
+            take(after, maxCapacity);
+        }
+    }
+
+    private void take(OccupancyIndex.Booking booking, Integer maxCapacity) {
+        LocalDateTime anchor = slotStart(booking.reservationDate());
+        int limit = maxCapacity != null ? maxCapacity : Integer.MAX_VALUE - booking.guests();
+        if (!slotInventoryDao.takeSeatsIfAvailable(booking.restaurantId(), anchor, booking.guests(), limit)) {
+            int current = slotInventoryDao.findWindowSeats(booking.restaurantId(), anchor);
+            throw new ValidationException("Restaurant capacity exceeded for the selected time. " +
+                    "Current: " + current + ", Adding: " + booking.guests() + ", Max: " + maxCapacity);
+        }
+        // The anchor row already holds the seats, the rest of the window gets them unconditionally
+        LocalDateTime previous = anchor.minusMinutes(OccupancyIndex.SLOT_MINUTES);
+        LocalDateTime next = anchor.plusMinutes(OccupancyIndex.SLOT_MINUTES);
+        slotInventoryDao.addSeats(booking.restaurantId(), windowStart(anchor), previous, booking.guests());
+        slotInventoryDao.addSeats(booking.restaurantId(), next, windowEnd(anchor), booking.guests());
+    }
+
+    /**
+     * Admit many new bookings of one restaurant at once inside the current transaction. The window
+     * of every booking must fit with all the others counted, whatever their order, and nothing is
+     * taken unless every booking fits. The ledger rows are locked as one ascending range, the same
+     * order single admissions use.
+     * @return Capacity error per index of a booking that does not fit, empty if the seats were taken
+     */
+    public Map<Integer, String> takeAll(Long restaurantId, List<OccupancyIndex.Booking> bookings, int maxCapacity) {
+        if (bookings.isEmpty()) {
+            return Map.of();
+        }
+        TreeMap<LocalDateTime, Integer> added = new TreeMap<>();
+        for (OccupancyIndex.Booking booking : bookings) {
+            addToWindow(added, slotStart(booking.reservationDate()), booking.guests());
+        }
+        List<LocalDateTime> slots = new ArrayList<>(added.keySet());
+        for (int from = 0; from < slots.size(); from += ENSURE_CHUNK) {
+            slotInventoryDao.ensureSlots(restaurantId, slots.subList(from, Math.min(from + ENSURE_CHUNK, slots.size())));
+        }
+        slotInventoryDao.lockSlots(restaurantId, added.firstKey(), added.lastKey());
+        Map<LocalDateTime, Integer> current = slotInventoryDao.findWindowSeats(restaurantId,
+                added.firstKey(), added.lastKey());
+
+        Map<Integer, String> rejected = new LinkedHashMap<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            LocalDateTime anchor = slotStart(bookings.get(i).reservationDate());
+            int existing = current.getOrDefault(anchor, 0);
+            if (existing + added.get(anchor) > maxCapacity) {
+                rejected.put(i, "Restaurant capacity exceeded for the selected time. " +
+                        "Current: " + existing + ", Adding: " + added.get(anchor) + ", Max: " + maxCapacity);
+            }
+        }
+        if (rejected.isEmpty()) {
+            slotInventoryDao.addSeats(restaurantId, added);
+        }
+        return rejected;
+    }
+
+    /**
+     * Row-lock the ledger rows of every window anchored between first and last as one ascending range,
+     * ahead of a set-based change to the restaurant's reservations in that range. A single admission
+     * that would touch one of those reservations, or add one at the same time, waits for it.
+     */
+    public void lockWindows(Long restaurantId, LocalDateTime first, LocalDateTime last) {
+        slotInventoryDao.lockSlots(restaurantId, windowStart(slotStart(first)), windowEnd(slotStart(last)));
+    }
+
+    /**
+     * Return the seats of many bookings of one restaurant, with their windows locked by
+     * {@link #lockWindows}, as one batch
+     * @param guestsByTime Guests per reservation time
+     */
+    public void releaseAll(Long restaurantId, Map<LocalDateTime, Integer> guestsByTime) {
+        TreeMap<LocalDateTime, Integer> returned = new TreeMap<>();
+        guestsByTime.forEach((time, guests) -> addToWindow(returned, slotStart(time), -guests));
+        if (!returned.isEmpty()) {
+            slotInventoryDao.addSeats(restaurantId, returned);
+        }
+    }
+
+    private static void addToWindow(Map<LocalDateTime, Integer> seatsBySlot, LocalDateTime anchor, int seats) {
+        for (LocalDateTime slot = windowStart(anchor); !slot.isAfter(windowEnd(anchor));
+             slot = slot.plusMinutes(OccupancyIndex.SLOT_MINUTES)) {
+            seatsBySlot.merge(slot, seats, Integer::sum);
+        }
+    }
+
+    /**
+     * Create and row-lock every ledger row either booking touches, ordered by restaurant then slot,
+     * so two writers always queue on the same first row instead of deadlocking
+     */
+    private void lockInOrder(OccupancyIndex.Booking before, OccupancyIndex.Booking after, int surroundingSlots) {
+        List<LockRange> ranges = new ArrayList<>();
+        if (before != null) {
+            LocalDateTime anchor = slotStart(before.reservationDate());
+            long margin = (long) surroundingSlots * OccupancyIndex.SLOT_MINUTES;
+            ranges.add(new LockRange(before.restaurantId(), windowStart(anchor).minusMinutes(margin),
+                    windowEnd(anchor).plusMinutes(margin)));
+        }
+        if (after != null) {
+            LocalDateTime anchor = slotStart(after.reservationDate());
+            ranges.add(new LockRange(after.restaurantId(), windowStart(anchor), windowEnd(anchor)));
+        }
+        ranges.sort(Comparator.comparing(LockRange::restaurantId).thenComparing(LockRange::from));
+        for (LockRange range : ranges) {
+            List<LocalDateTime> slots = new ArrayList<>();
+            for (LocalDateTime slot = range.from(); !slot.isAfter(range.to());
+                 slot = slot.plusMinutes(OccupancyIndex.SLOT_MINUTES)) {
+                slots.add(slot);
+            }
+            slotInventoryDao.ensureSlots(range.restaurantId(), slots);
+            slotInventoryDao.lockSlots(range.restaurantId(), range.from(), range.to());
+        }
+    }
+
+    private record LockRange(Long restaurantId, LocalDateTime from, LocalDateTime to) {
+    }
+
+    static LocalDateTime slotStart(LocalDateTime time) {
+        return time.toLocalDate().atStartOfDay()
+                .plusMinutes((long) OccupancyIndex.slotOf(time) * OccupancyIndex.SLOT_MINUTES);
+    }
+
+    private static LocalDateTime windowStart(LocalDateTime anchor) {
+        return anchor.minusMinutes((long) WINDOW_SLOTS * OccupancyIndex.SLOT_MINUTES);
+    }
+
+    private static LocalDateTime windowEnd(LocalDateTime anchor) {
+        return anchor.plusMinutes((long) WINDOW_SLOTS * OccupancyIndex.SLOT_MINUTES);
+    }
+}
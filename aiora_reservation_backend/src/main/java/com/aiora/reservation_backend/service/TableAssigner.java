@@ -0,0 +1,274 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.exception.ValidationException;
+import com.aiora.reservation_backend.dao.RestaurantTableDao;
+import com.aiora.reservation_backend.model.Reservation;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import com.aiora.reservation_backend.model.RestaurantTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Seats active reservations at tables of the restaurant's table inventory, inside the transaction
+ * that writes the reservation and after the seat ledger admitted it.
+ *
+ * A seating holds its tables for two hours from the reservation's slot, so every reservation it
+ * can collide with has a capacity window overlapping its own. The ledger rows of those windows are
+ * locked by then, which serializes the placements of one table across any number of app nodes.
+ * Each placement loads the seatings around its slot into a {@link TablePlan}. When a reservation
+ * gives up its tables, the parties seated around it that sit at several tables or with empty seats
+ * are moved to a better fit. Restaurants without tables are counted as one pool of seats only.
+ */
+@Component
+public class TableAssigner {
+
+    /**
+     * Slots around a reservation's own within which parties may be moved onto the tables it gave up;
+     * the seat ledger windows anchored there must be locked by the caller, see
+     * {@link SeatLedger#apply(OccupancyIndex.Booking, OccupancyIndex.Booking, Integer, int)}
+     */
+    public static final int SURROUNDING_SLOTS = TablePlan.HOLD_SLOTS - 1;
+
+    private static final Set<ReservationStatus> SEATED_STATUSES =
+            EnumSet.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+
+    private final RestaurantTableDao restaurantTableDao;
+    private final OccupancyIndex occupancyIndex;
+
+    @Autowired
+    public TableAssigner(RestaurantTableDao restaurantTableDao, OccupancyIndex occupancyIndex) {
+        this.restaurantTableDao = restaurantTableDao;
+        this.occupancyIndex = occupancyIndex;
+    }
+
+    /**
+     * Seats of a bulk placement
+     * @param tableIds Tables per booking, null for bookings that were rejected or need none
+     * @param rejected Error per index of a booking no table is free for
+     */
+    public record BulkPlacement(List<List<Long>> tableIds, Map<Integer, String> rejected) {
+    }
+
+    /**
+     * Seat a new reservation at the best-fitting free tables; nothing happens for a reservation that
+     * holds no seats or a restaurant without tables
+     * @throws ValidationException if no table or group of tables is free for the party
+     */
+    public void seat(Reservation reservation) {
+        OccupancyIndex.Booking booking = OccupancyIndex.Booking.of(reservation);
+        if (booking == null) {
+            return;
+        }
+        List<RestaurantTable> tables = restaurantTableDao.findByRestaurantId(booking.restaurantId());
+        if (tables.isEmpty()) {
+            return;
+        }
+        LocalDateTime time = booking.reservationDate();
+        TablePlan plan = load(booking.restaurantId(), tables, slotsFrom(time, -(TablePlan.HOLD_SLOTS - 1)),
+                slotsFrom(time, TablePlan.HOLD_SLOTS - 1));
+        List<RestaurantTable> placed = plan.place(booking.guests(), time);
+        if (placed == null) {
+            throw noTable(booking.guests());
+        }
+        restaurantTableDao.seat(reservation.getReservationId(), tableIds(placed));
+    }
+
+    /**
+     * Follow a change of a reservation's seats: it is seated afresh if it still holds seats, and the
+     * parties around the seats it held before are moved to a better fit
+     * @param before Seats held before the change, null if none
+     * @throws ValidationException if no table or group of tables is free for the party
+     */
+    public void reseat(Reservation reservation, OccupancyIndex.Booking before) {
+        OccupancyIndex.Booking after = OccupancyIndex.Booking.of(reservation);
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        restaurantTableDao.unseat(reservation.getReservationId());
+        seat(reservation);
+        if (before != null) {
+            reoptimise(after == null ? reservation.getReservationId() : null, before);
+        }
+    }
+
+    /**
+     * Move the parties around a deleted reservation to a better fit; its own seating goes with its row
+     * @param before Seats the reservation held, null if none
+     */
+    public void deleted(Long reservationId, OccupancyIndex.Booking before) {
+        if (before != null) {
+            reoptimise(reservationId, before);
+        }
+    }
+
+    /**
+     * Place many new bookings of one restaurant, largest party first, against the current seatings
+     * and each other. Nothing is written; see {@link #seatAll}.
+     */
+    public BulkPlacement placeAll(Long restaurantId, List<OccupancyIndex.Booking> bookings) {
+        List<List<Long>> tableIds = new ArrayList<>();
+        bookings.forEach(booking -> tableIds.add(null));
+        if (bookings.isEmpty()) {
+            return new BulkPlacement(tableIds, Map.of());
+        }
+        List<RestaurantTable> tables = restaurantTableDao.findByRestaurantId(restaurantId);
+        if (tables.isEmpty()) {
+            return new BulkPlacement(tableIds, Map.of());
+        }
+        LocalDateTime first = bookings.stream().map(OccupancyIndex.Booking::reservationDate)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime last = bookings.stream().map(OccupancyIndex.Booking::reservationDate)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        TablePlan plan = load(restaurantId, tables, slotsFrom(first, -(TablePlan.HOLD_SLOTS - 1)),
+                slotsFrom(last, TablePlan.HOLD_SLOTS - 1));
+
+        Map<Integer, String> rejected = new LinkedHashMap<>();
+        List<Integer> largestFirst = IntStream.range(0, bookings.size()).boxed()
+                .sorted(Comparator.comparing((Integer i) -> bookings.get(i).guests()).reversed())
+                .toList();
+        for (int i : largestFirst) {
+            OccupancyIndex.Booking booking = bookings.get(i);
+            // Bookings are not reservations yet; negative keys keep them apart from the loaded ones
+            List<RestaurantTable> placed = plan.placeAndSeat(-1L - i, booking.guests(), booking.reservationDate());
+            if (placed == null) {
+                rejected.put(i, noTable(booking.guests()).getMessage());
+            } else {
+                tableIds.set(i, tableIds(placed));
+            }
+        }
+        return new BulkPlacement(tableIds, rejected);
+    }
+
+    /**
+     * Write the seatings of a bulk placement once its reservations are inserted
+     * @param tableIdsByReservation Tables per reservation id
+     */
+    public void seatAll(Map<Long, List<Long>> tableIdsByReservation) {
+        if (!tableIdsByReservation.isEmpty()) {
+            restaurantTableDao.seatAll(tableIdsByReservation);
+        }
+    }
+
+    /**
+     * Whether a party would find free tables, for each of the given restaurants that has tables, from
+     * one plan per restaurant of the seatings around [from, to]. Restaurants without tables are left out.
+     * Tables and seatings come from the {@link OccupancyIndex}, so loaded days cost no query; like its
+     * seats they may be behind writes made through other nodes until its next reconcile.
+     */
+    public Map<Long, Predicate<LocalDateTime>> fitChecks(Collection<Long> restaurantIds, int guests,
+                                                         LocalDateTime from, LocalDateTime to) {
+        LocalDateTime first = slotsFrom(from, -(TablePlan.HOLD_SLOTS - 1));
+        LocalDateTime last = slotsFrom(to, TablePlan.HOLD_SLOTS - 1);
+        Map<Long, Predicate<LocalDateTime>> fits = new LinkedHashMap<>();
+        for (Long restaurantId : restaurantIds) {
+            List<RestaurantTable> tables = occupancyIndex.tables(restaurantId);
+            if (tables.isEmpty()) {
+                continue;
+            }
+            List<RestaurantTableDao.Seating> seatings = new ArrayList<>();
+            for (LocalDate day = first.toLocalDate(); !day.isAfter(last.toLocalDate()); day = day.plusDays(1)) {
+                for (RestaurantTableDao.Seating seating : occupancyIndex.seatings(restaurantId, day)) {
+                    if (!seating.reservationDate().isBefore(first)
+                            && seating.reservationDate().isBefore(last.plusMinutes(OccupancyIndex.SLOT_MINUTES))) {
+                        seatings.add(seating);
+                    }
+                }
+            }
+            TablePlan plan = plan(tables, first, seatings);
+            fits.put(restaurantId, time -> plan.place(guests, time) != null);
+        }
+        return fits;
+    }
+
+    /**
+     * Seatings of active reservations with a time in [from, to], ordered by time
+     */
+    public List<RestaurantTableDao.Seating> seatings(Long restaurantId, LocalDateTime from, LocalDateTime to) {
+        return restaurantTableDao.findSeatings(restaurantId, from, to, SEATED_STATUSES);
+    }
+
+    /**
+     * End of the time a reservation at the given time holds its tables
+     */
+    public static LocalDateTime seatedUntil(LocalDateTime time) {
+        return slotsFrom(time, TablePlan.HOLD_SLOTS);
+    }
+
+    /**
+     * Parties whose seating overlaps the freed one's can use its tables; they are loaded with every
+     * seating they may collide with in turn. Any placement colliding with a move locks a ledger row
+     * the caller holds, so it waits for this transaction.
+     */
+    private void reoptimise(Long freedId, OccupancyIndex.Booking freed) {
+        List<RestaurantTable> tables = restaurantTableDao.findByRestaurantId(freed.restaurantId());
+        if (tables.isEmpty()) {
+            return;
+        }
+        LocalDateTime time = freed.reservationDate();
+        TablePlan plan = load(freed.restaurantId(), tables, slotsFrom(time, -2 * SURROUNDING_SLOTS),
+                slotsFrom(time, 2 * SURROUNDING_SLOTS));
+        if (freedId != null) {
+            // A deleted or cancelled reservation may not be flushed yet
+            plan.unseat(freedId);
+        }
+        Map<Long, List<RestaurantTable>> moved = plan.improve(slotsFrom(time, -SURROUNDING_SLOTS),
+                slotsFrom(time, SURROUNDING_SLOTS));
+        moved.forEach((reservationId, placed) -> {
+            restaurantTableDao.unseat(reservationId);
+            restaurantTableDao.seat(reservationId, tableIds(placed));
+        });
+    }
+
+    /**
+     * A plan of the seatings with a time in the slots from first to last
+     */
+    private TablePlan load(Long restaurantId, List<RestaurantTable> tables, LocalDateTime first, LocalDateTime last) {
+        return plan(tables, first, restaurantTableDao.findSeatings(restaurantId, first,
+                last.plusMinutes(OccupancyIndex.SLOT_MINUTES).minusNanos(1), SEATED_STATUSES));
+    }
+
+    /**
+     * A plan of the given seatings, ordered by time, reservation and table, none before first
+     */
+    private static TablePlan plan(List<RestaurantTable> tables, LocalDateTime first,
+                                  List<RestaurantTableDao.Seating> seatings) {
+        TablePlan plan = new TablePlan(tables, first);
+        for (int from = 0; from < seatings.size(); ) {
+            RestaurantTableDao.Seating seating = seatings.get(from);
+            int to = from;
+            List<Long> tableIds = new ArrayList<>();
+            while (to < seatings.size() && seatings.get(to).reservationId().equals(seating.reservationId())) {
+                tableIds.add(seatings.get(to++).tableId());
+            }
+            plan.seat(seating.reservationId(), seating.reservationDate(), seating.guests(), tableIds);
+            from = to;
+        }
+        return plan;
+    }
+
+    private static LocalDateTime slotsFrom(LocalDateTime time, int slots) {
+        return SeatLedger.slotStart(time).plusMinutes((long) slots * OccupancyIndex.SLOT_MINUTES);
+    }
+
+    private static List<Long> tableIds(List<RestaurantTable> tables) {
+        return tables.stream().map(RestaurantTable::getTableId).toList();
+    }
+
+    private static ValidationException noTable(int guests) {
+        return new ValidationException("No table is free for a party of " + guests + " at the selected time");
+    }
+}
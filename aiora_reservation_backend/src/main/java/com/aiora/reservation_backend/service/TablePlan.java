@@ -0,0 +1,228 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.model.RestaurantTable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which tables of one restaurant are taken in which 15-minute slot, as one bitset per table over a
+ * range of slots starting at a base slot, and the placement of parties on the free ones.
+ *
+ * A party holds its tables for {@link #HOLD_SLOTS} slots from its own slot, so a table is free for
+ * it when that run of bits is clear. Placement is best fit: the smallest single table the party fits
+ * at, otherwise the fewest tables of one combine group, largest first, with the last one swapped for
+ * the smallest that still seats everyone. Not thread-safe; a plan lives for one transaction.
+ */
+final class TablePlan {
+
+    // Tables are held for the same two hours the capacity window counts after a slot
+    static final int HOLD_SLOTS = SeatLedger.WINDOW_SLOTS;
+
+    private final List<RestaurantTable> tables;
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final BitSet[] taken;
+    private final long baseSlot;
+    private final Map<Long, Seated> seated = new LinkedHashMap<>();
+
+    private record Seated(long slot, int guests, List<RestaurantTable> tables) {
+    }
+
+    /**
+     * @param tables Tables of the restaurant
+     * @param from Earliest time the plan is asked about or told of
+     */
+    TablePlan(List<RestaurantTable> tables, LocalDateTime from) {
+        this.tables = tables;
+        this.taken = new BitSet[tables.size()];
+        for (int i = 0; i < tables.size(); i++) {
+            positions.put(tables.get(i).getTableId(), i);
+            taken[i] = new BitSet();
+        }
+        this.baseSlot = absoluteSlot(from);
+    }
+
+    /**
+     * Record a reservation as seated at the given tables; tables the plan does not know are ignored
+     */
+    void seat(Long reservationId, LocalDateTime time, int guests, List<Long> tableIds) {
+        List<RestaurantTable> at = new ArrayList<>(tableIds.size());
+        for (Long tableId : tableIds) {
+            Integer position = positions.get(tableId);
+            if (position != null) {
+                at.add(tables.get(position));
+            }
+        }
+        seatAt(reservationId, new Seated(absoluteSlot(time), guests, at));
+    }
+
+    /**
+     * Forget a reservation's seating and free its tables
+     */
+    void unseat(Long reservationId) {
+        Seated removed = seated.remove(reservationId);
+        if (removed == null) {
+            return;
+        }
+        for (RestaurantTable table : removed.tables()) {
+            BitSet bits = taken[positions.get(table.getTableId())];
+            bits.clear();
+            // Rebuilt from the remaining seatings, in case the stored ones overlapped
+            for (Seated other : seated.values()) {
+                if (other.tables().contains(table)) {
+                    setHold(bits, other.slot());
+                }
+            }
+        }
+    }
+
+    /**
+     * Best-fitting free tables for a party at the given time, without seating it
+     * @return The tables, or null if no table or group of tables is free for the party
+     */
+    List<RestaurantTable> place(int guests, LocalDateTime time) {
+        int index = index(absoluteSlot(time));
+        RestaurantTable single = null;
+        Map<String, List<RestaurantTable>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < tables.size(); i++) {
+            int next = taken[i].nextSetBit(index);
+            if (next != -1 && next < index + HOLD_SLOTS) {
+                continue;
+            }
+            RestaurantTable table = tables.get(i);
+            if (table.getSeats() >= guests && (single == null || table.getSeats() < single.getSeats())) {
+                single = table;
+            }
+            if (table.getCombineGroup() != null) {
+                groups.computeIfAbsent(table.getCombineGroup(), group -> new ArrayList<>()).add(table);
+            }
+        }
+        if (single != null) {
+            return List.of(single);
+        }
+        List<RestaurantTable> best = null;
+        for (List<RestaurantTable> free : groups.values()) {
+            List<RestaurantTable> combined = combine(free, guests);
+            if (combined != null && (best == null || better(combined, best, guests))) {
+                best = combined;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Place the party and seat it at once
+     * @return The tables, or null if none is free for the party
+     */
+    List<RestaurantTable> placeAndSeat(Long reservationId, int guests, LocalDateTime time) {
+        List<RestaurantTable> placed = place(guests, time);
+        if (placed != null) {
+            seatAt(reservationId, new Seated(absoluteSlot(time), guests, placed));
+        }
+        return placed;
+    }
+
+    /**
+     * Move every reservation seated between from and to, in order of time, to tables that fit its party
+     * better, i.e. fewer tables or fewer empty seats
+     * @return The new tables per moved reservation id
+     */
+    Map<Long, List<RestaurantTable>> improve(LocalDateTime from, LocalDateTime to) {
+        long first = absoluteSlot(from);
+        long last = absoluteSlot(to);
+        List<Map.Entry<Long, Seated>> candidates = seated.entrySet().stream()
+                .filter(entry -> entry.getValue().slot() >= first && entry.getValue().slot() <= last)
+                .filter(entry -> entry.getValue().tables().size() > 1
+                        || waste(entry.getValue().tables(), entry.getValue().guests()) > 0)
+                .sorted(Comparator.comparingLong((Map.Entry<Long, Seated> entry) -> entry.getValue().slot()))
+                .toList();
+        Map<Long, List<RestaurantTable>> moved = new LinkedHashMap<>();
+        for (Map.Entry<Long, Seated> entry : candidates) {
+            Long reservationId = entry.getKey();
+            Seated current = entry.getValue();
+            unseat(reservationId);
+            List<RestaurantTable> placed = place(current.guests(), slotTime(current.slot()));
+            if (placed != null && better(placed, current.tables(), current.guests())) {
+                seatAt(reservationId, new Seated(current.slot(), current.guests(), placed));
+                moved.put(reservationId, placed);
+            } else {
+                seatAt(reservationId, current);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Free tables of one group taken largest first until the party fits, then the last one swapped
+     * for the smallest free table of the group that still seats everyone
+     */
+    private static List<RestaurantTable> combine(List<RestaurantTable> free, int guests) {
+        List<RestaurantTable> bySeats = new ArrayList<>(free);
+        bySeats.sort(Comparator.comparing(RestaurantTable::getSeats).reversed());
+        List<RestaurantTable> picked = new ArrayList<>();
+        int seats = 0;
+        for (RestaurantTable table : bySeats) {
+            if (seats >= guests) {
+                break;
+            }
+            picked.add(table);
+            seats += table.getSeats();
+        }
+        if (seats < guests) {
+            return null;
+        }
+        RestaurantTable last = picked.remove(picked.size() - 1);
+        int missing = guests - (seats - last.getSeats());
+        RestaurantTable swap = last;
+        for (RestaurantTable table : bySeats) {
+            if (!picked.contains(table) && table.getSeats() >= missing && table.getSeats() < swap.getSeats()) {
+                swap = table;
+            }
+        }
+        picked.add(swap);
+        return picked;
+    }
+
+    private static boolean better(List<RestaurantTable> candidate, List<RestaurantTable> current, int guests) {
+        if (candidate.size() != current.size()) {
+            return candidate.size() < current.size();
+        }
+        return waste(candidate, guests) < waste(current, guests);
+    }
+
+    private static int waste(List<RestaurantTable> tables, int guests) {
+        return tables.stream().mapToInt(RestaurantTable::getSeats).sum() - guests;
+    }
+
+    private void seatAt(Long reservationId, Seated seating) {
+        seated.put(reservationId, seating);
+        for (RestaurantTable table : seating.tables()) {
+            setHold(taken[positions.get(table.getTableId())], seating.slot());
+        }
+    }
+
+    private void setHold(BitSet bits, long slot) {
+        int index = index(slot);
+        bits.set(index, index + HOLD_SLOTS);
+    }
+
+    // A seating before the base is clamped to it, which only lengthens its hold
+    private int index(long slot) {
+        return (int) Math.max(0, slot - baseSlot);
+    }
+
+    private static long absoluteSlot(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60L * OccupancyIndex.SLOT_MINUTES);
+    }
+
+    private static LocalDateTime slotTime(long slot) {
+        return LocalDateTime.ofEpochSecond(slot * 60L * OccupancyIndex.SLOT_MINUTES, 0, ZoneOffset.UTC);
+    }
+}
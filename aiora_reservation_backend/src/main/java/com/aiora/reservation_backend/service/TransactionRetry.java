@@ -0,0 +1,63 @@
+package com.aiora.reservation_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and retries it when the database reports a
+ * lock conflict (deadlock, lock timeout, serialization failure), backing off with jitter
+ * between a bounded number of attempts.
+ */
+@Component
+public class TransactionRetry {
+    private static final Logger log = LoggerFactory.getLogger(TransactionRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reservation.admission.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${reservation.admission.backoff-ms:25}")
+    private long backoffMs;
+
+    @Autowired
+    public TransactionRetry(TransactionTemplate transactionTemplate) {
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * @param work Must be safe to run again from scratch; every attempt starts a fresh transaction
+     * @throws ConcurrencyFailureException if the last attempt still conflicted
+     */
+    public <T> T execute(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Transaction conflict on attempt {}, retrying: {}", attempt, e.getMessage());
+                sleep(attempt);
+            }
+        }
+    }
+
+    private void sleep(int attempt) {
+        long ceiling = backoffMs << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a transaction", e);
+        }
+    }
+}
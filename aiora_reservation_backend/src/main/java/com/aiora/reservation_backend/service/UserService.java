@@ -1,79 +1,140 @@
 package com.aiora.reservation_backend.service;
 
 import com.aiora.reservation_backend.api.auth.JwtUtil;
+import com.aiora.reservation_backend.api.auth.PasswordHasher;
+import com.aiora.reservation_backend.api.auth.PrincipalCache;
 import com.aiora.reservation_backend.api.model.LoginBody;
+import com.aiora.reservation_backend.config.ReplicaRoutingDataSource;
+import com.aiora.reservation_backend.dao.ReservationDao;
 import com.aiora.reservation_backend.dao.UserDao;
 import com.aiora.reservation_backend.api.exception.ResourceNotFoundException;
 import com.aiora.reservation_backend.api.model.LoginResponse;
 import com.aiora.reservation_backend.api.model.RegistrationBody;
+import com.aiora.reservation_backend.model.Reservation;
 import com.aiora.reservation_backend.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class UserService {
     private final UserDao userDao;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final ReservationDao reservationDao;
+    private final SeatLedger seatLedger;
+    private final OccupancyIndex occupancyIndex;
+    private final PrincipalCache principalCache;
+    private final ChangeVersions changeVersions;
+    private final TableAssigner tableAssigner;
+    private final ReservationEventBroadcaster reservationEventBroadcaster;
+    private final TransactionTemplate transactionTemplate;
     
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
-    public UserService(UserDao userDao, PasswordEncoder passwordEncoder) {
+    public UserService(UserDao userDao, PasswordHasher passwordHasher, ReservationDao reservationDao,
+                       SeatLedger seatLedger, OccupancyIndex occupancyIndex, PrincipalCache principalCache,
+                       ChangeVersions changeVersions, TableAssigner tableAssigner,
+                       ReservationEventBroadcaster reservationEventBroadcaster,
+                       TransactionTemplate transactionTemplate) {
         this.userDao = userDao;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.reservationDao = reservationDao;
+        this.seatLedger = seatLedger;
+        this.occupancyIndex = occupancyIndex;
+        this.principalCache = principalCache;
+        this.changeVersions = changeVersions;
+        this.tableAssigner = tableAssigner;
+        this.reservationEventBroadcaster = reservationEventBroadcaster;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    // Like AuthService.register; the hash is ready before the user is saved in the DAO's own short transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LoginResponse createUser(RegistrationBody registrationBody) {
+        String passwordHash = passwordHasher.encode(registrationBody.getPassword());
+
         User user = new User();
         user.setUsername(registrationBody.getUsername());
         user.setFirstName(registrationBody.getFirstName());
         user.setLastName(registrationBody.getLastName());
-        user.setPassword(passwordEncoder.encode(registrationBody.getPassword()));
+        user.setPassword(passwordHash);
         
         User savedUser = userDao.save(user);
         return convertToLoginResponse(savedUser);
     }
 
+    // The new password is hashed before the short transaction that reads and writes the user
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LoginResponse updateUser(Long id, RegistrationBody registrationBody) {
-        User user = userDao.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        
-        user.setUsername(registrationBody.getUsername());
-        user.setFirstName(registrationBody.getFirstName());
-        user.setLastName(registrationBody.getLastName());
-        
+        String passwordHash = null;
         if (registrationBody.getPassword() != null && !registrationBody.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(registrationBody.getPassword()));
+            passwordHash = passwordHasher.encode(registrationBody.getPassword());
         }
-        
-        User updatedUser = userDao.save(user);
+        String newPasswordHash = passwordHash;
+
+        User updatedUser = transactionTemplate.execute(status -> {
+            User user = userDao.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+            boolean renamed = !Objects.equals(user.getUsername(), registrationBody.getUsername());
+
+            user.setUsername(registrationBody.getUsername());
+            user.setFirstName(registrationBody.getFirstName());
+            user.setLastName(registrationBody.getLastName());
+            if (newPasswordHash != null) {
+                user.setPassword(newPasswordHash);
+            }
+
+            User saved = userDao.save(user);
+            // The user's reservations show the username
+            if (renamed) {
+                changeVersions.reservationsChanged(reservationDao.findRestaurantIdsByUserId(id));
+            }
+            return saved;
+        });
+        // Tokens issued under the old username stop authenticating
+        principalCache.invalidate(id);
         return convertToLoginResponse(updatedUser);
     }
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
-        return userDao.findById(id);
+        // Looked up for a reservation about to be written, which must not miss a user a replica lacks yet
+        return ReplicaRoutingDataSource.onPrimary(() -> userDao.findById(id));
     }
 
+    @Transactional(readOnly = true)
     public LoginResponse getUser(Long id) {
         User user = userDao.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         return convertToLoginResponse(user);
     }
     // Update the login method to include JWT token generation
+    // No transaction, so no connection is held while the password waits for the hashing pool
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LoginResponse login(LoginBody loginBody) {
         User user = userDao.findByUsername(loginBody.getUsername())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + loginBody.getUsername()));
                 
-        if (!passwordEncoder.matches(loginBody.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(loginBody.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid password");
         }
+        String rehashed = passwordHasher.rehashIfOutdated(loginBody.getPassword(), user.getPassword());
+        if (rehashed != null) {
+            userDao.replacePasswordHash(user.getUserId(), user.getPassword(), rehashed);
+        }
         
         // Generate JWT token
         String token = jwtUtil.generateToken(user.getUsername(), user.getUserId());
@@ -85,9 +146,26 @@ public class UserService {
         return response;
     }
     public void deleteUser(Long id) {
+        // The user's reservations go with it through the cascade, so hand their seats back first
+        Map<Long, OccupancyIndex.Booking> freed = new LinkedHashMap<>();
+        Set<Long> restaurantIds = new TreeSet<>();
+        for (Reservation reservation : reservationDao.findByUserId(id)) {
+            OccupancyIndex.Booking before = OccupancyIndex.Booking.of(reservation);
+            seatLedger.apply(before, null, null, TableAssigner.SURROUNDING_SLOTS);
+            occupancyIndex.recordChange(before, null);
+            freed.put(reservation.getReservationId(), before);
+            restaurantIds.add(reservation.getRestaurant().getRestaurantId());
+        }
         userDao.deleteById(id);
+        // Once the reservations are gone, the parties around them may move onto the tables they held
+        freed.forEach(tableAssigner::deleted);
+        principalCache.invalidate(id);
+        changeVersions.reservationsChanged(restaurantIds);
+        // Dashboards reload each restaurant instead of receiving an event per cascaded reservation
+        restaurantIds.forEach(reservationEventBroadcaster::publishResync);
     }
 
+    @Transactional(readOnly = true)
     public List<LoginResponse> getAllUsers() {
         return userDao.findAll().stream()
                 .map(this::convertToLoginResponse)
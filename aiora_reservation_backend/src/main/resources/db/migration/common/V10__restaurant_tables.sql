@@ -0,0 +1,30 @@
+-- Table inventory per restaurant (RestaurantTable) and the tables each active reservation is seated at
+-- (TableAssigner). Tables sharing a combine_group can be pushed together for one party; a table without
+-- a group is only ever used alone. A seated reservation holds its tables for two hours from its slot.
+
+CREATE TABLE IF NOT EXISTS restaurant_tables (
+    table_id bigint GENERATED BY DEFAULT AS IDENTITY,
+    restaurant_id bigint NOT NULL,
+    label varchar(255) NOT NULL,
+    seats integer NOT NULL,
+    combine_group varchar(255),
+    CONSTRAINT restaurant_tables_pkey PRIMARY KEY (table_id),
+    CONSTRAINT restaurant_tables_seats_check CHECK (seats > 0),
+    CONSTRAINT fk_restaurant_tables_restaurant FOREIGN KEY (restaurant_id) REFERENCES restaurants (restaurant_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_restaurant_tables_restaurant
+    ON restaurant_tables (restaurant_id);
+
+-- Rows of reservations that stopped holding seats in bulk may linger; readers only join active reservations
+CREATE TABLE IF NOT EXISTS reservation_tables (
+    reservation_id bigint NOT NULL,
+    table_id bigint NOT NULL,
+    CONSTRAINT reservation_tables_pkey PRIMARY KEY (reservation_id, table_id),
+    CONSTRAINT fk_reservation_tables_reservation FOREIGN KEY (reservation_id) REFERENCES reservations (reservation_id) ON DELETE CASCADE,
+    CONSTRAINT fk_reservation_tables_table FOREIGN KEY (table_id) REFERENCES restaurant_tables (table_id) ON DELETE CASCADE
+);
+
+-- Cascading deletes of a table
+CREATE INDEX IF NOT EXISTS idx_reservation_tables_table
+    ON reservation_tables (table_id);
@@ -0,0 +1,13 @@
+-- Change version behind the ETags of a restaurant's reservation views (ChangeVersions). Every transaction
+-- that changes the restaurant or its reservations bumps its row just before it commits, so all nodes behind
+-- one load balancer tag the same data alike. The counter lives apart from the restaurants row so that a bump
+-- rewrites and locks only this narrow row; restaurant edits do not wait on bookings and the catalog row is
+-- not rewritten on every reservation write. A restaurant without a row reads as version 0; the row is
+-- created on its first bump.
+
+CREATE TABLE IF NOT EXISTS restaurant_change_versions (
+    restaurant_id bigint NOT NULL,
+    version bigint NOT NULL DEFAULT 0,
+    CONSTRAINT restaurant_change_versions_pkey PRIMARY KEY (restaurant_id),
+    CONSTRAINT fk_change_versions_restaurant FOREIGN KEY (restaurant_id) REFERENCES restaurants (restaurant_id) ON DELETE CASCADE
+);
@@ -0,0 +1,45 @@
+-- Baseline schema as previously generated by Hibernate (see aiora_reservations_dump.sql).
+-- Existing databases are baselined at this version and skip it.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id bigint GENERATED BY DEFAULT AS IDENTITY,
+    first_name varchar(255) NOT NULL,
+    last_name varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    username varchar(255) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (user_id),
+    CONSTRAINT ukr43af9ap4edm43mmtq01oddj6 UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS restaurants (
+    restaurant_id bigint GENERATED BY DEFAULT AS IDENTITY,
+    accepts_outside_guests boolean,
+    default_capacity integer NOT NULL,
+    description text,
+    location varchar(255) NOT NULL,
+    max_capacity integer NOT NULL,
+    name varchar(255) NOT NULL,
+    restaurant_type varchar(255) NOT NULL,
+    room_only boolean,
+    CONSTRAINT restaurants_pkey PRIMARY KEY (restaurant_id),
+    CONSTRAINT restaurants_restaurant_type_check
+        CHECK (restaurant_type IN ('FINE_DINING', 'CASUAL', 'BUFFET', 'SPECIALTY'))
+);
+
+CREATE TABLE IF NOT EXISTS reservations (
+    reservation_id bigint GENERATED BY DEFAULT AS IDENTITY,
+    guest_count integer NOT NULL,
+    guest_name varchar(255) NOT NULL,
+    is_hotel_guest boolean,
+    meal_deducted boolean,
+    reservation_date timestamp(6) NOT NULL,
+    reservation_status varchar(255) NOT NULL,
+    room_number varchar(255),
+    restaurant_id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    CONSTRAINT reservations_pkey PRIMARY KEY (reservation_id),
+    CONSTRAINT reservations_reservation_status_check
+        CHECK (reservation_status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED')),
+    CONSTRAINT fk2tl2cjtd2o3o0nfeekcqfvt70 FOREIGN KEY (restaurant_id) REFERENCES restaurants (restaurant_id),
+    CONSTRAINT fkb5g9io5h54iwl2inkno50ppln FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
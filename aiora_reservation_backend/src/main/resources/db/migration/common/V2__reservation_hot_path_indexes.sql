@@ -0,0 +1,22 @@
+-- One index per access path used by ReservationDao / RestaurantDao.
+-- ReservationQueryPlanTest fails if a DAO query stops using one of them.
+
+-- Restaurant feeds (/recent, keyset pages), restaurant + date range, per-restaurant counts
+CREATE INDEX IF NOT EXISTS idx_reservations_restaurant_date
+    ON reservations (restaurant_id, reservation_date DESC, reservation_id DESC);
+
+-- Hotel-wide date range listings
+CREATE INDEX IF NOT EXISTS idx_reservations_date
+    ON reservations (reservation_date DESC, reservation_id DESC);
+
+-- Room lookups and the one-meal-per-room rule
+CREATE INDEX IF NOT EXISTS idx_reservations_room_meal
+    ON reservations (room_number, meal_deducted);
+
+-- Reservations by user, also keeps FK checks cheap when users are deleted
+CREATE INDEX IF NOT EXISTS idx_reservations_user
+    ON reservations (user_id);
+
+-- Status filtered restaurant lists and per-status stats
+CREATE INDEX IF NOT EXISTS idx_reservations_restaurant_status_date
+    ON reservations (restaurant_id, reservation_status, reservation_date DESC);
@@ -0,0 +1,11 @@
+-- Seat ledger used for race-free capacity admission (SeatLedger / SlotInventoryDao).
+-- window_seats of (restaurant, slot) holds the guests of every active reservation whose
+-- 15-minute slot lies within two hours of slot_start, i.e. the capacity window centred on it.
+
+CREATE TABLE IF NOT EXISTS restaurant_slot_inventory (
+    restaurant_id bigint NOT NULL,
+    slot_start timestamp(6) NOT NULL,
+    window_seats integer NOT NULL DEFAULT 0,
+    CONSTRAINT restaurant_slot_inventory_pkey PRIMARY KEY (restaurant_id, slot_start),
+    CONSTRAINT fk_slot_inventory_restaurant FOREIGN KEY (restaurant_id) REFERENCES restaurants (restaurant_id) ON DELETE CASCADE
+);
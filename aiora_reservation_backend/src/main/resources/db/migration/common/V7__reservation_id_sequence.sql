@@ -0,0 +1,8 @@
+-- Reservation ids come from a pooled sequence (allocationSize 50 on Reservation) instead of the identity
+-- column, so Hibernate can batch inserts. Every nextval reserves the block of 50 ids ending at its value;
+-- inserts that leave the id to the column default take that value itself, which no other block contains.
+
+CREATE SEQUENCE IF NOT EXISTS reservations_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE reservations ALTER COLUMN reservation_id DROP IDENTITY;
+ALTER TABLE reservations ALTER COLUMN reservation_id SET DEFAULT nextval('reservations_seq');
@@ -0,0 +1,5 @@
+-- Reservations that were never confirmed and whose time has passed are swept to NO_SHOW.
+
+ALTER TABLE reservations DROP CONSTRAINT reservations_reservation_status_check;
+ALTER TABLE reservations ADD CONSTRAINT reservations_reservation_status_check
+    CHECK (reservation_status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED', 'NO_SHOW'));
@@ -0,0 +1,12 @@
+-- PostgreSQL only: partial indexes matched to the literal predicates in ReservationDao.
+
+-- Capacity window sums only look at active bookings; INCLUDE makes them index-only scans
+CREATE INDEX IF NOT EXISTS idx_reservations_active_capacity
+    ON reservations (restaurant_id, reservation_date)
+    INCLUDE (guest_count)
+    WHERE reservation_status IN ('PENDING', 'CONFIRMED');
+
+-- The meal rule only ever asks whether a room already had a meal deducted
+CREATE INDEX IF NOT EXISTS idx_reservations_room_meal_deducted
+    ON reservations (room_number)
+    WHERE meal_deducted = true;
@@ -0,0 +1,14 @@
+-- PostgreSQL only: trigram indexes backing ReservationSearchDao.
+-- GiST serves the lower(...) LIKE '%term%' predicates and also answers ORDER BY lower(...) <-> :term LIMIT n
+-- as a nearest-neighbour scan that stops after n rows, where GIN would read and sort every match.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_reservations_guest_name_trgm
+    ON reservations USING gist (lower(guest_name) gist_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_reservations_room_number_trgm
+    ON reservations USING gist (lower(room_number) gist_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_restaurants_name_trgm
+    ON restaurants USING gist (lower(name) gist_trgm_ops);
@@ -0,0 +1,16 @@
+-- PostgreSQL only: seed the seat ledger from the reservations that hold seats today.
+
+INSERT INTO restaurant_slot_inventory (restaurant_id, slot_start, window_seats)
+SELECT a.restaurant_id, s.slot_start, SUM(a.guest_count)
+FROM (
+    SELECT r.restaurant_id,
+           r.guest_count,
+           date_trunc('hour', r.reservation_date)
+               + floor(extract(minute FROM r.reservation_date) / 15) * interval '15 minutes' AS anchor
+    FROM reservations r
+    WHERE r.reservation_status IN ('PENDING', 'CONFIRMED')
+) a
+CROSS JOIN LATERAL generate_series(a.anchor - interval '2 hours', a.anchor + interval '2 hours',
+                                   interval '15 minutes') AS s(slot_start)
+GROUP BY a.restaurant_id, s.slot_start
+ON CONFLICT (restaurant_id, slot_start) DO UPDATE SET window_seats = EXCLUDED.window_seats;
@@ -0,0 +1,3 @@
+-- PostgreSQL only: start the reservation id blocks above the existing ids (H2 test databases start empty).
+
+SELECT setval('reservations_seq', COALESCE((SELECT MAX(reservation_id) FROM reservations), 0) + 50, false);
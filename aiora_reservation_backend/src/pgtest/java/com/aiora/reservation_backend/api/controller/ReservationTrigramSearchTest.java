@@ -0,0 +1,146 @@
+package com.aiora.reservation_backend.api.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insert;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SpotlightSearch in the trigram mode production runs with, against a real PostgreSQL with every
+ * migration applied, including the pg_trgm GiST indexes. Needs Docker: mvn -Ppgtest test
+ */
+@Testcontainers
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ReservationTrigramSearchTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 19, 0);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", POSTGRES::getDriverClassName);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.locations", () -> "classpath:db/migration/common,classpath:db/migration/postgresql");
+        registry.add("reservation.reactive.url", () -> "r2dbc:postgresql://" + POSTGRES.getHost() + ":"
+                + POSTGRES.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + POSTGRES.getDatabaseName());
+        registry.add("reservation.reactive.username", POSTGRES::getUsername);
+        registry.add("reservation.reactive.password", POSTGRES::getPassword);
+        registry.add("reservation.search.mode", () -> "trigram");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long terrace;
+    private Long grill;
+
+    @BeforeEach
+    void seed() {
+        userId = insertUser(jdbcTemplate, "trigram_user");
+        terrace = insertRestaurant(jdbcTemplate, "Marina Terrace");
+        grill = insertRestaurant(jdbcTemplate, "Grill");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void ranksGuestRoomAndRestaurantMatchesBySimilarity() throws Exception {
+        // Similarity to "marina": 1 for the exact name, 7/9 for MARINA-2, 7/13 for Marina Rossi, 7/15 for Marina Terrace
+        Long exactGuest = insertReservation(grill, "Marina", null, BASE.minusDays(5));
+        Long byRoom = insertReservation(grill, "Jones", "MARINA-2", BASE.minusDays(4));
+        Long byGuest = insertReservation(grill, "Marina Rossi", null, BASE);
+        Long olderAtRestaurant = insertReservation(terrace, "Smith", null, BASE.minusDays(9));
+        Long newerAtRestaurant = insertReservation(terrace, "Brown", null, BASE.minusDays(1));
+        insertReservation(grill, "Unrelated", "204", BASE.plusDays(1));
+
+        mockMvc.perform(get("/api/v1/reservations/search").param("query", " Marina "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].reservationId").value(contains(exactGuest.intValue(), byRoom.intValue(),
+                        byGuest.intValue(), newerAtRestaurant.intValue(), olderAtRestaurant.intValue())));
+        mockMvc.perform(get("/api/v1/reservations/search").param("query", "marina").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].reservationId").value(contains(exactGuest.intValue(), byRoom.intValue())));
+    }
+
+    @Test
+    void exactIdsAndRoomsShortCircuitTheRankedSearch() throws Exception {
+        Long target = insertReservation(grill, "Target", null, BASE.minusDays(2));
+        // A trigram match on the guest name, which the id lookup must win over
+        insertReservation(grill, "Party " + target, null, BASE);
+        mockMvc.perform(get("/api/v1/reservations/search").param("query", String.valueOf(target)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].reservationId").value(target.intValue()));
+
+        Long room = insertReservation(grill, "Room Guest", "A12", BASE.minusDays(1));
+        insertReservation(grill, "Fan of a12", "B7", BASE);
+        mockMvc.perform(get("/api/v1/reservations/search").param("query", "a12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].reservationId").value(room.intValue()));
+    }
+
+    @Test
+    void escapesLikeWildcardsInTheTerm() throws Exception {
+        Long literal = insertReservation(grill, "100% Club", null, BASE.minusDays(1));
+        insertReservation(grill, "1000 Club", null, BASE);
+        mockMvc.perform(get("/api/v1/reservations/search").param("query", "100%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].reservationId").value(literal.intValue()));
+    }
+
+    @Test
+    void searchesThroughTheGistIndexes() {
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM pg_indexes WHERE indexname LIKE '%\\_trgm' "
+                + "AND indexdef LIKE '%USING gist%gist_trgm_ops%'", Integer.class));
+    }
+
+    private Long insertReservation(Long restaurantId, String guestName, String roomNumber, LocalDateTime date) {
+        Map<String, Object> values = new HashMap<>(Map.of(
+                "guest_count", 2, "guest_name", guestName, "is_hotel_guest", roomNumber != null,
+                "meal_deducted", false, "reservation_date", date, "reservation_status", "CONFIRMED",
+                "restaurant_id", restaurantId, "user_id", userId));
+        values.put("room_number", roomNumber);
+        return insert(jdbcTemplate, "reservations", "reservation_id", values);
+    }
+}
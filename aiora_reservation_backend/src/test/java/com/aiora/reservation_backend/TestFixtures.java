@@ -0,0 +1,48 @@
+package com.aiora.reservation_backend;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+
+import java.util.Map;
+
+/**
+ * Rows written straight through JDBC, so tests can set up data without going through the services
+ * they exercise and can remove it again with {@link #deleteAll}
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /**
+     * Insert a row and return its generated id
+     */
+    public static Long insert(JdbcTemplate database, String table, String idColumn, Map<String, Object> values) {
+        return new SimpleJdbcInsert(database)
+                .withTableName(table)
+                .usingGeneratedKeyColumns(idColumn)
+                .executeAndReturnKey(values)
+                .longValue();
+    }
+
+    public static Long insertUser(JdbcTemplate database, String username) {
+        return insert(database, "users", "user_id", Map.of(
+                "first_name", "Test", "last_name", "User", "password", "x", "username", username));
+    }
+
+    public static Long insertRestaurant(JdbcTemplate database, String name) {
+        return insert(database, "restaurants", "restaurant_id", Map.of(
+                "accepts_outside_guests", true, "default_capacity", 40, "location", "Lobby", "max_capacity", 60,
+                "name", name, "restaurant_type", "CASUAL", "room_only", false));
+    }
+
+    /**
+     * Delete every user, restaurant and reservation; tables, seatings and change versions cascade
+     */
+    public static void deleteAll(JdbcTemplate database) {
+        database.update("DELETE FROM reservations");
+        database.update("DELETE FROM restaurant_slot_inventory");
+        database.update("DELETE FROM restaurants");
+        database.update("DELETE FROM users");
+    }
+}
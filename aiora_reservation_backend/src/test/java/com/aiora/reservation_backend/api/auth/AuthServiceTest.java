@@ -0,0 +1,106 @@
+package com.aiora.reservation_backend.api.auth;
+
+import com.aiora.reservation_backend.api.model.LoginBody;
+import com.aiora.reservation_backend.api.model.LoginResponse;
+import com.aiora.reservation_backend.api.model.RegistrationBody;
+import com.aiora.reservation_backend.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Registration, login and the user endpoints hash on the hashing pool without a transaction, so
+ * waiting for the pool holds no database connection
+ */
+@SpringBootTest
+class AuthServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void hashesOutsideAnyTransaction() {
+        List<Boolean> inTransaction = new ArrayList<>();
+        doAnswer(invocation -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(passwordHasher).encode(anyString());
+        doAnswer(invocation -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(passwordHasher).matches(anyString(), anyString());
+
+        AuthResponse registered = authService.register(registration("new_guest"));
+        LoginBody login = new LoginBody();
+        login.setUsername("new_guest");
+        login.setPassword("secret-password");
+        AuthResponse loggedIn = authService.login(login);
+
+        assertEquals(registered.getUserId(), loggedIn.getUserId());
+        assertEquals(List.of(false, false), inTransaction);
+        assertThrows(RuntimeException.class, () -> authService.register(registration("new_guest")));
+        assertNotEquals("secret-password", jdbcTemplate.queryForObject(
+                "SELECT password FROM users WHERE username = 'new_guest'", String.class));
+    }
+
+    @Test
+    void userEndpointsHashOutsideAnyTransaction() {
+        List<Boolean> inTransaction = new ArrayList<>();
+        doAnswer(invocation -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(passwordHasher).encode(anyString());
+
+        LoginResponse created = userService.createUser(registration("staff_user"));
+        String createdHash = jdbcTemplate.queryForObject(
+                "SELECT password FROM users WHERE user_id = ?", String.class, created.getUserId());
+
+        RegistrationBody update = registration("staff_renamed");
+        update.setPassword("other-password");
+        LoginResponse updated = userService.updateUser(created.getUserId(), update);
+
+        assertEquals(List.of(false, false), inTransaction);
+        assertEquals("staff_renamed", updated.getUsername());
+        String updatedHash = jdbcTemplate.queryForObject(
+                "SELECT password FROM users WHERE user_id = ?", String.class, created.getUserId());
+        assertNotEquals(createdHash, updatedHash);
+        assertTrue(passwordHasher.matches("other-password", updatedHash));
+    }
+
+    private static RegistrationBody registration(String username) {
+        RegistrationBody body = new RegistrationBody();
+        body.setUsername(username);
+        body.setFirstName("New");
+        body.setLastName("Guest");
+        body.setPassword("secret-password");
+        return body;
+    }
+}
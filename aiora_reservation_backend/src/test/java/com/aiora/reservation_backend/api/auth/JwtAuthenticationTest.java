@@ -0,0 +1,123 @@
+package com.aiora.reservation_backend.api.auth;
+
+import com.aiora.reservation_backend.api.model.RegistrationBody;
+import com.aiora.reservation_backend.service.UserService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Authenticates real tokens through the filter chain and counts the statements that touch the users table
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.aiora.reservation_backend.api.auth.JwtAuthenticationTest$RecordingInspector")
+@AutoConfigureMockMvc
+class JwtAuthenticationTest {
+
+    private static final Pattern USERS_TABLE = Pattern.compile("\\busers\\b");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserService userService;
+
+    private Long userId;
+    private String token;
+
+    @BeforeEach
+    void createUser() {
+        userId = insertUser(jdbcTemplate, "token_holder");
+        token = jwtUtil.generateToken("token_holder", userId);
+    }
+
+    @AfterEach
+    void deleteUser() {
+        jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", userId);
+    }
+
+    @Test
+    void authenticatedRequestsDoNotQueryUsersOnceCached() throws Exception {
+        assertEquals(1, userStatementsFor(status().isOk()), "first request confirms the user");
+        assertEquals(0, userStatementsFor(status().isOk()));
+        assertEquals(0, userStatementsFor(status().isOk()));
+    }
+
+    @Test
+    void deletedUserIsRejected() throws Exception {
+        userStatementsFor(status().isOk());
+        userService.deleteUser(userId);
+        userStatementsFor(status().isForbidden());
+    }
+
+    @Test
+    void tokenOfRenamedUserIsRejected() throws Exception {
+        userStatementsFor(status().isOk());
+        RegistrationBody rename = new RegistrationBody();
+        rename.setUsername("token_holder_renamed");
+        rename.setFirstName("Token");
+        rename.setLastName("Holder");
+        userService.updateUser(userId, rename);
+        userStatementsFor(status().isForbidden());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() throws Exception {
+        token = tamper(token);
+        userStatementsFor(status().isForbidden());
+    }
+
+    private long userStatementsFor(ResultMatcher expectedStatus) throws Exception {
+        RecordingInspector.STATEMENTS.clear();
+        mockMvc.perform(get("/api/v1/restaurants").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(expectedStatus);
+        return RecordingInspector.STATEMENTS.stream()
+                .filter(sql -> USERS_TABLE.matcher(sql.toLowerCase()).find())
+                .count();
+    }
+
+    /**
+     * Change the first signature character; the last one partly encodes unused padding bits
+     */
+    static String tamper(String token) {
+        int signature = token.lastIndexOf('.') + 1;
+        char replacement = token.charAt(signature) == 'A' ? 'B' : 'A';
+        return token.substring(0, signature) + replacement + token.substring(signature + 1);
+    }
+
+    /**
+     * Records every statement Hibernate prepares
+     */
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
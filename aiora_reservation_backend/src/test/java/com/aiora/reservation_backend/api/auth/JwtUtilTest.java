@@ -0,0 +1,80 @@
+package com.aiora.reservation_backend.api.auth;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "testSecretKeyThatIsLongEnoughForHmacSha256Signatures";
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromTheCache() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateToken("alice", 7L);
+
+        VerifiedToken first = jwtUtil.verify(token);
+        assertEquals("alice", first.username());
+        assertEquals(7L, first.userId());
+        assertSame(first, jwtUtil.verify(token));
+    }
+
+    @Test
+    void parsesEveryTimeWithoutTheCache() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 0);
+        String token = jwtUtil.generateToken("alice", 7L);
+        assertNotSame(jwtUtil.verify(token), jwtUtil.verify(token));
+    }
+
+    @Test
+    void rejectsExpiredAndTamperedTokens() {
+        JwtUtil expiring = new JwtUtil(SECRET, -1_000, 100);
+        assertThrows(ExpiredJwtException.class, () -> expiring.verify(expiring.generateToken("alice", 7L)));
+
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateToken("alice", 7L);
+        jwtUtil.verify(token);
+        String tampered = JwtAuthenticationTest.tamper(token);
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+    }
+
+    @Test
+    void doesNotServeACachedTokenPastItsExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        VerifiedToken token = new VerifiedToken("alice", 7L, Instant.EPOCH, Instant.ofEpochSecond(100));
+        ByteBuffer digest = VerifiedTokenCache.digest("token");
+        cache.put(digest, token, Instant.ofEpochSecond(1));
+        assertSame(token, cache.get(digest, Instant.ofEpochSecond(99)));
+        assertNull(cache.get(digest, Instant.ofEpochSecond(100)));
+    }
+
+    @Test
+    void dropsExpiredTokensFirstAndStaysBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        VerifiedToken live = new VerifiedToken("alice", 7L, Instant.EPOCH, Instant.ofEpochSecond(1_000));
+        ByteBuffer liveDigest = VerifiedTokenCache.digest("live");
+        cache.put(liveDigest, live, Instant.ofEpochSecond(1));
+        for (int i = 0; i < 10; i++) {
+            VerifiedToken expiring = new VerifiedToken("bob", 8L, Instant.EPOCH, Instant.ofEpochSecond(50));
+            cache.put(VerifiedTokenCache.digest("expiring" + i), expiring, Instant.ofEpochSecond(1));
+        }
+        // The eleventh put trims at a time when only the expiring tokens are dead
+        cache.put(VerifiedTokenCache.digest("last"), live, Instant.ofEpochSecond(60));
+        assertSame(live, cache.get(liveDigest, Instant.ofEpochSecond(60)));
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(VerifiedTokenCache.digest("token" + i), live, Instant.ofEpochSecond(60));
+            assertTrue(cache.size() <= 10, "cache grew to " + cache.size());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.aiora.reservation_backend.api.auth;
+
+import com.aiora.reservation_backend.api.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    @Test
+    void hashesAndVerifiesOnThePool() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(4), registry, 1, 4, 5000, 2);
+        String hash = hasher.encode("secret");
+        assertTrue(hasher.matches("secret", hash));
+        assertFalse(hasher.matches("wrong", hash));
+        assertEquals(1, registry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("auth.password.hash").tag("operation", "matches").timer().count());
+        hasher.destroy();
+    }
+
+    @Test
+    void refusesWorkBeyondTheQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHasher hasher = new PasswordHasher(blockingEncoder(started, release), registry, 1, 1, 5000, 3);
+
+        // One call occupies the only thread, the next fills the queue
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("b"));
+        while (registry.get("auth.password.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ServiceUnavailableException refused = assertThrows(ServiceUnavailableException.class, () -> hasher.encode("c"));
+        assertEquals(3, refused.getRetryAfterSeconds());
+        assertEquals(1, registry.get("auth.password.rejected").counter().count());
+
+        release.countDown();
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        hasher.destroy();
+    }
+
+    @Test
+    void timesOutInsteadOfWaitingForever() {
+        CountDownLatch never = new CountDownLatch(1);
+        PasswordHasher hasher = new PasswordHasher(blockingEncoder(new CountDownLatch(1), never),
+                new SimpleMeterRegistry(), 1, 1, 50, 2);
+        assertThrows(ServiceUnavailableException.class, () -> hasher.encode("a"));
+        hasher.destroy();
+    }
+
+    @Test
+    void rehashesOnlyOutdatedHashes() {
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(5), new SimpleMeterRegistry(), 1, 4, 5000, 2);
+
+        String upgraded = hasher.rehashIfOutdated("secret", weak);
+        assertNotNull(upgraded);
+        assertTrue(upgraded.startsWith("$2a$05$"));
+        assertTrue(hasher.matches("secret", upgraded));
+        assertNull(hasher.rehashIfOutdated("secret", upgraded));
+        hasher.destroy();
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.aiora.reservation_backend.api.auth;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrincipalCacheTest {
+
+    @Test
+    void doesNotStoreAUserLoadedBeforeAnInvalidation() {
+        PrincipalCache cache = new PrincipalCache(10, 300);
+        long stamp = cache.stamp();
+        cache.invalidate(7L);
+        cache.put(new AuthenticatedUser(7L, "alice"), stamp);
+        assertNull(cache.get(7L));
+
+        cache.put(new AuthenticatedUser(7L, "alice"), cache.stamp());
+        assertEquals("alice", cache.get(7L).username());
+    }
+
+    @Test
+    void staysBounded() {
+        PrincipalCache cache = new PrincipalCache(10, 300);
+        for (long userId = 1; userId <= 1_000; userId++) {
+            cache.put(new AuthenticatedUser(userId, "user" + userId), cache.stamp());
+            assertTrue(cache.size() <= 10, "cache grew to " + cache.size());
+        }
+    }
+}
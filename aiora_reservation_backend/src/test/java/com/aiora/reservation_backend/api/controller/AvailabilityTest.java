@@ -0,0 +1,154 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.service.RestaurantCatalog;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insert;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser
+class AvailabilityTest {
+
+    private static final LocalDateTime EVENING = LocalDateTime.of(2025, 6, 1, 17, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RestaurantCatalog restaurantCatalog;
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void findsTheNextSlotsThatFitTheParty() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "availability_user");
+        Long garden = insertRestaurant("Garden", false);
+        Long club = insertRestaurant("Club", true);
+        // Search the hotel as the periodic refresh sees it, without restaurants other tests deleted
+        restaurantCatalog.refresh();
+        book(garden, userId, EVENING.plusHours(2), 50);
+
+        // Every Garden slot until 21:00 shares its window with the 19:00 party; the Club is for hotel guests only
+        mockMvc.perform(search(20, EVENING, EVENING.plusHours(4)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+        mockMvc.perform(search(20, EVENING, EVENING.plusHours(5)))
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].restaurantId").value(garden))
+                .andExpect(jsonPath("$[0].slotStart").value("2025-06-01T21:15:00"))
+                .andExpect(jsonPath("$[0].seatsLeft").value(60));
+        mockMvc.perform(search(20, EVENING, EVENING.plusHours(5)).param("hotelGuest", "true").param("limit", "2"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].restaurantName").value("Club"))
+                .andExpect(jsonPath("$[0].slotStart").value("2025-06-01T17:00:00"))
+                .andExpect(jsonPath("$[1].restaurantId").value(club))
+                .andExpect(jsonPath("$[1].slotStart").value("2025-06-01T17:15:00"));
+
+        mockMvc.perform(search(10, EVENING, EVENING.plusHours(5)))
+                .andExpect(jsonPath("$[0].slotStart").value("2025-06-01T17:00:00"))
+                .andExpect(jsonPath("$[0].seatsLeft").value(10));
+        book(garden, userId, EVENING, 10);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(search(10, EVENING, EVENING.plusHours(5)))
+                .andExpect(jsonPath("$[0].slotStart").value("2025-06-01T19:15:00"))
+                .andExpect(jsonPath("$[0].seatsLeft").value(10));
+        // Seats come from loaded days and the table inventory, known to be empty, from the index as well
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void slotsNeedAFreeTableWhereTheRestaurantHasTables() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "table_availability_user");
+        Long bistro = insertRestaurant("Bistro", false);
+        insert(jdbcTemplate, "restaurant_tables", "table_id", Map.of("restaurant_id", bistro, "label", "T1", "seats", 4));
+        restaurantCatalog.refresh();
+        book(bistro, userId, EVENING, 2);
+
+        // The only table is held for two hours, although 58 seats are left
+        mockMvc.perform(search(2, EVENING, EVENING.plusHours(3)).param("restaurantId", String.valueOf(bistro)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].slotStart").value("2025-06-01T19:00:00"))
+                .andExpect(jsonPath("$[0].seatsLeft").value(58));
+        mockMvc.perform(search(6, EVENING, EVENING.plusHours(3)).param("restaurantId", String.valueOf(bistro)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(search(2, EVENING, EVENING.plusHours(3)).param("restaurantId", String.valueOf(bistro)))
+                .andExpect(jsonPath("$[0].slotStart").value("2025-06-01T19:00:00"));
+        // Tables and seatings of the searched days are kept in the occupancy index
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // A booking drops the seatings around it, so the next search sees the table taken
+        book(bistro, userId, EVENING.plusHours(2), 2);
+        mockMvc.perform(search(2, EVENING, EVENING.plusHours(5)).param("restaurantId", String.valueOf(bistro)))
+                .andExpect(jsonPath("$[0].slotStart").value("2025-06-01T21:00:00"));
+    }
+
+    @Test
+    void rejectsSearchesOutOfRange() throws Exception {
+        mockMvc.perform(search(0, EVENING, EVENING.plusHours(1)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(search(2, EVENING, EVENING.plusDays(15)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(search(2, EVENING, EVENING.plusHours(1)).param("restaurantId", "999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static MockHttpServletRequestBuilder search(int partySize, LocalDateTime from, LocalDateTime to) {
+        return get("/api/v1/availability")
+                .param("partySize", String.valueOf(partySize))
+                .param("from", from.toString())
+                .param("to", to.toString());
+    }
+
+    private void book(Long restaurantId, Long userId, LocalDateTime date, int guests) throws Exception {
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reservationDate\":\"" + date + "\",\"guestName\":\"Guest\",\"isHotelGuest\":false,"
+                                + "\"guestCount\":" + guests + ",\"userId\":" + userId
+                                + ",\"reservationStatus\":\"CONFIRMED\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    private Long insertRestaurant(String name, boolean roomOnly) {
+        return insert(jdbcTemplate, "restaurants", "restaurant_id", Map.of(
+                "accepts_outside_guests", !roomOnly, "default_capacity", 40, "location", "Lobby", "max_capacity", 60,
+                "name", name, "restaurant_type", "CASUAL", "room_only", roomOnly));
+    }
+}
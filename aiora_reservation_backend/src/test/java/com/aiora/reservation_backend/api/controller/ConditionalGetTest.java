@@ -0,0 +1,195 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.dao.ChangeVersionDao;
+import com.aiora.reservation_backend.service.ChangeVersions;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private ChangeVersionDao changeVersionDao;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ChangeVersions otherNode;
+
+    @BeforeEach
+    void startOtherNode() {
+        otherNode = new ChangeVersions(changeVersionDao);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void answersAnUnchangedRestaurantFeedWithoutQuerying() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "etag_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Tagged");
+        Long otherId = insertRestaurant(jdbcTemplate, "Other");
+        String recent = "/api/v1/restaurants/" + restaurantId + "/reservations/recent";
+
+        String etag = mockMvc.perform(get(recent))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(recent).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        // Only the restaurant's change version is read
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        createReservation(otherId, userId);
+        mockMvc.perform(get(recent).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        createReservation(restaurantId, userId);
+        String changed = mockMvc.perform(get(recent).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void changesMadeThroughAnotherNodeMoveTheTag() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "other_node_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Shared");
+        String feed = "/api/v1/restaurants/" + restaurantId + "/reservations";
+        String etag = mockMvc.perform(get(feed))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String dashboard = mockMvc.perform(get("/api/v1/dashboard"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Another node books a table: its write transaction bumps the shared version, this node's memory is untouched
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO reservations (guest_count, guest_name, is_hotel_guest, meal_deducted, "
+                    + "reservation_date, reservation_status, restaurant_id, user_id) VALUES (2, 'Guest', FALSE, FALSE, "
+                    + "?, 'CONFIRMED', ?, ?)", Timestamp.valueOf(LocalDateTime.of(2025, 6, 1, 19, 0)), restaurantId, userId);
+            otherNode.reservationsChanged(restaurantId);
+        });
+
+        mockMvc.perform(get(feed).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/v1/dashboard").header(HttpHeaders.IF_NONE_MATCH, dashboard))
+                .andExpect(status().isOk());
+        assertEquals(changeVersions.restaurantTag(restaurantId), otherNode.restaurantTag(restaurantId));
+    }
+
+    @Test
+    void bookingsBumpTheVersionRowInsteadOfTheRestaurant() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "version_row_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Versioned");
+        assertEquals("\"r" + restaurantId + "-0\"", changeVersions.restaurantTag(restaurantId));
+
+        createReservation(restaurantId, userId);
+        createReservation(restaurantId, userId);
+
+        assertEquals(2L, jdbcTemplate.queryForObject(
+                "SELECT version FROM restaurant_change_versions WHERE restaurant_id = ?", Long.class, restaurantId));
+        assertEquals("\"r" + restaurantId + "-2\"", changeVersions.restaurantTag(restaurantId));
+    }
+
+    @Test
+    void renamingAUserMovesOnlyTheTagsOfTheirRestaurants() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "renamed_user");
+        Long bookedId = insertRestaurant(jdbcTemplate, "Booked");
+        Long otherId = insertRestaurant(jdbcTemplate, "Untouched");
+        createReservation(bookedId, userId);
+        String booked = changeVersions.restaurantTag(bookedId);
+        String other = changeVersions.restaurantTag(otherId);
+
+        mockMvc.perform(put("/api/v1/users/" + userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"renamed_user\",\"firstName\":\"F\",\"lastName\":\"Tag\"}"))
+                .andExpect(status().isOk());
+        assertEquals(booked, changeVersions.restaurantTag(bookedId));
+
+        mockMvc.perform(put("/api/v1/users/" + userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"new_name\",\"firstName\":\"F\",\"lastName\":\"Tag\"}"))
+                .andExpect(status().isOk());
+        assertNotEquals(booked, changeVersions.restaurantTag(bookedId));
+        assertEquals(other, changeVersions.restaurantTag(otherId));
+    }
+
+    @Test
+    void restaurantChangesMoveTheCatalogTag() throws Exception {
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Before");
+        String etag = mockMvc.perform(get("/api/v1/restaurants"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/v1/restaurants").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/v1/restaurants/" + restaurantId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"After\",\"maxCapacity\":60,\"location\":\"Lobby\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/restaurants").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private void createReservation(Long restaurantId, Long userId) throws Exception {
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reservationDate\":\"" + LocalDateTime.of(2025, 6, 1, 19, 0)
+                                + "\",\"guestName\":\"Guest\",\"isHotelGuest\":false,\"guestCount\":2,\"userId\":"
+                                + userId + "}"))
+                .andExpect(status().isCreated());
+    }
+}
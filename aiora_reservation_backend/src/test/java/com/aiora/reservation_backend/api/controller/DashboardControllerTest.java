@@ -0,0 +1,143 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.TestFixtures;
+import com.aiora.reservation_backend.service.RestaurantCatalog;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insert;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser
+class DashboardControllerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RestaurantCatalog restaurantCatalog;
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void countsTodayAndListsTheNewestReservationsOfEveryRestaurant() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "dash_user");
+        Long busy = insertRestaurant("Busy");
+        Long quiet = insertRestaurant("Quiet");
+        List<Long> busyIds = new ArrayList<>();
+        busyIds.add(insertReservation(busy, userId, DAY.atTime(12, 0), "PENDING"));
+        busyIds.add(insertReservation(busy, userId, DAY.atTime(13, 0), "CONFIRMED"));
+        busyIds.add(insertReservation(busy, userId, DAY.atTime(19, 0), "CONFIRMED"));
+        busyIds.add(insertReservation(busy, userId, DAY.atTime(20, 0), "CANCELLED"));
+        busyIds.add(insertReservation(busy, userId, DAY.plusDays(1).atTime(19, 0), "PENDING"));
+        insertReservation(quiet, userId, DAY.minusDays(1).atTime(19, 0), "CONFIRMED");
+
+        mockMvc.perform(get("/api/v1/dashboard?date=" + DAY + "&recent=3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.date").value(DAY.toString()))
+                .andExpect(jsonPath("$.restaurants", hasSize(2)))
+                .andExpect(jsonPath("$.restaurants[?(@.restaurant.name == 'Busy')].today.totalReservations").value(4))
+                .andExpect(jsonPath("$.restaurants[?(@.restaurant.name == 'Busy')].today.pendingReservations").value(1))
+                .andExpect(jsonPath("$.restaurants[?(@.restaurant.name == 'Busy')].today.confirmedReservations").value(2))
+                .andExpect(jsonPath("$.restaurants[?(@.restaurant.name == 'Busy')].recentReservations[*].reservationId")
+                        .value(contains(busyIds.get(4).intValue(), busyIds.get(3).intValue(), busyIds.get(2).intValue())))
+                .andExpect(jsonPath("$.restaurants[?(@.restaurant.name == 'Quiet')].today.totalReservations").value(0))
+                .andExpect(jsonPath("$.restaurants[?(@.restaurant.name == 'Quiet')].recentReservations[*]", hasSize(1)));
+    }
+
+    @Test
+    void statsCountWithOneGroupedQuery() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "stats_user");
+        Long restaurantId = insertRestaurant("Counted");
+        LocalDate today = LocalDate.now();
+        insertReservation(restaurantId, userId, today.atTime(12, 0), "PENDING");
+        insertReservation(restaurantId, userId, today.atTime(19, 0), "CONFIRMED");
+        insertReservation(restaurantId, userId, today.atTime(20, 0), "CANCELLED");
+        insertReservation(restaurantId, userId, today.minusDays(1).atTime(19, 0), "CONFIRMED");
+        insertReservation(restaurantId, userId, today.plusDays(1).atTime(19, 0), "PENDING");
+        String stats = "/api/v1/restaurants/" + restaurantId + "/reservations/stats";
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(stats))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalReservations").value(5))
+                .andExpect(jsonPath("$.pendingReservations").value(2))
+                .andExpect(jsonPath("$.confirmedReservations").value(2));
+        mockMvc.perform(get(stats + "/today"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalReservations").value(3))
+                .andExpect(jsonPath("$.pendingReservations").value(1))
+                .andExpect(jsonPath("$.confirmedReservations").value(1));
+        // The change version and the counts, no reservation is loaded
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void issuesTheSameStatementsWhateverTheNumberOfRestaurants() throws Exception {
+        assertEquals(statementsFor(1), statementsFor(12));
+    }
+
+    private long statementsFor(int restaurants) throws Exception {
+        cleanUp();
+        Long userId = insertUser(jdbcTemplate, "dash_user");
+        for (int i = 0; i < restaurants; i++) {
+            Long restaurantId = insertRestaurant("Restaurant " + i);
+            insertReservation(restaurantId, userId, DAY.atTime(19, 0), "CONFIRMED");
+            insertReservation(restaurantId, userId, DAY.atTime(20, 0), "PENDING");
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/dashboard?date=" + DAY)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long insertRestaurant(String name) {
+        Long restaurantId = TestFixtures.insertRestaurant(jdbcTemplate, name);
+        // Written behind the catalog's back, like a restaurant created through another node
+        restaurantCatalog.refresh();
+        return restaurantId;
+    }
+
+    private Long insertReservation(Long restaurantId, Long userId, LocalDateTime date, String status) {
+        return insert(jdbcTemplate, "reservations", "reservation_id", Map.of(
+                "guest_count", 2, "guest_name", "Guest", "is_hotel_guest", false, "meal_deducted", false,
+                "reservation_date", date, "reservation_status", status, "restaurant_id", restaurantId, "user_id", userId));
+    }
+}
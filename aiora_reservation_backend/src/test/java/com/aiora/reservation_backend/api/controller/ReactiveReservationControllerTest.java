@@ -0,0 +1,118 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.dao.ReactiveReservationDao;
+import com.aiora.reservation_backend.service.ReactiveReservationQueryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Streams a restaurant's reservations over R2DBC across several keyset pages (the test page size is 50)
+ * and checks that pages are only queried as the subscriber asks for rows, one page ahead at most.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ReactiveReservationControllerTest {
+
+    private static final int ROWS = 120;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReactiveReservationQueryService reactiveReservationQueryService;
+
+    @MockitoSpyBean
+    private ReactiveReservationDao reactiveReservationDao;
+
+    private Long restaurantId;
+
+    @BeforeEach
+    void seed() {
+        Long userId = insertUser(jdbcTemplate, "stream_reader");
+        restaurantId = insertRestaurant(jdbcTemplate, "Streamed");
+        for (int i = 0; i < ROWS; i++) {
+            // Pairs of reservations share a time, so page boundaries fall on ties broken by id
+            jdbcTemplate.update("INSERT INTO reservations (guest_count, guest_name, is_hotel_guest, meal_deducted, " +
+                    "reservation_date, reservation_status, room_number, restaurant_id, user_id) " +
+                    "VALUES (2, ?, false, false, ?, 'CONFIRMED', NULL, ?, ?)",
+                    "Guest " + i, BASE.plusHours(i / 2), restaurantId, userId);
+        }
+        clearInvocations(reactiveReservationDao);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void streamsEveryRowAsNdjsonNewestFirst() throws Exception {
+        String range = "startDate=" + BASE.minusDays(1) + "&endDate=" + BASE.plusDays(30);
+        MvcResult pending = mockMvc.perform(get("/api/v1/reactive/restaurants/" + restaurantId
+                        + "/reservations/date-range?" + range)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().filter(line -> !line.isBlank()).toList();
+        assertEquals(ROWS, lines.size());
+        assertTrue(lines.get(0).contains("\"guestName\":\"Guest 119\""), lines.get(0));
+        assertTrue(lines.get(ROWS - 1).contains("\"guestName\":\"Guest 0\""), lines.get(ROWS - 1));
+        assertEquals(ROWS, lines.stream().distinct().count());
+    }
+
+    @Test
+    void fetchesPagesOnDemand() {
+        StepVerifier.create(reactiveReservationQueryService.streamByRestaurant(restaurantId), 0)
+                .thenRequest(10)
+                .expectNextCount(10)
+                // The current page plus one read ahead, not the whole stream; the read ahead is issued
+                // on the driver's thread, so it may land just after the tenth row
+                .then(() -> verify(reactiveReservationDao, timeout(5000).times(2))
+                        .findPage(any(), any(), any(), any(), any(), anyInt()))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(ROWS - 10)
+                .verifyComplete();
+        verify(reactiveReservationDao, times(3)).findPage(any(), any(), any(), any(), any(), anyInt());
+    }
+}
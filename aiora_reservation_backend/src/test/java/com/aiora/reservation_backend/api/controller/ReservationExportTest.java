@@ -0,0 +1,153 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insert;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The streaming export: filters, both formats, and filters rejected before anything is streamed
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ReservationExportTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 19, 0);
+    private static final String EXPORT = "/api/v1/reservations/export";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long userId;
+    private Long terrace;
+    private Long grill;
+
+    @BeforeEach
+    void seed() {
+        userId = insertUser(jdbcTemplate, "export_user");
+        terrace = insertRestaurant(jdbcTemplate, "Terrace");
+        grill = insertRestaurant(jdbcTemplate, "Grill");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void ndjsonHasOneMatchingReservationPerLineOldestFirst() throws Exception {
+        Long later = insertReservation(terrace, "Later", null, BASE.plusDays(1), "CONFIRMED");
+        Long earlier = insertReservation(terrace, "Earlier", "101", BASE, "CONFIRMED");
+        insertReservation(terrace, "Cancelled", null, BASE, "CANCELLED");
+        insertReservation(terrace, "Too Late", null, BASE.plusDays(5), "CONFIRMED");
+        insertReservation(grill, "Elsewhere", null, BASE, "CONFIRMED");
+
+        String body = export(get(EXPORT).param("restaurantId", String.valueOf(terrace)).param("status", "confirmed")
+                .param("startDate", BASE.minusDays(1).toString()).param("endDate", BASE.plusDays(2).toString()),
+                "application/x-ndjson", "reservations.ndjson");
+
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        assertEquals(List.of(earlier, later), rows.stream().map(row -> row.path("reservationId").asLong()).toList());
+        assertEquals("101", rows.get(0).path("roomNumber").asText());
+        assertEquals("Terrace", rows.get(0).path("restaurantName").asText());
+        assertEquals("export_user", rows.get(0).path("username").asText());
+        assertEquals(BASE, LocalDateTime.parse(rows.get(0).path("reservationDate").asText()));
+    }
+
+    @Test
+    void csvQuotesFieldsAndDefusesFormulas() throws Exception {
+        Long quoted = insertReservation(grill, "Smith, \"Jr\"", null, BASE, "PENDING");
+        Long formula = insertReservation(grill, "=HYPERLINK(\"http://x\")", "+1", BASE.plusHours(1), "PENDING");
+        Long dashed = insertReservation(grill, "-Dash", "@12", BASE.plusHours(2), "PENDING");
+
+        String body = export(get(EXPORT).param("format", "CSV").param("restaurantId", String.valueOf(grill)),
+                "text/csv", "reservations.csv");
+
+        assertEquals(List.of(
+                "reservationId,reservationDate,guestName,roomNumber,isHotelGuest,mealDeducted,reservationStatus,"
+                        + "guestCount,restaurantId,restaurantName,userId,username",
+                quoted + ",2025-06-01T19:00:00,\"Smith, \"\"Jr\"\"\",,false,false,PENDING,2," + grill + ",Grill,"
+                        + userId + ",export_user",
+                formula + ",2025-06-01T20:00:00,\"'=HYPERLINK(\"\"http://x\"\")\",'+1,true,false,PENDING,2," + grill
+                        + ",Grill," + userId + ",export_user",
+                dashed + ",2025-06-01T21:00:00,'-Dash,'@12,true,false,PENDING,2," + grill + ",Grill," + userId
+                        + ",export_user"), List.of(body.split("\n")));
+    }
+
+    @Test
+    void badFiltersAreRejectedBeforeStreaming() throws Exception {
+        mockMvc.perform(get(EXPORT).param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(request().asyncNotStarted())
+                .andExpect(jsonPath("$.error").value("Unsupported export format: xml"));
+        mockMvc.perform(get(EXPORT).param("status", "lost"))
+                .andExpect(status().isBadRequest())
+                .andExpect(request().asyncNotStarted())
+                .andExpect(jsonPath("$.error").value("Invalid reservation status: lost"));
+    }
+
+    /**
+     * Run an export through its async dispatch and return the streamed body
+     */
+    private String export(MockHttpServletRequestBuilder builder, String contentType, String fileName) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // The export's own timeout, not the default of every other async request
+        assertEquals(3600000L, started.getRequest().getAsyncContext().getTimeout());
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"" + fileName + "\""))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private Long insertReservation(Long restaurantId, String guestName, String roomNumber, LocalDateTime date,
+                                   String status) {
+        Map<String, Object> values = new HashMap<>(Map.of(
+                "guest_count", 2, "guest_name", guestName, "is_hotel_guest", roomNumber != null,
+                "meal_deducted", false, "reservation_date", Timestamp.valueOf(date), "reservation_status", status,
+                "restaurant_id", restaurantId, "user_id", userId));
+        values.put("room_number", roomNumber);
+        return insert(jdbcTemplate, "reservations", "reservation_id", values);
+    }
+}
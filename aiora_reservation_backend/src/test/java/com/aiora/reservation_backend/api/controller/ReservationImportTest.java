@@ -0,0 +1,119 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.service.ReservationEventBroadcaster;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser
+class ReservationImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoSpyBean
+    private ReservationEventBroadcaster reservationEventBroadcaster;
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void importsAThousandRowsInBatches() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "import_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Banquet");
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(row(LocalDateTime.of(2025, 1, 1, 19, 0).plusDays(i / 4).plusHours(i % 4 * 3),
+                    "\"Guest " + i + "\"", 2, userId));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", rows) + "]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imported").value(1000))
+                .andExpect(jsonPath("$.reservationIds.length()").value(1000))
+                .andExpect(jsonPath("$.errors").isEmpty());
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements < 100, "Expected batched inserts, but prepared " + statements + " statements");
+        // Dashboards reload the restaurant once instead of receiving a thousand events
+        verify(reservationEventBroadcaster).publishResync(restaurantId);
+        verify(reservationEventBroadcaster, never()).publish(any());
+
+        assertEquals(1000, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservations WHERE restaurant_id = ?", Integer.class, restaurantId));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT window_seats FROM restaurant_slot_inventory WHERE restaurant_id = ? AND slot_start = ?",
+                Integer.class, restaurantId, LocalDateTime.of(2025, 1, 1, 19, 0)));
+    }
+
+    @Test
+    void rejectsTheWholeImportAndReportsEveryFailingRow() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "import_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Banquet");
+        LocalDateTime evening = LocalDateTime.of(2025, 6, 1, 19, 0);
+        String rows = String.join(",",
+                row(evening.minusDays(1), "\"Fine\"", 2, userId),
+                row(evening, "null", 2, userId),
+                row(evening, "\"Stranger\"", 2, userId + 1000),
+                row(evening, "\"Party A\"", 40, userId),
+                row(evening.plusMinutes(30), "\"Party B\"", 40, userId));
+
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + rows + "]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.errors[*].row").value(contains(1, 2, 3, 4)))
+                .andExpect(jsonPath("$.errors[0].message").value("Guest name is required"))
+                .andExpect(jsonPath("$.errors[1].message").value("User not found"));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM restaurant_slot_inventory WHERE window_seats > 0", Integer.class));
+    }
+
+    private static String row(LocalDateTime date, String guestName, int guestCount, Long userId) {
+        return "{\"reservationDate\":\"" + date + "\",\"guestName\":" + guestName
+                + ",\"isHotelGuest\":false,\"guestCount\":" + guestCount + ",\"userId\":" + userId + "}";
+    }
+}
@@ -0,0 +1,122 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.api.model.ReservationCursor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Calls every reservation list endpoint against a small and a large data set and checks that
+ * both issue the same number of SQL statements, i.e. that no association is loaded per row.
+ * Every reservation has its own user and, outside the restaurant feed, its own restaurant,
+ * so a lazy association left unfetched shows up as a difference.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser
+class ReservationListStatementCountTest {
+
+    private static final int SMALL = 2;
+    private static final int LARGE = 20;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 12, 0);
+    private static final String ROOM = "R-101";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @TestFactory
+    Stream<DynamicTest> listEndpointsIssueConstantStatements() {
+        return endpoints().entrySet().stream()
+                .map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> {
+                    long small = statementsFor(SMALL, entry.getValue());
+                    long large = statementsFor(LARGE, entry.getValue());
+                    assertEquals(small, large, entry.getKey() + " issued " + small + " statements for "
+                            + SMALL + " rows but " + large + " for " + LARGE);
+                }));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    private Map<String, String> endpoints() {
+        String range = "startDate=" + BASE.minusDays(1) + "&endDate=" + BASE.plusDays(30);
+        String farCursor = ReservationCursor.after(BASE.plusYears(1), Long.MAX_VALUE).encode();
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("all", "/api/v1/reservations");
+        endpoints.put("search", "/api/v1/reservations/search?query=guest&limit=1000");
+        endpoints.put("date-range", "/api/v1/reservations/date-range?" + range);
+        endpoints.put("date-range cursor", "/api/v1/reservations/date-range?" + range + "&limit=1000");
+        endpoints.put("room", "/api/v1/reservations/room/" + ROOM);
+        endpoints.put("restaurant", "/api/v1/restaurants/{restaurantId}/reservations");
+        endpoints.put("restaurant cursor", "/api/v1/restaurants/{restaurantId}/reservations?limit=1000");
+        endpoints.put("restaurant date-range", "/api/v1/restaurants/{restaurantId}/reservations/date-range?" + range);
+        endpoints.put("restaurant date-range cursor",
+                "/api/v1/restaurants/{restaurantId}/reservations/date-range?" + range + "&limit=1000");
+        endpoints.put("recent", "/api/v1/restaurants/{restaurantId}/reservations/recent?size=1000");
+        endpoints.put("recent cursor", "/api/v1/restaurants/{restaurantId}/reservations/recent?size=1000&cursor=" + farCursor);
+        endpoints.put("restaurant status", "/api/v1/restaurants/{restaurantId}/reservations/status");
+        endpoints.put("restaurant status filtered", "/api/v1/restaurants/{restaurantId}/reservations/status?status=PENDING");
+        return endpoints;
+    }
+
+    private long statementsFor(int rows, String url) throws Exception {
+        deleteAll(jdbcTemplate);
+        Long restaurantId = seed(rows);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url.replace("{restaurantId}", restaurantId.toString())))
+                .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Seeds one shared restaurant with a reservation per user, plus the same number of
+     * reservations spread over restaurants of their own
+     * @return Id of the shared restaurant
+     */
+    private Long seed(int rows) {
+        Long sharedRestaurantId = insertRestaurant(jdbcTemplate, "Shared");
+        for (int i = 0; i < rows; i++) {
+            Long userId = insertUser(jdbcTemplate, "guest_" + i);
+            insertReservation(sharedRestaurantId, userId, i);
+            insertReservation(insertRestaurant(jdbcTemplate, "Own " + i), userId, i);
+        }
+        return sharedRestaurantId;
+    }
+
+    private void insertReservation(Long restaurantId, Long userId, int i) {
+        jdbcTemplate.update("INSERT INTO reservations (guest_count, guest_name, is_hotel_guest, meal_deducted, " +
+                "reservation_date, reservation_status, room_number, restaurant_id, user_id) " +
+                "VALUES (2, ?, true, false, ?, 'PENDING', ?, ?, ?)",
+                "Guest " + i, BASE.plusHours(i), ROOM, restaurantId, userId);
+    }
+}
@@ -0,0 +1,169 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.api.model.ReservationCursor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insert;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset paging over (reservationDate DESC, reservationId DESC): pages meet without gaps or
+ * repeats, also where several reservations share a time, and bad limits or cursors are a 400.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ReservationPagingTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long restaurantId;
+    private List<Row> rows;
+
+    private record Row(LocalDateTime reservationDate, Long reservationId) {
+    }
+
+    @BeforeEach
+    void seed() {
+        Long userId = insertUser(jdbcTemplate, "paging_user");
+        restaurantId = insertRestaurant(jdbcTemplate, "Brasserie");
+        // Seven reservations at three times, so page boundaries fall inside groups of equal dates
+        rows = new ArrayList<>();
+        int[] offsets = {0, 0, 0, 30, 30, 60, 60};
+        for (int offset : offsets) {
+            LocalDateTime date = BASE.plusMinutes(offset);
+            Long id = insert(jdbcTemplate, "reservations", "reservation_id", Map.of("guest_count", 2, "guest_name", "Guest",
+                    "is_hotel_guest", false, "meal_deducted", false, "reservation_date", Timestamp.valueOf(date),
+                    "reservation_status", "CONFIRMED", "restaurant_id", restaurantId, "user_id", userId));
+            rows.add(new Row(date, id));
+        }
+        rows.sort(Comparator.comparing(Row::reservationDate).thenComparing(Row::reservationId).reversed());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void restaurantFeedPagesMeetWithoutGapsOrRepeats() throws Exception {
+        assertEquals(rows, pageThrough("/api/v1/restaurants/" + restaurantId + "/reservations", 2));
+        assertEquals(rows, pageThrough("/api/v1/restaurants/" + restaurantId + "/reservations", 3));
+    }
+
+    @Test
+    void dateRangePagesMeetWithoutGapsOrRepeats() throws Exception {
+        String range = "startDate=" + BASE.minusDays(1) + "&endDate=" + BASE.plusDays(1);
+        assertEquals(rows, pageThrough("/api/v1/reservations/date-range?" + range, 2));
+        assertEquals(rows, pageThrough("/api/v1/restaurants/" + restaurantId + "/reservations/date-range?" + range, 3));
+    }
+
+    @Test
+    void recentFeedHandsOverToTheCursor() throws Exception {
+        String recent = "/api/v1/restaurants/" + restaurantId + "/reservations/recent";
+        JsonNode first = objectMapper.readTree(mockMvc.perform(get(recent).param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").value(7))
+                .andReturn().getResponse().getContentAsString());
+        List<Row> seen = new ArrayList<>(rowsOf(first.path("reservations")));
+        String cursor = first.path("nextCursor").asText();
+        while (cursor != null) {
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(recent).param("size", "3").param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            seen.addAll(rowsOf(page.path("reservations")));
+            cursor = page.path("hasMore").asBoolean() ? page.path("nextCursor").asText() : null;
+        }
+        assertEquals(rows, seen);
+    }
+
+    @Test
+    void pageSizesAreBoundedAndCursorsChecked() throws Exception {
+        String feed = "/api/v1/restaurants/" + restaurantId + "/reservations";
+        mockMvc.perform(get(feed).param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Limit must be at least 1"));
+        mockMvc.perform(get(feed + "/recent").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(feed + "/recent").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/reservations/search").param("query", "guest").param("limit", "-5"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(feed).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor: not-a-cursor"));
+
+        // A huge limit is lowered to the maximum page instead of overflowing
+        mockMvc.perform(get(feed).param("limit", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(7));
+        assertEquals(ReservationCursor.MAX_LIMIT, ReservationCursor.pageSize(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Follow the next cursor header from the first page to the last
+     */
+    private List<Row> pageThrough(String url, int limit) throws Exception {
+        List<Row> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get(url).param("limit", String.valueOf(limit));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MockHttpServletResponse response = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            List<Row> page = rowsOf(objectMapper.readTree(response.getContentAsString()));
+            cursor = response.getHeader(ReservationCursor.NEXT_CURSOR_HEADER);
+            // Only the last page may come up short
+            assertTrue(cursor == null ? page.size() <= limit : page.size() == limit);
+            seen.addAll(page);
+        } while (cursor != null);
+        return seen;
+    }
+
+    private static List<Row> rowsOf(JsonNode reservations) {
+        List<Row> page = new ArrayList<>();
+        for (JsonNode reservation : reservations) {
+            page.add(new Row(LocalDateTime.parse(reservation.path("reservationDate").asText()),
+                    reservation.path("reservationId").asLong()));
+        }
+        return page;
+    }
+}
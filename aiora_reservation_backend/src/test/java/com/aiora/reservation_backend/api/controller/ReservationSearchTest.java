@@ -0,0 +1,103 @@
+package com.aiora.reservation_backend.api.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insert;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SpotlightSearch in the portable like mode the tests run with; ReservationTrigramSearchTest in the
+ * pgtest profile covers the trigram mode on PostgreSQL
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ReservationSearchTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 19, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long terrace;
+    private Long grill;
+
+    @BeforeEach
+    void seed() {
+        userId = insertUser(jdbcTemplate, "search_user");
+        terrace = insertRestaurant(jdbcTemplate, "Marina Terrace");
+        grill = insertRestaurant(jdbcTemplate, "Grill");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void matchesGuestRoomAndRestaurantNewestFirst() throws Exception {
+        Long byRestaurant = insertReservation(terrace, "Smith", null, BASE.minusDays(3));
+        Long byGuest = insertReservation(grill, "Marina Rossi", null, BASE.minusDays(1));
+        Long byRoom = insertReservation(grill, "Jones", "MARINA-2", BASE);
+        Long oldest = insertReservation(grill, "Marina Old", null, BASE.minusDays(9));
+        insertReservation(grill, "Unrelated", "204", BASE.plusDays(1));
+
+        mockMvc.perform(get("/api/v1/reservations/search").param("query", " marina "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].reservationId").value(contains(byRoom.intValue(), byGuest.intValue(),
+                        byRestaurant.intValue(), oldest.intValue())));
+        mockMvc.perform(get("/api/v1/reservations/search").param("query", "MARINA").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].reservationId").value(contains(byRoom.intValue(), byGuest.intValue())));
+    }
+
+    @Test
+    void exactIdsAndRoomsShortCircuitTheSubstringSearch() throws Exception {
+        Long target = insertReservation(grill, "Target", null, BASE.minusDays(2));
+        // Would match the id as a substring of the guest name, and is newer
+        insertReservation(grill, "Party " + target, null, BASE);
+        mockMvc.perform(get("/api/v1/reservations/search").param("query", String.valueOf(target)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].reservationId").value(target.intValue()));
+
+        Long room = insertReservation(grill, "Room Guest", "A12", BASE.minusDays(1));
+        insertReservation(grill, "Fan of a12", "B7", BASE);
+        mockMvc.perform(get("/api/v1/reservations/search").param("query", "a12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].reservationId").value(room.intValue()));
+    }
+
+    private Long insertReservation(Long restaurantId, String guestName, String roomNumber, LocalDateTime date) {
+        Map<String, Object> values = new HashMap<>(Map.of(
+                "guest_count", 2, "guest_name", guestName, "is_hotel_guest", roomNumber != null,
+                "meal_deducted", false, "reservation_date", date, "reservation_status", "CONFIRMED",
+                "restaurant_id", restaurantId, "user_id", userId));
+        values.put("room_number", roomNumber);
+        return insert(jdbcTemplate, "reservations", "reservation_id", values);
+    }
+}
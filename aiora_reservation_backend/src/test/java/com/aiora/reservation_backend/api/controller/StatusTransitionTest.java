@@ -0,0 +1,163 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.service.ReservationSweeper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class StatusTransitionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReservationSweeper reservationSweeper;
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void completesTheServiceAndReturnsItsSeats() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "transition_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Bistro");
+        LocalDateTime lunch = LocalDateTime.of(2025, 6, 1, 12, 0);
+        Long confirmed = createReservation(restaurantId, userId, lunch, 40, "CONFIRMED", null);
+        Long pending = createReservation(restaurantId, userId, lunch.plusMinutes(30), 10, "PENDING", null);
+        Long later = createReservation(restaurantId, userId, lunch.plusHours(6), 30, "CONFIRMED", null);
+        // 50 of 60 seats are taken around lunch
+        createReservation(restaurantId, userId, lunch, 40, "CONFIRMED", null, status().isBadRequest());
+
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations/transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromStatuses\":[\"CONFIRMED\"],\"toStatus\":\"COMPLETED\",\"endDate\":\""
+                                + lunch.plusHours(3) + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.toStatus").value("COMPLETED"))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.updatedByRestaurant." + restaurantId).value(1));
+
+        assertEquals("COMPLETED", statusOf(confirmed));
+        assertEquals("PENDING", statusOf(pending));
+        assertEquals("CONFIRMED", statusOf(later));
+        assertEquals(10, windowSeats(restaurantId, lunch));
+        createReservation(restaurantId, userId, lunch, 40, "CONFIRMED", null);
+    }
+
+    @Test
+    void checkoutCancelsTheRoomsUpcomingReservationsEverywhere() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "checkout_user");
+        Long bistro = insertRestaurant(jdbcTemplate, "Bistro");
+        Long grill = insertRestaurant(jdbcTemplate, "Grill");
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Long past = createReservation(bistro, userId, tomorrow.minusDays(3), 2, "CONFIRMED", "R101");
+        Long dinner = createReservation(bistro, userId, tomorrow, 2, "CONFIRMED", "R101");
+        Long breakfast = createReservation(grill, userId, tomorrow.plusHours(12), 2, "PENDING", "R101");
+        Long otherRoom = createReservation(grill, userId, tomorrow, 2, "CONFIRMED", "R102");
+
+        mockMvc.perform(post("/api/v1/reservations/room/R101/checkout"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2))
+                .andExpect(jsonPath("$.updatedByRestaurant." + bistro).value(1))
+                .andExpect(jsonPath("$.updatedByRestaurant." + grill).value(1));
+
+        assertEquals("CONFIRMED", statusOf(past));
+        assertEquals("CANCELLED", statusOf(dinner));
+        assertEquals("CANCELLED", statusOf(breakfast));
+        assertEquals("CONFIRMED", statusOf(otherRoom));
+        assertEquals(0, windowSeats(bistro, tomorrow));
+        assertEquals(2, windowSeats(grill, tomorrow));
+    }
+
+    @Test
+    void sweeperClosesFinishedReservations() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "sweep_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Bistro");
+        LocalDateTime dinner = LocalDateTime.of(2025, 6, 1, 19, 0);
+        Long confirmed = createReservation(restaurantId, userId, dinner, 4, "CONFIRMED", null);
+        Long pending = createReservation(restaurantId, userId, dinner, 2, "PENDING", null);
+        Long cancelled = createReservation(restaurantId, userId, dinner, 2, "CANCELLED", null);
+        Long upcoming = createReservation(restaurantId, userId, dinner.plusDays(1), 2, "PENDING", null);
+
+        assertEquals(2, reservationSweeper.sweepBefore(dinner.plusHours(3)));
+
+        assertEquals("COMPLETED", statusOf(confirmed));
+        assertEquals("NO_SHOW", statusOf(pending));
+        assertEquals("CANCELLED", statusOf(cancelled));
+        assertEquals("PENDING", statusOf(upcoming));
+        assertEquals(0, windowSeats(restaurantId, dinner));
+        assertEquals(0, reservationSweeper.sweepBefore(dinner.plusHours(3)));
+    }
+
+    @Test
+    void refusesToTakeSeatsInBulk() throws Exception {
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Bistro");
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations/transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromStatuses\":[\"CANCELLED\"],\"toStatus\":\"CONFIRMED\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/reservations/transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromStatuses\":[\"CONFIRMED\"],\"toStatus\":\"COMPLETED\"}"))
+                .andExpect(jsonPath("$.error").value("A restaurant or a room number is required"));
+    }
+
+    private Long createReservation(Long restaurantId, Long userId, LocalDateTime date, int guests, String status,
+                                   String roomNumber) throws Exception {
+        return createReservation(restaurantId, userId, date, guests, status, roomNumber, status().isCreated());
+    }
+
+    private Long createReservation(Long restaurantId, Long userId, LocalDateTime date, int guests, String status,
+                                   String roomNumber,
+                                   ResultMatcher expected) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reservationDate\":\"" + date + "\",\"guestName\":\"Guest\",\"isHotelGuest\":"
+                                + (roomNumber != null) + ",\"roomNumber\":" + (roomNumber != null ? "\"" + roomNumber + "\"" : "null")
+                                + ",\"guestCount\":" + guests + ",\"userId\":" + userId
+                                + ",\"reservationStatus\":\"" + status + "\"}"))
+                .andExpect(expected)
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).path("reservationId").asLong();
+    }
+
+    private String statusOf(Long reservationId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT reservation_status FROM reservations WHERE reservation_id = ?", String.class, reservationId);
+    }
+
+    private int windowSeats(Long restaurantId, LocalDateTime slot) {
+        return jdbcTemplate.queryForObject(
+                "SELECT window_seats FROM restaurant_slot_inventory WHERE restaurant_id = ? AND slot_start = ?",
+                Integer.class, restaurantId, slot);
+    }
+}
@@ -0,0 +1,224 @@
+package com.aiora.reservation_backend.api.controller;
+
+import com.aiora.reservation_backend.service.ReservationEventBroadcaster;
+import com.aiora.reservation_backend.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class TableAssignmentTest {
+
+    private static final LocalDateTime DINNER = LocalDateTime.of(2025, 6, 1, 19, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @MockitoSpyBean
+    private ReservationEventBroadcaster reservationEventBroadcaster;
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void seatsEachPartyAtTheBestFittingFreeTables() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "table_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Brasserie");
+        Long two = addTable(restaurantId, "T1", 2, "terrace");
+        Long four = addTable(restaurantId, "T2", 4, "terrace");
+        Long otherFour = addTable(restaurantId, "T3", 4, "terrace");
+        Long six = addTable(restaurantId, "T4", 6, null);
+
+        assertEquals(List.of(two), tablesOf(createReservation(restaurantId, userId, DINNER, 2)));
+        assertEquals(List.of(four), tablesOf(createReservation(restaurantId, userId, DINNER, 3)));
+        assertEquals(List.of(six), tablesOf(createReservation(restaurantId, userId, DINNER.plusMinutes(30), 5)));
+        // No table seats eight, two of the terrace tables pushed together do
+        assertEquals(List.of(four, otherFour), tablesOf(createReservation(restaurantId, userId, DINNER.plusHours(2), 8)));
+
+        // Every table is taken around 20:00, although the restaurant has seats left
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reservationJson(DINNER.plusHours(1), 2, userId, "CONFIRMED")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("No table is free for a party of 2 at the selected time"));
+
+        mockMvc.perform(get("/api/v1/restaurants/" + restaurantId + "/tables/seatings").param("date", "2025-06-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].tableId").value(two))
+                .andExpect(jsonPath("$[0].seatedUntil").value("2025-06-01T21:00:00"))
+                .andExpect(jsonPath("$[4].guestCount").value(8));
+    }
+
+    @Test
+    void movesNeighboursOntoTheTablesAPartyGivesUp() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "reseat_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Brasserie");
+        Long left = addTable(restaurantId, "A1", 4, "window");
+        Long right = addTable(restaurantId, "A2", 4, "window");
+        Long large = addTable(restaurantId, "B1", 8, null);
+
+        Long first = createReservation(restaurantId, userId, DINNER, 8);
+        Long second = createReservation(restaurantId, userId, DINNER.plusMinutes(30), 6);
+        assertEquals(List.of(large), tablesOf(first));
+        assertEquals(List.of(left, right), tablesOf(second));
+
+        // Cancelling frees the large table, and the party at two pushed together tables moves onto it
+        mockMvc.perform(put("/api/v1/restaurants/" + restaurantId + "/reservations/" + first)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reservationJson(DINNER, 8, userId, "CANCELLED")))
+                .andExpect(status().isOk());
+        assertEquals(List.of(), tablesOf(first));
+        assertEquals(List.of(large), tablesOf(second));
+
+        // Moving a party later seats it again at its new time
+        Long third = createReservation(restaurantId, userId, DINNER, 4);
+        assertEquals(List.of(left), tablesOf(third));
+        mockMvc.perform(put("/api/v1/restaurants/" + restaurantId + "/reservations/" + third)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reservationJson(DINNER.plusHours(3), 4, userId, "CONFIRMED")))
+                .andExpect(status().isOk());
+        assertEquals(List.of(left), tablesOf(third));
+
+        mockMvc.perform(delete("/api/v1/restaurants/" + restaurantId + "/reservations/" + second))
+                .andExpect(status().isNoContent());
+        createReservation(restaurantId, userId, DINNER, 8);
+    }
+
+    @Test
+    void deletingAUserFreesTheTablesOfItsReservations() throws Exception {
+        Long leaving = insertUser(jdbcTemplate, "leaving_user");
+        Long staying = insertUser(jdbcTemplate, "staying_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Brasserie");
+        Long left = addTable(restaurantId, "A1", 4, "window");
+        Long right = addTable(restaurantId, "A2", 4, "window");
+        Long large = addTable(restaurantId, "B1", 8, null);
+
+        createReservation(restaurantId, leaving, DINNER, 8);
+        Long second = createReservation(restaurantId, staying, DINNER.plusMinutes(30), 6);
+        assertEquals(List.of(left, right), tablesOf(second));
+
+        // The reservation goes with its user through the cascade, and the large table is free again
+        userService.deleteUser(leaving);
+        assertEquals(List.of(large), tablesOf(second));
+        verify(reservationEventBroadcaster).publishResync(restaurantId);
+    }
+
+    @Test
+    void importRejectsRowsNoTableIsFreeFor() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "table_import_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Brasserie");
+        addTable(restaurantId, "A1", 4, "window");
+        addTable(restaurantId, "A2", 4, "window");
+        String dinner = reservationJson(DINNER, 4, userId, "CONFIRMED");
+        String dinnerLater = reservationJson(DINNER.plusMinutes(15), 3, userId, "CONFIRMED");
+        String supper = reservationJson(DINNER.plusHours(3), 8, userId, "CONFIRMED");
+        // Largest party first: the late party takes both tables, the dinners one each, the third finds none
+        String rows = String.join(",", dinner, dinnerLater,
+                reservationJson(DINNER.plusMinutes(30), 2, userId, "CONFIRMED"), supper);
+
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + rows + "]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.length()").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message")
+                        .value("No table is free for a party of 2 at the selected time"));
+
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", dinner, dinnerLater, supper) + "]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imported").value(3));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservation_tables", Integer.class));
+    }
+
+    @Test
+    void managesTheTableInventory() throws Exception {
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Brasserie");
+        Long otherRestaurant = insertRestaurant(jdbcTemplate, "Bar");
+        Long table = addTable(restaurantId, "T1", 2, " ");
+
+        mockMvc.perform(get("/api/v1/restaurants/" + restaurantId + "/tables"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].label").value("T1"))
+                .andExpect(jsonPath("$[0].combineGroup").doesNotExist());
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/tables")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"label\":\"T2\",\"seats\":0}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/v1/restaurants/" + otherRestaurant + "/tables/" + table))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/v1/restaurants/" + restaurantId + "/tables/" + table))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/restaurants/" + restaurantId + "/tables"))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    private Long addTable(Long restaurantId, String label, int seats, String combineGroup) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/tables")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"label\":\"" + label + "\",\"seats\":" + seats + ",\"combineGroup\":"
+                                + (combineGroup != null ? "\"" + combineGroup + "\"" : "null") + "}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).path("tableId").asLong();
+    }
+
+    private Long createReservation(Long restaurantId, Long userId, LocalDateTime date, int guests) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reservationJson(date, guests, userId, "CONFIRMED")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).path("reservationId").asLong();
+    }
+
+    private static String reservationJson(LocalDateTime date, int guests, Long userId, String status) {
+        return "{\"reservationDate\":\"" + date + "\",\"guestName\":\"Guest\",\"isHotelGuest\":false,"
+                + "\"guestCount\":" + guests + ",\"userId\":" + userId + ",\"reservationStatus\":\"" + status + "\"}";
+    }
+
+    private List<Long> tablesOf(Long reservationId) {
+        return jdbcTemplate.queryForList(
+                "SELECT table_id FROM reservation_tables WHERE reservation_id = ? ORDER BY table_id",
+                Long.class, reservationId);
+    }
+}
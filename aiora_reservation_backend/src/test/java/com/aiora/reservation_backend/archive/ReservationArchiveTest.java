@@ -0,0 +1,162 @@
+package com.aiora.reservation_backend.archive;
+
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes reservations into segments small enough that every lookup has to span several of them
+ */
+class ReservationArchiveTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 3, 1, 19, 0);
+
+    @TempDir
+    Path directory;
+
+    private ReservationArchive archive;
+
+    @BeforeEach
+    void fill() {
+        archive = new ReservationArchive(directory.toString(), 7);
+        List<ReservationResponse> rows = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            // Pairs of reservations share a date so the id breaks ties in the feed order
+            rows.add(row(id, BASE.plusHours((id + 1) / 2), "R" + (id % 5), id % 3 == 0 ? 2L : 1L));
+        }
+        archive.append(rows);
+    }
+
+    @Test
+    void findsByIdAcrossSegments() {
+        ReservationResponse found = archive.findById(23L).orElseThrow();
+        assertEquals(BASE.plusHours(12), found.getReservationDate());
+        assertEquals("Guest 23", found.getGuestName());
+        assertEquals("R3", found.getRoomNumber());
+        assertEquals(ReservationStatus.COMPLETED, found.getReservationStatus());
+        assertEquals("Restaurant 1", found.getRestaurantName());
+        assertEquals(Boolean.TRUE, found.getIsHotelGuest());
+        assertNull(found.getMealDeducted());
+        assertTrue(archive.contains(40L));
+        assertFalse(archive.findById(41L).isPresent());
+    }
+
+    @Test
+    void findsByRoomNumber() {
+        assertEquals(List.of(2L, 7L, 12L, 17L, 22L, 27L, 32L, 37L),
+                ids(archive.findByRoomNumber("R2")).stream().sorted().collect(Collectors.toList()));
+        assertTrue(archive.findByRoomNumber("R9").isEmpty());
+        assertTrue(archive.existsMealDeductedForRoom("R0"));
+        assertFalse(archive.existsMealDeductedForRoom("R1"));
+    }
+
+    @Test
+    void findsByDateRangeOldestFirst() {
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 10L),
+                ids(archive.findByDateRange(null, BASE.plusHours(3), BASE.plusHours(5))));
+        assertEquals(List.of(6L, 9L), ids(archive.findByDateRange(2L, BASE.plusHours(3), BASE.plusHours(5))));
+    }
+
+    @Test
+    void pagesByDateRangeNewestFirst() {
+        LocalDateTime from = BASE.plusHours(2);
+        LocalDateTime to = BASE.plusHours(8);
+        List<ReservationResponse> first = archive.findByDateRangeAfter(null, from, to, null, null, 5);
+        assertEquals(List.of(16L, 15L, 14L, 13L, 12L), ids(first));
+
+        ReservationResponse last = first.get(first.size() - 1);
+        List<ReservationResponse> second = archive.findByDateRangeAfter(
+                null, from, to, last.getReservationDate(), last.getReservationId(), 5);
+        assertEquals(List.of(11L, 10L, 9L, 8L, 7L), ids(second));
+
+        last = second.get(second.size() - 1);
+        assertEquals(List.of(6L, 5L, 4L, 3L), ids(archive.findByDateRangeAfter(
+                null, from, to, last.getReservationDate(), last.getReservationId(), 5)));
+    }
+
+    @Test
+    void reopensSegmentsFromDisk() throws Exception {
+        Files.writeString(directory.resolve("segment-00000099.arsv.tmp"), "partial");
+        ReservationArchive reopened = new ReservationArchive(directory.toString(), 7);
+        assertEquals("Guest 40", reopened.findById(40L).orElseThrow().getGuestName());
+        assertFalse(Files.exists(directory.resolve("segment-00000099.arsv.tmp")));
+    }
+
+    @Test
+    void compactsSmallSegmentsAndIgnoresWhatAMergeReplaced() throws Exception {
+        Path small = directory.resolve("small");
+        ReservationArchive batches = new ReservationArchive(small.toString(), 7);
+        for (long id = 41; id <= 49; id += 3) {
+            batches.append(List.of(row(id, BASE.plusDays(id), "R1", 1L), row(id + 1, BASE.plusDays(id + 1), "R1", 1L),
+                    row(id + 2, BASE.plusDays(id + 2), "R2", 1L)));
+        }
+        Path before = directory.resolve("before");
+        copy(small, before);
+
+        batches.compact();
+        assertEquals(List.of("segment-00000001-00000002.arsv", "segment-00000003.arsv"), files(small));
+        assertEquals(List.of(41L, 42L, 44L, 45L, 47L, 48L), ids(batches.findByRoomNumber("R1")));
+        assertTrue(batches.contains(49L));
+
+        // A merge that crashed before deleting what it replaced leaves both behind
+        copy(before, small);
+        ReservationArchive reopened = new ReservationArchive(small.toString(), 7);
+        assertEquals(List.of(41L, 42L, 43L, 44L, 45L, 46L, 47L, 48L, 49L),
+                ids(reopened.findByDateRange(null, BASE, BASE.plusDays(60))));
+        reopened.compact();
+        assertEquals(List.of("segment-00000001-00000002.arsv", "segment-00000003.arsv"), files(small));
+    }
+
+    @Test
+    void neverReplacesAnExistingSegment() throws Exception {
+        Path taken = directory.resolve("segment-00000099.arsv");
+        Files.writeString(taken, "written by another node");
+        assertThrows(FileAlreadyExistsException.class,
+                () -> ArchiveSegmentWriter.write(taken, List.of(row(41L, BASE, "R1", 1L))));
+        assertEquals("written by another node", Files.readString(taken));
+        assertFalse(Files.exists(directory.resolve("segment-00000099.arsv.tmp")));
+    }
+
+    private static void copy(Path from, Path to) throws Exception {
+        Files.createDirectories(to);
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, to.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static List<String> files(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static ReservationResponse row(long id, LocalDateTime date, String room, long restaurantId) {
+        return new ReservationResponse(id, date, "Guest " + id, room, true, id % 5 == 0 ? Boolean.TRUE : null,
+                id % 2 == 0 ? ReservationStatus.CANCELLED : ReservationStatus.COMPLETED, 2,
+                restaurantId, "Restaurant " + restaurantId, 1L, "guest_user");
+    }
+
+    private static List<Long> ids(List<ReservationResponse> rows) {
+        return rows.stream().map(ReservationResponse::getReservationId).collect(Collectors.toList());
+    }
+}
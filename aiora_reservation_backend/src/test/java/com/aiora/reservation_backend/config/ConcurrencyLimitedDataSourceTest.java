@@ -0,0 +1,53 @@
+package com.aiora.reservation_backend.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    private static ConcurrencyLimitedDataSource limitedTo(int permits) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:concurrency_limit");
+        return new ConcurrencyLimitedDataSource(h2, permits, 50);
+    }
+
+    @Test
+    void waitsForAPermitBeyondThePoolSize() throws Exception {
+        ConcurrencyLimitedDataSource dataSource = limitedTo(2);
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        try (Connection third = dataSource.getConnection()) {
+            assertTrue(third.isValid(1));
+        }
+        second.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void releasesThePermitOnlyOnceWhenClosedTwice() throws Exception {
+        ConcurrencyLimitedDataSource dataSource = limitedTo(1);
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void unwrapsToTheDriverConnection() throws Exception {
+        ConcurrencyLimitedDataSource dataSource = limitedTo(1);
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(connection.isWrapperFor(org.h2.jdbc.JdbcConnection.class));
+            assertEquals(connection, connection.unwrap(Connection.class));
+        }
+    }
+}
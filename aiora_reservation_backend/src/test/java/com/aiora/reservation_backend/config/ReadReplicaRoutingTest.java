@@ -0,0 +1,161 @@
+package com.aiora.reservation_backend.config;
+
+import com.aiora.reservation_backend.model.Restaurant;
+import com.aiora.reservation_backend.service.RestaurantCatalog;
+import com.aiora.reservation_backend.service.RestaurantService;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A second in-memory database stands in for the replica; it never receives the primary's writes,
+ * so which one a read went to shows in its result
+ */
+@SpringBootTest(properties = {
+        "reservation.datasource.replica-urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "reservation.datasource.read-your-writes-ms=60000"})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:aiora_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private RestaurantCatalog restaurantCatalog;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void migrateReplica() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL(REPLICA_URL);
+        h2.setUser("sa");
+        Flyway.configure().dataSource(h2).locations("classpath:db/migration/common").load().migrate();
+        replica = new JdbcTemplate(h2);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        replica.update("DELETE FROM restaurants");
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromTheReplica() {
+        assertInstanceOf(ReplicaRoutingDataSource.class,
+                assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource).getTargetDataSource());
+        insertRestaurant(jdbcTemplate, "Primary Bistro");
+        insertRestaurant(replica, "Replica Bistro");
+        signIn("reader");
+
+        assertEquals(List.of("Replica Bistro"), names(restaurantService.getAllRestaurants()));
+        // The catalog is pinned to the primary, it must not miss restaurants the replica lacks yet
+        restaurantCatalog.refresh();
+        assertEquals(List.of("Primary Bistro"),
+                restaurantCatalog.entries().stream().map(RestaurantCatalog.Entry::name).toList());
+    }
+
+    @Test
+    void writersReadTheirOwnWritesFromThePrimary() {
+        insertRestaurant(replica, "Replica Bistro");
+        signIn("writer");
+        restaurantService.createRestaurant(restaurant("New Bistro"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM restaurants WHERE name = 'New Bistro'", Integer.class));
+        assertEquals(0, replica.queryForObject(
+                "SELECT COUNT(*) FROM restaurants WHERE name = 'New Bistro'", Integer.class));
+
+        assertEquals(List.of("New Bistro"), names(restaurantService.getAllRestaurants()));
+        signIn("someone_else");
+        assertEquals(List.of("Replica Bistro"), names(restaurantService.getAllRestaurants()));
+    }
+
+    @Test
+    void taggedResponsesReadTagAndBodyFromOneSnapshot() throws Exception {
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Primary Bistro");
+        replica.update("INSERT INTO restaurants (restaurant_id, accepts_outside_guests, default_capacity, location, "
+                + "max_capacity, name, restaurant_type, room_only) VALUES (?, TRUE, 40, 'Lobby', 60, 'Primary Bistro', "
+                + "'CASUAL', FALSE)", restaurantId);
+        Long userId = insertUser(jdbcTemplate, "tag_reader");
+        // Committed on the primary with its version bump, not replicated yet
+        jdbcTemplate.update("INSERT INTO reservations (guest_count, guest_name, is_hotel_guest, meal_deducted, "
+                + "reservation_date, reservation_status, restaurant_id, user_id) VALUES (2, 'Guest', FALSE, FALSE, ?, "
+                + "'CONFIRMED', ?, ?)", Timestamp.valueOf(LocalDateTime.of(2025, 6, 1, 19, 0)), restaurantId, userId);
+        jdbcTemplate.update("INSERT INTO restaurant_change_versions (restaurant_id, version) VALUES (?, 1)", restaurantId);
+        String feed = "/api/v1/restaurants/" + restaurantId + "/reservations";
+
+        // The replica's body goes out under the replica's tag, never under the primary's newer one
+        String etag = mockMvc.perform(get(feed).with(user("dashboard")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals("\"r" + restaurantId + "-0\"", etag);
+        mockMvc.perform(get(feed).with(user("dashboard")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(feed).with(user("dashboard"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"r" + restaurantId + "-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(username, null, "ROLE_USER"));
+    }
+
+    private static List<String> names(List<Restaurant> restaurants) {
+        return restaurants.stream().map(Restaurant::getName).toList();
+    }
+
+    private static Restaurant restaurant(String name) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName(name);
+        restaurant.setRestaurantType(Restaurant.RestaurantType.CASUAL);
+        restaurant.setDefaultCapacity(40);
+        restaurant.setMaxCapacity(60);
+        restaurant.setLocation("Lobby");
+        restaurant.setAcceptsOutsideGuests(true);
+        restaurant.setRoomOnly(false);
+        return restaurant;
+    }
+}
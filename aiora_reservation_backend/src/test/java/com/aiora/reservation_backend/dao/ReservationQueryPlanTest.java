@@ -0,0 +1,224 @@
+package com.aiora.reservation_backend.dao;
+
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.aiora.reservation_backend.model.Reservation;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every ReservationDao and ReservationQueryDao query against the migrated H2 schema, captures the
+ * SQL Hibernate emits and checks with EXPLAIN that none of it falls back to a full scan of the reservations
+ * table. A new query method fails {@link #everyQueryMethodIsCovered()} until it is added here.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.aiora.reservation_backend.dao.ReservationQueryPlanTest$RecordingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReservationDao.class, ReservationQueryDao.class})
+class ReservationQueryPlanTest {
+
+    // Writes go through the primary key and are not query plans worth checking
+    private static final Set<String> WRITE_METHODS = Set.of("save", "saveAll", "delete", "deleteById", "deleteAllByIds");
+
+    // Queries that read the whole table by design
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            "ReservationQueryDao.findAll",    // unbounded listing of every reservation
+            "ReservationQueryDao.search"      // leading-wildcard LIKE cannot use a b-tree index
+    );
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Autowired
+    private ReservationDao reservationDao;
+
+    @Autowired
+    private ReservationQueryDao reservationQueryDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (user_id, first_name, last_name, password, username) " +
+                "VALUES (1, 'Plan', 'Tester', 'x', 'plan_tester')");
+        for (long restaurantId = 1; restaurantId <= 3; restaurantId++) {
+            jdbcTemplate.update("INSERT INTO restaurants (restaurant_id, accepts_outside_guests, default_capacity, " +
+                    "location, max_capacity, name, restaurant_type, room_only) VALUES (?, true, 40, 'Lobby', 60, ?, 'CASUAL', false)",
+                    restaurantId, "Restaurant " + restaurantId);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        String[] statuses = {"PENDING", "CONFIRMED", "CANCELLED", "COMPLETED"};
+        for (int i = 1; i <= 600; i++) {
+            rows.add(new Object[]{(long) i, 2, "Guest " + i, true, i % 7 == 0, BASE.plusHours(i),
+                    statuses[i % statuses.length], "R" + (100 + i % 150), (long) (i % 3) + 1, 1L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (reservation_id, guest_count, guest_name, is_hotel_guest, " +
+                "meal_deducted, reservation_date, reservation_status, room_number, restaurant_id, user_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> everyQueryUsesAnIndex() {
+        return queries().entrySet().stream()
+                .filter(entry -> !FULL_SCAN_ALLOWED.contains(entry.getKey()))
+                .map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> {
+                    List<String> statements = capture(entry.getValue());
+                    assertFalse(statements.isEmpty(), entry.getKey() + " did not reach the database");
+                    for (String sql : statements) {
+                        String plan = explain(sql);
+                        assertFalse(plan.toLowerCase().contains("reservations.tablescan"),
+                                entry.getKey() + " scans the reservations table:\n" + plan);
+                    }
+                }));
+    }
+
+    @Test
+    void everyQueryMethodIsCovered() {
+        Set<String> covered = queries().keySet();
+        List<String> missing = Stream.concat(
+                        publicMethods(ReservationDao.class, ""),
+                        publicMethods(ReservationQueryDao.class, "ReservationQueryDao."))
+                .filter(name -> !covered.contains(name) && !WRITE_METHODS.contains(name))
+                .distinct()
+                .collect(Collectors.toList());
+        assertTrue(missing.isEmpty(), "Add a plan check for new reservation queries: " + missing);
+    }
+
+    private static Stream<String> publicMethods(Class<?> dao, String prefix) {
+        return Arrays.stream(dao.getDeclaredMethods())
+                .filter(method -> Modifier.isPublic(method.getModifiers()))
+                .map(method -> prefix + method.getName());
+    }
+
+    private Map<String, Runnable> queries() {
+        LocalDateTime from = BASE.plusDays(3);
+        LocalDateTime to = BASE.plusDays(4);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findById", () -> reservationDao.findById(42L));
+        queries.put("findByUserId", () -> reservationDao.findByUserId(1L));
+        queries.put("findRestaurantIdsByUserId", () -> reservationDao.findRestaurantIdsByUserId(1L));
+        queries.put("sumActiveGuestsByTime", () -> reservationDao.sumActiveGuestsByTime(2L, from, to));
+        queries.put("existsMealDeductedForRoom", () -> reservationDao.existsMealDeductedForRoom("R120"));
+        queries.put("findRoomsWithMealDeducted",
+                () -> reservationDao.findRoomsWithMealDeducted(List.of("R120", "R121")));
+        queries.put("findStatusScopes", () -> {
+            reservationDao.findStatusScopes(2L, null, List.of(Reservation.ReservationStatus.CONFIRMED), null, to);
+            reservationDao.findStatusScopes(null, "R120",
+                    List.of(Reservation.ReservationStatus.PENDING, Reservation.ReservationStatus.CONFIRMED), from, null);
+        });
+        queries.put("sumGuestsByTimeAndStatus", () -> reservationDao.sumGuestsByTimeAndStatus(
+                2L, null, List.of(Reservation.ReservationStatus.CONFIRMED), from, to));
+        queries.put("updateStatus", () -> reservationDao.updateStatus(2L, null,
+                List.of(Reservation.ReservationStatus.CONFIRMED), Reservation.ReservationStatus.COMPLETED,
+                from, to, List.of(from.plusHours(1), from.plusHours(4))));
+        queries.put("countByRestaurantId", () -> reservationDao.countByRestaurantId(2L));
+
+        // Projections, keyed with the class name so they do not clash with the entity finders
+        queries.put("ReservationQueryDao.findAll", () -> reservationQueryDao.findAll());
+        queries.put("ReservationQueryDao.findByIds", () -> reservationQueryDao.findByIds(List.of(4L, 8L, 15L)));
+        queries.put("ReservationQueryDao.findByRestaurantId", () -> reservationQueryDao.findByRestaurantId(2L));
+        queries.put("ReservationQueryDao.findByRestaurantIdAndStatus",
+                () -> reservationQueryDao.findByRestaurantIdAndStatus(2L, Reservation.ReservationStatus.PENDING));
+        queries.put("ReservationQueryDao.findByDateRange", () -> reservationQueryDao.findByDateRange(from, to));
+        queries.put("ReservationQueryDao.findByRestaurantAndDateRange",
+                () -> reservationQueryDao.findByRestaurantAndDateRange(2L, from, to));
+        queries.put("ReservationQueryDao.findByRoomNumber", () -> reservationQueryDao.findByRoomNumber("R120"));
+        queries.put("ReservationQueryDao.findByRoomNumbers",
+                () -> reservationQueryDao.findByRoomNumbers(List.of("R120", "r120"), 20));
+        queries.put("ReservationQueryDao.search", () -> reservationQueryDao.search("%guest 4%", "guest 4", 20));
+        queries.put("ReservationQueryDao.findRecentByRestaurantId",
+                () -> reservationQueryDao.findRecentByRestaurantId(2L, 3, 10));
+        queries.put("ReservationQueryDao.findRecentByRestaurantIdAfter",
+                () -> reservationQueryDao.findRecentByRestaurantIdAfter(2L, BASE.plusDays(10), 250L, 10));
+        queries.put("ReservationQueryDao.findByDateRangeAfter",
+                () -> reservationQueryDao.findByDateRangeAfter(from, to, BASE.plusDays(3).plusHours(12), 84L, 10));
+        queries.put("ReservationQueryDao.findByRestaurantAndDateRangeAfter",
+                () -> reservationQueryDao.findByRestaurantAndDateRangeAfter(2L, from, to, BASE.plusDays(3).plusHours(12), 84L, 10));
+        queries.put("ReservationQueryDao.findRecentPerRestaurant",
+                () -> reservationQueryDao.findRecentPerRestaurant(5));
+        queries.put("ReservationQueryDao.countByRestaurantAndStatus",
+                () -> reservationQueryDao.countByRestaurantAndStatus(from, to));
+        queries.put("ReservationQueryDao.countByStatus", () -> {
+            reservationQueryDao.countByStatus(2L, null, null);
+            reservationQueryDao.countByStatus(2L, from, to);
+        });
+        queries.put("ReservationQueryDao.findArchivable",
+                () -> reservationQueryDao.findArchivable(BASE.plusDays(2), 50));
+        queries.put("ReservationQueryDao.streamForExport", () -> {
+            try (Stream<ReservationResponse> rows = reservationQueryDao.streamForExport(
+                    2L, from, to, Reservation.ReservationStatus.PENDING, 100)) {
+                rows.forEach(row -> { });
+            }
+        });
+        return queries;
+    }
+
+    private List<String> capture(Runnable query) {
+        // Start from an empty persistence context so primary key lookups really hit the database
+        entityManager.clear();
+        RecordingInspector.STATEMENTS.clear();
+        query.run();
+        return RecordingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().contains("reservations"))
+                .collect(Collectors.toList());
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    /**
+     * Records every statement Hibernate prepares so the test can EXPLAIN exactly what a DAO method ran
+     */
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
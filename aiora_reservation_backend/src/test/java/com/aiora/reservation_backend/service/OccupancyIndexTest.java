@@ -0,0 +1,156 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.model.Reservation;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import com.aiora.reservation_backend.model.Restaurant;
+import com.aiora.reservation_backend.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insert;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class OccupancyIndexTest {
+
+    private static final LocalDateTime DINNER = LocalDateTime.of(2025, 6, 1, 19, 0);
+    private static final int MAX_CAPACITY = 60;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private RestaurantCatalog restaurantCatalog;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long restaurantId;
+
+    @BeforeEach
+    void seed() {
+        userId = insertUser(jdbcTemplate, "occupancy_user");
+        restaurantId = insert(jdbcTemplate, "restaurants", "restaurant_id", Map.of(
+                "accepts_outside_guests", true, "default_capacity", 40, "location", "Pool",
+                "max_capacity", MAX_CAPACITY, "name", "Poolside", "restaurant_type", "CASUAL", "room_only", false));
+        restaurantCatalog.refresh();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        occupancyIndex.invalidate(restaurantId);
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void slotsAreQuarterHoursOfTheDay() {
+        assertEquals(0, OccupancyIndex.slotOf(DINNER.withHour(0)));
+        assertEquals(76, OccupancyIndex.slotOf(DINNER));
+        assertEquals(76, OccupancyIndex.slotOf(DINNER.plusMinutes(14).plusSeconds(59)));
+        assertEquals(77, OccupancyIndex.slotOf(DINNER.plusMinutes(15)));
+        assertEquals(OccupancyIndex.SLOTS_PER_DAY - 1, OccupancyIndex.slotOf(DINNER.withHour(23).withMinute(59)));
+
+        // A window counts every slot it touches, so a reservation ten minutes past its end is still in it
+        insertReservation(DINNER.plusMinutes(10), 4);
+        assertEquals(4, occupancyIndex.guestsInWindow(restaurantId, DINNER.minusHours(2), DINNER));
+        assertEquals(0, occupancyIndex.guestsInWindow(restaurantId, DINNER.minusHours(2), DINNER.minusMinutes(1)));
+    }
+
+    @Test
+    void windowsReachAcrossMidnight() {
+        LocalDateTime midnight = DINNER.toLocalDate().plusDays(1).atStartOfDay();
+        insertReservation(midnight.minusMinutes(30), 6);
+        insertReservation(midnight.plusMinutes(30), 8);
+        insertReservation(midnight.plusHours(3), 10);
+
+        assertEquals(14, occupancyIndex.guestsInWindow(restaurantId, midnight.minusHours(2), midnight.plusHours(2)));
+        int[] firstDay = occupancyIndex.windowGuests(restaurantId, DINNER.toLocalDate());
+        int[] secondDay = occupancyIndex.windowGuests(restaurantId, midnight.toLocalDate());
+        assertEquals(14, firstDay[OccupancyIndex.SLOTS_PER_DAY - 1]);
+        assertEquals(14, secondDay[0]);
+        assertEquals(18, secondDay[OccupancyIndex.slotOf(midnight.plusHours(2))]);
+    }
+
+    @Test
+    void aDayLoadedWhileAWriteCommitsIsNotKept() throws Exception {
+        assertEquals(0, occupancyIndex.guestsInWindow(restaurantId, DINNER.minusHours(2), DINNER.plusHours(2)));
+        occupancyIndex.invalidate(restaurantId);
+        try (ExecutorService reader = Executors.newSingleThreadExecutor()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                insertReservation(DINNER, 5);
+                occupancyIndex.recordChange(null, new OccupancyIndex.Booking(restaurantId, DINNER, 5));
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        // The row is visible but not applied yet; a snapshot kept now would count it twice
+                        try {
+                            assertEquals(5, reader.submit(() -> occupancyIndex.guestsInWindow(restaurantId,
+                                    DINNER.minusHours(2), DINNER.plusHours(2))).get());
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+            });
+        }
+        assertEquals(5, occupancyIndex.guestsInWindow(restaurantId, DINNER.minusHours(2), DINNER.plusHours(2)));
+    }
+
+    @Test
+    void slotsLeftStaleByAnotherNodeDoNotRejectABooking() {
+        reservationService.createReservation(reservation(DINNER, MAX_CAPACITY));
+        // Cancelled through another node: the database and the ledger know, this node's slots do not
+        jdbcTemplate.update("UPDATE reservations SET reservation_status = 'CANCELLED' WHERE restaurant_id = ?",
+                restaurantId);
+        jdbcTemplate.update("UPDATE restaurant_slot_inventory SET window_seats = window_seats - ? "
+                + "WHERE restaurant_id = ?", MAX_CAPACITY, restaurantId);
+        assertEquals(MAX_CAPACITY, occupancyIndex.guestsInWindow(restaurantId, DINNER.minusHours(2), DINNER.plusHours(2)));
+
+        reservationService.createReservation(reservation(DINNER.plusMinutes(30), 40));
+        assertEquals(40, occupancyIndex.guestsInWindow(restaurantId, DINNER.minusHours(2), DINNER.plusHours(2)));
+    }
+
+    private Reservation reservation(LocalDateTime date, int guests) {
+        Restaurant restaurant = restaurantCatalog.require(restaurantId).toRestaurant();
+        User user = new User();
+        user.setUserId(userId);
+        Reservation reservation = new Reservation();
+        reservation.setRestaurant(restaurant);
+        reservation.setUser(user);
+        reservation.setReservationDate(date);
+        reservation.setGuestName("Guest");
+        reservation.setIsHotelGuest(false);
+        reservation.setMealDeducted(false);
+        reservation.setGuestCount(guests);
+        reservation.setReservationStatus(ReservationStatus.CONFIRMED);
+        return reservation;
+    }
+
+    private void insertReservation(LocalDateTime date, int guests) {
+        insert(jdbcTemplate, "reservations", "reservation_id", Map.of("guest_count", guests, "guest_name", "Guest",
+                "is_hotel_guest", false, "meal_deducted", false, "reservation_date", Timestamp.valueOf(date),
+                "reservation_status", "CONFIRMED", "restaurant_id", restaurantId, "user_id", userId));
+    }
+}
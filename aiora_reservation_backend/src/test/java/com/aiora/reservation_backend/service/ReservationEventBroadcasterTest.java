@@ -0,0 +1,209 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.model.ReservationEvent;
+import com.aiora.reservation_backend.api.model.ReservationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Drives the broadcaster with an executor that only runs drains when the test says so,
+ * which stands in for a client that is slow to read its feed.
+ */
+class ReservationEventBroadcasterTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReservationEventBroadcaster broadcaster;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new ReservationEventBroadcaster(executor, meterRegistry, BUFFER_SIZE, 60_000);
+        mockMvc = MockMvcBuilders.standaloneSetup(new FeedController(broadcaster))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(
+                        new ObjectMapper().registerModule(new JavaTimeModule())))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void coalescesChangesToTheSameReservation() throws Exception {
+        MockHttpServletResponse feed = subscribe(1L);
+        broadcaster.publish(updated(10L, 1L, "First"));
+        broadcaster.publish(updated(10L, 1L, "Second"));
+        broadcaster.publish(updated(11L, 1L, "Other"));
+        broadcaster.publish(updated(10L, 1L, "Third"));
+        assertEquals(1, executor.pending(), "one drain per subscriber at a time");
+
+        executor.runAll();
+
+        String body = feed.getContentAsString();
+        assertEquals(2, count(body, "event:updated"), body);
+        assertFalse(body.contains("First") || body.contains("Second"), body);
+        // The latest write of reservation 10 came last, so it is sent after reservation 11
+        assertTrue(body.indexOf("Other") < body.indexOf("Third"), body);
+        assertEquals(2.0, meterRegistry.counter("reservation.events.coalesced").count());
+    }
+
+    @Test
+    void fallsBackToResyncWhenTheBufferOverflows() throws Exception {
+        MockHttpServletResponse feed = subscribe(1L);
+        for (long id = 1; id <= BUFFER_SIZE + 2; id++) {
+            broadcaster.publish(updated(id, 1L, "Guest " + id));
+        }
+        executor.runAll();
+
+        String body = feed.getContentAsString();
+        assertEquals(1, count(body, "event:resync"), body);
+        assertFalse(body.contains("event:updated"), body);
+
+        broadcaster.publish(updated(99L, 1L, "After"));
+        executor.runAll();
+        assertTrue(feed.getContentAsString().contains("After"));
+    }
+
+    @Test
+    void onlyDeliversCommittedChangesOfTheSubscribedRestaurant() throws Exception {
+        MockHttpServletResponse feed = subscribe(1L);
+        broadcaster.publish(updated(20L, 2L, "Elsewhere"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        broadcaster.publish(updated(21L, 1L, "Committed"));
+        broadcaster.publish(updated(22L, 1L, "RolledBack"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(0, executor.pending(), "nothing is sent before the commit");
+        synchronizations.get(0).afterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+        executor.runAll();
+
+        String body = feed.getContentAsString();
+        assertTrue(body.contains("Committed"), body);
+        assertFalse(body.contains("RolledBack") || body.contains("Elsewhere"), body);
+    }
+
+    @Test
+    void hotelFeedCarriesTheChangesOfEveryRestaurant() throws Exception {
+        MockHttpServletResponse hotel = mockMvc.perform(get("/feed"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+        broadcaster.publish(updated(30L, 1L, "Terrace"));
+        broadcaster.publish(updated(31L, 2L, "Grill"));
+        executor.runAll();
+        String body = hotel.getContentAsString();
+        assertTrue(body.contains("Terrace") && body.contains("Grill"), body);
+
+        broadcaster.publishResync(3L);
+        executor.runAll();
+        assertTrue(hotel.getContentAsString().contains("event:resync"), hotel.getContentAsString());
+        assertEquals(1.0, meterRegistry.get("reservation.events.subscribers").gauge().value());
+    }
+
+    @Test
+    void sendsHeartbeatsToIdleFeeds() throws Exception {
+        MockHttpServletResponse feed = subscribe(1L);
+        broadcaster.sendHeartbeats();
+        executor.runAll();
+        assertTrue(feed.getContentAsString().contains(":heartbeat"), feed.getContentAsString());
+        assertEquals(1, broadcaster.subscriberCount(1L));
+    }
+
+    private MockHttpServletResponse subscribe(Long restaurantId) throws Exception {
+        return mockMvc.perform(get("/feed/" + restaurantId))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static ReservationEvent updated(Long reservationId, Long restaurantId, String guestName) {
+        ReservationResponse reservation = new ReservationResponse(reservationId, LocalDateTime.of(2025, 6, 1, 19, 0),
+                guestName, null, false, false, null, 2, restaurantId, "Restaurant", 1L, "user");
+        return new ReservationEvent(ReservationEvent.Type.UPDATED, reservationId, restaurantId, reservation);
+    }
+
+    private static int count(String body, String token) {
+        int count = 0;
+        for (int index = body.indexOf(token); index >= 0; index = body.indexOf(token, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    @RestController
+    static class FeedController {
+        private final ReservationEventBroadcaster broadcaster;
+
+        FeedController(ReservationEventBroadcaster broadcaster) {
+            this.broadcaster = broadcaster;
+        }
+
+        @GetMapping("/feed/{restaurantId}")
+        SseEmitter feed(@PathVariable Long restaurantId) {
+            return broadcaster.subscribe(restaurantId);
+        }
+
+        @GetMapping("/feed")
+        SseEmitter hotelFeed() {
+            return broadcaster.subscribeAll();
+        }
+    }
+
+    private static final class ManualExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        synchronized int pending() {
+            return tasks.size();
+        }
+
+        void runAll() {
+            while (true) {
+                Runnable task;
+                synchronized (this) {
+                    if (tasks.isEmpty()) {
+                        return;
+                    }
+                    task = tasks.remove(0);
+                }
+                task.run();
+            }
+        }
+    }
+}
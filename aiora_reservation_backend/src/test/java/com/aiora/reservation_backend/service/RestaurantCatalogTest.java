@@ -0,0 +1,102 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.model.Restaurant;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insertRestaurant;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser
+class RestaurantCatalogTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void servesRestaurantsFromTheSnapshotAndSwapsItOnUpdate() throws Exception {
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Terrace");
+        String restaurant = "/api/v1/restaurants/" + restaurantId;
+        // Not in the snapshot yet, so it is loaded once
+        mockMvc.perform(get(restaurant)).andExpect(jsonPath("$.name").value("Terrace"));
+
+        Statistics statistics = statistics();
+        mockMvc.perform(get(restaurant))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Terrace"))
+                .andExpect(jsonPath("$.maxCapacity").value(60));
+        mockMvc.perform(get("/api/v1/restaurants"))
+                .andExpect(jsonPath("$[?(@.restaurantId == " + restaurantId + ")].name").value("Terrace"));
+        mockMvc.perform(get("/api/v1/restaurants/capacity/61"))
+                .andExpect(jsonPath("$[?(@.restaurantId == " + restaurantId + ")]").isEmpty());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(put(restaurant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Rooftop\",\"maxCapacity\":80,\"location\":\"Roof\"}"))
+                .andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(get(restaurant))
+                .andExpect(jsonPath("$.name").value("Rooftop"))
+                .andExpect(jsonPath("$.maxCapacity").value(80));
+        mockMvc.perform(get("/api/v1/restaurants/capacity/61"))
+                .andExpect(jsonPath("$[?(@.restaurantId == " + restaurantId + ")].name").value("Rooftop"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void booksWithoutLoadingTheRestaurant() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "catalog_user");
+        Long restaurantId = insertRestaurant(jdbcTemplate, "Garden");
+        mockMvc.perform(get("/api/v1/restaurants/" + restaurantId)).andExpect(status().isOk());
+
+        Statistics statistics = statistics();
+        mockMvc.perform(post("/api/v1/restaurants/" + restaurantId + "/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reservationDate\":\"" + LocalDateTime.of(2025, 6, 1, 19, 0)
+                                + "\",\"guestName\":\"Guest\",\"isHotelGuest\":false,\"guestCount\":2,\"userId\":"
+                                + userId + "}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.restaurantName").value("Garden"));
+        assertEquals(0, statistics.getEntityStatistics(Restaurant.class.getName()).getLoadCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,153 @@
+package com.aiora.reservation_backend.service;
+
+import com.aiora.reservation_backend.api.exception.ValidationException;
+import com.aiora.reservation_backend.model.Reservation;
+import com.aiora.reservation_backend.model.Reservation.ReservationStatus;
+import com.aiora.reservation_backend.model.Restaurant;
+import com.aiora.reservation_backend.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.aiora.reservation_backend.TestFixtures.deleteAll;
+import static com.aiora.reservation_backend.TestFixtures.insert;
+import static com.aiora.reservation_backend.TestFixtures.insertUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SeatLedgerTest {
+
+    private static final LocalDateTime DINNER = LocalDateTime.of(2025, 6, 1, 19, 0);
+    private static final int MAX_CAPACITY = 60;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private RestaurantCatalog restaurantCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void parallelBookingsIntoOneWindowNeverExceedCapacity() throws Exception {
+        Long userId = insertUser(jdbcTemplate, "ledger_user");
+        Long restaurantId = insertRestaurant("Rooftop");
+        int writers = 24;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int i = 0; i < writers; i++) {
+                LocalDateTime time = DINNER.plusMinutes(15L * (i % 8));
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        reservationService.createReservation(reservation(restaurantId, userId, time, 4,
+                                ReservationStatus.CONFIRMED));
+                        return true;
+                    } catch (ValidationException | ConcurrencyFailureException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+        int admitted = 0;
+        for (Future<Boolean> result : results) {
+            admitted += result.get() ? 1 : 0;
+        }
+
+        // Every booking lies within two hours of every other one, so all of them share one window
+        int booked = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(guest_count), 0) FROM reservations "
+                + "WHERE restaurant_id = ?", Integer.class, restaurantId);
+        assertEquals(4 * admitted, booked);
+        assertTrue(booked <= MAX_CAPACITY, "Booked " + booked + " of " + MAX_CAPACITY);
+        assertEquals(booked, windowSeats(restaurantId, DINNER));
+    }
+
+    @Test
+    void reactivatingACancelledReservationMustFit() {
+        Long userId = insertUser(jdbcTemplate, "reactivation_user");
+        Long restaurantId = insertRestaurant("Rooftop");
+        Reservation first = reservationService.createReservation(
+                reservation(restaurantId, userId, DINNER, 40, ReservationStatus.CONFIRMED));
+        reservationService.updateReservation(first.getReservationId(),
+                reservation(restaurantId, userId, DINNER, 40, ReservationStatus.CANCELLED));
+        reservationService.createReservation(
+                reservation(restaurantId, userId, DINNER.plusMinutes(30), 40, ReservationStatus.CONFIRMED));
+
+        // Only the status changes, but the cancelled reservation holds no seats to come back to
+        assertThrows(ValidationException.class, () -> reservationService.updateReservation(first.getReservationId(),
+                reservation(restaurantId, userId, DINNER, 40, ReservationStatus.CONFIRMED)));
+        assertEquals("CANCELLED", jdbcTemplate.queryForObject(
+                "SELECT reservation_status FROM reservations WHERE reservation_id = ?", String.class,
+                first.getReservationId()));
+        assertEquals(40, windowSeats(restaurantId, DINNER));
+
+        // It fits again once the seats are given back
+        reservationService.updateReservation(first.getReservationId(),
+                reservation(restaurantId, userId, DINNER, 20, ReservationStatus.PENDING));
+        assertEquals(60, windowSeats(restaurantId, DINNER));
+    }
+
+    @Test
+    void aGrowingPartyIsNotCountedAgainstItself() {
+        Long userId = insertUser(jdbcTemplate, "growing_user");
+        Long restaurantId = insertRestaurant("Rooftop");
+        Reservation party = reservationService.createReservation(
+                reservation(restaurantId, userId, DINNER, 40, ReservationStatus.CONFIRMED));
+
+        reservationService.updateReservation(party.getReservationId(),
+                reservation(restaurantId, userId, DINNER.plusMinutes(15), 55, ReservationStatus.CONFIRMED));
+        assertEquals(55, windowSeats(restaurantId, DINNER.plusMinutes(15)));
+        assertThrows(ValidationException.class, () -> reservationService.updateReservation(party.getReservationId(),
+                reservation(restaurantId, userId, DINNER, 61, ReservationStatus.CONFIRMED)));
+    }
+
+    private Reservation reservation(Long restaurantId, Long userId, LocalDateTime date, int guests,
+                                    ReservationStatus status) {
+        Restaurant restaurant = restaurantCatalog.require(restaurantId).toRestaurant();
+        User user = new User();
+        user.setUserId(userId);
+        Reservation reservation = new Reservation();
+        reservation.setRestaurant(restaurant);
+        reservation.setUser(user);
+        reservation.setReservationDate(date);
+        reservation.setGuestName("Guest");
+        reservation.setIsHotelGuest(false);
+        reservation.setMealDeducted(false);
+        reservation.setGuestCount(guests);
+        reservation.setReservationStatus(status);
+        return reservation;
+    }
+
+    private int windowSeats(Long restaurantId, LocalDateTime slot) {
+        return jdbcTemplate.queryForObject("SELECT window_seats FROM restaurant_slot_inventory "
+                + "WHERE restaurant_id = ? AND slot_start = ?", Integer.class, restaurantId, slot);
+    }
+
+    private Long insertRestaurant(String name) {
+        return insert(jdbcTemplate, "restaurants", "restaurant_id", Map.of(
+                "accepts_outside_guests", true, "default_capacity", 40, "location", "Roof",
+                "max_capacity", MAX_CAPACITY, "name", name, "restaurant_type", "CASUAL", "room_only", false));
+    }
+}
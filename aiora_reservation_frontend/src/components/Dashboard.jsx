@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { fetchWithAuth } from '../services/api';
+import { fetchWithAuth, subscribeToHotelEvents } from '../services/api';
 import './Dashboard.css';
 import ReservationModal from './ReservationModal';
 import SpotlightSearch from './SpotlightSearch';
@@ -24,65 +24,40 @@ const Dashboard = () => {
       try {
         setLoading(true);
         
-        // Fetch all restaurants
-        const restaurantsResponse = await fetchWithAuth('/restaurants');
-        setRestaurants(restaurantsResponse);
+        // Restaurants, today's stats and recent reservations of the whole hotel in one request
+        const dashboard = await fetchWithAuth('/dashboard?recent=10');
+        setRestaurants(dashboard.restaurants.map(summary => summary.restaurant));
         
-        // Initialize stats object
         const stats = {};
-        // Initialize allRecentReservations OUTSIDE the loop
         const allRecentReservations = [];
         
-        // Fetch reservation stats and recent reservations for each restaurant
-        for (const restaurant of restaurantsResponse) {
-          const restaurantId = restaurant.restaurantId;
-          
-          // Fetch reservation stats
-          try {
-            const statsResponse = await fetchWithAuth(`/restaurants/${restaurantId}/reservations/stats/today`);
-            stats[restaurantId] = {
-              pending: statsResponse.pendingReservations || 0,
-              confirmed: statsResponse.confirmedReservations || 0,
-              total: statsResponse.totalReservations || 0
-            };
-          } catch (err) {
-            console.error(`Failed to fetch stats for restaurant ${restaurantId}:`, err);
-            stats[restaurantId] = { pending: 0, confirmed: 0, total: 0 };
-          }
+        for (const summary of dashboard.restaurants) {
+          const restaurantId = summary.restaurant.restaurantId;
+          stats[restaurantId] = {
+            pending: summary.today.pendingReservations || 0,
+            confirmed: summary.today.confirmedReservations || 0,
+            total: summary.today.totalReservations || 0
+          };
           
-          // Get recent reservations for restaurant 2 and 3
+          // Recent reservations are shown for restaurant 2 and 3
           if (restaurantId === 2 || restaurantId === 3) {
-            try {
-              console.log(`Fetching reservations for restaurant ${restaurantId}`);
-              // Add pagination parameters to the API call
-              const recentResponse = await fetchWithAuth(`/restaurants/${restaurantId}/reservations/recent?page=${currentPage}&size=10`);
-              
-              if (recentResponse.reservations && recentResponse.reservations.length > 0) {
-                const formattedReservations = recentResponse.reservations.map(res => ({
-                  id: res.reservationId,
-                  restaurantId: res.restaurantId,
-                  restaurantName: res.restaurantName,
-                  guestName: res.guestName,
-                  date: res.reservationDate,
-                  status: res.reservationStatus,
-                  guestCount: res.guestCount,
-                  isHotelGuest: res.isHotelGuest,
-                  roomNumber: res.roomNumber
-                }));
-                
-                // Add to our collection of all reservations
-                allRecentReservations.push(...formattedReservations);
-              }
-              
-              // Store pagination metadata
-              if (recentResponse.totalPages) {
-                setTotalPages(recentResponse.totalPages);
-              }
-              if (recentResponse.currentPage !== undefined) {
-                setCurrentPage(recentResponse.currentPage);
-              }
-            } catch (err) {
-              console.error(`Failed to fetch recent reservations for restaurant ${restaurantId}:`, err);
+            const formattedReservations = summary.recentReservations.map(res => ({
+              id: res.reservationId,
+              restaurantId: res.restaurantId,
+              restaurantName: res.restaurantName,
+              guestName: res.guestName,
+              date: res.reservationDate,
+              status: res.reservationStatus,
+              guestCount: res.guestCount,
+              isHotelGuest: res.isHotelGuest,
+              roomNumber: res.roomNumber
+            }));
+            allRecentReservations.push(...formattedReservations);
+            
+            // The dashboard does not count every reservation; a full page means there may be more,
+            // and the /recent call of the next page brings the page count
+            if (summary.recentReservations.length === 10) {
+              setTotalPages(null);
             }
           }
         }
@@ -92,7 +67,6 @@ const Dashboard = () => {
           return new Date(b.date) - new Date(a.date);
         });
         
-        // At the end of the loop, set all reservations collected from both restaurants
         setRecentReservations(allRecentReservations);
         setReservationStats(stats);
         setLoading(false);
@@ -106,6 +80,36 @@ const Dashboard = () => {
     fetchDashboardData();
   }, []);
 
+  // Keep today's counts current from the hotel-wide live feed instead of polling. A burst of events
+  // is folded into one dashboard request, which counts every restaurant in one grouped query.
+  useEffect(() => {
+    let timer = null;
+    const refreshStats = () => {
+      clearTimeout(timer);
+      timer = setTimeout(async () => {
+        try {
+          const dashboard = await fetchWithAuth('/dashboard?recent=1');
+          const stats = {};
+          for (const summary of dashboard.restaurants) {
+            stats[summary.restaurant.restaurantId] = {
+              pending: summary.today.pendingReservations || 0,
+              confirmed: summary.today.confirmedReservations || 0,
+              total: summary.today.totalReservations || 0
+            };
+          }
+          setReservationStats(stats);
+        } catch (err) {
+          console.error('Failed to refresh dashboard stats:', err);
+        }
+      }, 500);
+    };
+    const unsubscribe = subscribeToHotelEvents(refreshStats);
+    return () => {
+      unsubscribe();
+      clearTimeout(timer);
+    };
+  }, []);
+
   const handleViewAll = (restaurantId, type) => {
     navigate(`/restaurants/${restaurantId}/reservations?status=${type}`);
   };
@@ -467,11 +471,11 @@ const Dashboard = () => {
               Previous
             </button>
             <span className="pagination-info">
-              Page {currentPage + 1} of {totalPages}
+              Page {currentPage + 1}{totalPages !== null && ` of ${totalPages}`}
             </span>
             <button 
               className="pagination-btn"
-              disabled={currentPage >= totalPages - 1 || totalPages <= 1}
+              disabled={totalPages !== null && currentPage >= totalPages - 1}
               onClick={() => handlePageChange(currentPage + 1)}
             >
               Next
@@ -27,6 +27,8 @@ const RestaurantDashboard = () => {
   const [modalMode, setModalMode] = useState('view');
   const [selectedReservation, setSelectedReservation] = useState(null);
   const [searchOpen, setSearchOpen] = useState(false);
+  const [tables, setTables] = useState([]);
+  const [seatings, setSeatings] = useState([]);
 
   useEffect(() => {
     fetchRestaurantData();
@@ -53,6 +55,20 @@ const RestaurantDashboard = () => {
         setReservationStats({ pending: 0, confirmed: 0, total: 0 });
       }
       
+      // Fetch the table inventory and today's seatings; restaurants without tables keep the generated grid
+      try {
+        const tablesResponse = await fetchWithAuth(`/restaurants/${restaurantId}/tables`);
+        setTables(tablesResponse || []);
+        if (tablesResponse && tablesResponse.length > 0) {
+          const seatingsResponse = await fetchWithAuth(`/restaurants/${restaurantId}/tables/seatings`);
+          setSeatings(seatingsResponse || []);
+        }
+      } catch (err) {
+        console.error(`Failed to fetch tables for restaurant ${restaurantId}:`, err);
+        setTables([]);
+        setSeatings([]);
+      }
+      
       // Fetch recent reservations
       try {
         const recentResponse = await fetchWithAuth(
@@ -136,8 +152,37 @@ const RestaurantDashboard = () => {
     // useEffect will refetch data when currentPage changes
   };
 
+  // Render the restaurant's tables with the next party seated at each today: green while it is seated, orange before
+  const renderTables = () => {
+    const now = new Date();
+    return tables.map((table) => {
+      const upcoming = seatings
+        .filter(seating => seating.tableId === table.tableId && new Date(seating.seatedUntil) > now)
+        .sort((a, b) => new Date(a.reservationDate) - new Date(b.reservationDate));
+      const next = upcoming[0];
+      const tableStatus = !next ? "available" : new Date(next.reservationDate) <= now ? "confirmed" : "pending";
+      return (
+        <div
+          key={table.tableId}
+          className={`table-item ${tableStatus}`}
+          onClick={() => handleTableClick(table.tableId)}
+        >
+          <span className="table-number">{table.label} ({table.seats})</span>
+          {next && (
+            <span className="table-guest">
+              {next.guestName} {new Date(next.reservationDate).toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' })}
+            </span>
+          )}
+        </div>
+      );
+    });
+  };
+
   // Generate table layout based on restaurant capacity and reservation stats
   const generateTables = () => {
+    if (tables.length > 0) {
+      return renderTables();
+    }
     // Always generate 60 tables for both restaurants
     const tableCount = 60;
     
@@ -116,6 +116,91 @@ export const fetchWithAuth = async (endpoint, options = {}) => {
   }
 };
 
+// Subscribe to a live reservation feed (Server-Sent Events).
+// EventSource cannot send the Authorization header, so the stream is read with fetch.
+// Calls onEvent(type, data) for "created", "updated", "deleted" and "resync" events,
+// reconnects after a short delay, and returns a function that closes the feed.
+const subscribeToFeed = (endpoint, name, onEvent) => {
+  let controller = null;
+  let closed = false;
+
+  const connect = async () => {
+    const token = localStorage.getItem('token');
+    if (!token || closed) {
+      return;
+    }
+    controller = new AbortController();
+    try {
+      const response = await fetch(`${API_BASE_URL}${endpoint}`, {
+        headers: {
+          'Authorization': `Bearer ${token}`,
+          'Accept': 'text/event-stream',
+        },
+        credentials: 'include',
+        signal: controller.signal,
+      });
+      if (!response.ok || !response.body) {
+        throw new Error(`Feed error: ${response.status}`);
+      }
+      const reader = response.body.getReader();
+      const decoder = new TextDecoder();
+      let buffer = '';
+      while (true) {
+        const { value, done } = await reader.read();
+        if (done) {
+          break;
+        }
+        buffer += decoder.decode(value, { stream: true });
+        // Events are separated by a blank line; comment lines (heartbeats) start with ':'
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+          const block = buffer.slice(0, boundary);
+          buffer = buffer.slice(boundary + 2);
+          let type = 'message';
+          const data = [];
+          for (const line of block.split('\n')) {
+            if (line.startsWith('event:')) {
+              type = line.slice(6).trim();
+            } else if (line.startsWith('data:')) {
+              data.push(line.slice(5));
+            }
+          }
+          if (data.length > 0) {
+            onEvent(type, JSON.parse(data.join('\n')));
+          }
+        }
+      }
+    } catch (error) {
+      if (closed) {
+        return;
+      }
+      console.error(`Reservation feed ${name} dropped:`, error);
+    }
+    if (!closed) {
+      // Changes may have been missed while disconnected
+      onEvent('resync', {});
+      setTimeout(connect, 5000);
+    }
+  };
+
+  connect();
+  return () => {
+    closed = true;
+    if (controller) {
+      controller.abort();
+    }
+  };
+};
+
+// The live feed of one restaurant
+export const subscribeToReservationEvents = (restaurantId, onEvent) =>
+  subscribeToFeed(`/restaurants/${restaurantId}/reservations/stream`, `for restaurant ${restaurantId}`, onEvent);
+
+// The live feed of every restaurant over one connection, for whole-hotel views; browsers allow only
+// a handful of connections per server, so a page should not open one feed per restaurant
+export const subscribeToHotelEvents = (onEvent) =>
+  subscribeToFeed('/reservations/stream', 'for the hotel', onEvent);
+
 // Mock data for development
 const mockData = {
   '/restaurants': [